@@ -0,0 +1,63 @@
+package io.snice.testing.benchmarks;
+
+import io.snice.testing.core.Session;
+import io.snice.testing.core.check.Check;
+import io.snice.testing.core.check.CheckResult;
+import io.snice.testing.core.common.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Running a list of checks against a message where every check saves its extracted value in the
+ * {@link Session}, which is the worst case since every check then produces a new {@link Session}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int checks;
+
+    private List<Check<String>> list;
+    private Session session;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<>(checks);
+        for (int i = 0; i < checks; ++i) {
+            list.add(new SaveAsCheck("key-" + i));
+        }
+        session = new Session("Benchmark");
+    }
+
+    @Benchmark
+    public Pair<Session, List<CheckResult<String, ?>>> check() {
+        return Check.check("the message", session, list);
+    }
+
+    private record SaveAsCheck(String saveAs) implements Check<String> {
+
+        @Override
+        public CheckResult<String, ?> check(final String message, final Session session) {
+            return new CheckResult<>(this, Optional.of(message), Optional.of(saveAs), Optional.empty());
+        }
+    }
+}
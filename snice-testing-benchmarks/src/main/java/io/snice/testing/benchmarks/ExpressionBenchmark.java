@@ -0,0 +1,75 @@
+package io.snice.testing.benchmarks;
+
+import io.snice.testing.core.Session;
+import io.snice.testing.core.common.Expression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and rendering of {@link Expression}s, which happens for pretty much every header, URL and
+ * form-encoded value of every message that is sent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionBenchmark {
+
+    @Param({
+            "application/json",
+            "${token}",
+            "${schema}://${env.host}:${env.port}/api/v1/users/${user}/devices/${device}"
+    })
+    public String template;
+
+    private Expression expression;
+    private Session session;
+
+    @Setup
+    public void setup() {
+        expression = Expression.of(template);
+        session = new Session("Benchmark")
+                .attributes("token", "e5a4f1b2c3")
+                .attributes("schema", "https")
+                .attributes("user", "nisse")
+                .attributes("device", "42")
+                .environment("host", "example.com")
+                .environment("port", "8443");
+    }
+
+    /**
+     * Parse the template as given, bypassing any caching.
+     */
+    @Benchmark
+    public Expression parse() {
+        return template.contains(Expression.DYNAMIC_EXPRESSION_START)
+                ? new Expression.CompoundExpression(template)
+                : new Expression.StaticExpression(template);
+    }
+
+    /**
+     * What the DSL actually does, i.e., {@link Expression#of(String)}.
+     */
+    @Benchmark
+    public Expression of() {
+        return Expression.of(template);
+    }
+
+    @Benchmark
+    public String render() {
+        return expression.apply(session);
+    }
+}
@@ -0,0 +1,70 @@
+package io.snice.testing.benchmarks;
+
+import io.snice.identity.sri.ActionResourceIdentifier;
+import io.snice.testing.http.stack.impl.AcceptorRouter;
+import io.snice.testing.http.stack.impl.HttpStackUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every incoming HTTP request is routed to the action waiting for it by extracting the SRI from the
+ * request-uri. The {@link AcceptorRouter} replaced {@link HttpStackUtils#extractSri} on that path and both
+ * are kept here for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpStackUtilsBenchmark {
+
+    private URI hit;
+    private URI miss;
+    private AcceptorRouter<String> router;
+
+    @Setup
+    public void setup() {
+        final var sri = ActionResourceIdentifier.of().asString().toLowerCase();
+        hit = URI.create("http://127.0.0.1:8080/snice/callbacks/" + sri + "/status?foo=bar");
+        miss = URI.create("http://127.0.0.1:8080/snice/callbacks/nothing/to/see/here/status?foo=bar");
+
+        router = new AcceptorRouter<>();
+        router.register(ActionResourceIdentifier.fromString(sri.toUpperCase()), "acceptor");
+        for (int i = 0; i < 10_000; ++i) {
+            router.register(ActionResourceIdentifier.of(), "other");
+        }
+    }
+
+    @Benchmark
+    public Optional<ActionResourceIdentifier> extractSri() {
+        return HttpStackUtils.extractSri(ActionResourceIdentifier.PREFIX, ActionResourceIdentifier::from, hit);
+    }
+
+    @Benchmark
+    public Optional<ActionResourceIdentifier> extractSriMiss() {
+        return HttpStackUtils.extractSri(ActionResourceIdentifier.PREFIX, ActionResourceIdentifier::from, miss);
+    }
+
+    @Benchmark
+    public String route() {
+        return router.route(hit);
+    }
+
+    @Benchmark
+    public String routeMiss() {
+        return router.route(miss);
+    }
+}
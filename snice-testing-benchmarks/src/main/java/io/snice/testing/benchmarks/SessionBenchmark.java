@@ -0,0 +1,73 @@
+package io.snice.testing.benchmarks;
+
+import io.snice.testing.core.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link Session} is immutable and "updated" by every check that saves a value, so the cost of adding
+ * an attribute to an already populated {@link Session} matters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int attributes;
+
+    private Session session;
+    private Map<String, String> environment;
+    private String existingKey;
+
+    @Setup
+    public void setup() {
+        final var values = new HashMap<String, Object>();
+        for (int i = 0; i < attributes; ++i) {
+            values.put("key-" + i, "value-" + i);
+        }
+        session = new Session("Benchmark").attributes(values);
+        existingKey = "key-" + (attributes / 2);
+
+        environment = new HashMap<>(System.getenv());
+    }
+
+    @Benchmark
+    public Session addAttribute() {
+        return session.attributes("new-key", "new-value");
+    }
+
+    @Benchmark
+    public Session replaceAttribute() {
+        return session.attributes(existingKey, "new-value");
+    }
+
+    @Benchmark
+    public Object lookupAttribute() {
+        return session.attributes(existingKey);
+    }
+
+    /**
+     * What the runtime does for every new scenario.
+     */
+    @Benchmark
+    public Session seedEnvironment() {
+        return new Session("Benchmark").environment(environment);
+    }
+}
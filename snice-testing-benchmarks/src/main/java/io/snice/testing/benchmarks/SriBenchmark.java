@@ -0,0 +1,57 @@
+package io.snice.testing.benchmarks;
+
+import io.snice.identity.sri.ActionResourceIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every scenario, session and action gets a new SRI, which is then turned into a string (e.g. as part of
+ * a URL) and parsed again when traffic comes back in.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SriBenchmark {
+
+    private ActionResourceIdentifier sri;
+    private String sriAsString;
+
+    @Setup
+    public void setup() {
+        sri = ActionResourceIdentifier.of();
+        sriAsString = sri.asString();
+    }
+
+    @Benchmark
+    public ActionResourceIdentifier create() {
+        return ActionResourceIdentifier.of();
+    }
+
+    @Benchmark
+    public String asString() {
+        return sri.asString();
+    }
+
+    @Benchmark
+    public ActionResourceIdentifier from() {
+        return ActionResourceIdentifier.from(sriAsString);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return sri.hashCode();
+    }
+}
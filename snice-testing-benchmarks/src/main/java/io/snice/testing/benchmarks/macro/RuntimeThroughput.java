@@ -0,0 +1,230 @@
+package io.snice.testing.benchmarks.macro;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.snice.testing.core.scenario.Scenario;
+import io.snice.testing.core.scenario.Simulation;
+import io.snice.testing.runtime.CliArgs;
+import io.snice.testing.runtime.Snice;
+import io.snice.testing.runtime.impl.SniceDefaultRuntime;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.snice.testing.core.CoreDsl.scenario;
+import static io.snice.testing.core.scenario.InjectionProfile.atOnceUsers;
+import static io.snice.testing.http.HttpDsl.get;
+import static io.snice.testing.http.HttpDsl.http;
+import static io.snice.testing.http.check.HttpCheckSupport.status;
+
+/**
+ * An end-to-end benchmark of the entire runtime. It starts a local, in-process, HTTP echo server and then
+ * runs N {@link Scenario}s, each consisting of M HTTP GET requests against that server, through the regular
+ * {@link Snice} runtime.
+ * <p>
+ * The size of the run is controlled through system properties:
+ * <ul>
+ *     <li><code>scenarios</code> - the number of scenarios to run (default 1000), all injected at once.</li>
+ *     <li><code>steps</code> - the number of HTTP requests per scenario (default 10).</li>
+ *     <li><code>serverThreads</code> - the number of threads of the echo server (default 4).</li>
+ * </ul>
+ * All command line arguments are passed on to the runtime as is, so you can compare different runtime
+ * configurations, e.g.:
+ *
+ * <pre>
+ * java -Dscenarios=10000 -Dsteps=5 -cp snice-testing-benchmarks/target/benchmarks.jar \
+ *      io.snice.testing.benchmarks.macro.RuntimeThroughput --action-execution pooled --workers 8
+ * </pre>
+ * <p>
+ * The latency of a step is the response time of its HTTP request, as found in the
+ * {@link io.snice.testing.core.Timings} of its {@link io.snice.testing.core.Execution}, which the runtime
+ * records in its {@link io.snice.testing.runtime.stats.LatencyStats}. Should no latency have been recorded at
+ * all, the run is considered broken and the benchmark fails.
+ * <p>
+ * The allocation rate is the sum of the bytes allocated by all threads that are still alive at the end of the
+ * run, so it is a lower bound, but since the runtime uses fixed thread pools it is a good approximation.
+ */
+public final class RuntimeThroughput {
+
+    private RuntimeThroughput() {
+        // only a main class. Note that it must not have a public no-arg constructor or Snice will
+        // try to load it as a Simulation.
+    }
+
+    public static void main(final String... args) throws Exception {
+        final var scenarios = Integer.getInteger("scenarios", 1000);
+        final var steps = Integer.getInteger("steps", 10);
+        final var serverThreads = Integer.getInteger("serverThreads", 4);
+
+        final long samples;
+        final var server = EchoServer.start(serverThreads);
+        try {
+            final var simulation = new EchoSimulation("http://127.0.0.1:" + server.port(), scenarios, steps);
+            final var runtimeConfig = CliArgs.parseArgs(args).toRuntimeConfig();
+
+            final var allocation = AllocationSampler.start();
+            final var start = System.nanoTime();
+
+            final var snice = Snice.start(runtimeConfig, Optional.empty());
+            snice.runtime().run(simulation).toCompletableFuture().get();
+            final var elapsed = System.nanoTime() - start;
+            final var allocated = allocation.allocatedSinceStart();
+
+            final var latencies = latencies(snice);
+            report(scenarios, steps, server.requests(), elapsed, allocated, latencies);
+            snice.sync();
+            samples = latencies.getTotalCount();
+        } finally {
+            server.stop();
+        }
+
+        if (samples == 0) {
+            System.err.println("No step latencies were recorded, the run is broken");
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * All the response times recorded by the runtime, across all steps.
+     */
+    private static Histogram latencies(final Snice snice) {
+        if (!(snice.runtime() instanceof SniceDefaultRuntime runtime)) {
+            throw new IllegalStateException("Expected the " + SniceDefaultRuntime.class.getSimpleName()
+                    + " but got " + snice.runtime().getClass().getName());
+        }
+
+        final var all = new Histogram(3);
+        runtime.latencies().histograms().values().forEach(all::add);
+        return all;
+    }
+
+    private static void report(final int scenarios,
+                               final int steps,
+                               final long requests,
+                               final long elapsedNanos,
+                               final long allocatedBytes,
+                               final Histogram latencies) {
+        final var seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%n");
+        System.out.printf("Scenarios            : %d x %d steps%n", scenarios, steps);
+        System.out.printf("Requests served      : %d%n", requests);
+        System.out.printf("Elapsed              : %.3f s%n", seconds);
+        System.out.printf("Scenarios/sec        : %.1f%n", scenarios / seconds);
+        System.out.printf("Actions/sec          : %.1f%n", scenarios * (long) steps / seconds);
+        System.out.printf("Step latencies       : %d samples%n", latencies.getTotalCount());
+        System.out.printf("Step latency p50     : %.1f us%n", latencies.getValueAtPercentile(50.0) / 1_000.0);
+        System.out.printf("Step latency p99     : %.1f us%n", latencies.getValueAtPercentile(99.0) / 1_000.0);
+        System.out.printf("Step latency p99.9   : %.1f us%n", latencies.getValueAtPercentile(99.9) / 1_000.0);
+        System.out.printf("Step latency max     : %.1f us%n", latencies.getMaxValue() / 1_000.0);
+        System.out.printf("Allocation rate      : %.1f MB/s%n", allocatedBytes / seconds / (1024 * 1024));
+        System.out.printf("Allocated per action : %d bytes%n", allocatedBytes / Math.max(1, scenarios * (long) steps));
+    }
+
+    private static final class EchoSimulation extends Simulation {
+
+        private EchoSimulation(final String baseUrl, final int scenarios, final int steps) {
+            var scenario = scenario("Echo");
+            for (int i = 0; i < steps; ++i) {
+                scenario = scenario.execute(get("/echo/" + i).check(status().is(200)));
+            }
+
+            setUp(scenario).protocols(http().baseUrl(baseUrl)).inject(atOnceUsers(scenarios));
+        }
+    }
+
+    private static final class AllocationSampler {
+
+        private final com.sun.management.ThreadMXBean threads;
+        private final Map<Long, Long> start;
+
+        private AllocationSampler(final com.sun.management.ThreadMXBean threads, final Map<Long, Long> start) {
+            this.threads = threads;
+            this.start = start;
+        }
+
+        static AllocationSampler start() {
+            final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return new AllocationSampler(threads, sample(threads));
+        }
+
+        long allocatedSinceStart() {
+            final var now = sample(threads);
+            var total = 0L;
+            for (final var entry : now.entrySet()) {
+                total += entry.getValue() - start.getOrDefault(entry.getKey(), 0L);
+            }
+            return total;
+        }
+
+        private static Map<Long, Long> sample(final com.sun.management.ThreadMXBean threads) {
+            final var ids = threads.getAllThreadIds();
+            final var bytes = threads.getThreadAllocatedBytes(ids);
+            final var result = new HashMap<Long, Long>();
+            for (int i = 0; i < ids.length; ++i) {
+                if (bytes[i] >= 0) {
+                    result.put(ids[i], bytes[i]);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A minimal HTTP server that responds 200 OK, echoing back the request body, to every request.
+     */
+    private static final class EchoServer {
+
+        private final HttpServer server;
+        private final ExecutorService executor;
+        private final AtomicLong requests = new AtomicLong();
+
+        private EchoServer(final HttpServer server, final ExecutorService executor) {
+            this.server = server;
+            this.executor = executor;
+        }
+
+        static EchoServer start(final int threads) throws IOException {
+            final var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+            final var executor = Executors.newFixedThreadPool(threads);
+            final var echo = new EchoServer(server, executor);
+            server.createContext("/", echo::handle);
+            server.setExecutor(executor);
+            server.start();
+            return echo;
+        }
+
+        private void handle(final HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            try (exchange) {
+                final var body = exchange.getRequestBody().readAllBytes();
+                exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+                if (body.length > 0) {
+                    exchange.getResponseBody().write(body);
+                }
+            }
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        long requests() {
+            return requests.get();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
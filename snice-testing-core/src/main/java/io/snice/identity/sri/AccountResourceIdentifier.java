@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class AccountResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "ACT";
 
-    private AccountResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private AccountResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static AccountResourceIdentifier from(final String sri) {
+    public static AccountResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, AccountResourceIdentifier::new);
     }
 
+    public static AccountResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new AccountResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static AccountResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static AccountResourceIdentifier of() {
-        return new AccountResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(AccountResourceIdentifier::new);
     }
 }
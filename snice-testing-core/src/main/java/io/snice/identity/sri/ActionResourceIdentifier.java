@@ -1,7 +1,6 @@
 package io.snice.identity.sri;
 
 import io.hektor.core.Actor;
-import io.snice.buffer.Buffer;
 
 /**
  * An {@link io.snice.testing.core.action.Action} is executed as its own FSM within an {@link Actor}
@@ -11,19 +10,23 @@ public final class ActionResourceIdentifier extends SniceResourceIdentifier.Base
 
     public static final String PREFIX = "ACN";
 
-    private ActionResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private ActionResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static ActionResourceIdentifier from(final String sri) {
+    public static ActionResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, ActionResourceIdentifier::new);
     }
 
+    public static ActionResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new ActionResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static ActionResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static ActionResourceIdentifier of() {
-        return new ActionResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(ActionResourceIdentifier::new);
     }
 }
@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class DeploymentResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "DPL";
 
-    private DeploymentResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private DeploymentResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static DeploymentResourceIdentifier from(final String sri) {
+    public static DeploymentResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, DeploymentResourceIdentifier::new);
     }
 
+    public static DeploymentResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new DeploymentResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static DeploymentResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static DeploymentResourceIdentifier of() {
-        return new DeploymentResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(DeploymentResourceIdentifier::new);
     }
 }
@@ -6,17 +6,21 @@ import static io.snice.preconditions.PreConditions.assertArgument;
 
 public final class GenericResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
-    private GenericResourceIdentifier(final String prefix, final Buffer raw) {
-        super(prefix, raw);
+    private GenericResourceIdentifier(final String prefix, final long mostSignificantBits, final long leastSignificantBits) {
+        super(prefix, mostSignificantBits, leastSignificantBits);
     }
 
     public static GenericResourceIdentifier of(final String prefix, final Buffer uuid) {
-        assertArgument(prefix != null && prefix.length() == 3, "The SRI prefix must be exactly three characters long");
-        SniceResourceIdentifier.validateRaw(uuid);
-        return new GenericResourceIdentifier(prefix, uuid);
+        assertPrefix(prefix);
+        return from(uuid, (msb, lsb) -> new GenericResourceIdentifier(prefix, msb, lsb));
     }
 
     public static GenericResourceIdentifier of(final String prefix) {
-        return of(prefix, SniceResourceIdentifier.uuid());
+        assertPrefix(prefix);
+        return random((msb, lsb) -> new GenericResourceIdentifier(prefix, msb, lsb));
+    }
+
+    private static void assertPrefix(final String prefix) {
+        assertArgument(prefix != null && prefix.length() == 3, "The SRI prefix must be exactly three characters long");
     }
 }
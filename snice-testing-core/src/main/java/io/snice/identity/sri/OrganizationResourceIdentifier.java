@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class OrganizationResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "ORG";
 
-    private OrganizationResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private OrganizationResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static OrganizationResourceIdentifier from(final String sri) {
+    public static OrganizationResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, OrganizationResourceIdentifier::new);
     }
 
+    public static OrganizationResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new OrganizationResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static OrganizationResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static OrganizationResourceIdentifier of() {
-        return new OrganizationResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(OrganizationResourceIdentifier::new);
     }
 }
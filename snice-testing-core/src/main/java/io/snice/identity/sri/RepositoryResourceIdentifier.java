@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class RepositoryResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "RPO";
 
-    private RepositoryResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private RepositoryResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static RepositoryResourceIdentifier from(final String sri) {
+    public static RepositoryResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, RepositoryResourceIdentifier::new);
     }
 
+    public static RepositoryResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new RepositoryResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static RepositoryResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static RepositoryResourceIdentifier of() {
-        return new RepositoryResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(RepositoryResourceIdentifier::new);
     }
 }
@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class ScenarioResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "SCN";
 
-    private ScenarioResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private ScenarioResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static ScenarioResourceIdentifier from(final String sri) {
+    public static ScenarioResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, ScenarioResourceIdentifier::new);
     }
 
+    public static ScenarioResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new ScenarioResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static ScenarioResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static ScenarioResourceIdentifier of() {
-        return new ScenarioResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(ScenarioResourceIdentifier::new);
     }
 }
@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class SessionResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "SES";
 
-    private SessionResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private SessionResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static SessionResourceIdentifier from(final String sri) {
+    public static SessionResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, SessionResourceIdentifier::new);
     }
 
+    public static SessionResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new SessionResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static SessionResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static SessionResourceIdentifier of() {
-        return new SessionResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(SessionResourceIdentifier::new);
     }
 }
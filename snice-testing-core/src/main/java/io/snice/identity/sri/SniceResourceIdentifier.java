@@ -3,8 +3,7 @@ package io.snice.identity.sri;
 import io.snice.buffer.Buffer;
 import io.snice.buffer.Buffers;
 
-import java.util.Objects;
-import java.util.function.Function;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static io.snice.preconditions.PreConditions.assertArgument;
 
@@ -34,13 +33,26 @@ public sealed interface SniceResourceIdentifier permits ActionResourceIdentifier
 
     /**
      * The raw SRI but without the prefix.
+     * <p>
+     * Note: the SRI is kept as two longs and this creates a new {@link Buffer} on every call. Prefer
+     * {@link #mostSignificantBits()} and {@link #leastSignificantBits()}.
      */
     Buffer raw();
 
+    /**
+     * The first 64 of the 128 bits of the SRI.
+     */
+    long mostSignificantBits();
 
-    default String asString() {
-        return prefix() + raw().toHexString(false);
-    }
+    /**
+     * The last 64 of the 128 bits of the SRI.
+     */
+    long leastSignificantBits();
+
+    /**
+     * The prefix followed by the 128 bits as {@link #LENGTH} upper case hex digits.
+     */
+    String asString();
 
     static void validateRaw(final Buffer raw) {
         final var expectedCapacity = LENGTH / 2;
@@ -58,12 +70,33 @@ public sealed interface SniceResourceIdentifier permits ActionResourceIdentifier
             DeploymentResourceIdentifier, ScenarioResourceIdentifier, SessionResourceIdentifier,
             WorkspaceResourceIdentifier {
 
+        private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
         private final String prefix;
-        private final Buffer uuid;
+        private final long msb;
+        private final long lsb;
+        private final int hash;
+
+        /**
+         * Lazily created, and then cached, by {@link #asString()}. Just like the hash of a {@link String}, this is
+         * a benign race, at worst two threads build the very same string.
+         */
+        private String string;
+
+        /**
+         * Create an SRI of a specific type out of its 128 bits.
+         */
+        @FunctionalInterface
+        protected interface Factory<T extends BaseResourceIdentifier> {
+            T create(long mostSignificantBits, long leastSignificantBits);
+        }
 
-        protected BaseResourceIdentifier(final String prefix, final Buffer uuid) {
+        protected BaseResourceIdentifier(final String prefix, final long mostSignificantBits, final long leastSignificantBits) {
             this.prefix = prefix;
-            this.uuid = uuid;
+            this.msb = mostSignificantBits;
+            this.lsb = leastSignificantBits;
+            final var bits = mostSignificantBits ^ leastSignificantBits;
+            this.hash = (int) (bits ^ (bits >>> 32));
         }
 
         @Override
@@ -71,27 +104,96 @@ public sealed interface SniceResourceIdentifier permits ActionResourceIdentifier
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             final BaseResourceIdentifier that = (BaseResourceIdentifier) o;
-            return uuid.equals(that.uuid);
+            return msb == that.msb && lsb == that.lsb;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(uuid);
+            return hash;
         }
 
-        protected static <T extends SniceResourceIdentifier> T from(final String expectedPrefix, final String raw, final Function<Buffer, T> builder) {
-            // TODO: lots of checks needs to be done.
-            if (raw == null || raw.length() != LENGTH + expectedPrefix.length()) {
-                throw new IllegalArgumentException("The SRI is not exactly " + (LENGTH + expectedPrefix.length())
+        /**
+         * Parse the given SRI, which must be the expected prefix followed by exactly {@link #LENGTH} hex digits.
+         * Nothing but the SRI itself is allocated and if the given {@link CharSequence} already is the
+         * {@link #asString()} of the SRI, it is kept as such.
+         */
+        protected static <T extends BaseResourceIdentifier> T from(final String expectedPrefix,
+                                                                   final CharSequence raw,
+                                                                   final Factory<T> builder) {
+            final var offset = expectedPrefix.length();
+            if (raw == null || raw.length() != LENGTH + offset) {
+                throw new IllegalArgumentException("The SRI is not exactly " + (LENGTH + offset)
                         + " characters long. Cannot be a proper SRI");
             }
 
-            if (raw.startsWith(expectedPrefix)) {
-                final var buffer = Buffers.wrapAsHex(raw.substring(expectedPrefix.length()));
-                return builder.apply(buffer);
+            for (int i = 0; i < offset; ++i) {
+                if (raw.charAt(i) != expectedPrefix.charAt(i)) {
+                    throw new IllegalArgumentException("The given raw string is not a valid SRI");
+                }
+            }
+
+            final var half = LENGTH / 2;
+            var high = 0L;
+            var low = 0L;
+            var upperCase = true;
+            for (int i = 0; i < half; ++i) {
+                final var h = raw.charAt(offset + i);
+                final var l = raw.charAt(offset + half + i);
+                final var hd = nibble(h);
+                final var ld = nibble(l);
+                if (hd == -1 || ld == -1) {
+                    throw new IllegalArgumentException("The given raw string is not a valid SRI");
+                }
+                upperCase &= h < 'a' && l < 'a';
+                high = high << 4 | hd;
+                low = low << 4 | ld;
+            }
+
+            final var sri = builder.create(high, low);
+            if (upperCase && raw instanceof String s) {
+                ((BaseResourceIdentifier) sri).string = s;
+            }
+            return sri;
+        }
+
+        /**
+         * Create an SRI of the given raw 16 bytes.
+         */
+        protected static <T extends BaseResourceIdentifier> T from(final Buffer raw, final Factory<T> builder) {
+            SniceResourceIdentifier.validateRaw(raw);
+            var high = 0L;
+            var low = 0L;
+            for (int i = 0; i < 8; ++i) {
+                high = high << 8 | (raw.getByte(i) & 0xFF);
+                low = low << 8 | (raw.getByte(i + 8) & 0xFF);
             }
+            return builder.create(high, low);
+        }
 
-            throw new IllegalArgumentException("The given raw string is not a valid SRI");
+        /**
+         * Create a new random SRI. The bits are laid out as a version 4 (random) UUID but, unlike
+         * {@link java.util.UUID#randomUUID()}, they come from the {@link ThreadLocalRandom}, so creating SRIs
+         * doesn't contend on a shared {@link java.security.SecureRandom} nor allocate anything but the SRI itself.
+         * SRIs identify the parts of a simulation, they are not secrets, so a non-cryptographic generator is fine.
+         */
+        protected static <T extends BaseResourceIdentifier> T random(final Factory<T> builder) {
+            final var random = ThreadLocalRandom.current();
+            final var high = (random.nextLong() & ~0xF000L) | 0x4000L;
+            final var low = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+            return builder.create(high, low);
+        }
+
+        private static int nibble(final char c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'A' && c <= 'F') {
+                return c - 'A' + 10;
+            }
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            }
+            return -1;
         }
 
         public String prefix() {
@@ -99,12 +201,45 @@ public sealed interface SniceResourceIdentifier permits ActionResourceIdentifier
         }
 
         public Buffer raw() {
-            return uuid;
+            final var bytes = new byte[LENGTH / 2];
+            for (int i = 0; i < 8; ++i) {
+                bytes[i] = (byte) (msb >>> (56 - 8 * i));
+                bytes[i + 8] = (byte) (lsb >>> (56 - 8 * i));
+            }
+            return Buffers.wrap(bytes);
+        }
+
+        public long mostSignificantBits() {
+            return msb;
+        }
+
+        public long leastSignificantBits() {
+            return lsb;
+        }
+
+        public String asString() {
+            var s = string;
+            if (s == null) {
+                s = format();
+                string = s;
+            }
+            return s;
+        }
+
+        private String format() {
+            final var offset = prefix.length();
+            final var chars = new char[offset + LENGTH];
+            prefix.getChars(0, offset, chars, 0);
+            for (int i = 0; i < LENGTH / 2; ++i) {
+                chars[offset + i] = HEX[(int) (msb >>> (60 - 4 * i)) & 0xF];
+                chars[offset + LENGTH / 2 + i] = HEX[(int) (lsb >>> (60 - 4 * i)) & 0xF];
+            }
+            return new String(chars);
         }
 
         @Override
         public String toString() {
-            return prefix() + uuid.toHexString(false);
+            return asString();
         }
 
     }
@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class UserResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "USR";
 
-    private UserResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private UserResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static UserResourceIdentifier from(final String sri) {
+    public static UserResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, UserResourceIdentifier::new);
     }
 
+    public static UserResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new UserResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static UserResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static UserResourceIdentifier of() {
-        return new UserResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(UserResourceIdentifier::new);
     }
 }
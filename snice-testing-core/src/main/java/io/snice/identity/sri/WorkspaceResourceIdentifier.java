@@ -1,24 +1,27 @@
 package io.snice.identity.sri;
 
-import io.snice.buffer.Buffer;
 
 public final class WorkspaceResourceIdentifier extends SniceResourceIdentifier.BaseResourceIdentifier implements SniceResourceIdentifier {
 
     public static final String PREFIX = "WSP";
 
-    private WorkspaceResourceIdentifier(final Buffer raw) {
-        super(PREFIX, raw);
+    private WorkspaceResourceIdentifier(final long mostSignificantBits, final long leastSignificantBits) {
+        super(PREFIX, mostSignificantBits, leastSignificantBits);
     }
 
-    public static WorkspaceResourceIdentifier from(final String sri) {
+    public static WorkspaceResourceIdentifier from(final CharSequence sri) {
         return from(PREFIX, sri, WorkspaceResourceIdentifier::new);
     }
 
+    public static WorkspaceResourceIdentifier from(final long mostSignificantBits, final long leastSignificantBits) {
+        return new WorkspaceResourceIdentifier(mostSignificantBits, leastSignificantBits);
+    }
+
     public static WorkspaceResourceIdentifier fromString(final String sri) {
         return from(sri);
     }
 
     public static WorkspaceResourceIdentifier of() {
-        return new WorkspaceResourceIdentifier(SniceResourceIdentifier.uuid());
+        return random(WorkspaceResourceIdentifier::new);
     }
 }
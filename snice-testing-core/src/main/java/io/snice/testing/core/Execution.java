@@ -4,6 +4,7 @@ import io.snice.testing.core.check.CheckResult;
 import io.snice.testing.core.scenario.Scenario;
 
 import java.util.List;
+import java.util.Optional;
 
 import static io.snice.preconditions.PreConditions.assertNotEmpty;
 
@@ -11,16 +12,34 @@ import static io.snice.preconditions.PreConditions.assertNotEmpty;
  * For every {@link Scenario} exec that is executed, the result, logs, metrics etc is all
  * saved in an {@link Execution} and propagated along the chain of executions and eventually
  * collected and processed.
+ *
+ * @param timings the {@link Timings} of the request/response exchange of the exec, if there was one.
+ * @param network the {@link NetworkStats} of the exec, if it went over the network.
  */
 public record Execution<T extends Object>(String name,
                                           boolean success,
-                                          List<CheckResult<T, ?>> checkResults) {
+                                          List<CheckResult<T, ?>> checkResults,
+                                          Optional<Timings> timings,
+                                          Optional<NetworkStats> network) {
     public Execution {
         assertNotEmpty(name);
         checkResults = checkResults == null ? List.of() : checkResults;
+        timings = timings == null ? Optional.empty() : timings;
+        network = network == null ? Optional.empty() : network;
     }
 
     public Execution(final String name, final boolean success) {
         this(name, success, List.of());
     }
+
+    public Execution(final String name, final boolean success, final List<CheckResult<T, ?>> checkResults) {
+        this(name, success, checkResults, Optional.empty());
+    }
+
+    public Execution(final String name,
+                     final boolean success,
+                     final List<CheckResult<T, ?>> checkResults,
+                     final Optional<Timings> timings) {
+        this(name, success, checkResults, timings, Optional.empty());
+    }
 }
@@ -0,0 +1,49 @@
+package io.snice.testing.core;
+
+import java.time.Duration;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * Network level statistics, as gathered by the protocol stack on behalf of an action. The stack aggregates them
+ * as the traffic flows and hands over a summary once the action completes, as part of its {@link Execution},
+ * and the statistics of a {@link io.snice.testing.core.scenario.Scenario} are simply the sum of those of its
+ * actions.
+ *
+ * @param connections      the number of new connections that were established. Re-used connections are not
+ *                         counted (and are free, as far as connecting goes).
+ * @param connectNanos     the total time, in nanoseconds, spent establishing those connections, which includes
+ *                         resolving the name of the remote host.
+ * @param connectionErrors the number of connections that could not be established.
+ * @param bytesSent        the number of bytes sent.
+ * @param bytesReceived    the number of bytes received.
+ */
+public record NetworkStats(long connections,
+                           long connectNanos,
+                           long connectionErrors,
+                           long bytesSent,
+                           long bytesReceived) {
+
+    public static final NetworkStats EMPTY = new NetworkStats(0, 0, 0, 0, 0);
+
+    public NetworkStats {
+        assertArgument(connections >= 0 && connectNanos >= 0 && connectionErrors >= 0
+                && bytesSent >= 0 && bytesReceived >= 0, "Network statistics cannot be negative");
+    }
+
+    public NetworkStats plus(final NetworkStats other) {
+        if (other == null || other == EMPTY) {
+            return this;
+        }
+
+        return new NetworkStats(connections + other.connections,
+                connectNanos + other.connectNanos,
+                connectionErrors + other.connectionErrors,
+                bytesSent + other.bytesSent,
+                bytesReceived + other.bytesReceived);
+    }
+
+    public Duration connectTime() {
+        return Duration.ofNanos(connectNanos);
+    }
+}
@@ -1,14 +1,21 @@
 package io.snice.testing.core;
 
 import io.snice.identity.sri.SessionResourceIdentifier;
+import io.snice.testing.core.common.PersistentMap;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 import static io.snice.preconditions.PreConditions.assertNotEmpty;
 import static io.snice.preconditions.PreConditions.assertNotNull;
 
+/**
+ * The {@link Session} is immutable and is "updated" over and over again during the execution of a scenario
+ * and as such, both the attributes and the environment are backed by a {@link PersistentMap}, meaning that
+ * adding a single attribute doesn't copy all the existing ones. Since every {@link Session} of a run is typically
+ * seeded with the same environment, pass in the same {@link PersistentMap} for all of them and it will be
+ * shared as is.
+ */
 public record Session(SessionResourceIdentifier uuid,
                       String name,
                       Status status,
@@ -20,12 +27,12 @@ public record Session(SessionResourceIdentifier uuid,
         assertNotNull(uuid);
         assertNotEmpty(name);
         assertNotNull(status);
-        assertNotNull(attributes);
-        assertNotNull(environment);
+        attributes = PersistentMap.copyOf(assertNotNull(attributes));
+        environment = PersistentMap.copyOf(assertNotNull(environment));
     }
 
     public Session(final String name) {
-        this(SessionResourceIdentifier.of(), name, Status.OK, Map.of(), Map.of());
+        this(SessionResourceIdentifier.of(), name, Status.OK, PersistentMap.empty(), PersistentMap.empty());
     }
 
     public boolean isFailed() {
@@ -109,32 +116,20 @@ public record Session(SessionResourceIdentifier uuid,
         return new Session(uuid, name, status, attributes, extended);
     }
 
-    public Session attributes(final String name, final Object value) {
-        return new Session(uuid, name, status, extendAttributes(name, value), environment);
+    public Session attributes(final String key, final Object value) {
+        return new Session(uuid, name, status, extendMap(attributes, key, value), environment);
     }
 
-    public Session environment(final String name, final Object value) {
-        return new Session(uuid, name, status, attributes, extendEnvironment(name, value));
+    public Session environment(final String key, final Object value) {
+        return new Session(uuid, name, status, attributes, extendMap(environment, key, value));
     }
 
-    private Map<String, Object> extendAttributes(final String name, final Object value) {
-        return extendMap(attributes, name, value);
+    private static Map<String, Object> extendMap(final Map<String, Object> map, final String key, final Object value) {
+        return PersistentMap.copyOf(map).with(key, value);
     }
 
-    private Map<String, Object> extendEnvironment(final String name, final Object value) {
-        return extendMap(environment, name, value);
-    }
-
-    private Map<String, Object> extendMap(final Map<String, Object> map, final String name, final Object value) {
-        final var newMap = new HashMap<>(map);
-        newMap.put(name, value);
-        return newMap;
-    }
-
-    private Map<String, Object> extendMap(final Map<String, Object> map, final Map<String, ? extends Object> additionalValues) {
-        final var newMap = new HashMap<>(map);
-        newMap.putAll(additionalValues);
-        return newMap;
+    private static Map<String, Object> extendMap(final Map<String, Object> map, final Map<String, ?> additionalValues) {
+        return PersistentMap.copyOf(map).withAll(additionalValues);
     }
 
     enum Status {
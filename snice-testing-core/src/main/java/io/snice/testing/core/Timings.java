@@ -0,0 +1,41 @@
+package io.snice.testing.core;
+
+import java.time.Duration;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * The timestamps of a request/response exchange, as recorded by the action that executed it. All timestamps
+ * are taken from {@link System#nanoTime()} and as such, only the differences between them are meaningful.
+ *
+ * @param sent      when the request was handed off to the underlying stack.
+ * @param firstByte when the response started to arrive. Note that if the underlying stack only hands us complete
+ *                  messages, this is when the complete message arrived.
+ * @param completed when the response had been completely processed, i.e., all checks have been evaluated.
+ */
+public record Timings(long sent, long firstByte, long completed) {
+
+    public Timings {
+        assertArgument(firstByte - sent >= 0, "The first byte cannot arrive before the request was sent");
+        assertArgument(completed - firstByte >= 0, "The response cannot be completed before it arrived");
+    }
+
+    /**
+     * The time, in nanoseconds, from the request was sent until the response started to arrive, which is what
+     * most people would consider the latency of the request.
+     */
+    public long responseTimeNanos() {
+        return firstByte - sent;
+    }
+
+    public Duration responseTime() {
+        return Duration.ofNanos(responseTimeNanos());
+    }
+
+    /**
+     * The time, in nanoseconds, from the request was sent until the response had been completely processed.
+     */
+    public long totalTimeNanos() {
+        return completed - sent;
+    }
+}
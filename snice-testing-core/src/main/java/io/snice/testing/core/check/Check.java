@@ -4,43 +4,108 @@ import io.snice.testing.core.Session;
 import io.snice.testing.core.common.Pair;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
 
 public interface Check<T> {
 
     static <T> Pair<Session, List<CheckResult<T, ?>>> check(final T message, final Session session, final List<Check<T>> checks) {
-        return checkIt(message, session, 0, checks, new ArrayList<>());
+        return check(message, session, checks, CheckPolicy.DEFAULT);
     }
 
-    private static <T> Pair<Session, List<CheckResult<T, ?>>> checkIt(final T message,
-                                                                      final Session session,
-                                                                      final int index,
-                                                                      final List<Check<T>> checks,
-                                                                      final List<CheckResult<T, ?>> results) {
+    /**
+     * Evaluate all the checks against the given message, as dictated by the {@link CheckPolicy}.
+     * <p>
+     * Every check is given the same {@link Session}, i.e., the one passed in here, and all values that
+     * the checks extract and want to save are added to the {@link Session} once all checks have been
+     * evaluated. If two checks save a value under the same name, the latter one (in the list of checks) wins.
+     *
+     * @return the resulting {@link Session}, which has been marked as failed if any of the checks failed,
+     * and the results of the checks, in the same order as the checks (but see {@link CheckPolicy#failFast()}).
+     */
+    static <T> Pair<Session, List<CheckResult<T, ?>>> check(final T message,
+                                                         final Session session,
+                                                         final List<Check<T>> checks,
+                                                         final CheckPolicy policy) {
+        assertNotNull(policy);
+        final var forked = policy.parallel() ? fork(message, session, checks) : null;
 
-        if (index == checks.size()) {
-            return new Pair(session, results);
-        }
+        final var results = new ArrayList<CheckResult<T, ?>>(checks.size());
+        Map<String, Object> saved = null;
+        var failed = false;
 
-        final CheckResult<T, ?> result = checks.get(index).check(message, session);
-        final var newSession = processCheckResult(result, session);
-        results.add(result);
+        for (int i = 0; i < checks.size(); ++i) {
+            final CheckResult<T, ?> result = forked != null && forked[i] != null
+                    ? forked[i].join()
+                    : checks.get(i).check(message, session);
+            results.add(result);
 
-        return checkIt(message, newSession, index + 1, checks, results);
+            if (result.isFailure()) {
+                failed = true;
+                if (policy.failFast()) {
+                    cancel(forked, i + 1);
+                    break;
+                }
+            } else if (result.saveAs().isPresent() && result.extractedValue().isPresent()) {
+                saved = saved == null ? new LinkedHashMap<>() : saved;
+                saved.put(result.saveAs().get(), result.extractedValue().get());
+            }
+        }
+
+        final var newSession = failed ? session.markAsFailed().attributes(saved) : session.attributes(saved);
+        return new Pair<>(newSession, results);
     }
 
-    private static Session processCheckResult(final CheckResult<?, ?> result, final Session session) {
+    /**
+     * Fork off all the expensive checks, but only if there are at least two of them. Otherwise, there is nothing
+     * to gain from evaluating them on another thread.
+     *
+     * @return the forked checks, by index, or null if nothing was forked.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ForkJoinTask<CheckResult<T, ?>>[] fork(final T message, final Session session, final List<Check<T>> checks) {
+        final var expensive = checks.stream().filter(Check::isExpensive).count();
+        if (expensive < 2) {
+            return null;
+        }
 
-        if (result.isFailure()) {
-            return session.markAsFailed();
+        final var pool = ForkJoinPool.commonPool();
+        final ForkJoinTask<CheckResult<T, ?>>[] forked = new ForkJoinTask[checks.size()];
+        for (int i = 0; i < checks.size(); ++i) {
+            final var check = checks.get(i);
+            if (check.isExpensive()) {
+                forked[i] = pool.submit(() -> check.check(message, session));
+            }
         }
+        return forked;
+    }
 
-        return result.saveAs().isPresent() && result.extractedValue().isPresent() ?
-                session.attributes(result.saveAs().get(), result.extractedValue().get()) :
-                session;
+    private static void cancel(final ForkJoinTask<?>[] forked, final int from) {
+        if (forked == null) {
+            return;
+        }
 
+        for (int i = from; i < forked.length; ++i) {
+            if (forked[i] != null) {
+                forked[i].cancel(false);
+            }
+        }
     }
 
     CheckResult<T, ?> check(T message, Session session);
 
+    /**
+     * A check that is expensive to evaluate, such as one that has to walk through the entire body of a message,
+     * may be evaluated in parallel with other expensive checks (see {@link CheckPolicy#parallel()}). Such a check
+     * must not depend on any other check.
+     */
+    default boolean isExpensive() {
+        return false;
+    }
+
 }
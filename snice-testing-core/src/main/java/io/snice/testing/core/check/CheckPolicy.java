@@ -0,0 +1,33 @@
+package io.snice.testing.core.check;
+
+import io.snice.testing.core.scenario.Simulation;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Controls how a list of {@link Check}s is evaluated against a message (see
+ * {@link Check#check(Object, io.snice.testing.core.Session, java.util.List, CheckPolicy)}) and is configured
+ * per {@link Simulation} through {@link Simulation.Planner#checkPolicy(CheckPolicy)}.
+ *
+ * @param failFast if true, evaluation stops at the first failing check. When running a load test, you typically
+ *                 only care about whether a message was ok or not, so there is no need to evaluate the rest of
+ *                 the checks once one has failed. The failed check is the last one in the list of results.
+ * @param parallel if true, checks that are {@link Check#isExpensive() expensive}, such as a hash over the
+ *                 entire body, are evaluated in parallel on the common {@link ForkJoinPool}. Only worth it
+ *                 if there are several of them and the messages are large.
+ */
+public record CheckPolicy(boolean failFast, boolean parallel) {
+
+    /**
+     * All checks are evaluated, one after the other, on the calling thread.
+     */
+    public static final CheckPolicy DEFAULT = new CheckPolicy(false, false);
+
+    public CheckPolicy withFailFast(final boolean failFast) {
+        return new CheckPolicy(failFast, parallel);
+    }
+
+    public CheckPolicy withParallel(final boolean parallel) {
+        return new CheckPolicy(failFast, parallel);
+    }
+}
@@ -7,4 +7,11 @@ import java.util.Optional;
 public interface Extractor<T, X> {
 
     Either<Throwable, Optional<X>> apply(T object);
+
+    /**
+     * See {@link Check#isExpensive()}.
+     */
+    default boolean isExpensive() {
+        return false;
+    }
 }
@@ -53,4 +53,20 @@ public interface Matcher<T> extends Validator<T> {
             return Validation.failure("Did not expect the value to be equal to " + expected + " but it was ");
         }
     }
+
+    /**
+     * Matches any value, as long as there is one, which is typically what you want when all you care about
+     * is to save the extracted value for later use.
+     */
+    final record ExistsMatcher<T>() implements Matcher<T> {
+
+        @Override
+        public Validation<Optional<T>> apply(final Optional<T> actual) {
+            if (actual.isEmpty()) {
+                return Validation.failure("Found nothing");
+            }
+
+            return Validation.success(actual);
+        }
+    }
 }
@@ -5,7 +5,6 @@ import io.snice.testing.core.scenario.ScenarioException.NoSuchAttributeException
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static io.snice.preconditions.PreConditions.assertNotEmpty;
 import static io.snice.preconditions.PreConditions.assertNotNull;
@@ -17,9 +16,17 @@ public sealed interface Expression permits Expression.CompoundExpression, Expres
     String ENVIRONMENT_EXPRESSION = "env.";
     String DYNAMIC_ENV_EXPRESSION_START = DYNAMIC_EXPRESSION_START + ENVIRONMENT_EXPRESSION;
 
+    /**
+     * Compile the given expression. Parsing is only done the first time a given expression is seen, after which
+     * the compiled version is served from a bounded cache. This is safe since all {@link Expression}s are
+     * immutable.
+     */
     static Expression of(final String expression) {
         assertNotEmpty(expression);
+        return ExpressionCache.get(expression, Expression::parse);
+    }
 
+    private static Expression parse(final String expression) {
         // for now, super simple:
         if (expression.indexOf(DYNAMIC_EXPRESSION_START) != -1) {
             return new CompoundExpression(expression);
@@ -44,50 +51,61 @@ public sealed interface Expression permits Expression.CompoundExpression, Expres
 
     String apply(Session s);
 
+    /**
+     * A compiled template, i.e., the expression has been broken up into its static and dynamic parts, which are
+     * then simply rendered one after the other into a single {@link StringBuilder}.
+     */
     final record CompoundExpression(String value, List<Expression> expressions) implements Expression {
 
-        public CompoundExpression(final String value) {
-            this(value, parseValue(0, value));
+        public CompoundExpression {
+            assertNotNull(value);
+            expressions = List.copyOf(expressions);
         }
 
-        private static List<Expression> parseValue(final int readIndex, final String value) {
-            if (readIndex == value.length()) {
-                return new ArrayList<>();
-            }
-
-            final var index = value.indexOf(DYNAMIC_EXPRESSION_START, readIndex);
-            if (index == -1) {
-                final var l = new ArrayList<Expression>();
-                l.add(new StaticExpression(value.substring(readIndex)));
-                return l;
-            }
-
-            final var endIndex = value.indexOf(DYNAMIC_EXPRESSION_STOP, index);
-            if (endIndex == -1) {
-                throw new ExpressionParseException("Missing the end of the dynamic expression", value.length());
-            }
+        public CompoundExpression(final String value) {
+            this(value, parseValue(value));
+        }
 
-            final var dynamicExpressionValue = value.substring(index, endIndex + 1);
-            final Expression dynamicExpression;
-            if (dynamicExpressionValue.toLowerCase().startsWith(DYNAMIC_ENV_EXPRESSION_START)) {
-                dynamicExpression = new EnvironmentExpression(dynamicExpressionValue);
-            } else {
-                dynamicExpression = new DynamicExpression(dynamicExpressionValue);
+        private static List<Expression> parseValue(final String value) {
+            final var expressions = new ArrayList<Expression>();
+            var readIndex = 0;
+            while (readIndex < value.length()) {
+                final var index = value.indexOf(DYNAMIC_EXPRESSION_START, readIndex);
+                if (index == -1) {
+                    expressions.add(new StaticExpression(value.substring(readIndex)));
+                    break;
+                }
+
+                final var endIndex = value.indexOf(DYNAMIC_EXPRESSION_STOP, index);
+                if (endIndex == -1) {
+                    throw new ExpressionParseException("Missing the end of the dynamic expression", value.length());
+                }
+
+                if (index > readIndex) {
+                    expressions.add(new StaticExpression(value.substring(readIndex, index)));
+                }
+
+                final var dynamicExpressionValue = value.substring(index, endIndex + 1);
+                if (dynamicExpressionValue.toLowerCase().startsWith(DYNAMIC_ENV_EXPRESSION_START)) {
+                    expressions.add(new EnvironmentExpression(dynamicExpressionValue));
+                } else {
+                    expressions.add(new DynamicExpression(dynamicExpressionValue));
+                }
+
+                readIndex = endIndex + 1;
             }
 
-
-            final var theRest = parseValue(endIndex + 1, value);
-            theRest.add(0, dynamicExpression);
-
-            if (index > readIndex) {
-                theRest.add(0, new StaticExpression(value.substring(readIndex, index)));
-            }
-            return theRest;
+            return expressions;
         }
 
         @Override
         public String apply(final Session s) {
-            return expressions.stream().map(expression -> expression.apply(s)).collect(Collectors.joining());
+            // the length of the template itself is typically a good enough guess for the rendered result.
+            final var sb = new StringBuilder(value.length() + 16);
+            for (int i = 0; i < expressions.size(); ++i) {
+                sb.append(expressions.get(i).apply(s));
+            }
+            return sb.toString();
         }
     }
 
@@ -100,8 +118,11 @@ public sealed interface Expression permits Expression.CompoundExpression, Expres
         @Override
         public String apply(final Session s) {
             assertNotNull(s);
-            return s.environment(value).map(Object::toString).orElseThrow(() -> new NoSuchAttributeException("Unable to resolve " +
-                    "the environment variable \"" + value + "\""));
+            final var resolved = s.environment().get(value);
+            if (resolved == null) {
+                throw new NoSuchAttributeException("Unable to resolve the environment variable \"" + value + "\"");
+            }
+            return resolved.toString();
         }
     }
 
@@ -114,8 +135,11 @@ public sealed interface Expression permits Expression.CompoundExpression, Expres
         @Override
         public String apply(final Session s) {
             assertNotNull(s);
-            return s.attributes(value).map(Object::toString).orElseThrow(() -> new NoSuchAttributeException("Unable to resolve key \"" +
-                    value + "\" as it is not part of the Session"));
+            final var resolved = s.attributes().get(value);
+            if (resolved == null) {
+                throw new NoSuchAttributeException("Unable to resolve key \"" + value + "\" as it is not part of the Session");
+            }
+            return resolved.toString();
         }
 
         @Override
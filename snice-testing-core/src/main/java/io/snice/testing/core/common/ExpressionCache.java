@@ -0,0 +1,40 @@
+package io.snice.testing.core.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of compiled {@link Expression}s, keyed by the raw expression.
+ * <p>
+ * The vast majority of expressions are the ones written in the scenarios themselves, which is a small and
+ * fixed set, but since expressions can also be created from values extracted at runtime we must not grow
+ * without bounds. If the cache is full, it is simply cleared, which is crude but cheap and will only ever
+ * happen if someone compiles a lot of unique expressions, in which case caching them doesn't help anyway.
+ */
+final class ExpressionCache {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private static final ConcurrentHashMap<String, Expression> cache = new ConcurrentHashMap<>();
+
+    private ExpressionCache() {
+        // static only
+    }
+
+    static Expression get(final String expression, final Function<String, Expression> parser) {
+        final var cached = cache.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+
+        return cache.computeIfAbsent(expression, parser);
+    }
+
+    static int size() {
+        return cache.size();
+    }
+}
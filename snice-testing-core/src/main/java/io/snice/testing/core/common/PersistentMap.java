@@ -0,0 +1,376 @@
+package io.snice.testing.core.common;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * An immutable, persistent, {@link Map} implemented as a hash array mapped trie (HAMT).
+ * <p>
+ * "Updating" the map through {@link #with(Object, Object)} or {@link #withAll(Map)} leaves the original map
+ * untouched and returns a new map, which shares all but the path from the root down to the updated entry
+ * with the original map. As such, an update is O(log32 n) in both time and memory as opposed to copying
+ * the entire map, which matters a great deal for e.g. the {@link io.snice.testing.core.Session}, which is
+ * "updated" over and over again during the execution of a scenario.
+ * <p>
+ * All the mutating methods of the {@link Map} interface throw {@link UnsupportedOperationException}.
+ * Keys cannot be null but values can.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * 32-bit hashes consumed 5 bits at a time gives at most 7 levels of bitmap nodes
+     * and then there may be a collision node at the very bottom.
+     */
+    private static final int MAX_DEPTH = 8;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Create a {@link PersistentMap} with all the entries of the given map. If the given map already is a
+     * {@link PersistentMap}, it is returned as is, i.e. no copying takes place.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> copyOf(final Map<? extends K, ? extends V> map) {
+        assertNotNull(map);
+        if (map instanceof PersistentMap) {
+            // safe since the map is immutable and as such, we'll only ever read from it.
+            return (PersistentMap<K, V>) map;
+        }
+
+        return PersistentMap.<K, V>empty().withAll(map);
+    }
+
+    /**
+     * @return a new {@link PersistentMap} with the given key mapped to the given value. If the key already
+     * is mapped to the very same value, this map is returned.
+     */
+    public PersistentMap<K, V> with(final K key, final V value) {
+        assertNotNull(key, "The key cannot be null");
+        final var added = new boolean[1];
+        final var newRoot = root.put(0, hash(key), key, value, added);
+        if (newRoot == root) {
+            return this;
+        }
+
+        return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return a new {@link PersistentMap} with all the entries of the given map added to this one.
+     */
+    @SuppressWarnings("unchecked")
+    public PersistentMap<K, V> withAll(final Map<? extends K, ? extends V> map) {
+        if (map == null || map.isEmpty()) {
+            return this;
+        }
+
+        if (isEmpty() && map instanceof PersistentMap) {
+            return (PersistentMap<K, V>) map;
+        }
+
+        var result = this;
+        for (final var entry : map.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        final var value = root.find(0, hash(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return key != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(final Object key) {
+        final var h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private interface Node {
+
+        /**
+         * @return the value of the key or {@link #NOT_FOUND}
+         */
+        Object find(int shift, int hash, Object key);
+
+        /**
+         * @return the new node or this node if nothing changed.
+         */
+        Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * The key/value pairs of this node, laid out as [key0, value0, key1, value1, ...]. A null key means
+         * that the "value" is a sub-node.
+         */
+        Object[] array();
+    }
+
+    private static final class BitmapNode implements Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        private BitmapNode(final int bitmap, final Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        public Object[] array() {
+            return array;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key) {
+            final var bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+
+            final var idx = index(bit) * 2;
+            final var k = array[idx];
+            final var v = array[idx + 1];
+            if (k == null) {
+                return ((Node) v).find(shift + BITS, hash, key);
+            }
+
+            return key.equals(k) ? v : NOT_FOUND;
+        }
+
+        @Override
+        public Node put(final int shift, final int hash, final Object key, final Object value, final boolean[] added) {
+            final var bit = bitpos(hash, shift);
+            final var idx = index(bit) * 2;
+
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                final var newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, idx);
+                newArray[idx] = key;
+                newArray[idx + 1] = value;
+                System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+
+            final var k = array[idx];
+            final var v = array[idx + 1];
+
+            if (k == null) {
+                final var node = ((Node) v).put(shift + BITS, hash, key, value, added);
+                return node == v ? this : replace(idx, null, node);
+            }
+
+            if (key.equals(k)) {
+                return v == value ? this : replace(idx, k, value);
+            }
+
+            added[0] = true;
+            return replace(idx, null, createNode(shift + BITS, k, v, hash, key, value));
+        }
+
+        private BitmapNode replace(final int idx, final Object key, final Object value) {
+            final var newArray = array.clone();
+            newArray[idx] = key;
+            newArray[idx + 1] = value;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        private static Node createNode(final int shift,
+                                       final Object key1, final Object value1,
+                                       final int hash2, final Object key2, final Object value2) {
+            final var hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+            }
+
+            final var added = new boolean[1];
+            return EMPTY.put(shift, hash1, key1, value1, added).put(shift, hash2, key2, value2, added);
+        }
+    }
+
+    /**
+     * Keys with the exact same hash end up in a {@link CollisionNode}, which is just a flat list.
+     */
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+        private final Object[] array;
+
+        private CollisionNode(final int hash, final Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        public Object[] array() {
+            return array;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key) {
+            if (hash != this.hash) {
+                return NOT_FOUND;
+            }
+
+            final var idx = indexOf(key);
+            return idx == -1 ? NOT_FOUND : array[idx + 1];
+        }
+
+        @Override
+        public Node put(final int shift, final int hash, final Object key, final Object value, final boolean[] added) {
+            if (hash != this.hash) {
+                // push this collision node one level down and let a bitmap node deal with the new key.
+                return new BitmapNode(bitpos(this.hash, shift), new Object[]{null, this})
+                        .put(shift, hash, key, value, added);
+            }
+
+            final var idx = indexOf(key);
+            if (idx != -1) {
+                if (array[idx + 1] == value) {
+                    return this;
+                }
+                final var newArray = array.clone();
+                newArray[idx + 1] = value;
+                return new CollisionNode(hash, newArray);
+            }
+
+            added[0] = true;
+            final var newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            return new CollisionNode(hash, newArray);
+        }
+    }
+
+    /**
+     * Depth-first iteration over the trie using an explicit stack.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+        private final Object[][] stack = new Object[MAX_DEPTH + 1][];
+        private final int[] positions = new int[MAX_DEPTH + 1];
+        private int depth;
+        private Entry<K, V> next;
+
+        private EntryIterator(final Node root) {
+            stack[0] = root.array();
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                final var array = stack[depth];
+                final var position = positions[depth];
+                if (position >= array.length) {
+                    --depth;
+                    continue;
+                }
+
+                positions[depth] += 2;
+                final var key = array[position];
+                final var value = array[position + 1];
+                if (key == null) {
+                    ++depth;
+                    stack[depth] = ((Node) value).array();
+                    positions[depth] = 0;
+                    continue;
+                }
+
+                next = new SimpleImmutableEntry<>((K) key, (V) value);
+                return;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            final var entry = next;
+            advance();
+            return entry;
+        }
+    }
+}
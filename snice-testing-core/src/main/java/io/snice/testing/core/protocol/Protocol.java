@@ -1,5 +1,6 @@
 package io.snice.testing.core.protocol;
 
+import io.snice.identity.sri.ScenarioResourceIdentifier;
 import io.snice.testing.core.Session;
 import io.snice.testing.core.scenario.Scenario;
 
@@ -47,6 +48,15 @@ public interface Protocol {
     default void stopSession(final Session session) {
     }
 
+    /**
+     * Called once a {@link Scenario} has finished, successfully or not, so that the protocol can let go of
+     * whatever it has been holding on to on behalf of that scenario, such as its connections.
+     *
+     * @param scenario the {@link ScenarioResourceIdentifier} of the {@link Scenario} that finished.
+     */
+    default void scenarioFinished(final ScenarioResourceIdentifier scenario) {
+    }
+
     static ProtocolRegistry.Key createKey(final String name, final Class<?> clazz) {
         return new ProtocolRegistry.Key() {
 
@@ -1,8 +1,7 @@
 package io.snice.testing.core.scenario;
 
-import io.hektor.core.ActorRef;
 import io.snice.identity.sri.ScenarioResourceIdentifier;
-import io.snice.networking.common.ConnectionId;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.Protocol;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 
@@ -10,14 +9,20 @@ import java.util.Optional;
 
 public class DefaultScenarioContext implements ScenarioContex, ProtocolRegistry {
 
-    private final ActorRef actor;
     private final ScenarioResourceIdentifier sri;
     private final ProtocolRegistry actualRegistry;
+    private final CheckPolicy checkPolicy;
 
-    public DefaultScenarioContext(final ActorRef actor, final ScenarioResourceIdentifier sri, final ProtocolRegistry actualRegistry) {
-        this.actor = actor;
+    public DefaultScenarioContext(final ScenarioResourceIdentifier sri, final ProtocolRegistry actualRegistry) {
+        this(sri, actualRegistry, CheckPolicy.DEFAULT);
+    }
+
+    public DefaultScenarioContext(final ScenarioResourceIdentifier sri,
+                                  final ProtocolRegistry actualRegistry,
+                                  final CheckPolicy checkPolicy) {
         this.sri = sri;
         this.actualRegistry = actualRegistry;
+        this.checkPolicy = checkPolicy;
     }
 
     @Override
@@ -31,8 +36,8 @@ public class DefaultScenarioContext implements ScenarioContex, ProtocolRegistry
     }
 
     @Override
-    public void onConnectionEvent(final ConnectionId id, final Object event) {
-        actor.tell(event);
+    public CheckPolicy checkPolicy() {
+        return checkPolicy;
     }
 
     /**
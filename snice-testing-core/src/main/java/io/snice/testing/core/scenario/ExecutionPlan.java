@@ -1,5 +1,6 @@
 package io.snice.testing.core.scenario;
 
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.Protocol;
 
 import java.util.List;
@@ -13,5 +14,33 @@ import java.util.List;
  * load a given {@link Simulation} and ask it to describe itself through an {@link ExecutionPlan}.
  * Although part of API, the {@link ExecutionPlan} is not really anything the user should care about.
  */
-public record ExecutionPlan(String name, Scenario scenario, List<Protocol> protocols, boolean strictMode) {
+public record ExecutionPlan(String name,
+                            Scenario scenario,
+                            List<Protocol> protocols,
+                            boolean strictMode,
+                            List<InjectionProfile> injection,
+                            CheckPolicy checkPolicy) {
+
+    /**
+     * If the {@link Simulation} doesn't specify how to inject new {@link Scenario}s, then
+     * the {@link Scenario} is executed exactly once.
+     */
+    public static final List<InjectionProfile> DEFAULT_INJECTION = List.of(InjectionProfile.atOnceUsers(1));
+
+    public ExecutionPlan {
+        injection = injection == null || injection.isEmpty() ? DEFAULT_INJECTION : List.copyOf(injection);
+        checkPolicy = checkPolicy == null ? CheckPolicy.DEFAULT : checkPolicy;
+    }
+
+    public ExecutionPlan(final String name,
+                         final Scenario scenario,
+                         final List<Protocol> protocols,
+                         final boolean strictMode,
+                         final List<InjectionProfile> injection) {
+        this(name, scenario, protocols, strictMode, injection, CheckPolicy.DEFAULT);
+    }
+
+    public ExecutionPlan(final String name, final Scenario scenario, final List<Protocol> protocols, final boolean strictMode) {
+        this(name, scenario, protocols, strictMode, DEFAULT_INJECTION, CheckPolicy.DEFAULT);
+    }
 }
@@ -0,0 +1,313 @@
+package io.snice.testing.core.scenario;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * An {@link InjectionProfile} describes how new instances of a {@link Scenario} are injected into the
+ * system under test over time. Most profiles are "open" models, i.e., new {@link Scenario}s are started at the
+ * requested arrival rate regardless of how many are still running. The exception is the
+ * {@link ConstantConcurrency} profile, which is a "closed" model where a fixed number of {@link Scenario}s
+ * are running at all times and a new one is started as soon as one finishes.
+ * <p>
+ * A {@link Simulation} may specify several profiles, in which case they are executed back-to-back,
+ * e.g. ramp up to 100 users/sec, hold it for 10 minutes and then ramp down again.
+ * <p>
+ * The profile itself is only a description. It is up to the runtime to actually schedule the arrivals,
+ * which it does by asking for the {@link #arrivals()}, which is the offset, in nanoseconds and relative
+ * to the start of the profile, of every new {@link Scenario} to start.
+ */
+public sealed interface InjectionProfile {
+
+    long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Start the given number of {@link Scenario}s at once.
+     */
+    static InjectionProfile atOnceUsers(final int users) {
+        return new AtOnce(users);
+    }
+
+    /**
+     * Start new {@link Scenario}s at a constant rate during the given period of time.
+     */
+    static InjectionProfile constantUsersPerSec(final double rate, final Duration during) {
+        return new ConstantRate(rate, during);
+    }
+
+    /**
+     * Linearly ramp the arrival rate from <code>from</code> to <code>to</code> users/sec
+     * during the given period of time.
+     */
+    static InjectionProfile rampUsersPerSec(final double from, final double to, final Duration during) {
+        return new Ramp(from, to, during);
+    }
+
+    /**
+     * Increase the arrival rate in steps. The first level starts at <code>startRate</code> users/sec and every
+     * following level adds <code>increment</code> users/sec. Each level lasts for <code>levelDuration</code>.
+     */
+    static InjectionProfile stepUsersPerSec(final double startRate,
+                                            final double increment,
+                                            final int levels,
+                                            final Duration levelDuration) {
+        return new Step(startRate, increment, levels, levelDuration);
+    }
+
+    /**
+     * Start new {@link Scenario}s according to a Poisson process with the given average rate,
+     * i.e., the inter-arrival times are exponentially distributed. This is usually a better approximation
+     * of real traffic than a {@link #constantUsersPerSec(double, Duration)}.
+     */
+    static InjectionProfile poissonUsersPerSec(final double rate, final Duration during) {
+        return new Poisson(rate, during);
+    }
+
+    /**
+     * Keep the given number of {@link Scenario}s running at all times during the given period of time.
+     * As soon as a {@link Scenario} finishes, a new one is started in its place. This is a "closed" model,
+     * which is what you want if you need to mimic a steady number of concurrent sessions.
+     */
+    static InjectionProfile constantConcurrentUsers(final int users, final Duration during) {
+        return new ConstantConcurrency(users, during);
+    }
+
+    /**
+     * The total length of this profile. The next profile (if any) will start after this
+     * amount of time has elapsed.
+     */
+    Duration duration();
+
+    /**
+     * The arrival times, in nanoseconds and relative to the start of this profile, of all
+     * the {@link Scenario}s that this profile will inject. The arrival times are never decreasing.
+     */
+    PrimitiveIterator.OfLong arrivals();
+
+    record AtOnce(int users) implements InjectionProfile {
+
+        public AtOnce {
+            assertArgument(users >= 0, "The number of users cannot be negative");
+        }
+
+        @Override
+        public Duration duration() {
+            return Duration.ZERO;
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivals() {
+            return new ArrivalIterator() {
+                private int count;
+
+                @Override
+                protected long computeNext() {
+                    return count++ < users ? 0 : -1;
+                }
+            };
+        }
+    }
+
+    record ConstantRate(double rate, Duration duration) implements InjectionProfile {
+
+        public ConstantRate {
+            assertRate(rate);
+            assertDuration(duration);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivals() {
+            return new ArrivalIterator() {
+                private long count;
+
+                @Override
+                protected long computeNext() {
+                    if (rate == 0) {
+                        return -1;
+                    }
+                    return withinDuration((long) (count++ * NANOS_PER_SECOND / rate), duration);
+                }
+            };
+        }
+    }
+
+    /**
+     * With a linear ramp the rate at time t is <code>r(t) = from + (to - from) * t / D</code>, which means
+     * the number of arrivals up until time t is <code>N(t) = from * t + (to - from) * t^2 / (2 * D)</code>.
+     * The k:th arrival is then found by solving <code>N(t) = k</code> for t.
+     */
+    record Ramp(double from, double to, Duration duration) implements InjectionProfile {
+
+        public Ramp {
+            assertRate(from);
+            assertRate(to);
+            assertDuration(duration);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivals() {
+            final var seconds = duration.toNanos() / (double) NANOS_PER_SECOND;
+            final var c = (to - from) / (2 * seconds);
+            return new ArrivalIterator() {
+                private long count;
+
+                @Override
+                protected long computeNext() {
+                    if (from == 0 && to == 0) {
+                        return -1;
+                    }
+
+                    final long k = count++;
+                    final double t;
+                    if (c == 0) {
+                        t = k / from;
+                    } else {
+                        t = (Math.sqrt(from * from + 4 * c * k) - from) / (2 * c);
+                    }
+
+                    if (Double.isNaN(t)) {
+                        return -1;
+                    }
+
+                    return withinDuration((long) (t * NANOS_PER_SECOND), duration);
+                }
+            };
+        }
+    }
+
+    record Step(double startRate, double increment, int levels, Duration levelDuration) implements InjectionProfile {
+
+        public Step {
+            assertRate(startRate);
+            assertArgument(levels > 0, "The number of levels must be greater than zero");
+            assertArgument(startRate + increment * (levels - 1) >= 0, "The rate of the last level cannot be negative");
+            assertDuration(levelDuration);
+        }
+
+        @Override
+        public Duration duration() {
+            return levelDuration.multipliedBy(levels);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivals() {
+            return new ArrivalIterator() {
+                private int level;
+                private PrimitiveIterator.OfLong current = new ConstantRate(startRate, levelDuration).arrivals();
+
+                @Override
+                protected long computeNext() {
+                    while (!current.hasNext()) {
+                        if (++level >= levels) {
+                            return -1;
+                        }
+                        current = new ConstantRate(startRate + increment * level, levelDuration).arrivals();
+                    }
+
+                    return level * levelDuration.toNanos() + current.nextLong();
+                }
+            };
+        }
+    }
+
+    record Poisson(double rate, Duration duration) implements InjectionProfile {
+
+        public Poisson {
+            assertRate(rate);
+            assertDuration(duration);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivals() {
+            final var random = new SplittableRandom();
+            return new ArrivalIterator() {
+                private double t;
+
+                @Override
+                protected long computeNext() {
+                    if (rate == 0) {
+                        return -1;
+                    }
+
+                    t += -Math.log(1.0 - random.nextDouble()) / rate;
+                    return withinDuration((long) (t * NANOS_PER_SECOND), duration);
+                }
+            };
+        }
+    }
+
+    /**
+     * The arrivals of the closed model are only the initial "virtual users", all of which are started
+     * at once. It is then up to the runtime to restart them as they finish, until the duration
+     * of this profile has elapsed.
+     */
+    record ConstantConcurrency(int users, Duration duration) implements InjectionProfile {
+
+        public ConstantConcurrency {
+            assertArgument(users > 0, "The number of concurrent users must be greater than zero");
+            assertDuration(duration);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivals() {
+            return new AtOnce(users).arrivals();
+        }
+    }
+
+    private static void assertRate(final double rate) {
+        assertArgument(rate >= 0 && Double.isFinite(rate), "The rate must be a positive number");
+    }
+
+    private static void assertDuration(final Duration duration) {
+        assertNotNull(duration, "The duration cannot be null");
+        assertArgument(!duration.isNegative() && !duration.isZero(), "The duration must be greater than zero");
+    }
+
+    private static long withinDuration(final long offset, final Duration duration) {
+        return offset < duration.toNanos() ? offset : -1;
+    }
+
+    /**
+     * Simple helper for iterating over arrival times where a negative value signals the end.
+     */
+    abstract class ArrivalIterator implements PrimitiveIterator.OfLong {
+
+        private long next = Long.MIN_VALUE;
+        private boolean done;
+
+        /**
+         * @return the next arrival offset, in nanoseconds, or a negative value if there are no more arrivals.
+         */
+        protected abstract long computeNext();
+
+        @Override
+        public boolean hasNext() {
+            if (done) {
+                return false;
+            }
+
+            if (next == Long.MIN_VALUE) {
+                next = computeNext();
+                done = next < 0;
+            }
+
+            return !done;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final var value = next;
+            next = Long.MIN_VALUE;
+            return value;
+        }
+    }
+}
@@ -67,6 +67,21 @@ public record Scenario(ScenarioResourceIdentifier uuid, String name, List<Action
         this.actions = actions == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(actions));
     }
 
+    /**
+     * Create a new instance of this {@link Scenario}, i.e., the exact same scenario but with a new
+     * {@link ScenarioResourceIdentifier} and new {@link ActionResourceIdentifier}s for all of its actions.
+     * <p>
+     * The runtime uses this when it injects many concurrent instances of the same {@link Scenario}
+     * since the resource identifiers are used to route e.g. incoming requests to the correct action
+     * and as such, they must be unique across all running scenarios.
+     */
+    public Scenario newInstance() {
+        final var fresh = actions.stream()
+                .map(a -> a instanceof InternalActionBuilderWrapper wrapper ? wrapper.withNewSri() : a)
+                .collect(Collectors.toList());
+        return new Scenario(ScenarioResourceIdentifier.of(), name, fresh);
+    }
+
     public Scenario execute(final Function<Session, Session> f) {
         assertNotNull(f);
         return execute(new GenericSessionActionBuilder(f));
@@ -150,6 +165,10 @@ public record Scenario(ScenarioResourceIdentifier uuid, String name, List<Action
             assertNotNull(builder);
         }
 
+        InternalActionBuilderWrapper withNewSri() {
+            return new InternalActionBuilderWrapper(ActionResourceIdentifier.of(), protocol, isAsync, isScenario, builder);
+        }
+
         /*
         InternalActionBuilderWrapper(final BiFunction<ScenarioContex, Action, Action> builder,
                                      final boolean isAsync,
@@ -1,7 +1,7 @@
 package io.snice.testing.core.scenario;
 
 import io.snice.identity.sri.ScenarioResourceIdentifier;
-import io.snice.networking.common.ConnectionId;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 
 public interface ScenarioContex {
@@ -10,5 +10,9 @@ public interface ScenarioContex {
 
     ProtocolRegistry registry();
 
-    void onConnectionEvent(ConnectionId id, Object event);
+    /**
+     * How the checks of the messages of this scenario are to be evaluated, as configured by the
+     * {@link Simulation}.
+     */
+    CheckPolicy checkPolicy();
 }
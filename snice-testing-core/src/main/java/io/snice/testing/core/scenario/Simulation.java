@@ -1,5 +1,6 @@
 package io.snice.testing.core.scenario;
 
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.Protocol;
 
 import java.util.ArrayList;
@@ -24,6 +25,8 @@ public abstract class Simulation {
     private List<Protocol> protocols;
     private Protocol.Builder[] protocolsBuilders;
     private boolean strictMode;
+    private List<InjectionProfile> injection = List.of();
+    private CheckPolicy checkPolicy = CheckPolicy.DEFAULT;
 
     protected Simulation() {
 
@@ -48,7 +51,7 @@ public abstract class Simulation {
      * @return
      */
     public ExecutionPlan plan() {
-        return new ExecutionPlan(scenario.name(), scenario, gatherProtocols(), strictMode);
+        return new ExecutionPlan(scenario.name(), scenario, gatherProtocols(), strictMode, injection, checkPolicy);
     }
 
     private List<Protocol> gatherProtocols() {
@@ -94,6 +97,21 @@ public abstract class Simulation {
          */
         Planner strictMode(boolean value);
 
+        /**
+         * Specify how new instances of the {@link Scenario} should be injected over time. The profiles
+         * are executed in order, one after the other. If no profiles are given, the {@link Scenario}
+         * is executed exactly once.
+         *
+         * See {@link InjectionProfile} for the available profiles.
+         */
+        Planner inject(InjectionProfile... profiles);
+
+        /**
+         * Specify how the checks of every message are evaluated, e.g. whether to stop at the first failing
+         * check. See {@link CheckPolicy}.
+         */
+        Planner checkPolicy(CheckPolicy policy);
+
     }
 
     private class DefaultPlanner implements Planner {
@@ -118,6 +136,19 @@ public abstract class Simulation {
             return this;
         }
 
+        @Override
+        public Planner inject(final InjectionProfile... profiles) {
+            assertArrayNotEmpty(profiles, "The array of injection profiles cannot be null or empty");
+            injection = List.of(profiles);
+            return this;
+        }
+
+        @Override
+        public Planner checkPolicy(final CheckPolicy policy) {
+            checkPolicy = assertNotNull(policy);
+            return this;
+        }
+
     }
 
 }
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.UUID;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,6 +30,51 @@ class ActionResourceIdentifierTest {
         assertThat(sri1, is(sri2));
         assertThat(sri1.hashCode(), is(sri2.hashCode()));
 
+        // same bits but different types of SRIs are not the same
+        assertThat(sri1.equals(SessionResourceIdentifier.from(sri1.mostSignificantBits(), sri1.leastSignificantBits())), is(false));
+    }
+
+    @Test
+    public void testBits() {
+        final var sri = ActionResourceIdentifier.from("ACN0123456789ABCDEFFEDCBA9876543210");
+        assertThat(sri.mostSignificantBits(), is(0x0123456789ABCDEFL));
+        assertThat(sri.leastSignificantBits(), is(0xFEDCBA9876543210L));
+        assertThat(ActionResourceIdentifier.from(sri.mostSignificantBits(), sri.leastSignificantBits()), is(sri));
+        assertThat(sri.raw().getByte(0), is((byte) 0x01));
+        assertThat(sri.raw().getByte(15), is((byte) 0x10));
+    }
+
+    /**
+     * The string form is always upper case and is cached, and if what we parsed already is the string form,
+     * that is what we keep.
+     */
+    @Test
+    public void testAsString() {
+        final var raw = "ACNDEADBEEFDEADBEEFDEADBEEFDEADBEEF";
+        assertThat(ActionResourceIdentifier.from(raw).asString() == raw, is(true));
+
+        final var lowerCase = ActionResourceIdentifier.from("ACNdeadbeefdeadbeefdeadbeefdeadbeef");
+        assertThat(lowerCase.asString(), is(raw));
+        assertThat(lowerCase.asString() == lowerCase.asString(), is(true));
+
+        final var sri = ActionResourceIdentifier.from(new StringBuilder(raw));
+        assertThat(sri.asString(), is(raw));
+        assertThat(sri, is(lowerCase));
+    }
+
+    /**
+     * The random SRIs are laid out as version 4 UUIDs.
+     */
+    @Test
+    public void testRandom() {
+        final var sri1 = ActionResourceIdentifier.of();
+        final var sri2 = ActionResourceIdentifier.of();
+        assertThat(sri1.equals(sri2), is(false));
+
+        final var uuid = new UUID(sri1.mostSignificantBits(), sri1.leastSignificantBits());
+        assertThat(uuid.version(), is(4));
+        assertThat(uuid.variant(), is(2));
+        assertThat(ActionResourceIdentifier.from(sri1.asString()), is(sri1));
     }
 
     /**
@@ -37,7 +84,8 @@ class ActionResourceIdentifierTest {
      * Note that the two DEADBEEF at the end are one character too short or one too long.
      */
     @ParameterizedTest
-    @ValueSource(strings = {"APADEADBEEF", "ACNDEADBEEF", "ACNDEADBEEFDEADBEEFDEADBEEFDEADBEE", "ACNDEADBEEFDEADBEEFDEADBEEFDEADBEEFF"})
+    @ValueSource(strings = {"APADEADBEEF", "ACNDEADBEEF", "ACNDEADBEEFDEADBEEFDEADBEEFDEADBEE", "ACNDEADBEEFDEADBEEFDEADBEEFDEADBEEFF",
+            "ACNDEADBEEFDEADBEEFDEADBEEFDEADBEEG", "acnDEADBEEFDEADBEEFDEADBEEFDEADBEEF"})
     public void testCreateBadSessionResourceIdentifier(final String input) {
         assertThrows(IllegalArgumentException.class, () -> ActionResourceIdentifier.from(input));
     }
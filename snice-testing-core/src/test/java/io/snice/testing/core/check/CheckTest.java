@@ -2,6 +2,7 @@ package io.snice.testing.core.check;
 
 import io.snice.testing.core.Session;
 import io.snice.testing.core.common.Pair;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -9,6 +10,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -92,6 +94,77 @@ class CheckTest {
         }
     }
 
+    /**
+     * When failing fast, nothing after the first failed check is evaluated, but whatever was saved before
+     * it still ends up in the session.
+     */
+    @Test
+    public void testCheckFailFast() {
+        final var checks = generateChecks(10, 3, 7);
+        final var result = Check.check("hello world", new Session("my session"), checks, CheckPolicy.DEFAULT.withFailFast(true));
+        final var session = result.left();
+
+        assertThat(result.right().size(), is(4));
+        assertThat(result.right().get(3).isFailure(), is(true));
+        assertThat(session.isFailed(), is(true));
+        ensureAttributesCorrect(session, 3);
+        assertThat(session.attributes("name-4").isPresent(), is(false));
+    }
+
+    /**
+     * The expensive checks are evaluated on other threads but the results must still be in the order
+     * of the checks and the values they saved must end up in the session.
+     */
+    @Test
+    public void testCheckParallel() {
+        // note that a forked check may very well be evaluated by the calling thread when it joins it, so
+        // all we know for sure is that the calling thread evaluated the cheap ones.
+        final var caller = Thread.currentThread();
+        final var threads = ConcurrentHashMap.<Thread>newKeySet();
+        final var checks = new ArrayList<Check<String>>();
+        for (int i = 0; i < 10; ++i) {
+            final var index = i;
+            checks.add(new Check<>() {
+                @Override
+                public CheckResult<String, ?> check(final String message, final Session session) {
+                    threads.add(Thread.currentThread());
+                    return new CheckResult<>(this, Optional.of("value-" + index), Optional.of("name-" + index), empty());
+                }
+
+                @Override
+                public boolean isExpensive() {
+                    return index % 2 == 0;
+                }
+            });
+        }
+
+        final var result = Check.check("hello world", new Session("my session"), checks, CheckPolicy.DEFAULT.withParallel(true));
+        assertThat(result.right().size(), is(10));
+        for (int i = 0; i < 10; ++i) {
+            assertThat(result.right().get(i).extractedValue(), is(Optional.of("value-" + i)));
+        }
+        ensureAttributesCorrect(result.left(), 10);
+        assertThat(result.left().isSucceeded(), is(true));
+        assertThat(threads.contains(caller), is(true));
+    }
+
+    /**
+     * The checks used to be evaluated through recursion, which would blow the stack for large lists.
+     */
+    @Test
+    public void testCheckManyChecks() {
+        final var count = 100_000;
+        final var check = new CheckResult<String, String>(null, Optional.of("value"), Optional.of("name"), empty());
+        final var checks = new ArrayList<Check<String>>(count);
+        for (int i = 0; i < count; ++i) {
+            checks.add((message, session) -> check);
+        }
+
+        final var result = Check.check("hello world", new Session("my session"), checks);
+        assertThat(result.right().size(), is(count));
+        assertThat(result.left().attributes("name"), is(Optional.of("value")));
+    }
+
     private Pair<Integer, Integer> countSuccessVsFailures(final List<CheckResult<String, ?>> checkResults) {
         final long failures = checkResults.stream().filter(CheckResult::isFailure).count();
         final long success = checkResults.size() - failures;
@@ -0,0 +1,138 @@
+package io.snice.testing.core.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PersistentMapTest {
+
+    @Test
+    public void testEmpty() {
+        final var map = PersistentMap.<String, Object>empty();
+        assertThat(map.isEmpty(), is(true));
+        assertThat(map.get("nope"), nullValue());
+        assertThat(map.containsKey("nope"), is(false));
+        assertThat(map.entrySet().iterator().hasNext(), is(false));
+        assertThat(map, is(Map.of()));
+    }
+
+    @Test
+    public void testWith() {
+        final var one = PersistentMap.<String, Object>empty().with("a", 1);
+        final var two = one.with("b", 2);
+        final var three = two.with("a", 3);
+
+        // the old versions are untouched
+        assertThat(one, is(Map.of("a", 1)));
+        assertThat(two, is(Map.of("a", 1, "b", 2)));
+        assertThat(three, is(Map.of("a", 3, "b", 2)));
+        assertThat(three.size(), is(2));
+    }
+
+    @Test
+    public void testWithSameValue() {
+        final var value = new Object();
+        final var map = PersistentMap.<String, Object>empty().with("a", value);
+        assertThat(map.with("a", value), sameInstance(map));
+    }
+
+    @Test
+    public void testNullValue() {
+        final var map = PersistentMap.<String, Object>empty().with("a", null);
+        assertThat(map.containsKey("a"), is(true));
+        assertThat(map.get("a"), nullValue());
+        assertThat(map.size(), is(1));
+    }
+
+    @Test
+    public void testNullKey() {
+        assertThrows(IllegalArgumentException.class, () -> PersistentMap.empty().with(null, "a"));
+    }
+
+    @Test
+    public void testImmutable() {
+        final var map = PersistentMap.<String, Object>empty().with("a", 1);
+        assertThrows(UnsupportedOperationException.class, () -> map.put("b", 2));
+        assertThrows(UnsupportedOperationException.class, () -> map.remove("a"));
+        assertThrows(UnsupportedOperationException.class, map::clear);
+    }
+
+    /**
+     * "Aa" and "BB" have the same hash code, as do all combinations of them, so these will all end up
+     * in the same collision node.
+     */
+    @Test
+    public void testCollisions() {
+        final var keys = new String[]{"AaAa", "AaBB", "BBAa", "BBBB"};
+        var map = PersistentMap.<String, Object>empty().with("other", 0);
+        for (int i = 0; i < keys.length; ++i) {
+            map = map.with(keys[i], i);
+        }
+
+        assertThat(map.size(), is(5));
+        for (int i = 0; i < keys.length; ++i) {
+            assertThat(map.get(keys[i]), is(i));
+        }
+
+        final var updated = map.with("BBAa", 42);
+        assertThat(updated.get("BBAa"), is(42));
+        assertThat(map.get("BBAa"), is(2));
+        assertThat(updated.size(), is(5));
+        assertThat(updated.containsKey("AaAaAa"), is(false));
+    }
+
+    /**
+     * Compare against a regular {@link HashMap} for a large number of random keys, which will exercise
+     * all levels of the trie.
+     */
+    @Test
+    public void testAgainstHashMap() {
+        final var random = new Random(1234);
+        final var expected = new HashMap<Integer, Integer>();
+        var map = PersistentMap.<Integer, Integer>empty();
+        for (int i = 0; i < 50_000; ++i) {
+            final var key = random.nextInt(20_000) - 10_000;
+            expected.put(key, i);
+            map = map.with(key, i);
+        }
+
+        assertThat(map.size(), is(expected.size()));
+        assertThat(map, is(expected));
+        assertThat(expected, is(map));
+        assertThat(map.hashCode(), is(expected.hashCode()));
+
+        final var seen = new HashSet<Integer>();
+        map.forEach((key, value) -> assertThat(seen.add(key), is(true)));
+        assertThat(seen, is(expected.keySet()));
+    }
+
+    @Test
+    public void testCopyOf() {
+        final var source = Map.of("a", "1", "b", "2");
+        final var copy = PersistentMap.copyOf(source);
+        assertThat(copy, is(source));
+
+        // copying a persistent map again is a no-op
+        assertThat(PersistentMap.copyOf(copy), sameInstance(copy));
+    }
+
+    @Test
+    public void testWithAllSharesStructure() {
+        final var environment = PersistentMap.copyOf(Map.of("HOME", "/home/snice"));
+        assertThat(PersistentMap.<String, String>empty().withAll(environment), sameInstance(environment));
+        assertThat(environment.withAll(Map.of()), sameInstance(environment));
+
+        final var extended = environment.withAll(Map.of("USER", "snice"));
+        assertThat(extended, is(Map.of("HOME", "/home/snice", "USER", "snice")));
+        assertThat(environment.size(), is(1));
+    }
+}
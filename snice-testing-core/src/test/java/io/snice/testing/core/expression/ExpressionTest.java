@@ -2,12 +2,16 @@ package io.snice.testing.core.expression;
 
 import io.snice.testing.core.Session;
 import io.snice.testing.core.common.Expression;
+import io.snice.testing.core.common.ExpressionParseException;
+import io.snice.testing.core.scenario.ScenarioException.NoSuchAttributeException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(MockitoExtension.class)
 class ExpressionTest {
@@ -51,6 +55,31 @@ class ExpressionTest {
         assertExpression("${schema}://${env.host}:${env.port}/${env.root}/users", "https://example.com:2345/api/v1/users", session);
     }
 
+    @Test
+    public void testExpressionIsCached() {
+        final var expression = Expression.of("http://example.com/${env.nisse}/${foo}");
+        assertThat(Expression.of("http://example.com/${env.nisse}/${foo}"), sameInstance(expression));
+    }
+
+    @Test
+    public void testCompoundExpressionParts() {
+        final var expression = (Expression.CompoundExpression) Expression.of("a${b}c${env.d}");
+        assertThat(expression.expressions().size(), is(4));
+        assertThat(expression.expressions().get(0).isStatic(), is(true));
+        assertThat(expression.expressions().get(1).isDynamic(), is(true));
+    }
+
+    @Test
+    public void testUnresolvedExpression() {
+        assertThrows(NoSuchAttributeException.class, () -> Expression.of("${nope}").apply(new Session("Unit Test")));
+        assertThrows(NoSuchAttributeException.class, () -> Expression.of("${env.nope}").apply(new Session("Unit Test")));
+    }
+
+    @Test
+    public void testBadExpression() {
+        assertThrows(ExpressionParseException.class, () -> Expression.of("hello ${world"));
+    }
+
     private static void assertExpression(final String expression, final String expected) {
         assertExpression(expression, expected, new Session("Unit Test"));
     }
@@ -0,0 +1,135 @@
+package io.snice.testing.core.scenario;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.snice.testing.core.scenario.InjectionProfile.NANOS_PER_SECOND;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InjectionProfileTest {
+
+    @Test
+    public void testAtOnce() {
+        final var arrivals = arrivals(InjectionProfile.atOnceUsers(5));
+        assertThat(arrivals, is(List.of(0L, 0L, 0L, 0L, 0L)));
+        assertThat(arrivals(InjectionProfile.atOnceUsers(0)).isEmpty(), is(true));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "10, 1, 10",
+            "10, 5, 50",
+            "0.5, 10, 5",
+            "3, 1, 3",
+            "0, 10, 0"
+    })
+    public void testConstantRate(final double rate, final int seconds, final int expected) {
+        final var arrivals = arrivals(InjectionProfile.constantUsersPerSec(rate, Duration.ofSeconds(seconds)));
+        assertThat(arrivals.size(), is(expected));
+        assertWithin(arrivals, Duration.ofSeconds(seconds));
+
+        if (expected > 1) {
+            final var interval = (long) (NANOS_PER_SECOND / rate);
+            assertThat(arrivals.get(1) - arrivals.get(0), is(interval));
+        }
+    }
+
+    /**
+     * The number of arrivals of a linear ramp is the area under the curve, i.e., (from + to) / 2 * duration.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "0, 10, 10, 50",
+            "10, 0, 10, 50",
+            "10, 10, 10, 100",
+            "10, 20, 4, 60"
+    })
+    public void testRamp(final double from, final double to, final int seconds, final int expected) {
+        final var arrivals = arrivals(InjectionProfile.rampUsersPerSec(from, to, Duration.ofSeconds(seconds)));
+        assertThat((double) arrivals.size(), closeTo(expected, 1.0));
+        assertWithin(arrivals, Duration.ofSeconds(seconds));
+    }
+
+    @Test
+    public void testRampIncreasesRate() {
+        final var arrivals = arrivals(InjectionProfile.rampUsersPerSec(1, 100, Duration.ofSeconds(10)));
+        final var first = arrivals.get(1) - arrivals.get(0);
+        final var last = arrivals.get(arrivals.size() - 1) - arrivals.get(arrivals.size() - 2);
+        assertThat(first > last, is(true));
+    }
+
+    @Test
+    public void testStep() {
+        final var profile = InjectionProfile.stepUsersPerSec(10, 10, 3, Duration.ofSeconds(2));
+        assertThat(profile.duration(), is(Duration.ofSeconds(6)));
+
+        final var arrivals = arrivals(profile);
+        assertThat(arrivals.size(), is(20 + 40 + 60));
+        assertWithin(arrivals, Duration.ofSeconds(6));
+
+        // first arrival of every level is at the start of that level
+        assertThat(arrivals.get(0), is(0L));
+        assertThat(arrivals.get(20), is(2 * NANOS_PER_SECOND));
+        assertThat(arrivals.get(60), is(4 * NANOS_PER_SECOND));
+    }
+
+    @Test
+    public void testPoisson() {
+        final var arrivals = arrivals(InjectionProfile.poissonUsersPerSec(1000, Duration.ofSeconds(10)));
+
+        // with 10,000 expected arrivals the standard deviation is 100 so this should
+        // essentially never fail.
+        assertThat(arrivals.size(), greaterThanOrEqualTo(9_000));
+        assertThat(arrivals.size(), lessThan(11_000));
+        assertWithin(arrivals, Duration.ofSeconds(10));
+    }
+
+    /**
+     * The closed model only starts the initial users, all at once, and the runtime is then
+     * responsible for restarting them.
+     */
+    @Test
+    public void testConstantConcurrency() {
+        final var profile = InjectionProfile.constantConcurrentUsers(3, Duration.ofMinutes(1));
+        assertThat(profile.duration(), is(Duration.ofMinutes(1)));
+        assertThat(arrivals(profile), is(List.of(0L, 0L, 0L)));
+    }
+
+    @Test
+    public void testBadProfiles() {
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.atOnceUsers(-1));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.constantUsersPerSec(-1, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.constantUsersPerSec(1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.constantUsersPerSec(1, null));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.rampUsersPerSec(1, Double.NaN, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.stepUsersPerSec(1, 1, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.stepUsersPerSec(10, -10, 3, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.poissonUsersPerSec(Double.POSITIVE_INFINITY, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> InjectionProfile.constantConcurrentUsers(0, Duration.ofSeconds(1)));
+    }
+
+    private static void assertWithin(final List<Long> arrivals, final Duration duration) {
+        var previous = 0L;
+        for (final var arrival : arrivals) {
+            assertThat(arrival, greaterThanOrEqualTo(previous));
+            assertThat(arrival, lessThan(duration.toNanos()));
+            previous = arrival;
+        }
+    }
+
+    private static List<Long> arrivals(final InjectionProfile profile) {
+        final var result = new ArrayList<Long>();
+        profile.arrivals().forEachRemaining((long l) -> result.add(l));
+        return result;
+    }
+}
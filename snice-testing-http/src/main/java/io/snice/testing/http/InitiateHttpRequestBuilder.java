@@ -5,6 +5,8 @@ import io.snice.testing.core.MessageBuilder;
 import io.snice.testing.core.check.Check;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 import io.snice.testing.http.protocol.HttpProtocol;
+import io.snice.testing.http.stack.ConnectionScope;
+import io.snice.testing.http.stack.HttpStackUserConfig;
 
 import java.util.Map;
 
@@ -88,6 +90,26 @@ public interface InitiateHttpRequestBuilder extends MessageBuilder {
 
     InitiateHttpRequestBuilder check(Check<HttpResponse> check);
 
+    /**
+     * Configure how the underlying {@link io.snice.testing.http.stack.HttpStack} should treat this request,
+     * such as with whom the connection may be shared (see {@link ConnectionScope}).
+     *
+     * @param config the configuration to use for this request.
+     * @return
+     */
+    InitiateHttpRequestBuilder config(HttpStackUserConfig config);
+
+    /**
+     * Convenience method for only changing the {@link ConnectionScope} of this request.
+     */
+    InitiateHttpRequestBuilder connectionScope(ConnectionScope scope);
+
+    /**
+     * Convenience method for only changing the HTTP/1.1 pipelining depth of this request.
+     * See {@link HttpStackUserConfig#pipeliningDepth()}.
+     */
+    InitiateHttpRequestBuilder pipelining(int depth);
+
     /**
      * Build a {@link InitiateHttpRequestDef}. You can call this method several times
      * and we will keep building new instances of {@link InitiateHttpRequestDef}. Of course, since
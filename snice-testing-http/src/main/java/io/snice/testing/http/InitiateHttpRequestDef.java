@@ -9,6 +9,7 @@ import io.snice.testing.core.check.Check;
 import io.snice.testing.core.common.Expression;
 import io.snice.testing.http.action.InitiateHttpRequestActionBuilder;
 import io.snice.testing.http.protocol.HttpProtocol;
+import io.snice.testing.http.stack.ConnectionScope;
 import io.snice.testing.http.stack.HttpStackUserConfig;
 
 import java.net.MalformedURLException;
@@ -227,6 +228,28 @@ public record InitiateHttpRequestDef(String requestName,
             return extendChecks(check);
         }
 
+        @Override
+        public InitiateHttpRequestBuilder config(final HttpStackUserConfig config) {
+            assertNotNull(config);
+            return extend(STACK_USER_CONFIG_KEY, config);
+        }
+
+        @Override
+        public InitiateHttpRequestBuilder connectionScope(final ConnectionScope scope) {
+            assertNotNull(scope);
+            return config(stackUserConfig().withConnectionScope(scope));
+        }
+
+        @Override
+        public InitiateHttpRequestBuilder pipelining(final int depth) {
+            return config(stackUserConfig().withPipeliningDepth(depth));
+        }
+
+        private HttpStackUserConfig stackUserConfig() {
+            final var config = (HttpStackUserConfig) values.get(STACK_USER_CONFIG_KEY);
+            return config != null ? config : new HttpStackUserConfig();
+        }
+
         @Override
         public InitiateHttpRequestDef build() {
             final var requestName = (String) values.get(REQUEST_NAME_KEY);
@@ -240,8 +263,7 @@ public record InitiateHttpRequestDef(String requestName,
 
             assertNotNull(method, "You must specify the method of the request");
 
-            // TODO
-            final var config = new HttpStackUserConfig();
+            final var config = stackUserConfig();
             return new InitiateHttpRequestDef(requestName, method, auth, checks, Optional.ofNullable(baseUrl),
                     Optional.ofNullable(target), headers, content, config);
         }
@@ -4,6 +4,7 @@ import io.snice.identity.sri.ActionResourceIdentifier;
 import io.snice.testing.core.Execution;
 import io.snice.testing.core.Session;
 import io.snice.testing.core.action.Action;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 import io.snice.testing.http.AcceptHttpRequestDef;
 import io.snice.testing.http.protocol.HttpProtocol;
@@ -20,8 +21,18 @@ public record AcceptHttpRequestAction(String name,
                                       HttpStack stack,
                                       AcceptHttpRequestDef def,
                                       Map<String, Object> attributes,
+                                      CheckPolicy checkPolicy,
                                       Action next) implements Action {
 
+    public AcceptHttpRequestAction(final String name,
+                                   final ActionResourceIdentifier sri,
+                                   final HttpStack stack,
+                                   final AcceptHttpRequestDef def,
+                                   final Map<String, Object> attributes,
+                                   final Action next) {
+        this(name, sri, stack, def, attributes, CheckPolicy.DEFAULT, next);
+    }
+
     @Override
     public Optional<ProtocolRegistry.Key> protocol() {
         return Optional.of(HttpProtocol.httpProtocolKey);
@@ -29,12 +40,22 @@ public record AcceptHttpRequestAction(String name,
 
     @Override
     public void execute(final List<Execution> executions, final Session session) {
-        final var requestProcessor = new RequestProcessor(name, def, session, executions, next);
-        stack.newHttpAcceptor(Duration.ofSeconds(10))
+        final var requestProcessor = new RequestProcessor(name, def, checkPolicy, session, executions, next);
+        final var builder = stack.newHttpAcceptor(Duration.ofSeconds(10))
                 .onRequest(requestProcessor::onRequest)
                 .onTimeout(requestProcessor::onTimeout)
-                .onAcceptorTerminated(requestProcessor::onTermination)
-                .start();
+                .onAcceptorTerminated(requestProcessor::onTermination);
+
+        // if the user specified a path, other than the root, we'll also route requests based on it.
+        final var path = def.path();
+        if (path != null && path.isStatic()) {
+            final var prefix = path.apply(session);
+            if (prefix.startsWith("/") && prefix.length() > 1) {
+                builder.pathPrefix(prefix);
+            }
+        }
+
+        builder.start();
     }
 
 
@@ -6,6 +6,7 @@ import io.snice.identity.sri.ActionResourceIdentifier;
 import io.snice.testing.core.Execution;
 import io.snice.testing.core.Session;
 import io.snice.testing.core.action.Action;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.common.ListOperations;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 import io.snice.testing.http.Content;
@@ -24,8 +25,18 @@ public record InitiateHttpRequestAction(String name,
                                         HttpProtocol http,
                                         HttpStack stack,
                                         InitiateHttpRequestDef httpDef,
+                                        CheckPolicy checkPolicy,
                                         Action next) implements Action {
 
+    public InitiateHttpRequestAction(final String name,
+                                     final ActionResourceIdentifier sri,
+                                     final HttpProtocol http,
+                                     final HttpStack stack,
+                                     final InitiateHttpRequestDef httpDef,
+                                     final Action next) {
+        this(name, sri, http, stack, httpDef, CheckPolicy.DEFAULT, next);
+    }
+
     @Override
     public Optional<ProtocolRegistry.Key> protocol() {
         return Optional.of(HttpProtocol.httpProtocolKey);
@@ -39,8 +50,9 @@ public record InitiateHttpRequestAction(String name,
             if (newSession.isSucceeded()) {
                 final var request = map(session, httpDef, uriMaybe.get());
                 final var transaction = stack.newTransaction(request);
-                final var processor = new ResponseProcessor(name, request, httpDef.checks(), session, executions, next);
+                final var processor = new ResponseProcessor(name, request, System.nanoTime(), stack::networkStats, httpDef.checks(), checkPolicy, session, executions, next);
                 transaction.onResponse(processor::process);
+                transaction.onFailure(processor::fail);
                 transaction.start();
             } else {
                 // TODO: perhaps say something more about the failure here? After all, it failed because
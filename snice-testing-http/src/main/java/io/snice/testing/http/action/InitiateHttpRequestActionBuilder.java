@@ -27,7 +27,7 @@ public record InitiateHttpRequestActionBuilder(InitiateHttpRequestBuilder builde
     public Action build(final ActionResourceIdentifier sri, final ScenarioContex ctx, final Action next) {
         final var protocol = (HttpProtocol) ctx.registry().protocol(HttpProtocol.httpProtocolKey).orElseThrow(() -> new IllegalArgumentException("HTTP Protocol has not been configured"));
         final var def = builder.build();
-        final var stack = protocol.newStack(ctx.scenarioSri(), sri, ctx::onConnectionEvent, def.config());
-        return new InitiateHttpRequestAction(def.requestName(), sri, protocol, stack, def, next);
+        final var stack = protocol.newStack(ctx.scenarioSri(), sri, def.config());
+        return new InitiateHttpRequestAction(def.requestName(), sri, protocol, stack, def, ctx.checkPolicy(), next);
     }
 }
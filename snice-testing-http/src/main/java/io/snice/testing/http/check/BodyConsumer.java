@@ -0,0 +1,41 @@
+package io.snice.testing.http.check;
+
+import java.util.Optional;
+
+/**
+ * Consumes the body of an HTTP message one chunk at a time, as opposed to being handed the entire body at once,
+ * and computes a single value from it, such as the size of the body or a hash over it.
+ * <p>
+ * A {@link BodyConsumer} is stateful and only ever used for a single message. As such, a new instance is
+ * needed for every message (see {@link BodyExtractor}).
+ *
+ * @param <X> the type of value computed from the body.
+ */
+public interface BodyConsumer<X> {
+
+    /**
+     * Consume the next chunk of the body. Note that the array may be the one backing the body itself, or be
+     * re-used between chunks, so it must never be modified and if the consumer needs to hang on to any of the
+     * bytes, it must copy them.
+     */
+    void accept(byte[] chunk, int offset, int length);
+
+    /**
+     * A consumer that has already computed its value, and doesn't care about the rest of the body, may say so
+     * and will then not be given any more chunks. Once all consumers of a body are done, the remainder
+     * of the body isn't even looked at.
+     *
+     * @return true if this consumer doesn't need any more of the body.
+     */
+    default boolean isDone() {
+        return false;
+    }
+
+    /**
+     * Called once the entire body has been consumed. For messages without a body, this is called without
+     * {@link #accept(byte[], int, int)} ever having been called.
+     *
+     * @return the computed value, or an empty optional if there is nothing to be extracted from this body.
+     */
+    Optional<X> complete();
+}
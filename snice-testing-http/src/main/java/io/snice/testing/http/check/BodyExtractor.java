@@ -0,0 +1,121 @@
+package io.snice.testing.http.check;
+
+import io.snice.buffer.Buffer;
+import io.snice.codecs.codec.http.HttpMessage;
+import io.snice.functional.Either;
+import io.snice.testing.core.check.Extractor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Extracts a value from the body of an HTTP message through a {@link BodyConsumer}.
+ * <p>
+ * When an {@link HttpMessageCheck} based on a {@link BodyExtractor} is used on its own, the body is simply fed
+ * to a new {@link BodyConsumer}, but when there are several of them, such as when processing the checks of a
+ * response, all their consumers should be fed at once through {@link #stream(Buffer, List)} so that the body is
+ * only walked once.
+ *
+ * @param consumers the factory for a new {@link BodyConsumer} for every message.
+ */
+public record BodyExtractor<T extends HttpMessage, X>(Supplier<BodyConsumer<X>> consumers) implements Extractor<T, X> {
+
+    /**
+     * The size of the chunks the body is fed to the consumers in.
+     */
+    public static final int CHUNK_SIZE = 8192;
+
+    public BodyExtractor {
+        assertNotNull(consumers);
+    }
+
+    @Override
+    public Either<Throwable, Optional<X>> apply(final T message) {
+        final var consumer = newConsumer();
+        try {
+            stream(message.content().orElse(null), List.of(consumer));
+            return Either.right(consumer.complete());
+        } catch (final Throwable t) {
+            return Either.left(t);
+        }
+    }
+
+    /**
+     * The entire body has to be walked through, which is what makes a body check expensive.
+     */
+    @Override
+    public boolean isExpensive() {
+        return true;
+    }
+
+    public BodyConsumer<X> newConsumer() {
+        return assertNotNull(consumers.get(), "The body consumer factory returned null");
+    }
+
+    /**
+     * Feed the given body, chunk by chunk, to all the given consumers. Consumers that are
+     * {@link BodyConsumer#isDone() done} are skipped and once all of them are, the rest of the body is left
+     * untouched. Note that this does not call {@link BodyConsumer#complete()}.
+     * <p>
+     * The body is not copied. It is written out, in bulk, to a {@link ChunkStream}, which hands the consumers
+     * windows of at most {@link #CHUNK_SIZE} bytes over the array the body was written from.
+     *
+     * @param body the body, or null if there is none.
+     */
+    public static void stream(final Buffer body, final List<? extends BodyConsumer<?>> consumers) {
+        if (body == null || consumers.isEmpty()) {
+            return;
+        }
+
+        try {
+            body.writeTo(new ChunkStream(consumers));
+        } catch (final IOException e) {
+            // we're not doing any actual I/O so this cannot happen
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Splits whatever is written to it into chunks of at most {@link #CHUNK_SIZE} bytes and feeds them to the
+     * consumers, without copying, until all of them are done.
+     */
+    private static final class ChunkStream extends OutputStream {
+
+        private final List<? extends BodyConsumer<?>> consumers;
+        private final byte[] single = new byte[1];
+        private boolean done;
+
+        private ChunkStream(final List<? extends BodyConsumer<?>> consumers) {
+            this.consumers = consumers;
+        }
+
+        @Override
+        public void write(final int b) {
+            single[0] = (byte) b;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            final var end = offset + length;
+            for (int chunk = offset; chunk < end && !done; chunk += CHUNK_SIZE) {
+                final var size = Math.min(CHUNK_SIZE, end - chunk);
+                var all = true;
+                for (int i = 0; i < consumers.size(); ++i) {
+                    final var consumer = consumers.get(i);
+                    if (!consumer.isDone()) {
+                        consumer.accept(bytes, chunk, size);
+                        all &= consumer.isDone();
+                    }
+                }
+                done = all;
+            }
+        }
+    }
+}
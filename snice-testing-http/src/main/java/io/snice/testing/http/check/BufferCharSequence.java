@@ -0,0 +1,73 @@
+package io.snice.testing.http.check;
+
+import io.snice.buffer.Buffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A re-usable {@link CharSequence} view of a {@link Buffer}, allowing a regular expression to be matched
+ * directly against the bytes of e.g. a body without first decoding it into a {@link String}.
+ * <p>
+ * Every ASCII byte is viewed as the corresponding character, so any ASCII pattern matches as expected against
+ * UTF-8 encoded content. Every other byte is viewed as a character in the private use area, since e.g. the UTF-8
+ * continuation byte <code>0x85</code> would otherwise be taken for a line terminator (NEL). As such, a pattern
+ * containing non-ASCII characters will not match. Whatever is extracted, on the other hand, is decoded as UTF-8.
+ * <p>
+ * Note that the view is mutable and not thread safe. It is meant to be kept around, one per thread, and
+ * pointed to the next buffer through {@link #wrap(Buffer)}.
+ */
+final class BufferCharSequence implements CharSequence {
+
+    private static final int NON_ASCII = 0xF700;
+
+    private Buffer buffer;
+    private int offset;
+    private int length;
+
+    BufferCharSequence wrap(final Buffer buffer) {
+        return wrap(buffer, 0, buffer == null ? 0 : buffer.capacity());
+    }
+
+    BufferCharSequence wrap(final Buffer buffer, final int offset, final int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        final var b = buffer.getByte(offset + index);
+        return b >= 0 ? (char) b : (char) (NON_ASCII | (b & 0xFF));
+    }
+
+    /**
+     * Only ever called for the part of the buffer that is actually extracted, so this one returns a
+     * {@link String}, decoded as UTF-8, as opposed to yet another view.
+     */
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+
+        final var bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = buffer.getByte(offset + start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+}
@@ -34,5 +34,12 @@ public class HttpCheckBuilder<T extends HttpMessage, X> {
         return new HttpMessageCheck<T, X>(extractor, matcher, Optional.empty());
     }
 
+    /**
+     * Only check that there is a value, whatever it is. Mainly useful in combination with
+     * {@link HttpMessageCheck#saveAs(String)}.
+     */
+    public HttpMessageCheck<T, X> exists() {
+        return new HttpMessageCheck<T, X>(extractor, new Matcher.ExistsMatcher<>(), Optional.empty());
+    }
 
 }
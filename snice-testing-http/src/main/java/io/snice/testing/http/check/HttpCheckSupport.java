@@ -1,14 +1,21 @@
 package io.snice.testing.http.check;
 
+import io.snice.buffer.Buffer;
 import io.snice.codecs.codec.http.HttpHeader;
+import io.snice.codecs.codec.http.HttpMessage;
 import io.snice.codecs.codec.http.HttpRequest;
 import io.snice.codecs.codec.http.HttpResponse;
 import io.snice.functional.Either;
 import io.snice.testing.core.check.Extractor;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static io.snice.preconditions.PreConditions.assertNotEmpty;
+import static io.snice.preconditions.PreConditions.assertNotNull;
 
 public class HttpCheckSupport {
 
@@ -21,6 +28,185 @@ public class HttpCheckSupport {
         return HttpCheckBuilder.of(HttpRequest.class, new HeaderExtractor(headerName));
     }
 
+    /**
+     * Check the value of a header of the request against a regular expression. See
+     * {@link #headerRegex(Class, String, String)}.
+     */
+    public static HttpCheckBuilder<HttpRequest, String> headerRegex(final String headerName, final String regex) {
+        return headerRegex(HttpRequest.class, headerName, regex);
+    }
+
+    /**
+     * Check the value of a header against a regular expression, e.g.
+     * <code>headerRegex(HttpResponse.class, "Location", "/calls/(\\w+)").exists().saveAs("callId")</code>. The
+     * extracted value is the first capturing group of the first match or, if there are no groups, the entire match.
+     * <p>
+     * The expression is compiled once, here, and then matched without decoding the header value.
+     *
+     * @param type the type of message the check is for, i.e. {@link HttpResponse} for the checks of a request
+     *             we sent and {@link HttpRequest} for the checks of a request we accepted.
+     */
+    public static <T extends HttpMessage> HttpCheckBuilder<T, String> headerRegex(final Class<T> type,
+                                                                                  final String headerName,
+                                                                                  final String regex) {
+        assertNotNull(type);
+        assertNotEmpty(headerName, "The name of the header cannot be null or the empty string");
+        return HttpCheckBuilder.of(type, new HeaderRegexExtractor<>(headerName, RegexSearch.compile(regex)));
+    }
+
+    /**
+     * Check whether the body of the response contains the given literal, e.g.
+     * <code>bodyContains("\"status\":\"ok\"").is(true)</code>.
+     * <p>
+     * The literal is searched for directly in the bytes of the body, as UTF-8, without copying
+     * or decoding the body.
+     */
+    public static HttpCheckBuilder<HttpResponse, Boolean> bodyContains(final String literal) {
+        return HttpCheckBuilder.of(HttpResponse.class, new BodyContainsExtractor(LiteralSearch.compile(literal)));
+    }
+
+    /**
+     * Check the body of the response against a regular expression, e.g.
+     * <code>bodyRegex("&lt;sid&gt;(\\w+)&lt;/sid&gt;").exists().saveAs("sid")</code>. The extracted value is the
+     * first capturing group of the first match or, if there are no groups, the entire match.
+     * <p>
+     * The expression is compiled once, here, and then matched directly against the body, without decoding it
+     * into a string. As such, the expression should only contain ASCII characters (see
+     * {@link BufferCharSequence}).
+     */
+    public static HttpCheckBuilder<HttpResponse, String> bodyRegex(final String regex) {
+        return HttpCheckBuilder.of(HttpResponse.class, new BodyRegexExtractor(RegexSearch.compile(regex)));
+    }
+
+    /**
+     * Check the size, in bytes, of the body of the response. A response without a body has a size of zero.
+     */
+    public static HttpCheckBuilder<HttpResponse, Long> bodySize() {
+        return body(SizeConsumer::new);
+    }
+
+    /**
+     * Check the hash of the body of the response, as a lower case hex string, e.g.
+     * <code>bodyHash("SHA-256").is("9f86d08...")</code>.
+     *
+     * @param algorithm the name of any {@link MessageDigest} algorithm supported by the JVM.
+     */
+    public static HttpCheckBuilder<HttpResponse, String> bodyHash(final String algorithm) {
+        assertNotEmpty(algorithm, "The hash algorithm cannot be null or the empty string");
+        newDigest(algorithm); // fail fast if the algorithm isn't supported
+        return body(() -> new DigestConsumer(newDigest(algorithm)));
+    }
+
+    /**
+     * Check, or save, a value from the JSON body of the response, e.g.
+     * <code>jsonPath("$.sid").exists().saveAs("sid")</code>. See {@link JsonPath} for the supported
+     * expressions.
+     * <p>
+     * The path is compiled once, here, and the body is then parsed in a streaming fashion, stopping as soon
+     * as the value has been found. Strings are extracted without their quotes and escape sequences,
+     * any other value as its JSON text.
+     */
+    public static HttpCheckBuilder<HttpResponse, String> jsonPath(final String path) {
+        final var compiled = JsonPath.compile(path);
+        return body(() -> new JsonPathConsumer(compiled));
+    }
+
+    /**
+     * Check a value computed from the body of the response, which is consumed chunk by chunk by the
+     * {@link BodyConsumer}s created by the given factory (one for every response).
+     */
+    public static <X> HttpCheckBuilder<HttpResponse, X> body(final Supplier<BodyConsumer<X>> consumers) {
+        assertNotNull(consumers);
+        return HttpCheckBuilder.of(HttpResponse.class, new BodyExtractor<>(consumers));
+    }
+
+    private static MessageDigest newDigest(final String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported hash algorithm \"" + algorithm + "\"", e);
+        }
+    }
+
+    private static class SizeConsumer implements BodyConsumer<Long> {
+
+        private long size;
+
+        @Override
+        public void accept(final byte[] chunk, final int offset, final int length) {
+            size += length;
+        }
+
+        @Override
+        public Optional<Long> complete() {
+            return Optional.of(size);
+        }
+    }
+
+    private static record DigestConsumer(MessageDigest digest) implements BodyConsumer<String> {
+
+        @Override
+        public void accept(final byte[] chunk, final int offset, final int length) {
+            digest.update(chunk, offset, length);
+        }
+
+        @Override
+        public Optional<String> complete() {
+            return Optional.of(HexFormat.of().formatHex(digest.digest()));
+        }
+    }
+
+    private static record BodyContainsExtractor(LiteralSearch literal) implements Extractor<HttpResponse, Boolean> {
+
+        private static final Either<Throwable, Optional<Boolean>> FOUND = Either.right(Optional.of(true));
+        private static final Either<Throwable, Optional<Boolean>> NOT_FOUND = Either.right(Optional.of(false));
+
+        @Override
+        public Either<Throwable, Optional<Boolean>> apply(final HttpResponse response) {
+            return literal.indexOf(response.content().orElse(null)) == -1 ? NOT_FOUND : FOUND;
+        }
+
+        @Override
+        public boolean isExpensive() {
+            return true;
+        }
+    }
+
+    private static record BodyRegexExtractor(RegexSearch regex) implements Extractor<HttpResponse, String> {
+
+        private static final Either<Throwable, Optional<String>> NOT_FOUND = Either.right(Optional.empty());
+
+        @Override
+        public Either<Throwable, Optional<String>> apply(final HttpResponse response) {
+            final var value = regex.find(response.content().orElse(null));
+            return value.isEmpty() ? NOT_FOUND : Either.right(value);
+        }
+
+        @Override
+        public boolean isExpensive() {
+            return true;
+        }
+    }
+
+    private static record HeaderRegexExtractor<T extends HttpMessage>(String headerName, RegexSearch regex) implements Extractor<T, String> {
+
+        private static final Either<Throwable, Optional<String>> NOT_FOUND = Either.right(Optional.empty());
+
+        @Override
+        public Either<Throwable, Optional<String>> apply(final T msg) {
+            final var header = msg.header(headerName);
+            if (header.isEmpty()) {
+                return NOT_FOUND;
+            }
+
+            final Object value = header.get().value();
+            final var found = value instanceof Buffer buffer ? regex.find(buffer)
+                    : value instanceof CharSequence chars ? regex.find(chars)
+                    : regex.find(String.valueOf(value));
+            return found.isEmpty() ? NOT_FOUND : Either.right(found);
+        }
+    }
+
     private static record HeaderExtractor(String headerName) implements Extractor<HttpRequest, String> {
         @Override
         public Either<Throwable, Optional<String>> apply(final HttpRequest msg) {
@@ -25,8 +25,15 @@ public record HttpMessageCheck<T extends HttpMessage, X>(Extractor<T, X> extract
 
     @Override
     public CheckResult<T, X> check(final T message, final Session session) {
-        final Either<Throwable, Optional<X>> actual = extractor.apply(message);
+        return validate(extractor.apply(message));
+    }
 
+    /**
+     * Validate an already extracted value, which is what {@link #check(HttpMessage, Session)} does once it has
+     * extracted the value from the message. This allows for the value to be extracted elsewhere, such as when
+     * the body of a message is consumed by several checks at once (see {@link BodyExtractor}).
+     */
+    public CheckResult<T, X> validate(final Either<Throwable, Optional<X>> actual) {
         return actual.fold(t -> {
             final var msg = "Failed to extract value due to exception " + t.getMessage();
             return new CheckResult<>(this, Optional.empty(), Optional.empty(), Optional.of(msg));
@@ -39,6 +46,14 @@ public record HttpMessageCheck<T extends HttpMessage, X>(Extractor<T, X> extract
         });
     }
 
+    /**
+     * As expensive as extracting the value is.
+     */
+    @Override
+    public boolean isExpensive() {
+        return extractor.isExpensive();
+    }
+
     public HttpMessageCheck<T, X> saveAs(final String key) {
         assertNotEmpty(key);
         return new HttpMessageCheck<>(extractor, validator, Optional.of(key));
@@ -0,0 +1,97 @@
+package io.snice.testing.http.check;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotEmpty;
+
+/**
+ * A compiled JSON path, such as <code>$.sid</code> or <code>$.calls[0]['from']</code>.
+ * <p>
+ * Only the "definite" subset of JSON path is supported, i.e., paths that point out at most a single value:
+ * the root <code>$</code> followed by any number of object members, either as <code>.name</code> or
+ * <code>['name']</code>, and array elements, <code>[index]</code>. Wildcards, deep scans, slices and filters
+ * are not supported since they require us to look at the entire document, which is exactly what we want to
+ * avoid (see {@link JsonPathConsumer}).
+ *
+ * @param expression the original expression, as given by the user.
+ * @param segments   the segments of the path, not including the root.
+ */
+public record JsonPath(String expression, List<Segment> segments) {
+
+    public JsonPath {
+        assertNotEmpty(expression);
+        segments = List.copyOf(segments);
+    }
+
+    public sealed interface Segment permits Field, Index {
+    }
+
+    public record Field(String name) implements Segment {
+    }
+
+    public record Index(int index) implements Segment {
+    }
+
+    public static JsonPath compile(final String expression) {
+        assertNotEmpty(expression, "The JSON path cannot be null or the empty string");
+        assertArgument(expression.charAt(0) == '$', "A JSON path must start with '$'");
+
+        final var segments = new ArrayList<Segment>();
+        int i = 1;
+        while (i < expression.length()) {
+            final var c = expression.charAt(i);
+            if (c == '.') {
+                final var start = i + 1;
+                int end = start;
+                while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    ++end;
+                }
+                final var name = expression.substring(start, end);
+                assertArgument(!name.isEmpty(), invalid(expression, "empty member name"));
+                assertArgument(!name.equals("*"), invalid(expression, "wildcards are not supported"));
+                segments.add(new Field(name));
+                i = end;
+            } else if (c == '[') {
+                // a quoted member name may itself contain ']' so skip past the closing quote first
+                final var quote = i + 1 < expression.length() ? expression.charAt(i + 1) : 0;
+                final var from = quote == '\'' || quote == '"' ? expression.indexOf(quote, i + 2) : i;
+                final var end = from == -1 ? -1 : expression.indexOf(']', from);
+                assertArgument(end != -1, invalid(expression, "missing ']'"));
+                segments.add(bracket(expression, expression.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                throw new IllegalArgumentException(invalid(expression, "unexpected '" + c + "' at position " + i));
+            }
+        }
+
+        return new JsonPath(expression, segments);
+    }
+
+    private static Segment bracket(final String expression, final String content) {
+        if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+                && content.charAt(content.length() - 1) == content.charAt(0)) {
+            final var name = content.substring(1, content.length() - 1);
+            assertArgument(!name.isEmpty(), invalid(expression, "empty member name"));
+            return new Field(name);
+        }
+
+        try {
+            final var index = Integer.parseInt(content);
+            assertArgument(index >= 0, invalid(expression, "negative array index"));
+            return new Index(index);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(invalid(expression, "unsupported expression [" + content + "]"));
+        }
+    }
+
+    private static String invalid(final String expression, final String reason) {
+        return "Invalid JSON path \"" + expression + "\": " + reason;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
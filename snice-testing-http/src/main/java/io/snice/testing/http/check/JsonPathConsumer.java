@@ -0,0 +1,400 @@
+package io.snice.testing.http.check;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A streaming JSON parser that extracts the value pointed out by a single {@link JsonPath}.
+ * <p>
+ * The parser never builds up a tree of the document. It walks the bytes of the body as they are given to it,
+ * keeping only a stack of the containers it currently is in, and only copies bytes that matter: the
+ * member names along the path and, once found, the value itself. As soon as the value has been found,
+ * the parser is {@link #isDone() done} and the rest of the body is ignored.
+ * <p>
+ * The extracted value is returned as a string. For JSON strings, that is the unescaped content of the
+ * string, for numbers, booleans and <code>null</code> it is the literal as found in the document and for
+ * objects and arrays it is the raw JSON text of the object, or array.
+ */
+final class JsonPathConsumer implements BodyConsumer<String> {
+
+    private static final int EXPECT_VALUE = 0;
+    private static final int EXPECT_VALUE_OR_END = 1;
+    private static final int EXPECT_KEY = 2;
+    private static final int EXPECT_KEY_OR_END = 3;
+    private static final int EXPECT_COLON = 4;
+    private static final int EXPECT_COMMA_OR_END = 5;
+    private static final int IN_STRING = 6;
+    private static final int IN_STRING_ESCAPE = 7;
+    private static final int IN_LITERAL = 8;
+    private static final int END_OF_DOCUMENT = 9;
+    private static final int FOUND = 10;
+    private static final int FAILED = 11;
+
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+
+    private final JsonPath path;
+
+    /**
+     * The segments of the path. Entry <code>i</code> is the member name (as a {@link String}) or the
+     * array index (as an {@link Integer}) that the value at depth <code>i + 1</code> must have to be on the path.
+     */
+    private final Object[] segments;
+
+    private int state = EXPECT_VALUE;
+
+    /**
+     * The stack of containers we currently are in.
+     */
+    private int depth;
+    private byte[] containers = new byte[16];
+    private boolean[] containerOnPath = new boolean[16];
+    private int[] arrayIndex = new int[16];
+
+    /**
+     * Whether the value of the member whose name we have just parsed is on the path.
+     */
+    private boolean memberOnPath;
+
+    private boolean inKey;
+    private boolean collectKey;
+    private final Bytes key = new Bytes();
+
+    /**
+     * The depth at which the value we are capturing started, or -1 if we have yet to find it.
+     */
+    private int captureDepth = -1;
+    private boolean captureString;
+    private final Bytes capture = new Bytes();
+
+    private long position;
+    private String value;
+    private String error;
+
+    JsonPathConsumer(final JsonPath path) {
+        this.path = assertNotNull(path);
+        this.segments = path.segments().stream()
+                .map(s -> s instanceof JsonPath.Field f ? f.name() : (Object) ((JsonPath.Index) s).index())
+                .toArray();
+    }
+
+    @Override
+    public void accept(final byte[] chunk, final int offset, final int length) {
+        final var end = offset + length;
+        for (int i = offset; i < end && state < FOUND; ++i) {
+            process(chunk[i]);
+            ++position;
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        return state >= FOUND;
+    }
+
+    @Override
+    public Optional<String> complete() {
+        if (state == IN_LITERAL) {
+            endValue();
+        }
+
+        if (value != null) {
+            return Optional.of(value);
+        }
+
+        if (state == FAILED) {
+            throw new IllegalArgumentException(error);
+        }
+
+        if (state != END_OF_DOCUMENT && position > 0) {
+            throw new IllegalArgumentException("Unexpected end of JSON document while looking for " + path);
+        }
+
+        return Optional.empty();
+    }
+
+    private void process(final byte b) {
+        switch (state) {
+            case EXPECT_VALUE, EXPECT_VALUE_OR_END -> {
+                if (isWhitespace(b)) {
+                    collect(b);
+                    return;
+                }
+                if (b == ']' && state == EXPECT_VALUE_OR_END) {
+                    endContainer(b);
+                } else {
+                    startValue(b);
+                }
+            }
+            case EXPECT_KEY, EXPECT_KEY_OR_END -> {
+                if (isWhitespace(b)) {
+                    collect(b);
+                    return;
+                }
+                if (b == '}' && state == EXPECT_KEY_OR_END) {
+                    endContainer(b);
+                } else if (b == '"') {
+                    startKey();
+                } else {
+                    fail(b, "a member name");
+                }
+            }
+            case EXPECT_COLON -> {
+                if (isWhitespace(b)) {
+                    collect(b);
+                    return;
+                }
+                if (b != ':') {
+                    fail(b, "':'");
+                    return;
+                }
+                collect(b);
+                state = EXPECT_VALUE;
+            }
+            case EXPECT_COMMA_OR_END -> {
+                if (isWhitespace(b)) {
+                    collect(b);
+                    return;
+                }
+                final var container = containers[depth - 1];
+                if (b == ',') {
+                    collect(b);
+                    if (container == ARRAY) {
+                        ++arrayIndex[depth - 1];
+                        state = EXPECT_VALUE;
+                    } else {
+                        state = EXPECT_KEY;
+                    }
+                } else if ((b == '}' && container == OBJECT) || (b == ']' && container == ARRAY)) {
+                    endContainer(b);
+                } else {
+                    fail(b, container == OBJECT ? "',' or '}'" : "',' or ']'");
+                }
+            }
+            case IN_STRING -> {
+                if (b == '"') {
+                    endString();
+                    return;
+                }
+                if (b == '\\') {
+                    state = IN_STRING_ESCAPE;
+                }
+                collectString(b);
+            }
+            case IN_STRING_ESCAPE -> {
+                collectString(b);
+                state = IN_STRING;
+            }
+            case IN_LITERAL -> {
+                if (isWhitespace(b) || b == ',' || b == '}' || b == ']') {
+                    endValue();
+                    if (state != FOUND) {
+                        process(b);
+                    }
+                    return;
+                }
+                collect(b);
+            }
+            case END_OF_DOCUMENT -> {
+                if (!isWhitespace(b)) {
+                    fail(b, "the end of the document");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void startValue(final byte b) {
+        final var onPath = valueOnPath();
+        if (onPath && depth == segments.length) {
+            captureDepth = depth;
+            captureString = b == '"';
+        }
+
+        switch (b) {
+            case '{' -> {
+                collect(b);
+                push(OBJECT, onPath);
+                state = EXPECT_KEY_OR_END;
+            }
+            case '[' -> {
+                collect(b);
+                push(ARRAY, onPath);
+                state = EXPECT_VALUE_OR_END;
+            }
+            case '"' -> {
+                if (!captureString) {
+                    collect(b);
+                }
+                inKey = false;
+                state = IN_STRING;
+            }
+            default -> {
+                if (b == '-' || (b >= '0' && b <= '9') || b == 't' || b == 'f' || b == 'n') {
+                    collect(b);
+                    state = IN_LITERAL;
+                } else {
+                    fail(b, "a value");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the value that is about to start is on the path.
+     */
+    private boolean valueOnPath() {
+        if (depth == 0) {
+            return true;
+        }
+
+        final var parent = depth - 1;
+        if (containers[parent] == OBJECT) {
+            return memberOnPath;
+        }
+
+        return containerOnPath[parent]
+                && parent < segments.length
+                && segments[parent] instanceof Integer index
+                && index == arrayIndex[parent];
+    }
+
+    private void startKey() {
+        final var parent = depth - 1;
+        collect((byte) '"');
+        inKey = true;
+        collectKey = containerOnPath[parent] && parent < segments.length && segments[parent] instanceof String;
+        key.reset();
+        state = IN_STRING;
+    }
+
+    private void endString() {
+        if (inKey) {
+            collect((byte) '"');
+            memberOnPath = collectKey && segments[depth - 1].equals(unescape(key));
+            inKey = false;
+            state = EXPECT_COLON;
+            return;
+        }
+
+        if (!(captureString && captureDepth == depth)) {
+            collect((byte) '"');
+        }
+        endValue();
+    }
+
+    private void endContainer(final byte b) {
+        collect(b);
+        --depth;
+        endValue();
+    }
+
+    /**
+     * Called when a value at the current depth is complete.
+     */
+    private void endValue() {
+        if (captureDepth == depth) {
+            value = captureString ? unescape(capture) : capture.toString();
+            state = FOUND;
+        } else {
+            state = depth == 0 ? END_OF_DOCUMENT : EXPECT_COMMA_OR_END;
+        }
+    }
+
+    private void push(final byte container, final boolean onPath) {
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+            containerOnPath = Arrays.copyOf(containerOnPath, depth * 2);
+            arrayIndex = Arrays.copyOf(arrayIndex, depth * 2);
+        }
+
+        containers[depth] = container;
+        containerOnPath[depth] = onPath;
+        arrayIndex[depth] = 0;
+        ++depth;
+    }
+
+    private void collectString(final byte b) {
+        if (inKey && collectKey) {
+            key.append(b);
+        }
+        collect(b);
+    }
+
+    private void collect(final byte b) {
+        if (captureDepth != -1) {
+            capture.append(b);
+        }
+    }
+
+    private void fail(final byte b, final String expected) {
+        error = "Invalid JSON: expected " + expected + " but found '" + (char) (b & 0xFF) + "' at position " + position;
+        state = FAILED;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static String unescape(final Bytes bytes) {
+        final var raw = bytes.toString();
+        if (raw.indexOf('\\') == -1) {
+            return raw;
+        }
+
+        final var sb = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); ++i) {
+            final var c = raw.charAt(i);
+            if (c != '\\' || i + 1 == raw.length()) {
+                sb.append(c);
+                continue;
+            }
+
+            final var escaped = raw.charAt(++i);
+            switch (escaped) {
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (i + 4 >= raw.length()) {
+                        throw new IllegalArgumentException("Invalid JSON: truncated unicode escape sequence");
+                    }
+                    sb.append((char) Integer.parseInt(raw, i + 1, i + 5, 16));
+                    i += 4;
+                }
+                default -> sb.append(escaped);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A minimal growable byte array, only ever holding the few bytes we actually care about.
+     */
+    private static final class Bytes {
+        private byte[] bytes = new byte[32];
+        private int size;
+
+        private void append(final byte b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = b;
+        }
+
+        private void reset() {
+            size = 0;
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, size, StandardCharsets.UTF_8);
+        }
+    }
+}
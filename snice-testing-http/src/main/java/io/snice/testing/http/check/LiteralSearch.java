@@ -0,0 +1,79 @@
+package io.snice.testing.http.check;
+
+import io.snice.buffer.Buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static io.snice.preconditions.PreConditions.assertNotEmpty;
+
+/**
+ * Searches for a literal directly in the bytes of a {@link Buffer} using Boyer-Moore-Horspool.
+ * <p>
+ * The literal and its skip table are computed once, when the check is built, and the search itself neither
+ * copies, decodes nor allocates anything, which is what we want for a check that may run on every single
+ * response of a load test.
+ */
+final class LiteralSearch {
+
+    private final String literal;
+    private final byte[] needle;
+
+    /**
+     * For every byte value, how far we can shift the needle when that byte is found in the haystack
+     * underneath the last byte of the needle.
+     */
+    private final int[] skip = new int[256];
+
+    private LiteralSearch(final String literal) {
+        this.literal = literal;
+        this.needle = literal.getBytes(StandardCharsets.UTF_8);
+
+        final var last = needle.length - 1;
+        Arrays.fill(skip, needle.length);
+        for (int i = 0; i < last; ++i) {
+            skip[needle[i] & 0xFF] = last - i;
+        }
+    }
+
+    static LiteralSearch compile(final String literal) {
+        assertNotEmpty(literal, "The literal to search for cannot be null or the empty string");
+        return new LiteralSearch(literal);
+    }
+
+    /**
+     * @return the index of the first occurrence of the literal in the given buffer, or -1 if there is none.
+     */
+    int indexOf(final Buffer haystack) {
+        if (haystack == null) {
+            return -1;
+        }
+
+        final var last = needle.length - 1;
+        final var end = haystack.capacity() - needle.length;
+        int offset = 0;
+        while (offset <= end) {
+            final var b = haystack.getByte(offset + last);
+            if (b == needle[last] && matches(haystack, offset, last)) {
+                return offset;
+            }
+            offset += skip[b & 0xFF];
+        }
+
+        return -1;
+    }
+
+    private boolean matches(final Buffer haystack, final int offset, final int length) {
+        for (int i = 0; i < length; ++i) {
+            if (haystack.getByte(offset + i) != needle[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return literal;
+    }
+}
@@ -0,0 +1,91 @@
+package io.snice.testing.http.check;
+
+import io.snice.buffer.Buffer;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static io.snice.preconditions.PreConditions.assertNotEmpty;
+
+/**
+ * A regular expression compiled once, when the check is built, and then matched against a {@link Buffer}, or
+ * any other {@link CharSequence}, without decoding it into a {@link String} first.
+ * <p>
+ * Every thread gets its own {@link Matcher} and {@link BufferCharSequence} which are then re-used for every
+ * message, so other than the extracted value itself, a search doesn't allocate.
+ */
+final class RegexSearch {
+
+    private static final CharSequence EMPTY = "";
+
+    private final Pattern pattern;
+    private final ThreadLocal<Scratch> scratch;
+
+    private RegexSearch(final Pattern pattern) {
+        this.pattern = pattern;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(pattern));
+    }
+
+    static RegexSearch compile(final String regex) {
+        assertNotEmpty(regex, "The regular expression cannot be null or the empty string");
+        try {
+            return new RegexSearch(Pattern.compile(regex));
+        } catch (final PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid regular expression \"" + regex + "\": " + e.getDescription(), e);
+        }
+    }
+
+    /**
+     * @return the first capturing group of the first match or, if the pattern doesn't have any groups, the
+     * entire match.
+     */
+    Optional<String> find(final Buffer buffer) {
+        if (buffer == null) {
+            return Optional.empty();
+        }
+
+        final var s = scratch.get();
+        try {
+            return find(s.matcher, s.chars.wrap(buffer));
+        } finally {
+            // don't hang on to the message
+            s.chars.wrap(null);
+        }
+    }
+
+    Optional<String> find(final CharSequence chars) {
+        if (chars == null) {
+            return Optional.empty();
+        }
+
+        return find(scratch.get().matcher, chars);
+    }
+
+    private static Optional<String> find(final Matcher matcher, final CharSequence chars) {
+        try {
+            matcher.reset(chars);
+            if (!matcher.find()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(matcher.group(matcher.groupCount() > 0 ? 1 : 0));
+        } finally {
+            matcher.reset(EMPTY);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return pattern.pattern();
+    }
+
+    private static final class Scratch {
+        private final BufferCharSequence chars = new BufferCharSequence();
+        private final Matcher matcher;
+
+        private Scratch(final Pattern pattern) {
+            matcher = pattern.matcher(EMPTY);
+        }
+    }
+}
@@ -7,11 +7,11 @@ import io.snice.testing.core.Session;
 import io.snice.testing.core.common.Expression;
 import io.snice.testing.http.Content;
 
-import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static io.snice.preconditions.PreConditions.assertArgument;
 import static io.snice.preconditions.PreConditions.assertNotNull;
@@ -29,29 +29,60 @@ public class ContentFactory {
         return new RawContent(content);
     }
 
-    private record FormEncodedContent(Map<String, Object> content) implements Content<Map<String, Object>> {
+    /**
+     * All the values are compiled into {@link Expression}s up front so that the only thing left to do
+     * for every request is to render them.
+     */
+    private record FormEncodedContent(Map<String, Object> content, List<CompiledParam> params) implements Content<Map<String, Object>> {
+
+        private FormEncodedContent(final Map<String, Object> content) {
+            this(content, compile(content));
+        }
+
+        private static List<CompiledParam> compile(final Map<String, Object> content) {
+            final var params = new ArrayList<CompiledParam>(content.size());
+            content.forEach((name, value) -> {
+                if (value instanceof List<?> values) {
+                    final var expressions = new ArrayList<Expression>(values.size());
+                    values.forEach(v -> expressions.add(Expression.of(Objects.toString(v))));
+                    params.add(new CompiledParam(name, null, List.copyOf(expressions)));
+                } else {
+                    params.add(new CompiledParam(name, Expression.of(Objects.toString(value)), null));
+                }
+            });
+            return List.copyOf(params);
+        }
 
         @Override
         public <T extends HttpMessage> HttpMessage.Builder<T> apply(final Session session, final HttpMessage.Builder<T> builder) {
-            final var processed = content.entrySet().stream()
-                    .map(e -> {
-                        final Object newValue;
-                        if (e.getValue() instanceof List) {
-                            newValue = ((List) e.getValue()).stream()
-                                    .map(v -> {
-                                        final var expr = Expression.of(Objects.toString(v));
-                                        return expr.apply(session);
-                                    }).collect(Collectors.toUnmodifiableList());
-                        } else {
-                            newValue = Expression.of(Objects.toString(e.getValue())).apply(session);
-                        }
-                        return new AbstractMap.SimpleImmutableEntry<>(e.getKey(), newValue);
-                    })
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            final var processed = new HashMap<String, Object>((int) (params.size() / 0.75f) + 1);
+            for (int i = 0; i < params.size(); ++i) {
+                final var param = params.get(i);
+                processed.put(param.name(), param.render(session));
+            }
             return builder.content(processed);
         }
     }
 
+    /**
+     * A single form-encoded parameter where either the <code>value</code> or the <code>values</code> is set,
+     * depending on whether the parameter was given as a single value or as a list.
+     */
+    private record CompiledParam(String name, Expression value, List<Expression> values) {
+
+        Object render(final Session session) {
+            if (value != null) {
+                return value.apply(session);
+            }
+
+            final var rendered = new String[values.size()];
+            for (int i = 0; i < rendered.length; ++i) {
+                rendered[i] = values.get(i).apply(session);
+            }
+            return List.of(rendered);
+        }
+    }
+
     private record RawContent(Buffer content) implements Content<Buffer> {
         @Override
         public <T extends HttpMessage> HttpMessage.Builder<T> apply(final Session session, final HttpMessage.Builder<T> builder) {
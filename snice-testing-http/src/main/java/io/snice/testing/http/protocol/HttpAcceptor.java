@@ -57,6 +57,18 @@ public interface HttpAcceptor {
          */
         Builder onAcceptorTerminated(Consumer<HttpAcceptor> f);
 
+        /**
+         * Optionally, also accept requests whose path starts with the given prefix, even if they are not sent to
+         * the unique URL of this {@link HttpAcceptor}. This is useful when the system under test delivers its
+         * requests to a fixed, pre-configured, URL.
+         * <p>
+         * If several {@link HttpAcceptor}s have registered the same path prefix, they are given the incoming
+         * requests in the order they were started. Requests carrying the unique URL of another
+         * {@link HttpAcceptor} are never routed by their path, and the root, <code>/</code>, is not a valid
+         * prefix.
+         */
+        Builder pathPrefix(String prefix);
+
         HttpAcceptor start();
 
     }
@@ -2,7 +2,6 @@ package io.snice.testing.http.protocol;
 
 import io.snice.identity.sri.ActionResourceIdentifier;
 import io.snice.identity.sri.ScenarioResourceIdentifier;
-import io.snice.networking.common.ConnectionId;
 import io.snice.testing.core.common.Expression;
 import io.snice.testing.core.protocol.Protocol;
 import io.snice.testing.core.protocol.ProtocolRegistry;
@@ -13,7 +12,6 @@ import io.snice.testing.http.stack.HttpStackUserConfig;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiConsumer;
 
 import static io.snice.preconditions.PreConditions.assertNotNull;
 
@@ -36,7 +34,6 @@ public interface HttpProtocol extends Protocol {
      */
     HttpStack newStack(ScenarioResourceIdentifier scenarioSri,
                        ActionResourceIdentifier actionSri,
-                       BiConsumer<ConnectionId, Object> f,
                        HttpStackUserConfig config);
 
     HttpConfig config();
@@ -20,6 +20,13 @@ public interface HttpTransaction {
          */
         Builder onResponse(BiConsumer<HttpTransaction, HttpResponse> f);
 
+        /**
+         * Called if the {@link HttpTransaction} completes without an answer, which is when we are unable to
+         * establish a connection to the remote host or when no {@link HttpResponse} arrives in time. Either this
+         * function or the one registered through {@link #onResponse(BiConsumer)} is called, never both.
+         */
+        Builder onFailure(BiConsumer<HttpTransaction, Throwable> f);
+
         /**
          * Register a function for any events (other than {@link HttpResponse}) that occurs within the HTTP
          * stack as it relates to this transaction. An event could be an {@link SslInfoEvent} that indicates the
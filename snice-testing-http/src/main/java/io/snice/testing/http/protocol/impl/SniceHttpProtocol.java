@@ -3,7 +3,6 @@ package io.snice.testing.http.protocol.impl;
 import io.snice.codecs.codec.http.HttpProvider;
 import io.snice.identity.sri.ActionResourceIdentifier;
 import io.snice.identity.sri.ScenarioResourceIdentifier;
-import io.snice.networking.common.ConnectionId;
 import io.snice.networking.http.impl.NettyHttpMessageFactory;
 import io.snice.testing.core.common.Expression;
 import io.snice.testing.core.protocol.ProtocolRegistry;
@@ -14,7 +13,6 @@ import io.snice.testing.http.stack.HttpStackUserConfig;
 import io.snice.testing.http.stack.impl.SniceHttpStack;
 
 import java.util.Optional;
-import java.util.function.BiConsumer;
 
 import static io.snice.preconditions.PreConditions.assertNotNull;
 
@@ -45,11 +43,15 @@ public record SniceHttpProtocol(HttpConfig config,
         stack.stop();
     }
 
+    @Override
+    public void scenarioFinished(final ScenarioResourceIdentifier scenario) {
+        stack.scenarioFinished(scenario);
+    }
+
     @Override
     public HttpStack newStack(final ScenarioResourceIdentifier scenarioSri, final ActionResourceIdentifier actionSri,
-                              final BiConsumer<ConnectionId, Object> f,
                               final HttpStackUserConfig config) {
-        return stack.newStack(scenarioSri, actionSri, f, config);
+        return stack.newStack(scenarioSri, actionSri, config);
     }
 
     private static class SniceNetworkingHttpBuilder implements HttpProtocolBuilder {
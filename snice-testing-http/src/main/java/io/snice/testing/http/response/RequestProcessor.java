@@ -5,6 +5,7 @@ import io.snice.testing.core.Execution;
 import io.snice.testing.core.Session;
 import io.snice.testing.core.action.Action;
 import io.snice.testing.core.check.Check;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.check.CheckResult;
 import io.snice.testing.http.AcceptHttpRequestDef;
 import io.snice.testing.http.protocol.HttpAcceptor;
@@ -26,6 +27,7 @@ public class RequestProcessor {
     private final Action next;
 
     private final List<AcceptHttpRequestDef> defs;
+    private final CheckPolicy checkPolicy;
     private final List<Execution> executions;
     private final AtomicReference<Session> session;
     private final AtomicInteger index = new AtomicInteger(0);
@@ -35,8 +37,18 @@ public class RequestProcessor {
                             final Session session,
                             final List<Execution> executions,
                             final Action next) {
+        this(name, def, CheckPolicy.DEFAULT, session, executions, next);
+    }
+
+    public RequestProcessor(final String name,
+                            final AcceptHttpRequestDef def,
+                            final CheckPolicy checkPolicy,
+                            final Session session,
+                            final List<Execution> executions,
+                            final Action next) {
         this.name = name;
         this.defs = unravel(def);
+        this.checkPolicy = checkPolicy;
         this.session = new AtomicReference<>(session);
         this.executions = Collections.synchronizedList(new ArrayList<>(executions));
         this.next = next;
@@ -56,7 +68,7 @@ public class RequestProcessor {
 
     public RequestResult onRequest(final HttpServerTransaction transaction, final HttpRequest request) {
         final var def = next();
-        final var result = Check.check(request, session.get(), def.checks());
+        final var result = Check.check(request, session.get(), def.checks(), checkPolicy);
         final var checkResults = result.right();
         final var failedChecks = checkResults.stream().filter(CheckResult::isFailure).findAny().isPresent();
 
@@ -88,8 +100,13 @@ public class RequestProcessor {
         return defs.get(index.getAndAdd(1));
     }
 
+    /**
+     * We never received the request we were waiting for, which is a failure. Note that the
+     * {@link HttpAcceptor} will also be terminated, which is what moves the scenario forward.
+     */
     public void onTimeout(final HttpAcceptor acceptor) {
-        System.err.println("Ops, timeout");
+        executions.add(new Execution(name, false));
+        session.set(session.get().markAsFailed());
     }
 
     public void onTermination(final HttpAcceptor acceptor) {
@@ -2,30 +2,152 @@ package io.snice.testing.http.response;
 
 import io.snice.codecs.codec.http.HttpRequest;
 import io.snice.codecs.codec.http.HttpResponse;
+import io.snice.functional.Either;
 import io.snice.testing.core.Execution;
+import io.snice.testing.core.NetworkStats;
 import io.snice.testing.core.Session;
+import io.snice.testing.core.Timings;
 import io.snice.testing.core.action.Action;
 import io.snice.testing.core.check.Check;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.check.CheckResult;
 import io.snice.testing.core.common.ListOperations;
+import io.snice.testing.http.check.BodyConsumer;
+import io.snice.testing.http.check.BodyExtractor;
+import io.snice.testing.http.check.HttpMessageCheck;
 import io.snice.testing.http.protocol.HttpTransaction;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
+/**
+ * @param sent    the {@link System#nanoTime()} at which the request was sent.
+ * @param network the {@link NetworkStats} of the action, which are read once the response has arrived.
+ */
 public record ResponseProcessor(String name,
                                 HttpRequest req,
+                                long sent,
+                                Supplier<NetworkStats> network,
                                 List<Check<HttpResponse>> checks,
+                                CheckPolicy checkPolicy,
                                 Session session,
                                 List<Execution> executions,
                                 Action next) {
 
     public void process(final HttpTransaction transaction, final HttpResponse response) {
-        final var result = Check.check(response, session, checks);
+        // Snice Networking only ever hands us complete responses so the first byte is as close as we get
+        final var firstByte = System.nanoTime();
+        final var result = Check.check(response, session, streamBody(response), checkPolicy);
         final var checkResults = result.right();
         final var failedChecks = checkResults.stream().filter(CheckResult::isFailure).findAny().isPresent();
 
         final var newSession = result.left();
-        final var execution = new Execution(name, !failedChecks, checkResults);
+        final var timings = new Timings(sent, firstByte, System.nanoTime());
+        final var execution = new Execution(name, !failedChecks, checkResults, Optional.of(timings), Optional.ofNullable(network.get()));
         next.execute(ListOperations.extendList(executions, execution), newSession);
     }
+
+    /**
+     * The transaction failed without a response, so there is nothing to check, but the action still
+     * completes, with a failed {@link Execution}, along with whatever traffic there was (such as the failed
+     * attempt to connect).
+     */
+    public void fail(final HttpTransaction transaction, final Throwable error) {
+        final var execution = new Execution(name, false, List.of(), Optional.empty(), Optional.ofNullable(network.get()));
+        next.execute(ListOperations.extendList(executions, execution), session.markAsFailed());
+    }
+
+    /**
+     * All checks operating on the body of the response are given the body in a single pass, chunk by chunk,
+     * as opposed to every one of them walking (or worse, copying) the entire body on their own. The exception is
+     * when the checks are evaluated in {@link CheckPolicy#parallel() parallel}, in which case every body check
+     * walks the body on its own, but at the same time.
+     *
+     * @return the checks to run, where the body based checks have been replaced by checks that only validate
+     * the value that has already been extracted.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Check<HttpResponse>> streamBody(final HttpResponse response) {
+        if (checkPolicy.parallel()) {
+            return checks;
+        }
+
+        List<BodyConsumer<?>> consumers = null;
+        List<Check<HttpResponse>> streamed = null;
+        for (int i = 0; i < checks.size(); ++i) {
+            final var check = checks.get(i);
+            if (check instanceof HttpMessageCheck<?, ?> messageCheck && messageCheck.extractor() instanceof BodyExtractor<?, ?>) {
+                if (consumers == null) {
+                    consumers = new ArrayList<>();
+                    streamed = new ArrayList<>(checks);
+                }
+                streamed.set(i, streamed((HttpMessageCheck) messageCheck, consumers));
+            }
+        }
+
+        if (consumers == null) {
+            return checks;
+        }
+
+        BodyExtractor.stream(response.content().orElse(null), consumers);
+        return streamed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X> Check<HttpResponse> streamed(final HttpMessageCheck<HttpResponse, X> check,
+                                                    final List<BodyConsumer<?>> consumers) {
+        final var consumer = new GuardedConsumer<>(((BodyExtractor<HttpResponse, X>) check.extractor()).newConsumer());
+        consumers.add(consumer);
+        return (response, session) -> check.validate(complete(consumer));
+    }
+
+    private static <X> Either<Throwable, Optional<X>> complete(final BodyConsumer<X> consumer) {
+        try {
+            return Either.right(consumer.complete());
+        } catch (final Throwable t) {
+            return Either.left(t);
+        }
+    }
+
+    /**
+     * A consumer that fails must not prevent the other consumers from getting the rest of the body, so
+     * the failure is saved and reported once the consumer is asked to complete.
+     */
+    private static final class GuardedConsumer<X> implements BodyConsumer<X> {
+
+        private final BodyConsumer<X> consumer;
+        private Throwable failure;
+
+        private GuardedConsumer(final BodyConsumer<X> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(final byte[] chunk, final int offset, final int length) {
+            if (failure != null) {
+                return;
+            }
+
+            try {
+                consumer.accept(chunk, offset, length);
+            } catch (final Throwable t) {
+                failure = t;
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            return failure != null || consumer.isDone();
+        }
+
+        @Override
+        public Optional<X> complete() {
+            if (failure != null) {
+                throw new IllegalStateException(failure.getMessage(), failure);
+            }
+            return consumer.complete();
+        }
+    }
 }
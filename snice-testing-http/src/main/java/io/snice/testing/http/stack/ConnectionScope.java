@@ -0,0 +1,26 @@
+package io.snice.testing.http.stack;
+
+/**
+ * Controls with whom an outgoing HTTP connection may be shared, i.e., which requests are allowed to re-use
+ * an already established (and idle) connection to the same host.
+ */
+public enum ConnectionScope {
+
+    /**
+     * The connection is only used by the action that established it and is closed as soon as the action's
+     * request has completed. This is the equivalent of a new TCP (and TLS) handshake for every request.
+     */
+    ACTION,
+
+    /**
+     * The connection is re-used by all actions of the same scenario, which mimics a single "user"
+     * (e.g. a browser or an app) that keeps its connections alive across requests.
+     */
+    SCENARIO,
+
+    /**
+     * The connection is shared across all scenarios, which is what you want when you want to stress the
+     * system under test as opposed to its connection handling.
+     */
+    SHARED
+}
@@ -1,7 +1,7 @@
 package io.snice.testing.http.stack;
 
 import io.snice.codecs.codec.http.HttpRequest;
-import io.snice.networking.common.Connection;
+import io.snice.testing.core.NetworkStats;
 import io.snice.testing.core.action.Action;
 import io.snice.testing.http.protocol.HttpAcceptor;
 import io.snice.testing.http.protocol.HttpTransaction;
@@ -21,22 +21,6 @@ public interface HttpStack {
 
     HttpTransaction.Builder newTransaction(HttpRequest request);
 
-    /**
-     * There are several events that occurs during the lifetime of a {@link Connection}. Often, they may be tied to
-     * an {@link HttpTransaction} since that transaction may have established a new connection but e.g. due to
-     * connection re-use, some connection events may occur long after the original {@link HttpTransaction} that
-     * established the connection in the first place has terminated. Therefore, the connection events are treated
-     * separately from the {@link HttpTransaction} and you register a callback to receive them all (or those that
-     * were created through this {@link HttpStack}. Connections created through another instance
-     * of the {@link HttpStack} will obviously not propagate to this callback.
-     * <p>
-     * also note that if the usage of a particular {@link HttpStack} is only to create a single {@link HttpTransaction}
-     * then yes, the connection events that will occur are very much triggered due to this single transaction.
-     *
-     * @param eventHandler
-     */
-    // void onConnectionEvents(BiConsumer<ConnectionId, Object> eventHandler);
-
     /**
      * The address at which external clients can access this {@link HttpStack}. Typically, this is only used
      * for those {@link Action}s that are accepting traffic (e.g., an action that accepts an incoming webhook).
@@ -48,4 +32,13 @@ public interface HttpStack {
      */
     URL address();
 
+    /**
+     * The {@link NetworkStats} of all the traffic that has gone through this {@link HttpStack} so far. Since every
+     * action gets its own {@link HttpStack}, these are the statistics of the action. A stack that doesn't keep
+     * track of its traffic just returns {@link NetworkStats#EMPTY}.
+     */
+    default NetworkStats networkStats() {
+        return NetworkStats.EMPTY;
+    }
+
 }
@@ -1,4 +1,74 @@
 package io.snice.testing.http.stack;
 
-public record HttpStackUserConfig() {
+import java.time.Duration;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * The configuration of the {@link HttpStack} as requested by a particular "user" of the stack, e.g., an
+ * HTTP action.
+ *
+ * @param connectionScope       with whom the outgoing connections may be shared. See {@link ConnectionScope}.
+ * @param maxConnectionsPerHost the max number of connections, within the given scope, to the same host:port. Once
+ *                              reached, new requests will wait until a connection has become available.
+ * @param idleTimeout           the max amount of time a connection is kept open without being used.
+ * @param pipeliningDepth       the max number of outstanding requests on a single connection. The default is one,
+ *                              i.e., no HTTP/1.1 pipelining. Only increase this if the remote side is known to
+ *                              support pipelining and only for idempotent requests since a connection failure
+ *                              will fail all the requests that were pipelined on it. Ignored for
+ *                              {@link ConnectionScope#ACTION}, in which case a connection only ever carries a
+ *                              single request.
+ * @param preferTlsForAccept    whether incoming traffic should be accepted over TLS (https) or plain TCP (http),
+ *                              assuming the stack has been configured to listen on both. If the stack only
+ *                              listens on one of them, that is what will be used. Everything else about TLS for
+ *                              incoming traffic, such as the certificate, is part of the configuration of the
+ *                              listening points of the stack. TLS for outgoing connections, such as the protocols
+ *                              and cipher suites, is the same for the entire JVM and configured on the runtime
+ *                              (see <code>io.snice.testing.runtime.config.TlsConfig</code>), not per request.
+ */
+public record HttpStackUserConfig(ConnectionScope connectionScope,
+                                  int maxConnectionsPerHost,
+                                  Duration idleTimeout,
+                                  int pipeliningDepth,
+                                  boolean preferTlsForAccept) {
+
+    public static final ConnectionScope DEFAULT_CONNECTION_SCOPE = ConnectionScope.SCENARIO;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_PIPELINING_DEPTH = 1;
+    public static final boolean DEFAULT_PREFER_TLS_FOR_ACCEPT = true;
+
+    public HttpStackUserConfig {
+        assertNotNull(connectionScope, "The connection scope cannot be null");
+        assertArgument(maxConnectionsPerHost > 0, "The max number of connections per host must be greater than zero");
+        assertNotNull(idleTimeout, "The idle timeout cannot be null");
+        assertArgument(!idleTimeout.isNegative() && !idleTimeout.isZero(), "The idle timeout must be greater than zero");
+        assertArgument(pipeliningDepth > 0, "The pipelining depth must be greater than zero");
+    }
+
+    public HttpStackUserConfig() {
+        this(DEFAULT_CONNECTION_SCOPE, DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_IDLE_TIMEOUT, DEFAULT_PIPELINING_DEPTH,
+                DEFAULT_PREFER_TLS_FOR_ACCEPT);
+    }
+
+    public HttpStackUserConfig withConnectionScope(final ConnectionScope scope) {
+        return new HttpStackUserConfig(scope, maxConnectionsPerHost, idleTimeout, pipeliningDepth, preferTlsForAccept);
+    }
+
+    public HttpStackUserConfig withMaxConnectionsPerHost(final int max) {
+        return new HttpStackUserConfig(connectionScope, max, idleTimeout, pipeliningDepth, preferTlsForAccept);
+    }
+
+    public HttpStackUserConfig withIdleTimeout(final Duration timeout) {
+        return new HttpStackUserConfig(connectionScope, maxConnectionsPerHost, timeout, pipeliningDepth, preferTlsForAccept);
+    }
+
+    public HttpStackUserConfig withPipeliningDepth(final int depth) {
+        return new HttpStackUserConfig(connectionScope, maxConnectionsPerHost, idleTimeout, depth, preferTlsForAccept);
+    }
+
+    public HttpStackUserConfig withPreferTlsForAccept(final boolean preferTls) {
+        return new HttpStackUserConfig(connectionScope, maxConnectionsPerHost, idleTimeout, pipeliningDepth, preferTls);
+    }
 }
@@ -0,0 +1,267 @@
+package io.snice.testing.http.stack.impl;
+
+import io.snice.identity.sri.ActionResourceIdentifier;
+import io.snice.identity.sri.SniceResourceIdentifier;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Routes incoming HTTP requests to whatever is waiting for them, which is an
+ * {@link io.snice.testing.http.protocol.HttpAcceptor} for the
+ * {@link SniceHttpStack}.
+ * <p>
+ * There are two ways of routing a request:
+ * <ul>
+ *     <li>By the {@link ActionResourceIdentifier} found in the path of the request. Every acceptor has its
+ *     own unique address, which contains the SRI of the action that created it, so this is the "normal" way.
+ *     The SRI is parsed straight off of the path of the request, without copying nor case converting the path,
+ *     and the lookup itself doesn't allocate either (see {@link SriKey}). If the SRI doesn't belong to any
+ *     acceptor, e.g. because it has already timed out, there is no route for the request, even if its path
+ *     happens to match a path prefix, since it clearly was meant for a particular acceptor and no other.</li>
+ *     <li>By the path of the request. If no SRI is found, the acceptor registered with the longest path prefix
+ *     matching the path of the request is chosen. If several acceptors have registered the same path prefix,
+ *     they are served in the order they registered. This is for when the system under test has a fixed, and
+ *     as such, well-known, URL it delivers its requests to. The root, <code>/</code>, is not a valid prefix
+ *     since it would swallow every request that isn't for anyone in particular.</li>
+ * </ul>
+ * <p>
+ * Registrations are expected to be orders of magnitudes less common than lookups, and the number of distinct
+ * path prefixes to be small.
+ *
+ * @param <T> the type of whatever is being routed to.
+ */
+public final class AcceptorRouter<T> {
+
+    private static final String PREFIX = ActionResourceIdentifier.PREFIX;
+
+    private static final ThreadLocal<SriKey> probes = ThreadLocal.withInitial(SriKey::new);
+
+    private final ConcurrentMap<SriKey, T> bySri = new ConcurrentHashMap<>();
+
+    /**
+     * Sorted on the length of the prefix, longest first. Copy-on-write.
+     */
+    private volatile List<PrefixRoute<T>> byPrefix = List.of();
+
+    public void register(final ActionResourceIdentifier sri, final T target) {
+        assertNotNull(sri);
+        assertNotNull(target);
+        bySri.put(SriKey.of(sri), target);
+    }
+
+    public boolean deregister(final ActionResourceIdentifier sri, final T target) {
+        assertNotNull(sri);
+        return bySri.remove(SriKey.of(sri), target);
+    }
+
+    /**
+     * Register the given target for all requests whose path starts with the given prefix (on a path segment
+     * boundary, i.e., the prefix <code>/demo</code> matches <code>/demo</code> and <code>/demo/a</code> but
+     * not <code>/demonstration</code>).
+     */
+    public synchronized void registerPrefix(final String pathPrefix, final T target) {
+        assertArgument(isValidPrefix(pathPrefix), "The path prefix must start with a '/' and cannot be the root");
+        assertNotNull(target);
+        final var prefix = normalize(pathPrefix);
+
+        for (final var route : byPrefix) {
+            if (route.prefix().equals(prefix)) {
+                route.targets().addLast(target);
+                return;
+            }
+        }
+
+        final var routes = new ArrayList<>(byPrefix);
+        final var route = new PrefixRoute<T>(prefix, new ConcurrentLinkedDeque<>());
+        route.targets().addLast(target);
+        routes.add(route);
+        routes.sort(Comparator.comparingInt((PrefixRoute<T> r) -> r.prefix().length()).reversed());
+        byPrefix = List.copyOf(routes);
+    }
+
+    public synchronized boolean deregisterPrefix(final String pathPrefix, final T target) {
+        assertNotNull(pathPrefix);
+        final var prefix = normalize(pathPrefix);
+        for (final var route : byPrefix) {
+            if (route.prefix().equals(prefix)) {
+                final var removed = route.targets().remove(target);
+                if (route.targets().isEmpty()) {
+                    final var routes = new ArrayList<>(byPrefix);
+                    routes.remove(route);
+                    byPrefix = List.copyOf(routes);
+                }
+                return removed;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the target for the given request-uri.
+     *
+     * @return the target or null if there is none. Note: null as opposed to an {@link java.util.Optional}
+     * since this is on the path of every single incoming request.
+     */
+    public T route(final URI uri) {
+        assertNotNull(uri);
+        final var path = uri.getRawPath();
+        if (path == null) {
+            return null;
+        }
+
+        final var probe = probes.get();
+        if (findSri(path, probe)) {
+            return bySri.get(probe);
+        }
+
+        return routeByPrefix(path);
+    }
+
+    private T routeByPrefix(final String path) {
+        final var routes = byPrefix;
+        for (int i = 0; i < routes.size(); ++i) {
+            final var route = routes.get(i);
+            if (matches(route.prefix(), path)) {
+                final var target = route.targets().peekFirst();
+                if (target != null) {
+                    return target;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(final String prefix, final String path) {
+        if (!path.startsWith(prefix)) {
+            return false;
+        }
+
+        return path.length() == prefix.length() || path.charAt(prefix.length()) == '/';
+    }
+
+    /**
+     * @return true if the given path prefix can be registered, i.e., it starts with a '/' and isn't the root.
+     */
+    static boolean isValidPrefix(final String prefix) {
+        return prefix != null && prefix.startsWith("/") && !normalize(prefix).equals("/");
+    }
+
+    private static String normalize(final String prefix) {
+        return prefix.length() > 1 && prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+    }
+
+    /**
+     * Find the first occurrence of the (case insensitive) SRI prefix followed by
+     * {@link SniceResourceIdentifier#LENGTH} hex digits and parse those into the given key.
+     *
+     * @return true if an SRI was found, in which case the key has been updated.
+     */
+    static boolean findSri(final CharSequence path, final SriKey key) {
+        final var end = path.length() - PREFIX.length() - SniceResourceIdentifier.LENGTH;
+        for (int i = 0; i <= end; ++i) {
+            if (isPrefixAt(path, i) && key.parse(path, i + PREFIX.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPrefixAt(final CharSequence path, final int index) {
+        for (int j = 0; j < PREFIX.length(); ++j) {
+            if (Character.toUpperCase(path.charAt(index + j)) != PREFIX.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record PrefixRoute<T>(String prefix, ConcurrentLinkedDeque<T> targets) {
+    }
+
+    /**
+     * The 128 bits of an SRI, without its prefix.
+     * <p>
+     * The keys stored in the map are never changed after they have been created but for lookups we re-use a
+     * single key per thread, which is updated in place, so that routing an incoming request doesn't allocate.
+     */
+    static final class SriKey {
+
+        private long msb;
+        private long lsb;
+
+        static SriKey of(final ActionResourceIdentifier sri) {
+            final var key = new SriKey();
+            key.msb = sri.mostSignificantBits();
+            key.lsb = sri.leastSignificantBits();
+            return key;
+        }
+
+        /**
+         * Parse the {@link SniceResourceIdentifier#LENGTH} hex digits starting at the given offset.
+         *
+         * @return false if they weren't all hex digits, in which case this key is left in an undefined state.
+         */
+        boolean parse(final CharSequence chars, final int offset) {
+            final var half = SniceResourceIdentifier.LENGTH / 2;
+            var high = 0L;
+            var low = 0L;
+            for (int i = 0; i < half; ++i) {
+                final var h = hex(chars.charAt(offset + i));
+                final var l = hex(chars.charAt(offset + half + i));
+                if (h == -1 || l == -1) {
+                    return false;
+                }
+                high = high << 4 | h;
+                low = low << 4 | l;
+            }
+            msb = high;
+            lsb = low;
+            return true;
+        }
+
+        /**
+         * Unlike {@link Character#digit(char, int)}, only the ASCII hex digits are accepted, not e.g. the
+         * full width digits.
+         *
+         * @return the value of the given hex digit or -1 if it isn't one.
+         */
+        private static int hex(final char c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            }
+            if (c >= 'A' && c <= 'F') {
+                return c - 'A' + 10;
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SriKey other)) return false;
+            return msb == other.msb && lsb == other.lsb;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(msb * 31 + lsb);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", msb, lsb);
+        }
+    }
+}
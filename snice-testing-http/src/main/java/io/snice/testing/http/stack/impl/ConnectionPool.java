@@ -0,0 +1,602 @@
+package io.snice.testing.http.stack.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A pool of outgoing connections, grouped by a key, which typically is the remote host:port plus whatever
+ * else decides whether two requests are allowed to share a connection (see
+ * {@link io.snice.testing.http.stack.ConnectionScope}).
+ * <p>
+ * A connection is handed out to at most <code>maxInFlight</code> users at a time and is given back to the
+ * pool through {@link #release(Object, Object, boolean)} once that user is done with it (for HTTP/1.1, once
+ * the response has been received). For plain HTTP/1.1 the max in-flight is one, but if the remote side
+ * supports pipelining, several requests can be sent back-to-back on the same connection. If all
+ * connections are busy and the max number of connections for a key has been reached, the request to acquire
+ * a connection is queued up and served as soon as a connection has capacity again.
+ * <p>
+ * Idle connections are closed once they have been idle for longer than their idle timeout, which is checked
+ * every time the pool for that key is accessed as well as through {@link #evictIdle()}, which the owner of
+ * the pool is expected to call periodically. Connections closed by the remote side must be reported through
+ * {@link #closed(Object, Object)} so that they are never handed out again.
+ * <p>
+ * Every key belongs to an owner, such as the scenario the connections were established for, and once the
+ * owner no longer needs its connections, they should be closed through {@link #close(Object)} as opposed to
+ * being left to time out.
+ * <p>
+ * The pool is generic over the type of connection so that it doesn't depend on the underlying networking
+ * library (which also makes it a lot easier to test).
+ *
+ * @param <K> the type of key
+ * @param <C> the type of connection
+ */
+final class ConnectionPool<K, C> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final Function<K, CompletionStage<C>> connector;
+    private final Consumer<C> closer;
+    private final LongSupplier clock;
+    private final Function<? super K, ?> owners;
+
+    private final ConcurrentMap<K, HostPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * The keys of every owner that currently has a pool. Only ever updated from within an atomic operation
+     * on {@link #pools} for that key, so that a pool and its owner are always registered, and unregistered,
+     * together.
+     */
+    private final ConcurrentMap<Object, Set<K>> keysByOwner = new ConcurrentHashMap<>();
+
+    /**
+     * A pool where every key is its own owner.
+     */
+    ConnectionPool(final Function<K, CompletionStage<C>> connector, final Consumer<C> closer, final LongSupplier clock) {
+        this(connector, closer, clock, Function.identity());
+    }
+
+    /**
+     * @param connector the function to call to establish a new connection for the given key.
+     * @param closer    the function to call to close a connection.
+     * @param clock     the source of time, in nanoseconds, such as {@link System#nanoTime()}.
+     * @param owners    the function that tells who owns the connections of a given key. See {@link #close(Object)}.
+     */
+    ConnectionPool(final Function<K, CompletionStage<C>> connector,
+                   final Consumer<C> closer,
+                   final LongSupplier clock,
+                   final Function<? super K, ?> owners) {
+        assertNotNull(connector);
+        assertNotNull(closer);
+        assertNotNull(clock);
+        assertNotNull(owners);
+        this.connector = connector;
+        this.closer = closer;
+        this.clock = clock;
+        this.owners = owners;
+    }
+
+    /**
+     * Acquire a connection for the given key. If there is a connection with spare capacity it is re-used, if
+     * not, and we are below the max number of connections, a new connection is established, otherwise, we'll
+     * have to wait for a connection to be released.
+     *
+     * @param maxConnections the max number of connections for the given key.
+     * @param maxInFlight    the max number of users of a single connection at any given time, which is one
+     *                       unless the connection supports pipelining.
+     * @param idleTimeout    for how long a connection is allowed to sit idle before it is closed.
+     * @throws IllegalArgumentException if the pool for the given key already exists but with different limits.
+     *                                  The limits are part of the pool, not of the individual request, so if
+     *                                  they can differ between requests, they have to be part of the key.
+     */
+    CompletionStage<C> acquire(final K key, final int maxConnections, final int maxInFlight, final Duration idleTimeout) {
+        assertNotNull(key);
+        assertArgument(maxConnections > 0, "The max number of connections must be greater than zero");
+        assertArgument(maxInFlight > 0, "The max number of in-flight requests per connection must be greater than zero");
+        assertNotNull(idleTimeout);
+        final var idleTimeoutNanos = idleTimeout.toNanos();
+
+        while (true) {
+            final var pool = pools.computeIfAbsent(key, k -> newPool(k, maxConnections, maxInFlight, idleTimeoutNanos));
+            if (pool.maxConnections != maxConnections || pool.maxInFlight != maxInFlight
+                    || pool.idleTimeoutNanos != idleTimeoutNanos) {
+                throw new IllegalArgumentException("The connection pool for " + key
+                        + " already exists but with different limits");
+            }
+            final var future = pool.acquire();
+            if (future != null) {
+                return future;
+            }
+            // the pool was retired concurrently with us grabbing it, try again.
+        }
+    }
+
+    /**
+     * Give back a connection that was previously handed out by {@link #acquire(Object, int, int, Duration)}.
+     *
+     * @param reusable whether the connection can be used again or not (e.g. the remote side asked us to
+     *                 close it or the transaction failed). If not, it will be closed.
+     */
+    void release(final K key, final C connection, final boolean reusable) {
+        assertNotNull(key);
+        assertNotNull(connection);
+        final var pool = pools.get(key);
+        if (pool == null) {
+            // the pool was closed while the connection was in use so it is closed now that it has been released.
+            logger.debug("Released a connection for {} but there is no such pool. Closing connection", key);
+            closer.accept(connection);
+            return;
+        }
+
+        pool.release(connection, reusable);
+    }
+
+    /**
+     * Close all the connections of the given owner. Idle connections are closed right away and the ones that are
+     * still in use are closed as soon as they are released. Anyone still waiting for a connection is failed.
+     * <p>
+     * Asking for a connection for the same owner after this is fine, it just starts out with a new pool.
+     *
+     * @return the number of connections that were closed right away.
+     */
+    int close(final Object owner) {
+        assertNotNull(owner);
+        final var keys = keysByOwner.remove(owner);
+        if (keys == null) {
+            return 0;
+        }
+
+        var closed = 0;
+        for (final var key : keys) {
+            final var pool = pools.get(key);
+            if (pool != null) {
+                closed += pool.close();
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Tell the pool that the given connection has been closed by the remote side (or the network). A server
+     * may close a connection that has been sitting idle in the pool for a while, so unless the pool is told,
+     * it would happily hand out a dead connection to the next user. There is no need to release a connection
+     * that is currently in use, that should still happen, as usual, once the user is done with it.
+     */
+    void closed(final K key, final C connection) {
+        assertNotNull(key);
+        assertNotNull(connection);
+        final var pool = pools.get(key);
+        if (pool != null) {
+            pool.closed(connection);
+        }
+    }
+
+    /**
+     * Close all connections, across all keys, that have been idle for too long.
+     *
+     * @return the number of connections that were closed.
+     */
+    int evictIdle() {
+        var evicted = 0;
+        for (final var pool : pools.values()) {
+            evicted += pool.evictIdle();
+        }
+        return evicted;
+    }
+
+    /**
+     * The total number of connections, idle or in use (or being established), for the given key.
+     */
+    int connections(final K key) {
+        final var pool = pools.get(key);
+        return pool == null ? 0 : pool.connections();
+    }
+
+    /**
+     * The number of idle connections, i.e., connections without anything in-flight, for the given key.
+     */
+    int idleConnections(final K key) {
+        final var pool = pools.get(key);
+        return pool == null ? 0 : pool.idle();
+    }
+
+    /**
+     * Must only be called from within {@link ConcurrentMap#computeIfAbsent(Object, Function)} on {@link #pools}.
+     */
+    private HostPool newPool(final K key, final int maxConnections, final int maxInFlight, final long idleTimeoutNanos) {
+        keysByOwner.computeIfAbsent(owners.apply(key), owner -> ConcurrentHashMap.newKeySet()).add(key);
+        return new HostPool(key, maxConnections, maxInFlight, idleTimeoutNanos);
+    }
+
+    /**
+     * Remove the given pool, and unregister it from its owner, unless it has already been replaced.
+     */
+    private void remove(final K key, final HostPool pool) {
+        pools.computeIfPresent(key, (k, current) -> {
+            if (current != pool) {
+                return current;
+            }
+
+            keysByOwner.computeIfPresent(owners.apply(k), (owner, keys) -> {
+                keys.remove(k);
+                return keys.isEmpty() ? null : keys;
+            });
+            return null;
+        });
+    }
+
+    /**
+     * A single connection and how many are currently using it.
+     */
+    private static final class Slot<C> {
+
+        private final C connection;
+        private int inFlight;
+        private long idleSince;
+        private boolean closing;
+
+        private Slot(final C connection) {
+            this.connection = connection;
+        }
+
+        private boolean isIdle() {
+            return inFlight == 0;
+        }
+    }
+
+    /**
+     * All the connections for a single key. All state is guarded by the lock of the {@link HostPool} but
+     * we never call out to the connector, the closer, or complete any futures while holding the lock.
+     */
+    private final class HostPool {
+
+        private final K key;
+        private final int maxConnections;
+        private final int maxInFlight;
+        private final long idleTimeoutNanos;
+
+        private final List<Slot<C>> slots = new ArrayList<>();
+        private final ArrayDeque<CompletableFuture<C>> waiters = new ArrayDeque<>();
+
+        /**
+         * The number of connections currently being established.
+         */
+        private int connecting;
+
+        private boolean retired;
+
+        private HostPool(final K key, final int maxConnections, final int maxInFlight, final long idleTimeoutNanos) {
+            this.key = key;
+            this.maxConnections = maxConnections;
+            this.maxInFlight = maxInFlight;
+            this.idleTimeoutNanos = idleTimeoutNanos;
+        }
+
+        /**
+         * @return a future for the connection or null if this pool has been retired.
+         */
+        private CompletableFuture<C> acquire() {
+            final var future = new CompletableFuture<C>();
+            final List<C> expired;
+            C connection = null;
+            boolean connect = false;
+
+            synchronized (this) {
+                if (retired) {
+                    return null;
+                }
+
+                expired = removeExpired();
+                final var slot = leastLoaded();
+                if (slot != null) {
+                    ++slot.inFlight;
+                    connection = slot.connection;
+                } else if (total() < maxConnections) {
+                    ++connecting;
+                    connect = true;
+                } else {
+                    waiters.addLast(future);
+                }
+            }
+
+            close(expired);
+
+            if (connection != null) {
+                future.complete(connection);
+            } else if (connect) {
+                connect(future);
+            }
+
+            return future;
+        }
+
+        private void release(final C connection, final boolean reusable) {
+            final var now = clock.getAsLong();
+            final var handOver = new ArrayList<CompletableFuture<C>>(1);
+            CompletableFuture<C> connectFor = null;
+            boolean close = false;
+
+            synchronized (this) {
+                final var slot = find(connection);
+                if (slot == null) {
+                    close = true;
+                } else {
+                    --slot.inFlight;
+                    slot.closing |= !reusable;
+
+                    if (slot.closing) {
+                        if (slot.isIdle()) {
+                            slots.remove(slot);
+                            close = true;
+                        }
+
+                        if (!waiters.isEmpty() && total() < maxConnections) {
+                            ++connecting;
+                            connectFor = waiters.pollFirst();
+                        }
+                    } else {
+                        serveWaiters(slot, handOver);
+                        if (slot.isIdle()) {
+                            slot.idleSince = now;
+                        }
+                    }
+                }
+
+                retireIfUnused();
+            }
+
+            handOver.forEach(waiter -> waiter.complete(connection));
+
+            if (close) {
+                closer.accept(connection);
+            }
+
+            if (connectFor != null) {
+                connect(connectFor);
+            }
+        }
+
+        private int evictIdle() {
+            final List<C> expired;
+            synchronized (this) {
+                expired = removeExpired();
+                retireIfUnused();
+            }
+
+            close(expired);
+            return expired.size();
+        }
+
+        private synchronized int connections() {
+            return total();
+        }
+
+        private synchronized int idle() {
+            var count = 0;
+            for (final var slot : slots) {
+                if (slot.isIdle()) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        private void connect(final CompletableFuture<C> future) {
+            final CompletionStage<C> stage;
+            try {
+                stage = connector.apply(key);
+            } catch (final Throwable t) {
+                onConnectFailure(future, t);
+                return;
+            }
+
+            stage.whenComplete((connection, error) -> {
+                if (error != null) {
+                    onConnectFailure(future, error);
+                } else {
+                    onConnected(future, connection);
+                }
+            });
+        }
+
+        /**
+         * The new connection is given to whomever asked for it but if it can carry more than one request
+         * at a time, we may as well serve any waiters right away too.
+         */
+        private void onConnected(final CompletableFuture<C> future, final C connection) {
+            final var handOver = new ArrayList<CompletableFuture<C>>();
+            synchronized (this) {
+                --connecting;
+                final var slot = new Slot<>(connection);
+                slot.inFlight = 1;
+                slots.add(slot);
+                serveWaiters(slot, handOver);
+            }
+
+            future.complete(connection);
+            handOver.forEach(waiter -> waiter.complete(connection));
+        }
+
+        /**
+         * If we fail to connect, there is no point trying again for the ones waiting since they would most
+         * likely fail too, but we do need to give back the "slot" we reserved for the new connection. As long
+         * as there are other connections, or other attempts to connect, the ones waiting will eventually be
+         * served by those but if this was the last one, nothing ever will, so they fail as well.
+         */
+        private void onConnectFailure(final CompletableFuture<C> future, final Throwable error) {
+            final List<CompletableFuture<C>> stranded;
+            synchronized (this) {
+                --connecting;
+                if (total() == 0 && !waiters.isEmpty()) {
+                    stranded = new ArrayList<>(waiters);
+                    waiters.clear();
+                } else {
+                    stranded = List.of();
+                }
+                retireIfUnused();
+            }
+            future.completeExceptionally(error);
+            stranded.forEach(waiter -> waiter.completeExceptionally(error));
+        }
+
+        /**
+         * The connection was closed by the remote side, or the network, so it must never be handed out again.
+         * If idle, it is simply dropped from the pool. If still in use, it is treated just like a connection
+         * released as not reusable, i.e., it is dropped once the last user gives it back.
+         */
+        private void closed(final C connection) {
+            synchronized (this) {
+                final var slot = find(connection);
+                if (slot == null) {
+                    return;
+                }
+
+                slot.closing = true;
+                if (slot.isIdle()) {
+                    slots.remove(slot);
+                    retireIfUnused();
+                }
+            }
+        }
+
+        /**
+         * Close all idle connections, mark the ones in use as closing and fail anyone waiting. The pool is retired,
+         * and as such, no longer handed out by {@link ConnectionPool#acquire(Object, int, int, Duration)}. The
+         * owner has already been unregistered by {@link ConnectionPool#close(Object)}.
+         *
+         * @return the number of idle connections that were closed.
+         */
+        private int close() {
+            final var idle = new ArrayList<C>();
+            final List<CompletableFuture<C>> stranded;
+            synchronized (this) {
+                if (retired) {
+                    return 0;
+                }
+
+                retired = true;
+                pools.remove(key, this);
+                for (final var it = slots.iterator(); it.hasNext(); ) {
+                    final var slot = it.next();
+                    slot.closing = true;
+                    if (slot.isIdle()) {
+                        it.remove();
+                        idle.add(slot.connection);
+                    }
+                }
+                stranded = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+
+            close(idle);
+            if (!stranded.isEmpty()) {
+                final var error = new IllegalStateException("The connections for " + key + " have been closed");
+                stranded.forEach(waiter -> waiter.completeExceptionally(error));
+            }
+            return idle.size();
+        }
+
+        /**
+         * Must be called while holding the lock.
+         */
+        private int total() {
+            return slots.size() + connecting;
+        }
+
+        /**
+         * Must be called while holding the lock.
+         */
+        private Slot<C> find(final C connection) {
+            for (final var slot : slots) {
+                if (slot.connection == connection) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Find the connection with the most spare capacity. For connections that are equally loaded, the most
+         * recently used one is preferred so that the least used ones eventually time out.
+         * <p>
+         * Must be called while holding the lock.
+         */
+        private Slot<C> leastLoaded() {
+            Slot<C> best = null;
+            for (final var slot : slots) {
+                if (slot.closing || slot.inFlight >= maxInFlight) {
+                    continue;
+                }
+
+                if (best == null
+                        || slot.inFlight < best.inFlight
+                        || (slot.inFlight == best.inFlight && slot.idleSince > best.idleSince)) {
+                    best = slot;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Must be called while holding the lock.
+         */
+        private void serveWaiters(final Slot<C> slot, final List<CompletableFuture<C>> handOver) {
+            while (slot.inFlight < maxInFlight && !waiters.isEmpty()) {
+                ++slot.inFlight;
+                handOver.add(waiters.pollFirst());
+            }
+        }
+
+        /**
+         * Must be called while holding the lock.
+         */
+        private List<C> removeExpired() {
+            if (slots.isEmpty()) {
+                return List.of();
+            }
+
+            final var now = clock.getAsLong();
+            List<C> expired = null;
+            for (final var it = slots.iterator(); it.hasNext(); ) {
+                final var slot = it.next();
+                if (slot.isIdle() && !slot.closing && now - slot.idleSince >= idleTimeoutNanos) {
+                    it.remove();
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(slot.connection);
+                }
+            }
+            return expired == null ? List.of() : expired;
+        }
+
+        /**
+         * Must be called while holding the lock.
+         */
+        private void retireIfUnused() {
+            if (!retired && total() == 0 && waiters.isEmpty()) {
+                retired = true;
+                remove(key, this);
+            }
+        }
+
+        private void close(final List<C> connections) {
+            connections.forEach(closer);
+        }
+    }
+}
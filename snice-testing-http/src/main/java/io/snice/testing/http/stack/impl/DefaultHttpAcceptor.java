@@ -8,38 +8,115 @@ import io.snice.testing.http.protocol.HttpServerTransaction;
 import io.snice.testing.http.response.RequestResult;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 class DefaultHttpAcceptor implements HttpAcceptor {
 
     private final ActionResourceIdentifier sri;
+    private final Optional<String> pathPrefix;
     private final Duration timeout;
     private final BiFunction<HttpServerTransaction, HttpRequest, RequestResult> onRequest;
     private final Consumer<HttpAcceptor> onTimeout;
     private final Consumer<HttpAcceptor> onTermination;
+    private final HashedWheelTimer timer;
+    private final Consumer<DefaultHttpAcceptor> onExpired;
 
+    /**
+     * Guarded by the lock of this acceptor.
+     */
+    private HashedWheelTimer.Timeout pendingTimeout;
+    private boolean done;
+
+    /**
+     * @param timer     the timer used for the timeout of this acceptor.
+     * @param onExpired called, before the user supplied timeout function, when this acceptor times out so that
+     *                  the stack can stop routing traffic to it.
+     */
     DefaultHttpAcceptor(final ActionResourceIdentifier sri,
+                        final Optional<String> pathPrefix,
                         final Duration timeout,
                         final BiFunction<HttpServerTransaction, HttpRequest, RequestResult> onRequest,
                         final Consumer<HttpAcceptor> onTimeout,
-                        final Consumer<HttpAcceptor> onTermination) {
+                        final Consumer<HttpAcceptor> onTermination,
+                        final HashedWheelTimer timer,
+                        final Consumer<DefaultHttpAcceptor> onExpired) {
         this.sri = sri;
+        this.pathPrefix = pathPrefix;
         this.timeout = timeout;
         this.onRequest = onRequest;
         this.onTimeout = onTimeout;
         this.onTermination = onTermination;
+        this.timer = timer;
+        this.onExpired = onExpired;
     }
 
     ActionResourceIdentifier sri() {
         return sri;
     }
 
-    public RequestResult processRequest(final HttpMessageEvent event) {
-        // TODO: a single request will result in our termination. Eventually, this acceptor needs to
-        // be able to handle multiple http requests etc.
+    /**
+     * If this acceptor also accepts requests based on their path, as opposed to only based on its SRI.
+     * See {@link AcceptorRouter}.
+     */
+    Optional<String> pathPrefix() {
+        return pathPrefix;
+    }
+
+    /**
+     * Start the timer for the first request.
+     */
+    synchronized void start() {
+        scheduleTimeout();
+    }
+
+    /**
+     * Process the incoming request.
+     *
+     * @return the result of processing the request, or null if this acceptor has already timed out (or
+     * processed its last request), in which case the request should be treated as if there were no acceptor.
+     */
+    public synchronized RequestResult processRequest(final HttpMessageEvent event) {
+        if (done) {
+            return null;
+        }
+
+        cancelTimeout();
         final var transaction = new HttpServerTransactionImpl(event);
-        return onRequest.apply(transaction, event.getHttpRequest());
+        final var result = onRequest.apply(transaction, event.getHttpRequest());
+        if (result.isLast()) {
+            done = true;
+        } else {
+            // the timeout applies to every request we are waiting for, not to the acceptor as a whole.
+            scheduleTimeout();
+        }
+        return result;
+    }
+
+    private void onTimeout() {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            done = true;
+            pendingTimeout = null;
+        }
+
+        onExpired.accept(this);
+        onTimeout.accept(this);
+        terminate();
+    }
+
+    private void scheduleTimeout() {
+        pendingTimeout = timer.schedule(this::onTimeout, timeout);
+    }
+
+    private void cancelTimeout() {
+        if (pendingTimeout != null) {
+            pendingTimeout.cancel();
+            pendingTimeout = null;
+        }
     }
 
     /**
@@ -0,0 +1,303 @@
+package io.snice.testing.http.stack.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A timer for a large number of timeouts that rarely fire, such as the timeouts of all the
+ * {@link io.snice.testing.http.protocol.HttpAcceptor}s, where the timeout is only there in case the
+ * request we are waiting for never shows up.
+ * <p>
+ * The timeouts are kept in a "wheel" of buckets, where every bucket represents one tick, and a timeout is placed
+ * in the bucket of the tick in which it expires (wrapping around the wheel as many "rounds" as needed).
+ * Scheduling and cancelling a timeout are both O(1) and neither take a lock. Instead, they are handed over to
+ * the single worker thread, which is the only one touching the buckets. The price paid for this is accuracy,
+ * a timeout will fire up to one tick late, which is fine for its intended use.
+ * <p>
+ * Note that the tasks are executed on the worker thread of the timer and as such, must not block.
+ */
+final class HashedWheelTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final LongSupplier clock;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime;
+
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * The next tick to process. Only accessed by the worker.
+     */
+    private long tick;
+
+    private volatile Thread worker;
+
+    /**
+     * @param tick      the duration of a single tick, i.e., the resolution of the timer.
+     * @param wheelSize the number of buckets of the wheel, which will be rounded up to the next power of two.
+     *                  Timeouts further away than <code>tick * wheelSize</code> will simply go around the
+     *                  wheel more than once.
+     * @param clock     the source of time, in nanoseconds, such as {@link System#nanoTime()}.
+     */
+    HashedWheelTimer(final Duration tick, final int wheelSize, final LongSupplier clock) {
+        assertNotNull(tick);
+        assertArgument(tick.toNanos() > 0, "The tick duration must be greater than zero");
+        assertArgument(wheelSize > 0 && wheelSize <= 1 << 30, "The wheel size must be between 1 and 2^30");
+        assertNotNull(clock);
+
+        this.clock = clock;
+        this.tickNanos = tick.toNanos();
+        final var size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = clock.getAsLong();
+    }
+
+    /**
+     * Start the worker thread of the timer.
+     */
+    void start(final ThreadFactory threadFactory) {
+        assertNotNull(threadFactory);
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        final var thread = threadFactory.newThread(this::run);
+        worker = thread;
+        thread.start();
+    }
+
+    void stop() {
+        if (running.compareAndSet(true, false)) {
+            final var thread = worker;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Schedule the given task to run once the given delay has passed.
+     *
+     * @return a handle that can be used for cancelling the task.
+     */
+    Timeout schedule(final Runnable task, final Duration delay) {
+        assertNotNull(task);
+        assertNotNull(delay);
+        final var deadline = clock.getAsLong() - startTime + Math.max(0, delay.toNanos());
+        final var timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * The number of timeouts that have been scheduled but have neither fired nor been cancelled.
+     */
+    int pending() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (running.get()) {
+            final var now = clock.getAsLong() - startTime;
+            advance(now);
+            final var sleepNanos = tick * tickNanos - now;
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (final InterruptedException e) {
+                    // most likely we've been stopped, which the loop will find out.
+                }
+            }
+        }
+    }
+
+    /**
+     * Process all ticks that have passed up until the given time, which is relative to when this timer was
+     * created. Must only be called by a single thread at a time, which normally is the worker of this timer
+     * (or a unit test).
+     */
+    void advance(final long now) {
+        while (tick * tickNanos <= now) {
+            removeCancelled();
+            transferScheduled();
+            wheel[(int) (tick & mask)].expire();
+            ++tick;
+        }
+    }
+
+    /**
+     * Same as {@link #advance(long)} but using the clock to figure out what time it is.
+     */
+    void advance() {
+        advance(clock.getAsLong() - startTime);
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() != Timeout.SCHEDULED) {
+                continue;
+            }
+
+            // rounded up so that we never fire early. Anything with a deadline in the past goes into
+            // the current bucket and expires right away.
+            final var expiresAt = Math.max(tick, (timeout.deadline + tickNanos - 1) / tickNanos);
+            timeout.remainingRounds = (expiresAt - tick) / wheel.length;
+            wheel[(int) (expiresAt & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * A handle for a scheduled task.
+     */
+    static final class Timeout {
+
+        private static final int SCHEDULED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+
+        // only accessed by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(final HashedWheelTimer timer, final Runnable task, final long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the task, unless it has already been executed.
+         *
+         * @return true if the task was cancelled, false if it already has been executed (or is being executed)
+         * or has already been cancelled.
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(SCHEDULED, CANCELLED)) {
+                return false;
+            }
+
+            timer.pending.decrementAndGet();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Note: a no-op if the timeout has been cancelled.
+         */
+        private void expire() {
+            if (!state.compareAndSet(SCHEDULED, EXPIRED)) {
+                return;
+            }
+
+            timer.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (final Throwable t) {
+                logger.warn("Timer task threw an exception", t);
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts so that a cancelled timeout can be removed in O(1).
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(final Timeout timeout) {
+            final var next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        private void expire() {
+            var timeout = head;
+            while (timeout != null) {
+                final var next = timeout.next;
+                if (timeout.remainingRounds <= 0 || timeout.isCancelled()) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    --timeout.remainingRounds;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
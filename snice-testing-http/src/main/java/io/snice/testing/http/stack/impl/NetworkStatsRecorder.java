@@ -0,0 +1,56 @@
+package io.snice.testing.http.stack.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.testing.core.NetworkStats;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the {@link NetworkStats} of a single {@link io.snice.testing.http.stack.HttpStack}, i.e., of a
+ * single action, as the traffic flows.
+ * <p>
+ * The traffic is recorded on whatever thread the underlying networking stack happens to be using and the
+ * statistics are read by the action once it completes, so everything is kept in {@link LongAdder}s, which means
+ * that neither side ever blocks the other.
+ * <p>
+ * Note that Snice Networking only hands us complete HTTP messages, so the number of bytes sent and received are
+ * those of the message bodies, not of the entire messages as they went over the wire.
+ */
+final class NetworkStatsRecorder {
+
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder connectNanos = new LongAdder();
+    private final LongAdder connectionErrors = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+
+    void connected(final long nanos) {
+        connections.increment();
+        connectNanos.add(nanos);
+    }
+
+    void connectionFailed() {
+        connectionErrors.increment();
+    }
+
+    void sent(final Optional<Buffer> body) {
+        bytesSent.add(size(body));
+    }
+
+    void received(final Optional<Buffer> body) {
+        bytesReceived.add(size(body));
+    }
+
+    NetworkStats snapshot() {
+        return new NetworkStats(connections.sum(),
+                connectNanos.sum(),
+                connectionErrors.sum(),
+                bytesSent.sum(),
+                bytesReceived.sum());
+    }
+
+    private static long size(final Optional<Buffer> body) {
+        return body == null ? 0 : body.map(Buffer::capacity).orElse(0);
+    }
+}
@@ -5,8 +5,10 @@ import io.snice.codecs.codec.http.HttpRequest;
 import io.snice.codecs.codec.http.HttpResponse;
 import io.snice.identity.sri.ActionResourceIdentifier;
 import io.snice.identity.sri.ScenarioResourceIdentifier;
-import io.snice.networking.common.ConnectionId;
 import io.snice.networking.common.Transport;
+import io.snice.networking.common.event.ConnectionClosedIOEvent;
+import io.snice.networking.common.event.ConnectionInactiveIOEvent;
+import io.snice.networking.common.event.ConnectionInfoEvent;
 import io.snice.networking.core.ListeningPoint;
 import io.snice.networking.http.HttpApplication;
 import io.snice.networking.http.HttpBootstrap;
@@ -14,6 +16,7 @@ import io.snice.networking.http.HttpConnection;
 import io.snice.networking.http.HttpEnvironment;
 import io.snice.networking.http.event.HttpEvent;
 import io.snice.networking.http.event.HttpMessageEvent;
+import io.snice.testing.core.NetworkStats;
 import io.snice.testing.core.action.Action;
 import io.snice.testing.core.protocol.Protocol;
 import io.snice.testing.core.scenario.Scenario;
@@ -22,8 +25,10 @@ import io.snice.testing.http.protocol.HttpAcceptor;
 import io.snice.testing.http.protocol.HttpServerTransaction;
 import io.snice.testing.http.protocol.HttpTransaction;
 import io.snice.testing.http.response.RequestResult;
+import io.snice.testing.http.stack.ConnectionScope;
 import io.snice.testing.http.stack.HttpStack;
 import io.snice.testing.http.stack.HttpStackUserConfig;
+import io.snice.util.concurrent.SniceThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,15 +37,20 @@ import java.net.URI;
 import java.net.URL;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
+import static io.snice.preconditions.PreConditions.assertArgument;
 import static io.snice.preconditions.PreConditions.assertNotNull;
 import static io.snice.preconditions.PreConditions.assertNull;
-import static io.snice.testing.http.stack.impl.HttpStackUtils.extractSri;
 
 public class SniceHttpStack extends HttpApplication<HttpConfig> {
 
@@ -50,8 +60,32 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
 
     private final ConcurrentMap<ActionResourceIdentifier, HttpStackWrapper> stacks = new ConcurrentHashMap<>();
 
-    // TODO: need sane default values for the size of the map...
-    private final ConcurrentMap<ActionResourceIdentifier, DefaultHttpAcceptor> acceptors = new ConcurrentHashMap<>();
+    private final AcceptorRouter<DefaultHttpAcceptor> acceptors = new AcceptorRouter<>();
+
+    /**
+     * How often we check for idle connections that should be closed.
+     */
+    private static final Duration IDLE_CONNECTION_SWEEP_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Duration ACCEPTOR_TIMER_TICK = Duration.ofMillis(100);
+    private static final int ACCEPTOR_TIMER_WHEEL_SIZE = 512;
+
+    private final ConnectionPool<PoolKey, HttpConnection> pool =
+            new ConnectionPool<>(this::connect, HttpConnection::close, System::nanoTime, PoolKey::owner);
+
+    private ScheduledExecutorService idleConnectionSweeper;
+
+    /**
+     * The time it took to establish a new connection, which is charged to the first {@link HttpStack} (i.e.,
+     * action) that gets to use that connection.
+     */
+    private final ConcurrentMap<HttpConnection, Long> connectTimes = new ConcurrentHashMap<>();
+
+    /**
+     * The timer for all the {@link HttpAcceptor} timeouts, of which there could be tens of thousands, almost all
+     * of which will be cancelled because the request they are waiting for showed up.
+     */
+    private final HashedWheelTimer acceptorTimer = new HashedWheelTimer(ACCEPTOR_TIMER_TICK, ACCEPTOR_TIMER_WHEEL_SIZE, System::nanoTime);
 
 
     @Override
@@ -76,24 +110,34 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
      *                     the execution of actions.
      * @param actionSri    the SRI of the {@link Action} that requested this stack (or rather, the {@link Protocol}
      *                     the action is using requested this stack to be created)
-     * @param eventHandler there are several informational events that are being emitted by the underlying stack and
-     *                     if registered, those are delivered to this event handler.
      * @param config       unique http configuration just for this "user".
      * @return
      */
     public HttpStack newStack(final ScenarioResourceIdentifier scenarioSri,
                               final ActionResourceIdentifier actionSri,
-                              final BiConsumer<ConnectionId, Object> eventHandler,
                               final HttpStackUserConfig config) {
         assertNotNull(scenarioSri);
         assertNotNull(actionSri);
         assertNotNull(config);
         final var address = allocateNewAddress(actionSri, config);
-        final var stack = new HttpStackWrapper(scenarioSri, actionSri, config, eventHandler, this, address);
+        final var stack = new HttpStackWrapper(scenarioSri, actionSri, config, this, address, new NetworkStatsRecorder());
         stacks.put(actionSri, stack);
         return stack;
     }
 
+    /**
+     * Once a {@link Scenario} has finished, the connections it owns, i.e., the ones established for it when
+     * its connections are scoped to the scenario (see {@link ConnectionScope#SCENARIO}), are of no use to anyone
+     * else, so they are closed right away as opposed to lingering until their idle timeout.
+     */
+    public void scenarioFinished(final ScenarioResourceIdentifier scenarioSri) {
+        assertNotNull(scenarioSri);
+        final var closed = pool.close(scenarioSri);
+        if (closed > 0) {
+            logger.debug("Closed {} HTTP connection(s) of scenario {}", closed, scenarioSri);
+        }
+    }
+
     private void onApplicationEvent(final HttpConnection connection, final Object event) {
         // TODO: this is an error. All should be caught by the c.onConnectionInfoEvent as registered
         //       when the connection was established
@@ -104,6 +148,9 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
      * address so that we can dispatch traffic properly. We rely on the underlying Snice Networking
      * to provide a so-called VIP Address, which is typically an external load balancer so that
      * external traffic can reach out.
+     * <p>
+     * Whether the address is an http or https address depends on the preference of the user, see
+     * {@link HttpStackUserConfig#preferTlsForAccept()}, and what the stack is actually listening on.
      *
      * @param sri
      * @return
@@ -112,12 +159,13 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
         try {
             final var nic = env.getDefaultNetworkInterface();
 
-            // TODO: would need to look into the user preference to see what they prefer. http or https etc...
+            final var preferred = config.preferTlsForAccept() ? Transport.tls : Transport.tcp;
+            final var fallback = config.preferTlsForAccept() ? Transport.tcp : Transport.tls;
             final ListeningPoint<HttpEvent> lp;
-            if (nic.isSupportingTransport(Transport.tls)) {
-                lp = nic.getListeningPoint(Transport.tls);
-            } else if (nic.isSupportingTransport(Transport.tcp)) {
-                lp = nic.getListeningPoint(Transport.tcp);
+            if (nic.isSupportingTransport(preferred)) {
+                lp = nic.getListeningPoint(preferred);
+            } else if (nic.isSupportingTransport(fallback)) {
+                lp = nic.getListeningPoint(fallback);
             } else {
                 // TODO: not sure how to handle but bail for now.
                 throw new IllegalArgumentException("Unable to find suitable Network Interface. The default " +
@@ -137,6 +185,43 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
     @Override
     public void run(final HttpConfig configuration, final HttpEnvironment<HttpConfig> environment) {
         env = environment;
+
+        final var threadFactory = SniceThreadFactory.withNamePrefix("snice-http-idle-").withDaemon(true).build();
+        idleConnectionSweeper = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        final var interval = IDLE_CONNECTION_SWEEP_INTERVAL.toMillis();
+        idleConnectionSweeper.scheduleWithFixedDelay(this::evictIdleConnections, interval, interval, TimeUnit.MILLISECONDS);
+
+        acceptorTimer.start(SniceThreadFactory.withNamePrefix("snice-http-timer-").withDaemon(true).build());
+    }
+
+    private void evictIdleConnections() {
+        try {
+            final var evicted = pool.evictIdle();
+            if (evicted > 0) {
+                logger.debug("Closed {} idle HTTP connection(s)", evicted);
+            }
+        } catch (final Throwable t) {
+            logger.warn("Unable to evict idle HTTP connections", t);
+        }
+    }
+
+    private CompletionStage<HttpConnection> connect(final PoolKey key) {
+        final var start = System.nanoTime();
+        return env.connect(key.transport(), key.host(), key.port()).thenApply(connection -> {
+            connectTimes.put(connection, System.nanoTime() - start);
+
+            // for a pooled connection, it is quite often the server closing it while it is sitting idle in the pool.
+            connection.onConnectionInfoEvent((con, event) -> {
+                if (isClosed(event)) {
+                    pool.closed(key, connection);
+                }
+            });
+            return connection;
+        });
+    }
+
+    private static boolean isClosed(final ConnectionInfoEvent event) {
+        return event instanceof ConnectionClosedIOEvent || event instanceof ConnectionInactiveIOEvent;
     }
 
     private HttpTransaction.Builder newTransaction(final HttpStackWrapper wrapper, final HttpRequest request) {
@@ -148,15 +233,13 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
         // TODO: should perhaps give this to the ActionFsm instead since now it is a bit hard
         // to look at the logs and see what's going on.
         final var req = event.getHttpRequest();
-        final var acceptorMaybe = mapRequest(req);
-        final var result = acceptorMaybe
-                .map(acceptor -> acceptor.processRequest(event))
-                .orElseGet(SniceHttpStack::notFound);
+        final var acceptor = acceptors.route(req.uri());
+        final var processed = acceptor != null ? acceptor.processRequest(event) : null;
+        final var result = processed != null ? processed : notFound();
 
         connection.send(result.response());
 
-        if (result.isLast() && acceptorMaybe.isPresent()) {
-            final var acceptor = acceptorMaybe.get();
+        if (result.isLast() && processed != null) {
             deRegisterHttpAcceptor(acceptor);
             acceptor.terminate();
         }
@@ -174,16 +257,13 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
     }
 
     private void deRegisterHttpAcceptor(final DefaultHttpAcceptor acceptor) {
-        acceptors.remove(acceptor.sri());
+        acceptors.deregister(acceptor.sri(), acceptor);
+        acceptor.pathPrefix().ifPresent(prefix -> acceptors.deregisterPrefix(prefix, acceptor));
     }
 
     private void registerHttpAcceptor(final DefaultHttpAcceptor acceptor) {
-        acceptors.put(acceptor.sri(), acceptor);
-    }
-
-    private Optional<DefaultHttpAcceptor> mapRequest(final HttpRequest req) {
-        return extractSri(ActionResourceIdentifier.PREFIX, ActionResourceIdentifier::from, req.uri())
-                .map(acceptors::get);
+        acceptors.register(acceptor.sri(), acceptor);
+        acceptor.pathPrefix().ifPresent(prefix -> acceptors.registerPrefix(prefix, acceptor));
     }
 
     private static void onHttpResponse(final HttpConnection connection, final HttpMessageEvent event) {
@@ -191,12 +271,44 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
         resp.headers().forEach(System.err::println);
     }
 
+    /**
+     * The key of the {@link ConnectionPool}, where the owner is whatever the {@link ConnectionScope} says the
+     * connection can be shared with. The TLS configuration is the same for the entire JVM, so it doesn't split
+     * the pools. The limits of the pool are part of the key though, so that requests asking for different limits
+     * each get a pool of their own.
+     */
+    private record PoolKey(Object owner,
+                           Transport transport,
+                           String host,
+                           int port,
+                           int maxConnections,
+                           int maxInFlight,
+                           Duration idleTimeout) {
+
+        private static final Object SHARED = "shared";
+
+        static PoolKey of(final HttpStackUserConfig config,
+                          final HttpStackWrapper wrapper,
+                          final Transport transport,
+                          final String host,
+                          final int port) {
+            final Object owner = switch (config.connectionScope()) {
+                case ACTION -> wrapper.actionSri();
+                case SCENARIO -> wrapper.scenarioSri();
+                case SHARED -> SHARED;
+            };
+            final var maxInFlight = config.connectionScope() == ConnectionScope.ACTION ? 1 : config.pipeliningDepth();
+            return new PoolKey(owner, transport, host, port, config.maxConnectionsPerHost(), maxInFlight,
+                    config.idleTimeout());
+        }
+    }
+
     private static record HttpStackWrapper(ScenarioResourceIdentifier scenarioSri,
                                            ActionResourceIdentifier actionSri,
                                            HttpStackUserConfig config,
-                                           BiConsumer<ConnectionId, Object> eventHandler,
                                            SniceHttpStack actualStack,
-                                           URL address) implements HttpStack {
+                                           URL address,
+                                           NetworkStatsRecorder network) implements HttpStack {
 
         @Override
         public HttpAcceptor.Builder newHttpAcceptor(final Duration timeout) {
@@ -212,6 +324,11 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
             builder.applicationData(scenarioSri);
             return builder;
         }
+
+        @Override
+        public NetworkStats networkStats() {
+            return network.snapshot();
+        }
     }
 
     private class HttpAcceptorBuilder implements HttpAcceptor.Builder {
@@ -222,6 +339,7 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
         private BiFunction<HttpServerTransaction, HttpRequest, RequestResult> onRequest;
         private Consumer<HttpAcceptor> onTimeout;
         private Consumer<HttpAcceptor> onTermination;
+        private String pathPrefix;
 
         HttpAcceptorBuilder(final ActionResourceIdentifier sri, final Duration timeout) {
             this.sri = sri;
@@ -250,14 +368,23 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
 
         }
 
+        @Override
+        public HttpAcceptor.Builder pathPrefix(final String prefix) {
+            assertArgument(AcceptorRouter.isValidPrefix(prefix), "The path prefix must start with a '/' and cannot be the root");
+            pathPrefix = prefix;
+            return this;
+        }
+
         @Override
         public HttpAcceptor start() {
             assertNotNull(onRequest, "You must specify a function for handling the incoming Http Request");
             assertNotNull(onTimeout, "You must specify a function for handling the timeout");
             assertNotNull(onTermination, "You must specify a function for handling the termination of the "
                     + HttpAcceptor.class.getSimpleName());
-            final var acceptor = new DefaultHttpAcceptor(sri, timeout, onRequest, onTimeout, onTermination);
+            final var acceptor = new DefaultHttpAcceptor(sri, Optional.ofNullable(pathPrefix), timeout, onRequest, onTimeout,
+                    onTermination, acceptorTimer, SniceHttpStack.this::deRegisterHttpAcceptor);
             registerHttpAcceptor(acceptor);
+            acceptor.start();
             return acceptor;
         }
 
@@ -271,6 +398,7 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
         private final HttpStackWrapper wrapper;
 
         private BiConsumer<HttpTransaction, HttpResponse> onResponseFunction;
+        private BiConsumer<HttpTransaction, Throwable> onFailureFunction;
         private Object applicationData;
 
         private HttpTransactionBuilder(final SniceHttpStack sniceHttpStack,
@@ -290,6 +418,13 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
             return this;
         }
 
+        @Override
+        public HttpTransaction.Builder onFailure(final BiConsumer<HttpTransaction, Throwable> f) {
+            assertNotNull(f);
+            onFailureFunction = f;
+            return this;
+        }
+
         @Override
         public HttpTransaction.Builder applicationData(final Object data) {
             assertNull(applicationData, "The application data has already been set. You cannot set it again. Reason, it could hide a bug");
@@ -299,7 +434,8 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
 
         @Override
         public HttpTransaction start() {
-            return new DefaultHttpTransaction(sniceHttpStack, env, request, onResponseFunction, wrapper, Optional.ofNullable(applicationData)).start();
+            return new DefaultHttpTransaction(sniceHttpStack, env, request, onResponseFunction, onFailureFunction, wrapper,
+                    Optional.ofNullable(applicationData)).start();
         }
 
     }
@@ -308,6 +444,7 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
                                           HttpEnvironment<HttpConfig> env,
                                           HttpRequest request,
                                           BiConsumer<HttpTransaction, HttpResponse> onResponse,
+                                          BiConsumer<HttpTransaction, Throwable> onFailure,
                                           HttpStackWrapper wrapper,
                                           Optional<Object> applicationData)
             implements HttpTransaction {
@@ -317,35 +454,66 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
             final var remoteHost = remoteDest.getHost();
             final int remotePort = resolveRemotePort(request, remoteDest);
             final var transport = resolveTransport(request);
+            final var config = wrapper.config();
+            final var key = PoolKey.of(config, wrapper, transport, remoteHost, remotePort);
+
+            final var network = wrapper.network();
+            sniceHttpStack.pool.acquire(key, key.maxConnections(), key.maxInFlight(), key.idleTimeout()).whenComplete((c, error) -> {
+                if (error != null) {
+                    network.connectionFailed();
+                    logger.warn("Unable to establish a connection to {}:{} over {}", remoteHost, remotePort, transport, error);
+                    fail(error);
+                    return;
+                }
 
-            // TODO: we may, or may not, want to share an existing connection with others. This is
-            //      currently not supported by Snice Networking but it really should be. However, in
-            //      Sncie Testing, most of the time we probably don't want to share connection outside
-            //      the same Scenario (so we get the statistics etc just for a single scenario and so on...
-            // TODO: in the case the connection fails, we also want to register those connection events etc
-            //       so they are visble in our stack. This is just the happy case right now.
-            env.connect(transport, remoteHost, remotePort).thenAccept(c -> {
+                final var connectTime = sniceHttpStack.connectTimes.remove(c);
+                if (connectTime != null) {
+                    network.connected(connectTime);
+                }
 
                 // TODO: we probably want to send an event regarding which address the remoteHost:port
                 //      actually resolved to (assuming it is a FQDN).
                 //      We could just create that event here and ask the SniceHttpStack to dispatch it.
 
-                c.onConnectionInfoEvent((con, event) -> {
-                    if (wrapper.eventHandler != null) {
-                        wrapper.eventHandler.accept(con.id(), event);
-                    }
-                });
-
+                // Note: the connection events are not forwarded to the scenario since that is a full actor
+                // message per event. The traffic is accumulated right here and handed over to the scenario,
+                // once, as part of the Execution of the action.
+                final var reusable = config.connectionScope() != ConnectionScope.ACTION;
                 final var transactionBuilder = c.createNewTransaction(request)
-                        .onResponse((tx, resp) -> onResponse.accept(this, resp))
-                        .onTransactionTimeout(tx -> logger.warn("Currently not handling the transaction timing out"))
+                        .onResponse((tx, resp) -> {
+                            network.received(resp.content());
+                            sniceHttpStack.pool.release(key, c, reusable && isKeepAlive(resp));
+                            onResponse.accept(this, resp);
+                        })
+                        .onTransactionTimeout(tx -> {
+                            // we have no idea what state the connection is in so it is not re-used.
+                            sniceHttpStack.pool.release(key, c, false);
+                            fail(new TimeoutException("No response to the HTTP request to " + remoteHost + ":" + remotePort));
+                        })
                         .onTransactionTerminated(tx -> logger.info("HTTP Transaction terminated"));
                 applicationData.ifPresent(transactionBuilder::withApplicationData);
+                network.sent(request.content());
                 transactionBuilder.start();
             });
             return this;
         }
 
+        private void fail(final Throwable error) {
+            if (onFailure != null) {
+                onFailure.accept(this, error);
+            }
+        }
+
+        /**
+         * HTTP/1.1 connections are persistent unless the server tells us otherwise.
+         */
+        private static boolean isKeepAlive(final HttpResponse response) {
+            return response.header(HttpHeader.CONNECTION)
+                    .map(header -> header.value().toString())
+                    .filter("close"::equalsIgnoreCase)
+                    .isEmpty();
+        }
+
         private static URI resolveRemoteDest(final HttpRequest req) {
             return req.header("Host")
                     .map(host -> (req.isSecure() ? "https://" : "http://") + host.value())
@@ -363,15 +531,7 @@ public class SniceHttpStack extends HttpApplication<HttpConfig> {
         }
 
         private static Transport resolveTransport(final HttpRequest req) {
-            // TLS is poorly supported by Snice Networking right now so we'll just claim
-            // TCP but configure the Snice stack to do TLS anyway...
-                /*
-                if (req.isSecure()) {
-                    return Transport.tls;
-                }
-                 */
-
-            return Transport.tcp;
+            return req.isSecure() ? Transport.tls : Transport.tcp;
         }
     }
 
@@ -53,7 +53,7 @@ public class TestBase {
         final var protocol = mock(HttpProtocol.class);
         when(protocol.baseUrl()).thenReturn(Optional.ofNullable(baseUrl == null ? null : Expression.of(baseUrl)));
         if (stack != null) {
-            when(protocol.newStack(any(), any(), any(), any())).thenReturn(stack);
+            when(protocol.newStack(any(), any(), any())).thenReturn(stack);
         }
 
         return protocol;
@@ -101,6 +101,7 @@ class InitiateHttpRequestActionTest extends TestBase {
         verifyNoMoreInteractions(builder);
 
         verify(transactionBuilder).onResponse(any());
+        verify(transactionBuilder).onFailure(any());
         verify(transactionBuilder).start();
 
         // There should be zero interactions with the next Action since that won't
@@ -0,0 +1,136 @@
+package io.snice.testing.http.check;
+
+import io.snice.buffer.Buffers;
+import io.snice.codecs.codec.http.HttpResponse;
+import io.snice.testing.core.Session;
+import io.snice.testing.core.check.Check;
+import io.snice.testing.http.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static io.snice.testing.http.check.HttpCheckSupport.bodyContains;
+import static io.snice.testing.http.check.HttpCheckSupport.bodyRegex;
+import static io.snice.testing.http.check.HttpCheckSupport.headerRegex;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HttpPatternCheckTest extends TestBase {
+
+    private static final String BODY = "<Response><Call><Sid>CA1234</Sid><Status>queued</Status></Call></Response>";
+
+    private Session session;
+    private HttpResponse response;
+
+    @BeforeEach
+    public void setup() {
+        session = new Session("Unit Test");
+        response = response(BODY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"<Response>", "</Response>", "CA1234", "<Sid>CA1234</Sid>", "e", BODY})
+    public void testBodyContains(final String literal) {
+        assertThat(bodyContains(literal).is(true).check(response, session).isSuccess(), is(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"<response>", "CA12345", "queued>", BODY + " "})
+    public void testBodyDoesNotContain(final String literal) {
+        assertThat(bodyContains(literal).is(false).check(response, session).isSuccess(), is(true));
+    }
+
+    @Test
+    public void testBodyContainsNoBody() {
+        final var noBody = HttpResponse.create(204).build();
+        assertThat(bodyContains("hello").is(false).check(noBody, session).isSuccess(), is(true));
+    }
+
+    /**
+     * Compare the Boyer-Moore-Horspool search against {@link String#indexOf(String)} over a small alphabet,
+     * which is where the partial matches, and therefore the bugs, are.
+     */
+    @Test
+    public void testLiteralSearchAgainstIndexOf() {
+        final var random = new Random(42);
+        for (int i = 0; i < 2000; ++i) {
+            final var haystack = randomString(random, random.nextInt(64));
+            final var needle = randomString(random, 1 + random.nextInt(6));
+            final var search = LiteralSearch.compile(needle);
+            assertThat(haystack + " / " + needle, search.indexOf(Buffers.wrap(haystack)), is(haystack.indexOf(needle)));
+        }
+    }
+
+    @Test
+    public void testBodyRegex() {
+        assertThat(bodyRegex("<Sid>(\\w+)</Sid>").is("CA1234").check(response, session).isSuccess(), is(true));
+        assertThat(bodyRegex("CA\\d+").is("CA1234").check(response, session).isSuccess(), is(true));
+        assertThat(bodyRegex("<Nope>(\\w+)</Nope>").exists().check(response, session).isFailure(), is(true));
+    }
+
+    /**
+     * The pattern is matched against the raw bytes but the extracted value must still be decoded as UTF-8.
+     */
+    @Test
+    public void testBodyRegexUtf8() {
+        final var utf8 = response("<Name>\u00c5sa \u00d6berg</Name>");
+        assertThat(bodyRegex("<Name>(.+)</Name>").is("\u00c5sa \u00d6berg").check(utf8, session).isSuccess(), is(true));
+    }
+
+    @Test
+    public void testBodyRegexSaveAs() {
+        final var check = bodyRegex("<Status>(\\w+)</Status>").exists().saveAs("status");
+        final var result = Check.check(response, session, List.of(check));
+        assertThat(result.left().attributes("status"), is(Optional.of("queued")));
+    }
+
+    @Test
+    public void testHeaderRegex() {
+        final var request = someHttpRequest("Location", "/calls/CA1234/recordings", "Apa", "Nisse").build();
+        assertThat(headerRegex("Location", "/calls/(\\w+)/").is("CA1234").check(request, session).isSuccess(), is(true));
+        assertThat(headerRegex("Location", "/accounts/(\\w+)").exists().check(request, session).isFailure(), is(true));
+        assertThat(headerRegex("Nope", ".*").exists().check(request, session).isFailure(), is(true));
+    }
+
+    /**
+     * The Location of a newly created resource is the typical example, which is a header of the response
+     * to a request we sent, so the check has to be usable as a {@link Check} of an {@link HttpResponse}, such as
+     * the ones given to <code>InitiateHttpRequestBuilder.check</code>.
+     */
+    @Test
+    public void testHeaderRegexResponse() {
+        final var created = HttpResponse.create(201).header("Location", "/calls/CA1234").build();
+        final Check<HttpResponse> check = headerRegex(HttpResponse.class, "Location", "/calls/(\\w+)").exists().saveAs("callId");
+
+        final var result = Check.check(created, session, List.of(check));
+        assertThat(result.right().get(0).isSuccess(), is(true));
+        assertThat(result.left().attributes("callId"), is(Optional.of("CA1234")));
+        assertThat(headerRegex(HttpResponse.class, "Location", "/accounts/(\\w+)").exists().check(created, session).isFailure(), is(true));
+    }
+
+    @Test
+    public void testBadPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> bodyRegex("(unbalanced"));
+        assertThrows(IllegalArgumentException.class, () -> bodyRegex(""));
+        assertThrows(IllegalArgumentException.class, () -> headerRegex("Location", "["));
+        assertThrows(IllegalArgumentException.class, () -> bodyContains(""));
+    }
+
+    private static HttpResponse response(final String body) {
+        return HttpResponse.create(200).content(Buffers.wrap(body)).build();
+    }
+
+    private static String randomString(final Random random, final int length) {
+        final var sb = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+}
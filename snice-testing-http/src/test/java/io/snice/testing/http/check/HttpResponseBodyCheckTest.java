@@ -0,0 +1,85 @@
+package io.snice.testing.http.check;
+
+import io.snice.buffer.Buffers;
+import io.snice.codecs.codec.http.HttpResponse;
+import io.snice.testing.core.Session;
+import io.snice.testing.http.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static io.snice.testing.http.check.HttpCheckSupport.bodyHash;
+import static io.snice.testing.http.check.HttpCheckSupport.bodySize;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HttpResponseBodyCheckTest extends TestBase {
+
+    /**
+     * Large enough to be split into a few chunks.
+     */
+    private static final String BODY = "x".repeat(2 * BodyExtractor.CHUNK_SIZE + 17);
+
+    private Session session;
+    private HttpResponse response;
+
+    @BeforeEach
+    public void setup() {
+        session = new Session("Unit Test");
+        response = HttpResponse.create(200).content(Buffers.wrap(BODY)).build();
+    }
+
+    @Test
+    public void testBodySize() {
+        final var result = bodySize().is((long) BODY.length()).check(response, session);
+        assertThat(result.isSuccess(), is(true));
+        assertThat(result.extractedValue(), is(Optional.of((long) BODY.length())));
+    }
+
+    @Test
+    public void testBodySizeNoBody() {
+        final var noBody = HttpResponse.create(204).build();
+        assertThat(bodySize().is(0L).check(noBody, session).isSuccess(), is(true));
+    }
+
+    @Test
+    public void testBodyHash() throws Exception {
+        final var expected = sha256(BODY);
+        assertThat(bodyHash("SHA-256").is(expected).check(response, session).isSuccess(), is(true));
+        assertThat(bodyHash("SHA-256").is("nope").check(response, session).isFailure(), is(true));
+    }
+
+    @Test
+    public void testBodyHashUnknownAlgorithm() {
+        assertThrows(IllegalArgumentException.class, () -> bodyHash("NOT-A-HASH"));
+    }
+
+    /**
+     * A consumer blowing up should fail the check, not the processing of the response.
+     */
+    @Test
+    public void testBodyConsumerFails() {
+        final var check = HttpCheckSupport.<String>body(() -> new BodyConsumer<>() {
+            @Override
+            public void accept(final byte[] chunk, final int offset, final int length) {
+                throw new IllegalStateException("boom");
+            }
+
+            @Override
+            public Optional<String> complete() {
+                return Optional.empty();
+            }
+        }).is("whatever");
+
+        assertThat(check.check(response, session).isFailure(), is(true));
+    }
+
+    private static String sha256(final String value) throws Exception {
+        final var digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(value.getBytes()));
+    }
+}
@@ -0,0 +1,178 @@
+package io.snice.testing.http.check;
+
+import io.snice.buffer.Buffers;
+import io.snice.codecs.codec.http.HttpResponse;
+import io.snice.testing.core.Session;
+import io.snice.testing.core.check.Check;
+import io.snice.testing.http.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static io.snice.testing.http.check.HttpCheckSupport.jsonPath;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonPathTest extends TestBase {
+
+    private static final String JSON = """
+            {
+              "sid": "CA1234",
+              "status" : "in-progress",
+              "duration": 42,
+              "answered": true,
+              "parent": null,
+              "escaped": "say \\"hello\\" \\u00e5",
+              "nested": { "sid": "wrong", "calls": [ {"from": "alice"}, {"from": "bob", "tags": ["a", "b"]} ] },
+              "empty": [],
+              "weird key": { "a]": 1 }
+            }
+            """;
+
+    private Session session;
+
+    @BeforeEach
+    public void setup() {
+        session = new Session("Unit Test");
+    }
+
+    @Test
+    public void testCompile() {
+        assertThat(JsonPath.compile("$").segments().isEmpty(), is(true));
+        assertThat(JsonPath.compile("$.a.b[3]['c d'][\"e\"]").segments(), is(List.of(
+                new JsonPath.Field("a"),
+                new JsonPath.Field("b"),
+                new JsonPath.Index(3),
+                new JsonPath.Field("c d"),
+                new JsonPath.Field("e"))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "sid", "$.", "$..sid", "$.*", "$[*]", "$[-1]", "$[1", "$.a[?(@.b)]", "$a"})
+    public void testCompileBadPath(final String path) {
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile(path));
+    }
+
+    @Test
+    public void testExtract() {
+        ensureExtract("$.sid", "CA1234");
+        ensureExtract("$.status", "in-progress");
+        ensureExtract("$.duration", "42");
+        ensureExtract("$.answered", "true");
+        ensureExtract("$.parent", "null");
+        ensureExtract("$.escaped", "say \"hello\" \u00e5");
+        ensureExtract("$.nested.sid", "wrong");
+        ensureExtract("$.nested.calls[1].from", "bob");
+        ensureExtract("$.nested.calls[1]['tags'][1]", "b");
+        ensureExtract("$.nested.calls[0]", "{\"from\": \"alice\"}");
+        ensureExtract("$.empty", "[]");
+        ensureExtract("$['weird key']['a]']", "1");
+    }
+
+    @Test
+    public void testExtractRoot() {
+        ensureExtract("[1, 2]", "$", "[1, 2]");
+        ensureExtract("17", "$", "17");
+        ensureExtract("\"hello\"", "$", "hello");
+        ensureExtract("[1, 2]", "$[1]", "2");
+    }
+
+    @Test
+    public void testNotFound() {
+        ensureNotFound(JSON, "$.nope");
+        ensureNotFound(JSON, "$.sid.nope");
+        ensureNotFound(JSON, "$.nested.calls[2]");
+        ensureNotFound(JSON, "$.empty[0]");
+        ensureNotFound(JSON, "$[0]");
+        ensureNotFound("", "$.sid");
+    }
+
+    /**
+     * The value must be found no matter how the body happens to be split into chunks.
+     */
+    @Test
+    public void testChunkBoundaries() {
+        final var bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        for (int chunkSize = 1; chunkSize < 16; ++chunkSize) {
+            final var consumer = new JsonPathConsumer(JsonPath.compile("$.nested.calls[1].tags"));
+            for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+                consumer.accept(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+            }
+            assertThat(consumer.complete(), is(Optional.of("[\"a\", \"b\"]")));
+        }
+    }
+
+    /**
+     * Once the value has been found, the rest of the document must not even be looked at, which is why
+     * the garbage following the value doesn't matter.
+     */
+    @Test
+    public void testStopsOnceFound() {
+        final var consumer = new JsonPathConsumer(JsonPath.compile("$.sid"));
+        final var bytes = "{\"sid\": \"CA1\", this is not json".getBytes(StandardCharsets.UTF_8);
+        consumer.accept(bytes, 0, bytes.length);
+        assertThat(consumer.isDone(), is(true));
+        assertThat(consumer.complete(), is(Optional.of("CA1")));
+    }
+
+    @Test
+    public void testInvalidJson() {
+        ensureInvalid("{\"a\": 1,, \"sid\": 2}");
+        ensureInvalid("{\"a\" 1}");
+        ensureInvalid("[1, 2}");
+        ensureInvalid("{\"a\": 1");
+        ensureInvalid("{} {}");
+    }
+
+    @Test
+    public void testSaveAs() {
+        final var response = response(JSON);
+        final var check = jsonPath("$.nested.calls[0].from").exists().saveAs("from");
+        final var result = Check.check(response, session, List.of(check));
+
+        assertThat(result.right().get(0).isSuccess(), is(true));
+        assertThat(result.left().attributes("from"), is(Optional.of("alice")));
+    }
+
+    @Test
+    public void testIs() {
+        final var response = response(JSON);
+        assertThat(jsonPath("$.sid").is("CA1234").check(response, session).isSuccess(), is(true));
+        assertThat(jsonPath("$.sid").is("CA9").check(response, session).isFailure(), is(true));
+        assertThat(jsonPath("$.nope").exists().check(response, session).isFailure(), is(true));
+        assertThat(jsonPath("$.sid").exists().check(response("not json"), session).isFailure(), is(true));
+    }
+
+    private static HttpResponse response(final String json) {
+        return HttpResponse.create(200).content(Buffers.wrap(json)).build();
+    }
+
+    private static void ensureExtract(final String path, final String expected) {
+        ensureExtract(JSON, path, expected);
+    }
+
+    private static void ensureExtract(final String json, final String path, final String expected) {
+        assertThat(extract(json, path), is(Optional.of(expected)));
+    }
+
+    private static void ensureNotFound(final String json, final String path) {
+        assertThat(extract(json, path), is(Optional.empty()));
+    }
+
+    private static void ensureInvalid(final String json) {
+        assertThrows(IllegalArgumentException.class, () -> extract(json, "$.sid"));
+    }
+
+    private static Optional<String> extract(final String json, final String path) {
+        final var consumer = new JsonPathConsumer(JsonPath.compile(path));
+        final var bytes = json.getBytes(StandardCharsets.UTF_8);
+        consumer.accept(bytes, 0, bytes.length);
+        return consumer.complete();
+    }
+}
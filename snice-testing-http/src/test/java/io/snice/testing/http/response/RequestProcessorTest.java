@@ -9,6 +9,7 @@ import io.snice.testing.http.AcceptHttpRequestDef;
 import io.snice.testing.http.TestBase;
 import io.snice.testing.http.protocol.HttpServerTransaction;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -94,4 +95,23 @@ class RequestProcessorTest extends TestBase {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * If the request never shows up, the {@link Execution} and the {@link Session} should be marked as failed
+     * and once the acceptor has been terminated, the scenario must move on.
+     */
+    @Test
+    public void testRequestProcessorTimeout() {
+        final var def = defBuilder.build();
+        final var processor = someRequestProcessor(def);
+
+        processor.onTimeout(null);
+        processor.onTermination(null);
+
+        verify(next).execute(executionsCaptor.capture(), sessionCaptor.capture());
+        final var executions = executionsCaptor.getValue();
+        assertThat(executions.size(), is(1));
+        assertThat(executions.get(0).success(), is(false));
+        assertThat(sessionCaptor.getValue().isFailed(), is(true));
+    }
+
+}
@@ -0,0 +1,162 @@
+package io.snice.testing.http.response;
+
+import io.snice.buffer.Buffers;
+import io.snice.codecs.codec.http.HttpRequest;
+import io.snice.codecs.codec.http.HttpResponse;
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.NetworkStats;
+import io.snice.testing.core.Session;
+import io.snice.testing.core.action.Action;
+import io.snice.testing.core.check.Check;
+import io.snice.testing.core.check.CheckPolicy;
+import io.snice.testing.core.check.CheckResult;
+import io.snice.testing.http.TestBase;
+import io.snice.testing.http.check.BodyConsumer;
+import io.snice.testing.http.check.BodyExtractor;
+import io.snice.testing.http.protocol.HttpTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static io.snice.testing.http.check.HttpCheckSupport.body;
+import static io.snice.testing.http.check.HttpCheckSupport.bodyHash;
+import static io.snice.testing.http.check.HttpCheckSupport.bodySize;
+import static io.snice.testing.http.check.HttpCheckSupport.jsonPath;
+import static io.snice.testing.http.check.HttpCheckSupport.status;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseProcessorTest extends TestBase {
+
+    /**
+     * Large enough to be split into a few chunks, with the value the JSON path is after at the very beginning.
+     */
+    private static final String BODY = "{\"status\":\"ok\",\"padding\":\"" + "x".repeat(2 * BodyExtractor.CHUNK_SIZE) + "\"}";
+
+    @Captor
+    private ArgumentCaptor<List<Execution>> executionsCaptor;
+
+    @Captor
+    private ArgumentCaptor<Session> sessionCaptor;
+
+    @Mock
+    private Action next;
+
+    @Mock
+    private HttpTransaction transaction;
+
+    @Mock
+    private HttpRequest request;
+
+    private Session session;
+
+    @Override
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        session = new Session("Response Processor Test");
+    }
+
+    /**
+     * If we never get a response, e.g. because we couldn't connect, the action must still complete, with a
+     * failed {@link Execution} that carries the {@link NetworkStats} so that the failed connection is accounted for.
+     */
+    @Test
+    public void testTransactionFailed() {
+        final var network = new NetworkStats(0, 0, 1, 0, 0);
+        final var processor = new ResponseProcessor("Failed", request, System.nanoTime(), () -> network, List.of(),
+                CheckPolicy.DEFAULT, session, List.of(), next);
+
+        processor.fail(transaction, new ConnectException("Connection refused"));
+
+        verify(next).execute(executionsCaptor.capture(), sessionCaptor.capture());
+        final var executions = executionsCaptor.getValue();
+        assertThat(executions.size(), is(1));
+        final Execution<?> execution = executions.get(0);
+        assertThat(execution.name(), is("Failed"));
+        assertThat(execution.success(), is(false));
+        assertThat(execution.timings(), is(Optional.empty()));
+        assertThat(execution.network(), is(Optional.of(network)));
+        assertThat(sessionCaptor.getValue().isFailed(), is(true));
+    }
+
+    /**
+     * All the body checks of a response are fed the body in a single pass, chunk by chunk, and every one of them
+     * still gets its own result. Those that are done early, or fail, don't affect the others.
+     */
+    @Test
+    public void testSeveralBodyChecks() throws Exception {
+        final var chunks = new ArrayList<Integer>();
+        final var response = HttpResponse.create(200).content(Buffers.wrap(BODY)).build();
+        final List<Check<HttpResponse>> checks = List.of(
+                status().is(200),
+                bodySize().is((long) BODY.length()),
+                jsonPath("$.status").is("ok"),
+                body(Failing::new).is("whatever"),
+                bodyHash("SHA-256").is(sha256(BODY)),
+                body(() -> new Chunks(chunks)).is(BODY.length()));
+
+        final var processor = new ResponseProcessor("Body", request, System.nanoTime(), () -> null, checks,
+                CheckPolicy.DEFAULT, session, List.of(), next);
+        processor.process(transaction, response);
+
+        verify(next).execute(executionsCaptor.capture(), sessionCaptor.capture());
+        final Execution<?> execution = executionsCaptor.getValue().get(0);
+        final var results = execution.checkResults();
+        assertThat(results.stream().map(CheckResult::isSuccess).toList(), is(List.of(true, true, true, false, true, true)));
+        assertThat(results.get(1).extractedValue(), is(Optional.of((long) BODY.length())));
+        assertThat(results.get(2).extractedValue(), is(Optional.of("ok")));
+        assertThat(execution.success(), is(false));
+
+        final var rest = BODY.length() - 2 * BodyExtractor.CHUNK_SIZE;
+        assertThat(chunks, is(List.of(BodyExtractor.CHUNK_SIZE, BodyExtractor.CHUNK_SIZE, rest)));
+    }
+
+    private static String sha256(final String s) throws Exception {
+        final var digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Keeps track of the size of every chunk it is given and computes the total.
+     */
+    private record Chunks(List<Integer> chunks) implements BodyConsumer<Integer> {
+
+        @Override
+        public void accept(final byte[] chunk, final int offset, final int length) {
+            chunks.add(length);
+        }
+
+        @Override
+        public Optional<Integer> complete() {
+            return Optional.of(chunks.stream().mapToInt(Integer::intValue).sum());
+        }
+    }
+
+    private static final class Failing implements BodyConsumer<String> {
+
+        @Override
+        public void accept(final byte[] chunk, final int offset, final int length) {
+            throw new IllegalStateException("boom");
+        }
+
+        @Override
+        public Optional<String> complete() {
+            return Optional.empty();
+        }
+    }
+}
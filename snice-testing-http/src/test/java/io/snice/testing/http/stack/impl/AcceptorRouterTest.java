@@ -0,0 +1,124 @@
+package io.snice.testing.http.stack.impl;
+
+import io.snice.identity.sri.ActionResourceIdentifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URI;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AcceptorRouterTest {
+
+    private AcceptorRouter<String> router;
+    private ActionResourceIdentifier sri;
+
+    @BeforeEach
+    public void setUp() {
+        router = new AcceptorRouter<>();
+        sri = ActionResourceIdentifier.of();
+        router.register(sri, "sri");
+    }
+
+    private static URI uri(final String raw, final ActionResourceIdentifier sri) {
+        return URI.create(raw.replaceAll("SRI", sri.asString()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/SRI", "/hello/SRI", "http://localhost:1234/apa/SRI/hello?a=b#nisse"})
+    public void testRouteBySri(final String raw) {
+        assertThat(router.route(uri(raw, sri)), is("sri"));
+        assertThat(router.route(uri(raw.replaceAll("SRI", sri.asString().toLowerCase()), sri)), is("sri"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/hello/nope", "/", "http://localhost:1234/no/sri/here", "/ACN", "/acnNotHex"})
+    public void testRouteMissingSri(final String raw) {
+        assertThat(router.route(URI.create(raw)), nullValue());
+    }
+
+    @Test
+    public void testRouteUnknownSri() {
+        assertThat(router.route(uri("/hello/SRI", ActionResourceIdentifier.of())), nullValue());
+    }
+
+    /**
+     * Something that looks like the prefix of an SRI but isn't followed by hex digits should not stop us
+     * from finding the real SRI later in the path.
+     */
+    @Test
+    public void testRouteSriAfterFalsePrefix() {
+        assertThat(router.route(uri("/acne/SRI", sri)), is("sri"));
+    }
+
+    @Test
+    public void testDeregister() {
+        assertThat(router.deregister(sri, "not the same"), is(false));
+        assertThat(router.deregister(sri, "sri"), is(true));
+        assertThat(router.route(uri("/SRI", sri)), nullValue());
+    }
+
+    @Test
+    public void testRouteByPrefix() {
+        router.registerPrefix("/demo", "demo");
+        router.registerPrefix("/demo/status/", "status");
+
+        assertThat(router.route(URI.create("/demo")), is("demo"));
+        assertThat(router.route(URI.create("/demo/twiml?a=b")), is("demo"));
+        assertThat(router.route(URI.create("/demo/status")), is("status"));
+        assertThat(router.route(URI.create("/demo/status/123")), is("status"));
+        assertThat(router.route(URI.create("/demonstration")), nullValue());
+        assertThat(router.route(URI.create("/")), nullValue());
+
+        // the SRI always wins
+        assertThat(router.route(uri("/demo/SRI", sri)), is("sri"));
+    }
+
+    /**
+     * A request meant for an acceptor that is no longer around must not be handed to someone else just because
+     * its path happens to match their prefix.
+     */
+    @Test
+    public void testRouteUnknownSriIgnoresPrefix() {
+        router.registerPrefix("/demo", "demo");
+        assertThat(router.route(uri("/demo/SRI", ActionResourceIdentifier.of())), nullValue());
+    }
+
+    /**
+     * Only the ASCII hex digits are part of an SRI, not e.g. the full width digits that
+     * {@link Character#digit(char, int)} would accept.
+     */
+    @Test
+    public void testRouteNonAsciiDigits() {
+        router.registerPrefix("/demo", "demo");
+        final var hex = sri.asString().substring(ActionResourceIdentifier.PREFIX.length());
+        final var fullWidth = new StringBuilder(ActionResourceIdentifier.PREFIX);
+        hex.chars().forEach(c -> fullWidth.append(Character.isDigit(c) ? (char) ('\uFF10' + c - '0') : (char) c));
+        assertThat(router.route(URI.create("/demo/" + fullWidth)), is("demo"));
+    }
+
+    @Test
+    public void testSamePrefixServedInOrder() {
+        router.registerPrefix("/demo", "a");
+        router.registerPrefix("/demo", "b");
+        assertThat(router.route(URI.create("/demo")), is("a"));
+
+        assertThat(router.deregisterPrefix("/demo", "a"), is(true));
+        assertThat(router.route(URI.create("/demo")), is("b"));
+
+        assertThat(router.deregisterPrefix("/demo", "b"), is(true));
+        assertThat(router.route(URI.create("/demo")), nullValue());
+        assertThat(router.deregisterPrefix("/demo", "b"), is(false));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/", "//", "demo", ""})
+    public void testInvalidPrefix(final String prefix) {
+        assertThrows(IllegalArgumentException.class, () -> router.registerPrefix(prefix, "nope"));
+    }
+}
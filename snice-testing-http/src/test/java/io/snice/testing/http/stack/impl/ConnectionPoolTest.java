@@ -0,0 +1,343 @@
+package io.snice.testing.http.stack.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConnectionPoolTest {
+
+    private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<CompletableFuture<String>> connects = new ArrayList<>();
+    private final List<String> closed = new ArrayList<>();
+
+    private ConnectionPool<String, String> pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ConnectionPool<>(this::connect, closed::add, clock::get);
+    }
+
+    private CompletableFuture<String> connect(final String key) {
+        final var future = new CompletableFuture<String>();
+        connects.add(future);
+        return future;
+    }
+
+    /**
+     * Complete the outstanding connect attempt with the given index.
+     */
+    private String connected(final int index) {
+        final var connection = "connection-" + index;
+        connects.get(index).complete(connection);
+        return connection;
+    }
+
+    private String acquire(final String key, final int max) throws Exception {
+        return pool.acquire(key, max, 1, IDLE_TIMEOUT).toCompletableFuture().getNow(null);
+    }
+
+    @Test
+    public void testReuseIdleConnection() throws Exception {
+        final var future = pool.acquire("a", 2, 1, IDLE_TIMEOUT).toCompletableFuture();
+        final var connection = connected(0);
+        assertThat(future.get(), is(connection));
+
+        pool.release("a", connection, true);
+        assertThat(pool.idleConnections("a"), is(1));
+
+        // no new connect attempt
+        assertThat(acquire("a", 2), is(connection));
+        assertThat(connects.size(), is(1));
+        assertThat(pool.idleConnections("a"), is(0));
+    }
+
+    @Test
+    public void testDifferentKeysDoNotShare() throws Exception {
+        pool.acquire("a", 2, 1, IDLE_TIMEOUT);
+        pool.release("a", connected(0), true);
+
+        pool.acquire("b", 2, 1, IDLE_TIMEOUT);
+        assertThat(connects.size(), is(2));
+        assertThat(pool.connections("a"), is(1));
+        assertThat(pool.connections("b"), is(1));
+    }
+
+    @Test
+    public void testMaxConnectionsQueuesUp() throws Exception {
+        final var first = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        final var second = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        assertThat(connects.size(), is(1));
+        assertThat(second.isDone(), is(false));
+
+        final var connection = connected(0);
+        assertThat(first.get(), is(connection));
+
+        // releasing it hands it straight over to the one waiting
+        pool.release("a", connection, true);
+        assertThat(second.get(), sameInstance(connection));
+        assertThat(pool.idleConnections("a"), is(0));
+        assertThat(pool.connections("a"), is(1));
+    }
+
+    @Test
+    public void testNotReusableIsClosed() throws Exception {
+        pool.acquire("a", 1, 1, IDLE_TIMEOUT);
+        final var connection = connected(0);
+        final var waiting = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+
+        pool.release("a", connection, false);
+        assertThat(closed, is(List.of(connection)));
+
+        // the one waiting should get a brand new connection
+        assertThat(connects.size(), is(2));
+        final var newConnection = connected(1);
+        assertThat(waiting.get(), is(newConnection));
+        assertThat(newConnection, not(connection));
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        pool.acquire("a", 2, 1, IDLE_TIMEOUT);
+        pool.acquire("a", 2, 1, IDLE_TIMEOUT);
+        final var c0 = connected(0);
+        final var c1 = connected(1);
+
+        pool.release("a", c0, true);
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        pool.release("a", c1, true);
+
+        // only the first one has been idle long enough
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(pool.evictIdle(), is(1));
+        assertThat(closed, is(List.of(c0)));
+        assertThat(pool.connections("a"), is(1));
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(pool.evictIdle(), is(1));
+        assertThat(closed, is(List.of(c0, c1)));
+        assertThat(pool.connections("a"), is(0));
+    }
+
+    /**
+     * Expired connections are also removed when trying to acquire a new one, in which case we
+     * must not be handed an expired connection.
+     */
+    @Test
+    public void testExpiredConnectionNotHandedOut() throws Exception {
+        pool.acquire("a", 1, 1, IDLE_TIMEOUT);
+        final var connection = connected(0);
+        pool.release("a", connection, true);
+
+        clock.addAndGet(IDLE_TIMEOUT.toNanos());
+        final var future = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        assertThat(closed, is(List.of(connection)));
+        assertThat(connects.size(), is(2));
+        assertThat(future.isDone(), is(false));
+    }
+
+    @Test
+    public void testConnectFailureGivesBackTheSlot() throws Exception {
+        final var future = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        connects.get(0).completeExceptionally(new RuntimeException("Connection refused"));
+        assertThat(future.isCompletedExceptionally(), is(true));
+        assertThat(pool.connections("a"), is(0));
+
+        // and we should be able to try again.
+        pool.acquire("a", 1, 1, IDLE_TIMEOUT);
+        assertThat(connects.size(), is(2));
+    }
+
+    /**
+     * If the only attempt to connect fails, the ones queued up behind it would otherwise wait forever since
+     * there is no connection that will ever be released to them.
+     */
+    @Test
+    public void testConnectFailureFailsTheOnesWaiting() throws Exception {
+        final var first = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        final var second = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        final var third = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        assertThat(connects.size(), is(1));
+
+        connects.get(0).completeExceptionally(new RuntimeException("Connection refused"));
+        assertThat(first.isCompletedExceptionally(), is(true));
+        assertThat(second.isCompletedExceptionally(), is(true));
+        assertThat(third.isCompletedExceptionally(), is(true));
+        assertThat(pool.connections("a"), is(0));
+
+        // the pool is gone so the next one starts over.
+        pool.acquire("a", 1, 1, IDLE_TIMEOUT);
+        assertThat(connects.size(), is(2));
+    }
+
+    /**
+     * As long as there is another connection, the ones waiting will be served by that one instead.
+     */
+    @Test
+    public void testConnectFailureWaitersServedByOtherConnection() throws Exception {
+        pool.acquire("a", 2, 1, IDLE_TIMEOUT);
+        pool.acquire("a", 2, 1, IDLE_TIMEOUT);
+        final var waiting = pool.acquire("a", 2, 1, IDLE_TIMEOUT).toCompletableFuture();
+        final var connection = connected(0);
+
+        connects.get(1).completeExceptionally(new RuntimeException("Connection refused"));
+        assertThat(waiting.isDone(), is(false));
+
+        pool.release("a", connection, true);
+        assertThat(waiting.get(), is(connection));
+    }
+
+    /**
+     * A server may close a connection that is sitting idle in the pool, which then must not be handed out.
+     */
+    @Test
+    public void testClosedIdleConnectionNotHandedOut() throws Exception {
+        pool.acquire("a", 1, 1, IDLE_TIMEOUT);
+        final var connection = connected(0);
+        pool.release("a", connection, true);
+
+        pool.closed("a", connection);
+        assertThat(pool.connections("a"), is(0));
+
+        final var future = pool.acquire("a", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+        assertThat(future.isDone(), is(false));
+        assertThat(connects.size(), is(2));
+        final var newConnection = connected(1);
+        assertThat(future.get(), is(newConnection));
+
+        // it was already closed so nothing for us to close
+        assertThat(closed.isEmpty(), is(true));
+    }
+
+    /**
+     * A connection closed while still in use is never handed out again and dropped once released, even if the
+     * user thinks it can be re-used.
+     */
+    @Test
+    public void testClosedBusyConnectionDroppedOnRelease() throws Exception {
+        pool.acquire("a", 1, 2, IDLE_TIMEOUT);
+        final var connection = connected(0);
+
+        pool.closed("a", connection);
+        final var waiting = pool.acquire("a", 1, 2, IDLE_TIMEOUT).toCompletableFuture();
+        assertThat(waiting.isDone(), is(false));
+
+        pool.release("a", connection, true);
+        assertThat(pool.idleConnections("a"), is(0));
+        assertThat(connects.size(), is(2));
+        final var newConnection = connected(1);
+        assertThat(waiting.get(), is(newConnection));
+    }
+
+    @Test
+    public void testPipelining() throws Exception {
+        final var first = pool.acquire("a", 1, 2, IDLE_TIMEOUT).toCompletableFuture();
+        final var second = pool.acquire("a", 1, 2, IDLE_TIMEOUT).toCompletableFuture();
+        final var third = pool.acquire("a", 1, 2, IDLE_TIMEOUT).toCompletableFuture();
+        assertThat(connects.size(), is(1));
+
+        // once connected, the connection can carry two requests at the same time
+        final var connection = connected(0);
+        assertThat(first.get(), is(connection));
+        assertThat(second.get(), is(connection));
+        assertThat(third.isDone(), is(false));
+
+        pool.release("a", connection, true);
+        assertThat(third.get(), is(connection));
+        assertThat(pool.idleConnections("a"), is(0));
+
+        pool.release("a", connection, true);
+        pool.release("a", connection, true);
+        assertThat(pool.idleConnections("a"), is(1));
+        assertThat(connects.size(), is(1));
+    }
+
+    /**
+     * A pipelined connection that is to be closed must not be closed until everything in-flight has
+     * completed and no new requests should be sent over it.
+     */
+    @Test
+    public void testPipelinedConnectionClosedWhenDrained() throws Exception {
+        pool.acquire("a", 1, 2, IDLE_TIMEOUT);
+        pool.acquire("a", 1, 2, IDLE_TIMEOUT);
+        final var connection = connected(0);
+
+        pool.release("a", connection, false);
+        assertThat(closed.isEmpty(), is(true));
+
+        // should not get the connection that is about to close but since we are at the
+        // max number of connections, we'll have to wait for it to drain.
+        final var waiting = pool.acquire("a", 1, 2, IDLE_TIMEOUT).toCompletableFuture();
+        assertThat(waiting.isDone(), is(false));
+        assertThat(connects.size(), is(1));
+
+        pool.release("a", connection, true);
+        assertThat(closed, is(List.of(connection)));
+        assertThat(connects.size(), is(2));
+        final var newConnection = connected(1);
+        assertThat(waiting.get(), is(newConnection));
+    }
+
+    /**
+     * Once the owner of a set of connections, such as a scenario, is done with them, they are closed right away,
+     * the idle ones immediately and the busy ones as soon as they are released, without affecting any other owner.
+     */
+    @Test
+    public void testCloseOwner() throws Exception {
+        pool = new ConnectionPool<>(this::connect, closed::add, clock::get, key -> key.substring(0, key.indexOf('/')));
+
+        pool.acquire("scenario-1/a", 1, 1, IDLE_TIMEOUT);
+        final var idle = connected(0);
+        pool.release("scenario-1/a", idle, true);
+
+        pool.acquire("scenario-1/b", 1, 1, IDLE_TIMEOUT);
+        final var busy = connected(1);
+        final var waiting = pool.acquire("scenario-1/b", 1, 1, IDLE_TIMEOUT).toCompletableFuture();
+
+        pool.acquire("scenario-2/a", 1, 1, IDLE_TIMEOUT);
+        final var other = connected(2);
+        pool.release("scenario-2/a", other, true);
+
+        assertThat(pool.close("scenario-1"), is(1));
+        assertThat(closed, is(List.of(idle)));
+        assertThat(waiting.isCompletedExceptionally(), is(true));
+        assertThat(pool.connections("scenario-1/a"), is(0));
+        assertThat(pool.connections("scenario-1/b"), is(0));
+
+        // the busy one is closed, even though it is still "reusable", once released
+        pool.release("scenario-1/b", busy, true);
+        assertThat(closed, is(List.of(idle, busy)));
+
+        // the other scenario is unaffected
+        assertThat(pool.idleConnections("scenario-2/a"), is(1));
+        assertThat(pool.close("scenario-1"), is(0));
+
+        // and asking for a new connection for the same owner just starts over
+        pool.acquire("scenario-1/a", 1, 1, IDLE_TIMEOUT);
+        assertThat(connects.size(), is(4));
+    }
+
+    /**
+     * The limits belong to the pool of a key so asking for different limits for the same key is a bug.
+     */
+    @Test
+    public void testConflictingLimits() {
+        pool.acquire("a", 2, 1, IDLE_TIMEOUT);
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire("a", 3, 1, IDLE_TIMEOUT));
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire("a", 2, 2, IDLE_TIMEOUT));
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire("a", 2, 1, Duration.ofSeconds(1)));
+        assertThat(connects.size(), is(1));
+    }
+}
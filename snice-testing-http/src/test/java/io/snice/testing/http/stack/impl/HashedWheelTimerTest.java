@@ -0,0 +1,122 @@
+package io.snice.testing.http.stack.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class HashedWheelTimerTest {
+
+    private static final Duration TICK = Duration.ofMillis(100);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> fired = new ArrayList<>();
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    public void setUp() {
+        // a small wheel so that we also go around it a few times
+        timer = new HashedWheelTimer(TICK, 8, clock::get);
+    }
+
+    private HashedWheelTimer.Timeout schedule(final String name, final long delayMillis) {
+        return timer.schedule(() -> fired.add(name), Duration.ofMillis(delayMillis));
+    }
+
+    private void advanceTo(final long millis) {
+        clock.set(TimeUnit.MILLISECONDS.toNanos(millis));
+        timer.advance();
+    }
+
+    @Test
+    public void testFireInOrder() {
+        schedule("b", 250);
+        schedule("a", 100);
+        schedule("c", 2_000); // more than one round of the wheel
+
+        advanceTo(99);
+        assertThat(fired, is(List.of()));
+
+        advanceTo(100);
+        assertThat(fired, is(List.of("a")));
+
+        // never early, at most one tick late
+        advanceTo(299);
+        assertThat(fired, is(List.of("a")));
+        advanceTo(300);
+        assertThat(fired, is(List.of("a", "b")));
+
+        advanceTo(1_999);
+        assertThat(fired, is(List.of("a", "b")));
+        advanceTo(2_000);
+        assertThat(fired, is(List.of("a", "b", "c")));
+        assertThat(timer.pending(), is(0));
+    }
+
+    @Test
+    public void testCancel() {
+        final var a = schedule("a", 100);
+        final var b = schedule("b", 200);
+        final var c = schedule("c", 300);
+
+        // cancelled before the worker even has seen it
+        assertThat(a.cancel(), is(true));
+        assertThat(a.cancel(), is(false));
+
+        advanceTo(100);
+        // and cancelled once it is in the wheel
+        assertThat(b.cancel(), is(true));
+        assertThat(timer.pending(), is(1));
+
+        advanceTo(1_000);
+        assertThat(fired, is(List.of("c")));
+        assertThat(c.isExpired(), is(true));
+        assertThat(c.cancel(), is(false));
+        assertThat(b.isCancelled(), is(true));
+        assertThat(timer.pending(), is(0));
+    }
+
+    @Test
+    public void testScheduleWithoutDelay() {
+        advanceTo(1_000);
+        schedule("a", 0);
+        advanceTo(1_000);
+        assertThat(fired, is(List.of()));
+
+        advanceTo(1_100);
+        assertThat(fired, is(List.of("a")));
+    }
+
+    @Test
+    public void testExceptionDoesNotKillTimer() {
+        timer.schedule(() -> {
+            throw new RuntimeException("boom");
+        }, Duration.ofMillis(100));
+        schedule("a", 100);
+
+        advanceTo(100);
+        assertThat(fired, is(List.of("a")));
+    }
+
+    @Test
+    public void testWorkerThread() throws Exception {
+        final var realTimer = new HashedWheelTimer(Duration.ofMillis(10), 64, System::nanoTime);
+        final var latch = new CountDownLatch(1);
+        realTimer.start(Thread::new);
+        try {
+            realTimer.schedule(latch::countDown, Duration.ofMillis(50));
+            assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            realTimer.stop();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package io.snice.testing.runtime;
 
+import io.snice.testing.runtime.config.ActionExecutionMode;
 import io.snice.testing.runtime.config.RuntimeConfig;
 import io.snice.testing.runtime.config.SimulationConfig;
+import io.snice.testing.runtime.config.SupervisorPlacement;
 import io.snice.testing.runtime.impl.SniceLocalDevRuntimeProvider;
 import net.sourceforge.argparse4j.ArgumentParsers;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -9,6 +11,7 @@ import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.Namespace;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +36,66 @@ public record CliArgs(String[] args, Namespace namespace, List<String> unknown)
      */
     public static final String ARG_WAIT_FOR_SIMULATION = "wait";
 
+    /**
+     * The number of scenario supervisors to start. Defaults to the number of cores.
+     */
+    public static final String ARG_SUPERVISORS = "supervisors";
+
+    /**
+     * How new scenarios are placed on the scenario supervisors. See {@link SupervisorPlacement}.
+     */
+    public static final String ARG_SUPERVISOR_PLACEMENT = "placement";
+
+    /**
+     * The number of worker threads of the Hektor dispatcher.
+     */
+    public static final String ARG_WORKER_THREADS = "workers";
+
+    /**
+     * The max number of messages an actor processes before giving up its worker thread.
+     */
+    public static final String ARG_THROUGHPUT = "throughput";
+
+    /**
+     * The number of threads dedicated to executing the user code of the actions. Zero means
+     * that the actions execute on the Hektor dispatcher threads.
+     */
+    public static final String ARG_ACTION_WORKER_THREADS = "action-workers";
+
+    /**
+     * How the actions are executed. See {@link ActionExecutionMode}.
+     */
+    public static final String ARG_ACTION_EXECUTION = "action-execution";
+
+    /**
+     * The port on which the live metrics are exposed for Prometheus to scrape. Zero means they are not.
+     */
+    public static final String ARG_METRICS_PORT = "metrics-port";
+
+    /**
+     * The file to which every execution is streamed, as a binary results log. If not given, the results are not
+     * written anywhere.
+     */
+    public static final String ARG_RESULTS_LOG = "results-log";
+
+    /**
+     * The directory in which every execution is stored, as a memory-mapped results store indexed by scenario and
+     * action. If not given, the results are not stored.
+     */
+    public static final String ARG_RESULTS_STORE = "results-store";
+
+    /**
+     * The comma separated TLS protocols to enable for all outgoing TLS connections. If not given, the defaults
+     * of the JVM are used.
+     */
+    public static final String ARG_TLS_PROTOCOLS = "tls-protocols";
+
+    /**
+     * The comma separated TLS cipher suites to enable for all outgoing TLS connections. If not given, the
+     * defaults of the JVM are used.
+     */
+    public static final String ARG_TLS_CIPHER_SUITES = "tls-cipher-suites";
+
     public RuntimeConfig toRuntimeConfig() {
         final var config = new RuntimeConfig();
         config.setRuntimeProvider(namespace.getString(ARG_RUNTIME));
@@ -41,9 +104,60 @@ public record CliArgs(String[] args, Namespace namespace, List<String> unknown)
             config.setWait(wait);
         }
 
+        final var supervisors = namespace.getInt(ARG_SUPERVISORS);
+        if (supervisors != null) {
+            config.setScenarioSupervisors(supervisors);
+        }
+
+        final var placement = namespace.getString(ARG_SUPERVISOR_PLACEMENT);
+        if (placement != null) {
+            config.setSupervisorPlacement(SupervisorPlacement.fromString(placement));
+        }
+
+        final var workers = namespace.getInt(ARG_WORKER_THREADS);
+        if (workers != null) {
+            config.setWorkerThreads(workers);
+        }
+
+        final var throughput = namespace.getInt(ARG_THROUGHPUT);
+        if (throughput != null) {
+            config.setThroughput(throughput);
+        }
+
+        final var actionWorkers = namespace.getInt(ARG_ACTION_WORKER_THREADS);
+        if (actionWorkers != null) {
+            config.setActionWorkerThreads(actionWorkers);
+        }
+
+        final var actionExecution = namespace.getString(ARG_ACTION_EXECUTION);
+        if (actionExecution != null) {
+            config.setActionExecution(ActionExecutionMode.fromString(actionExecution));
+        }
+
+        final var metricsPort = namespace.getInt(ARG_METRICS_PORT);
+        if (metricsPort != null) {
+            config.setMetricsPort(metricsPort);
+        }
+
+        config.setResultsLog(namespace.getString(ARG_RESULTS_LOG));
+        config.setResultsStore(namespace.getString(ARG_RESULTS_STORE));
+        config.setTlsProtocols(splitList(namespace.getString(ARG_TLS_PROTOCOLS)));
+        config.setTlsCipherSuites(splitList(namespace.getString(ARG_TLS_CIPHER_SUITES)));
+
         return config;
     }
 
+    private static List<String> splitList(final String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
     public Optional<SimulationConfig> toSimulationConfig() {
         final var simulation = namespace.getString(ARG_SIMULATION);
         if (simulation == null) {
@@ -66,6 +180,53 @@ public record CliArgs(String[] args, Namespace namespace, List<String> unknown)
                 .type(Integer.TYPE)
                 .setDefault(1);
 
+        parser.addArgument("--" + ARG_SUPERVISORS)
+                .help("The number of scenario supervisors to start. Defaults to the number of available cores")
+                .type(Integer.class);
+
+        parser.addArgument("--" + ARG_SUPERVISOR_PLACEMENT)
+                .help("How new scenarios are placed on the scenario supervisors")
+                .choices("round-robin", "least-loaded", "hash");
+
+        parser.addArgument("--" + ARG_WORKER_THREADS)
+                .help("The number of worker threads of the Hektor dispatcher")
+                .type(Integer.class);
+
+        parser.addArgument("--" + ARG_THROUGHPUT)
+                .help("The max number of messages an actor processes before giving up its worker thread")
+                .type(Integer.class);
+
+        parser.addArgument("--" + ARG_ACTION_WORKER_THREADS)
+                .dest(ARG_ACTION_WORKER_THREADS)
+                .help("The number of threads dedicated to executing actions. If zero (default), actions execute on the Hektor dispatcher")
+                .type(Integer.class);
+
+        parser.addArgument("--" + ARG_ACTION_EXECUTION)
+                .dest(ARG_ACTION_EXECUTION)
+                .help("Whether every action executes within its own actor or inline/on the shared action executor")
+                .choices("actor", "pooled");
+
+        parser.addArgument("--" + ARG_METRICS_PORT)
+                .dest(ARG_METRICS_PORT)
+                .help("The port on which the live metrics are exposed in the Prometheus format. If zero (default), they are only exposed over JMX")
+                .type(Integer.class);
+
+        parser.addArgument("--" + ARG_RESULTS_LOG)
+                .dest(ARG_RESULTS_LOG)
+                .help("The file to which all results are streamed, as a binary log that can be turned into a report by io.snice.testing.runtime.results.ResultsReport");
+
+        parser.addArgument("--" + ARG_RESULTS_STORE)
+                .dest(ARG_RESULTS_STORE)
+                .help("The directory, which must be empty or not exist, in which all results are stored, indexed by scenario and action, so they can be queried by io.snice.testing.runtime.results.ResultsStoreReader");
+
+        parser.addArgument("--" + ARG_TLS_PROTOCOLS)
+                .dest(ARG_TLS_PROTOCOLS)
+                .help("The comma separated TLS protocols, e.g. TLSv1.3, to enable for all outgoing TLS connections of the JVM");
+
+        parser.addArgument("--" + ARG_TLS_CIPHER_SUITES)
+                .dest(ARG_TLS_CIPHER_SUITES)
+                .help("The comma separated TLS cipher suites to enable, in order of preference, for all outgoing TLS connections of the JVM");
+
         parser.addArgument("--" + ARG_SIMULATION)
                 .help("The fully-qualified class name of the Simulation to run");
 
@@ -0,0 +1,32 @@
+package io.snice.testing.runtime.config;
+
+import java.util.Locale;
+
+import static io.snice.preconditions.PreConditions.assertNotEmpty;
+
+/**
+ * Controls how the actions of a {@link io.snice.testing.core.scenario.Scenario} are executed.
+ */
+public enum ActionExecutionMode {
+
+    /**
+     * Every action is executed within its own, short-lived, actor. This gives the best isolation
+     * between actions but costs an actor, a mailbox and a few extra messages per action.
+     */
+    ACTOR,
+
+    /**
+     * No actors are created for the actions. Synchronous actions that do not need a protocol (such as
+     * a simple <code>Scenario.execute(Function&lt;Session, Session&gt;)</code>) are executed inline
+     * on the scenario actor and all other actions are executed on the shared action executor.
+     */
+    POOLED;
+
+    /**
+     * Lenient version of {@link #valueOf(String)}, which ignores case.
+     */
+    public static ActionExecutionMode fromString(final String value) {
+        assertNotEmpty(value, "The action execution mode cannot be null or the empty string");
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
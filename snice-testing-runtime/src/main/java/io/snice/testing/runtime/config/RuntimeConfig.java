@@ -3,6 +3,9 @@ package io.snice.testing.runtime.config;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.snice.testing.runtime.CliArgs;
 
+import java.util.List;
+import java.util.Optional;
+
 public class RuntimeConfig {
 
     @JsonProperty
@@ -11,6 +14,84 @@ public class RuntimeConfig {
     @JsonProperty
     private int wait = 1;
 
+    /**
+     * The number of scenario supervisors, which by default is the same as the number of cores.
+     */
+    @JsonProperty
+    private int scenarioSupervisors = Runtime.getRuntime().availableProcessors();
+
+    @JsonProperty
+    private SupervisorPlacement supervisorPlacement = SupervisorPlacement.ROUND_ROBIN;
+
+    /**
+     * The number of worker threads of the Hektor dispatcher. There is only one, which is shared by all
+     * the actors (supervisors, scenarios and actions) since the actors cannot be given a dispatcher of
+     * their own. See {@link #getActionWorkerThreads()} for keeping the actions off of it.
+     */
+    @JsonProperty
+    private int workerThreads = 4;
+
+    /**
+     * The max number of messages an actor is allowed to process before it has to give up
+     * its worker thread to another actor.
+     */
+    @JsonProperty
+    private int throughput = 75;
+
+    /**
+     * If greater than zero, the user code of an action, such as the function given to
+     * <code>Scenario.execute(Function&lt;Session, Session&gt;)</code>, is executed on a separate pool with
+     * this many threads instead of on the dispatcher threads. This ensures that slow user code
+     * cannot starve the scenario state machines.
+     */
+    @JsonProperty
+    private int actionWorkerThreads = 0;
+
+    @JsonProperty
+    private ActionExecutionMode actionExecution = ActionExecutionMode.ACTOR;
+
+    /**
+     * If greater than zero, the live metrics of the runtime are exposed in the Prometheus text format on this
+     * port. The metrics are always exposed over JMX.
+     */
+    @JsonProperty
+    private int metricsPort = 0;
+
+    /**
+     * If set, every execution is streamed to this file, as a binary results log, which can then be turned into
+     * a report by the {@link io.snice.testing.runtime.results.ResultsReport}.
+     */
+    @JsonProperty
+    private String resultsLog;
+
+    /**
+     * If set, every execution is stored in this directory, as a memory-mapped
+     * {@link io.snice.testing.runtime.results.ResultsStore}, which is indexed by scenario and action and
+     * can be queried through the {@link io.snice.testing.runtime.results.ResultsStoreReader}.
+     */
+    @JsonProperty
+    private String resultsStore;
+
+    /**
+     * The TLS protocols, e.g. <code>TLSv1.3</code>, to enable for all outgoing TLS connections.
+     * See {@link TlsConfig}.
+     */
+    @JsonProperty
+    private List<String> tlsProtocols = List.of();
+
+    /**
+     * The TLS cipher suites to enable, in order of preference, for all outgoing TLS connections.
+     * See {@link TlsConfig}.
+     */
+    @JsonProperty
+    private List<String> tlsCipherSuites = List.of();
+
+    @JsonProperty
+    private Boolean tlsSessionTickets;
+
+    @JsonProperty
+    private Integer tlsSessionCacheSize;
+
     public String getRuntimeProvider() {
         return runtimeProvider;
     }
@@ -30,4 +111,146 @@ public class RuntimeConfig {
 
         this.wait = wait;
     }
+
+    public int getScenarioSupervisors() {
+        return scenarioSupervisors;
+    }
+
+    public void setScenarioSupervisors(final int scenarioSupervisors) {
+        if (scenarioSupervisors <= 0) {
+            return;
+        }
+
+        this.scenarioSupervisors = scenarioSupervisors;
+    }
+
+    public SupervisorPlacement getSupervisorPlacement() {
+        return supervisorPlacement;
+    }
+
+    public void setSupervisorPlacement(final SupervisorPlacement supervisorPlacement) {
+        if (supervisorPlacement == null) {
+            return;
+        }
+
+        this.supervisorPlacement = supervisorPlacement;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(final int workerThreads) {
+        if (workerThreads <= 0) {
+            return;
+        }
+
+        this.workerThreads = workerThreads;
+    }
+
+    public int getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(final int throughput) {
+        if (throughput <= 0) {
+            return;
+        }
+
+        this.throughput = throughput;
+    }
+
+    public int getActionWorkerThreads() {
+        return actionWorkerThreads;
+    }
+
+    public void setActionWorkerThreads(final int actionWorkerThreads) {
+        if (actionWorkerThreads < 0) {
+            return;
+        }
+
+        this.actionWorkerThreads = actionWorkerThreads;
+    }
+
+    public ActionExecutionMode getActionExecution() {
+        return actionExecution;
+    }
+
+    public void setActionExecution(final ActionExecutionMode actionExecution) {
+        if (actionExecution == null) {
+            return;
+        }
+
+        this.actionExecution = actionExecution;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(final int metricsPort) {
+        if (metricsPort < 0 || metricsPort > 65535) {
+            return;
+        }
+
+        this.metricsPort = metricsPort;
+    }
+
+    public Optional<String> getResultsLog() {
+        return Optional.ofNullable(resultsLog);
+    }
+
+    public void setResultsLog(final String resultsLog) {
+        this.resultsLog = resultsLog == null || resultsLog.isBlank() ? null : resultsLog;
+    }
+
+    public Optional<String> getResultsStore() {
+        return Optional.ofNullable(resultsStore);
+    }
+
+    public void setResultsStore(final String resultsStore) {
+        this.resultsStore = resultsStore == null || resultsStore.isBlank() ? null : resultsStore;
+    }
+
+    public List<String> getTlsProtocols() {
+        return tlsProtocols;
+    }
+
+    public void setTlsProtocols(final List<String> tlsProtocols) {
+        this.tlsProtocols = tlsProtocols == null ? List.of() : List.copyOf(tlsProtocols);
+    }
+
+    public List<String> getTlsCipherSuites() {
+        return tlsCipherSuites;
+    }
+
+    public void setTlsCipherSuites(final List<String> tlsCipherSuites) {
+        this.tlsCipherSuites = tlsCipherSuites == null ? List.of() : List.copyOf(tlsCipherSuites);
+    }
+
+    public void setTlsSessionTickets(final Boolean tlsSessionTickets) {
+        this.tlsSessionTickets = tlsSessionTickets;
+    }
+
+    public void setTlsSessionCacheSize(final Integer tlsSessionCacheSize) {
+        if (tlsSessionCacheSize != null && tlsSessionCacheSize < 0) {
+            return;
+        }
+
+        this.tlsSessionCacheSize = tlsSessionCacheSize;
+    }
+
+    /**
+     * The TLS configuration to apply to the JVM as the runtime starts. If none of the TLS settings have been
+     * given, the TLS configuration of the JVM is left alone.
+     */
+    public Optional<TlsConfig> getTls() {
+        if (tlsProtocols.isEmpty() && tlsCipherSuites.isEmpty() && tlsSessionTickets == null && tlsSessionCacheSize == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new TlsConfig(tlsProtocols, tlsCipherSuites,
+                tlsSessionTickets == null ? TlsConfig.DEFAULT.sessionTickets() : tlsSessionTickets,
+                tlsSessionCacheSize == null ? TlsConfig.DEFAULT_SESSION_CACHE_SIZE : tlsSessionCacheSize));
+    }
 }
@@ -0,0 +1,38 @@
+package io.snice.testing.runtime.config;
+
+import java.util.Locale;
+
+import static io.snice.preconditions.PreConditions.assertNotEmpty;
+
+/**
+ * The strategy for deciding which scenario supervisor a new {@link io.snice.testing.core.scenario.Scenario}
+ * should be placed on.
+ */
+public enum SupervisorPlacement {
+
+    /**
+     * Simply cycle through the supervisors, one after the other.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Place the new scenario on the supervisor that currently has the least number of live runs.
+     */
+    LEAST_LOADED,
+
+    /**
+     * Place the new scenario based on a consistent hash of its
+     * {@link io.snice.identity.sri.ScenarioResourceIdentifier}, which means that the same identifier
+     * always ends up on the same supervisor.
+     */
+    HASH;
+
+    /**
+     * Lenient version of {@link #valueOf(String)}, which ignores case and also accepts '-' instead
+     * of '_', i.e., "least-loaded" is the same as "LEAST_LOADED".
+     */
+    public static SupervisorPlacement fromString(final String value) {
+        assertNotEmpty(value, "The supervisor placement cannot be null or the empty string");
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
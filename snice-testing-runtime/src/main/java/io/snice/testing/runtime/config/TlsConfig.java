@@ -0,0 +1,63 @@
+package io.snice.testing.runtime.config;
+
+import java.util.List;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * The TLS configuration for all outgoing TLS connections, such as HTTPS requests, of the runtime.
+ * <p>
+ * The protocol stacks use the TLS implementation of the JVM and don't allow us to configure TLS per connection,
+ * so this configuration is applied to the JVM as a whole, i.e., to every TLS connection made by the JVM, Snice
+ * Testing or not. It is applied once, as the runtime starts (see {@link RuntimeConfig#getTls()}), and only takes
+ * effect if nothing has used TLS before that (an error is logged if so), in which case the
+ * <code>jdk.tls.client.protocols</code> and <code>jdk.tls.client.cipherSuites</code> system properties have
+ * to be given on the command line instead.
+ * <p>
+ * For how long a TLS session can be resumed cannot be configured since the JVM only allows that to be set on an
+ * {@link javax.net.ssl.SSLContext}, which is created, and owned, by the protocol stacks. It is the default of the
+ * JVM, i.e., 24 hours.
+ *
+ * @param protocols        the TLS protocols to enable, e.g. <code>TLSv1.3</code>. If empty, the defaults of
+ *                         the JVM are used.
+ * @param cipherSuites     the cipher suites to enable, in order of preference. If empty, the defaults of the JVM
+ *                         are used.
+ * @param sessionTickets   whether to ask for session tickets (RFC 5077) so that a session can be resumed
+ *                         without the server having to keep any state.
+ * @param sessionCacheSize the max number of TLS sessions to cache for resumption. Zero means no limit.
+ */
+public record TlsConfig(List<String> protocols,
+                        List<String> cipherSuites,
+                        boolean sessionTickets,
+                        int sessionCacheSize) {
+
+    /**
+     * Same as the default of the JVM.
+     */
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 20480;
+
+    public static final TlsConfig DEFAULT = new TlsConfig(List.of(), List.of(), true, DEFAULT_SESSION_CACHE_SIZE);
+
+    public TlsConfig {
+        protocols = List.copyOf(assertNotNull(protocols, "The list of TLS protocols cannot be null"));
+        cipherSuites = List.copyOf(assertNotNull(cipherSuites, "The list of cipher suites cannot be null"));
+        assertArgument(sessionCacheSize >= 0, "The TLS session cache size cannot be negative");
+    }
+
+    public TlsConfig withProtocols(final String... protocols) {
+        return new TlsConfig(List.of(protocols), cipherSuites, sessionTickets, sessionCacheSize);
+    }
+
+    public TlsConfig withCipherSuites(final String... cipherSuites) {
+        return new TlsConfig(protocols, List.of(cipherSuites), sessionTickets, sessionCacheSize);
+    }
+
+    public TlsConfig withSessionTickets(final boolean enabled) {
+        return new TlsConfig(protocols, cipherSuites, enabled, sessionCacheSize);
+    }
+
+    public TlsConfig withSessionCacheSize(final int size) {
+        return new TlsConfig(protocols, cipherSuites, sessionTickets, size);
+    }
+}
@@ -5,4 +5,11 @@ import io.hektor.fsm.Context;
 public interface ActionContext extends Context {
 
     void actionFinished(ActionMessage.ActionFinished msg);
+
+    /**
+     * Execute the given job, which is the actual execution of the {@link io.snice.testing.core.action.Action}.
+     * Depending on configuration, this is either done directly on the current thread (i.e., the thread
+     * of the action actor) or on a separate pool dedicated to executing actions.
+     */
+    void execute(Runnable job);
 }
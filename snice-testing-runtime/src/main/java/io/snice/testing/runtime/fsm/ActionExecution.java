@@ -0,0 +1,46 @@
+package io.snice.testing.runtime.fsm;
+
+import io.snice.testing.runtime.config.ActionExecutionMode;
+import io.snice.testing.runtime.results.ResultsSink;
+import io.snice.testing.runtime.stats.RuntimeMetrics;
+
+import java.util.concurrent.Executor;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Describes how, and where, the actions of a scenario are executed.
+ *
+ * @param mode     whether to execute the actions within their own actors or not.
+ * @param executor the {@link Executor} on which the actions will be executed. For
+ *                 {@link ActionExecutionMode#POOLED}, synchronous actions not needing a protocol
+ *                 are always executed inline on the scenario actor, regardless of this executor.
+ * @param metrics  where the progress and outcome of every executed action, such as its response time, is recorded.
+ * @param results  where every {@link io.snice.testing.core.Execution} is recorded as the actions finish, such as a
+ *                 results log and/or a results store.
+ */
+public record ActionExecution(ActionExecutionMode mode,
+                              Executor executor,
+                              RuntimeMetrics metrics,
+                              ResultsSink results) {
+
+    /**
+     * Every action in its own actor and executed on the thread of that actor.
+     */
+    public static final ActionExecution DEFAULT = new ActionExecution(ActionExecutionMode.ACTOR, Runnable::run);
+
+    public ActionExecution {
+        assertNotNull(mode);
+        assertNotNull(executor);
+        assertNotNull(metrics);
+        results = results == null ? ResultsSink.NONE : results;
+    }
+
+    public ActionExecution(final ActionExecutionMode mode, final Executor executor, final RuntimeMetrics metrics) {
+        this(mode, executor, metrics, ResultsSink.NONE);
+    }
+
+    public ActionExecution(final ActionExecutionMode mode, final Executor executor) {
+        this(mode, executor, new RuntimeMetrics());
+    }
+}
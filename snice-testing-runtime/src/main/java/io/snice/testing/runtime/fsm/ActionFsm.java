@@ -2,12 +2,16 @@ package io.snice.testing.runtime.fsm;
 
 import io.hektor.fsm.Definition;
 import io.hektor.fsm.FSM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 
 
 public class ActionFsm {
 
+    private static final Logger logger = LoggerFactory.getLogger(ActionFsm.class);
+
     public static final Definition<ActionState, ActionContext, ActionData> definition;
 
     static {
@@ -25,14 +29,21 @@ public class ActionFsm {
         definition = builder.build();
     }
 
+    /**
+     * Note that the action may be executed on another thread (see {@link ActionContext#execute(Runnable)}) so
+     * should it blow up, we cannot just let the exception propagate. Instead, the action is considered to have
+     * failed and we hand control back on its behalf, or the scenario would wait for it forever.
+     */
     private static void onStartAction(final ActionMessage.StartAction start, final ActionContext ctx, final ActionData data) {
-        try {
+        ctx.execute(() -> {
             final var session = start.session();
-            start.action().execute(List.of(), session);
-        } catch (final Throwable t) {
-            // TODO handle it.
-            t.printStackTrace();
-        }
+            try {
+                start.action().execute(List.of(), session);
+            } catch (final Throwable t) {
+                logger.warn("Action \"{}\" failed unexpectedly", start.action().name(), t);
+                start.next().execute(List.of(), session.markAsFailed());
+            }
+        });
     }
 
     private static void onActionFinished(final ActionMessage.ActionFinished finished, final ActionContext ctx, final ActionData data) {
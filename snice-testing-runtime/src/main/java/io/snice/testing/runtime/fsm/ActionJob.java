@@ -27,5 +27,14 @@ public interface ActionJob {
      */
     Session session();
 
+    /**
+     * Whether this job is executed without an actor of its own, i.e., inline on the scenario actor
+     * or on a pooled executor. If so, the job is done as soon as it reports that it has finished. Otherwise,
+     * we also have to wait for the actor of the job to terminate.
+     */
+    default boolean isActorless() {
+        return false;
+    }
+
     void start();
 }
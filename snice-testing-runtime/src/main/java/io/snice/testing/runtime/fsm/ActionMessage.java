@@ -11,8 +11,11 @@ public sealed interface ActionMessage {
 
     /**
      * Message used to kick-off the execution of an {@link Action} within the {@link ActionFsm}.
+     *
+     * @param next the {@link Action} that the given action hands control back to once it is done, which is
+     *             also what the {@link ActionFsm} does on its behalf should the action blow up.
      */
-    record StartAction(Session session, Action action) implements ActionMessage {
+    record StartAction(Session session, Action action, Action next) implements ActionMessage {
     }
 
     /**
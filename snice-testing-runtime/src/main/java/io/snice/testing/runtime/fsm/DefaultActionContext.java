@@ -3,7 +3,21 @@ package io.snice.testing.runtime.fsm;
 import io.hektor.actors.fsm.FsmActorContextSupport;
 import io.hektor.core.ActorRef;
 
-public record DefaultActionContext(ActorRef parent) implements ActionContext, FsmActorContextSupport {
+import java.util.concurrent.Executor;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+public record DefaultActionContext(ActorRef parent, Executor executor) implements ActionContext, FsmActorContextSupport {
+
+    public DefaultActionContext {
+        assertNotNull(parent);
+        assertNotNull(executor);
+    }
+
+    @Override
+    public void execute(final Runnable job) {
+        executor.execute(job);
+    }
 
     @Override
     public void actionFinished(final ActionMessage.ActionFinished msg) {
@@ -5,29 +5,44 @@ import io.hektor.actors.fsm.FsmActorContextSupport;
 import io.hektor.core.ActorRef;
 import io.hektor.core.Props;
 import io.snice.identity.sri.ActionResourceIdentifier;
+import io.snice.identity.sri.ScenarioResourceIdentifier;
 import io.snice.testing.core.Execution;
+import io.snice.testing.core.NetworkStats;
 import io.snice.testing.core.Session;
 import io.snice.testing.core.action.Action;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 import io.snice.testing.core.scenario.InternalActionBuilder;
 import io.snice.testing.core.scenario.Scenario;
 import io.snice.testing.core.scenario.ScenarioContex;
+import io.snice.testing.runtime.config.ActionExecutionMode;
+import io.snice.testing.runtime.results.ResultsSink;
+import io.snice.testing.runtime.stats.RuntimeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static io.snice.preconditions.PreConditions.assertNotNull;
 
+/**
+ * @param actionExecution how, and where, to execute the actions.
+ */
 public record DefaultScenarioFsmContext(ActorRef parent,
                                         ActorRef self,
                                         Scenario scenario,
-                                        ScenarioContex scenarioContext) implements ScenarioFsmContext, FsmActorContextSupport {
+                                        ScenarioContex scenarioContext,
+                                        ActionExecution actionExecution) implements ScenarioFsmContext, FsmActorContextSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultScenarioFsmContext.class);
 
     public DefaultScenarioFsmContext {
         assertNotNull(parent);
         assertNotNull(self);
         assertNotNull(scenario);
         assertNotNull(scenarioContext);
+        assertNotNull(actionExecution);
     }
 
     @Override
@@ -38,13 +53,64 @@ public record DefaultScenarioFsmContext(ActorRef parent,
 
     @Override
     public ActionJob prepareExecution(final InternalActionBuilder builder, final Session session) {
+        if (actionExecution.mode() == ActionExecutionMode.POOLED) {
+            return preparePooledExecution(builder, session);
+        }
+
         final var props = configureActionFsm();
         final var actor = ctx().actorOf(builder.sri().asString(), props);
 
-        final var action = builder.build(scenarioContext, new NextAction("TrapAction", actor, builder.sri()));
+        final var trap = trap(builder, actor);
+        final var action = builder.build(scenarioContext, trap);
         final var newSession = session.attributes(action.attributes());
+        actionExecution.metrics().actionStarted(actionType(builder));
 
-        return new ActionJobImpl(builder.sri(), builder.isAsync(), newSession, action, actor);
+        return new ActionJobImpl(builder.sri(), builder.isAsync(), newSession, action, trap, actor);
+    }
+
+    /**
+     * Prepare the execution of an action without creating a new actor for it. A synchronous action that doesn't
+     * use any protocol is just some local processing, such as manipulating the {@link Session}, and is cheap enough
+     * to be executed inline on the scenario actor. Everything else is handed off to the shared action executor.
+     * <p>
+     * In both cases, the action reports back to the scenario actor directly.
+     */
+    private ActionJob preparePooledExecution(final InternalActionBuilder builder, final Session session) {
+        final var inline = !builder.isAsync() && builder.protocol().isEmpty();
+        final Executor executor = inline ? Runnable::run : actionExecution.executor();
+
+        final var trap = trap(builder, self);
+        final var action = builder.build(scenarioContext, trap);
+        final var newSession = session.attributes(action.attributes());
+        actionExecution.metrics().actionStarted(actionType(builder));
+
+        return new PooledActionJobImpl(builder.sri(), builder.isAsync(), newSession, action, executor, trap);
+    }
+
+    private NextAction trap(final InternalActionBuilder builder, final ActorRef actor) {
+        return new NextAction("TrapAction", actor, builder.sri(), actionType(builder), scenario.uuid(),
+                actionExecution.metrics(), actionExecution.results());
+    }
+
+    /**
+     * For the metrics, the type of an action is the protocol it is using.
+     */
+    private static String actionType(final InternalActionBuilder builder) {
+        return builder.protocol().map(ProtocolRegistry.Key::name).orElse("none");
+    }
+
+    @Override
+    public void scenarioFinished(final boolean success, final NetworkStats network) {
+        actionExecution.metrics().scenarioFinished(scenario.name(), success, network);
+        actionExecution.results().scenarioFinished(scenario.uuid(), success);
+        scenario.protocols().stream().distinct().forEach(key -> scenarioContext.registry().protocol(key)
+                .ifPresent(protocol -> protocol.scenarioFinished(scenario.uuid())));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Scenario \"{}\" finished ({}): {} new connection(s) in {} ms, {} connection error(s), "
+                            + "{} bytes sent, {} bytes received", scenario.name(), success ? "success" : "failure",
+                    network.connections(), network.connectTime().toMillis(), network.connectionErrors(),
+                    network.bytesSent(), network.bytesReceived());
+        }
     }
 
     @Override
@@ -53,17 +119,40 @@ public record DefaultScenarioFsmContext(ActorRef parent,
     }
 
     private record ActionJobImpl(ActionResourceIdentifier sri, boolean isAsync, Session session, Action action,
-                                 ActorRef actor) implements ActionJob {
+                                 Action trap, ActorRef actor) implements ActionJob {
+
+        @Override
+        public void start() {
+            actor.tell(new ActionMessage.StartAction(session, action, trap));
+        }
+    }
+
+    private record PooledActionJobImpl(ActionResourceIdentifier sri, boolean isAsync, Session session, Action action,
+                                       Executor executor, Action trap) implements ActionJob {
+
+        @Override
+        public boolean isActorless() {
+            return true;
+        }
 
         @Override
         public void start() {
-            actor.tell(new ActionMessage.StartAction(session, action));
+            executor.execute(() -> {
+                try {
+                    action.execute(List.of(), session);
+                } catch (final Throwable t) {
+                    // there is no actor that will terminate on our behalf so we must report back
+                    // or the scenario would wait for this action forever.
+                    logger.warn("Action \"{}\" failed unexpectedly", action.name(), t);
+                    trap.execute(List.of(), session.markAsFailed());
+                }
+            });
         }
     }
 
     private Props configureActionFsm() {
         final var actionData = new ActionData();
-        final var actionCtx = new DefaultActionContext(self);
+        final var actionCtx = new DefaultActionContext(self, actionExecution.executor());
 
         return FsmActor.of(ActionFsm.definition)
                 .withContext(actionCtx)
@@ -75,8 +164,12 @@ public record DefaultScenarioFsmContext(ActorRef parent,
      * This is how we "trap" the action of handing control back to us. Each {@link Action} is unaware of the
      * actual execution environment and just calls "nextAction.execute", which is why we insert this "fake" action
      * as the next action to execute.
+     * <p>
+     * Since every action passes through here, this is also where the outcome of the action is recorded.
      */
-    private static record NextAction(String name, ActorRef actor, ActionResourceIdentifier sri) implements Action {
+    private static record NextAction(String name, ActorRef actor, ActionResourceIdentifier sri,
+                                     String type, ScenarioResourceIdentifier scenario, RuntimeMetrics metrics,
+                                     ResultsSink results) implements Action {
 
         @Override
         public Optional<ProtocolRegistry.Key> protocol() {
@@ -85,6 +178,8 @@ public record DefaultScenarioFsmContext(ActorRef parent,
 
         @Override
         public void execute(final List<Execution> executions, final Session session) {
+            metrics.actionFinished(type, executions);
+            results.record(scenario, executions);
             actor.tell(new ActionMessage.ActionFinished(sri, session, executions));
         }
     }
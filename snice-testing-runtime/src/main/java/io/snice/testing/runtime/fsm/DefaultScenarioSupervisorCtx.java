@@ -6,6 +6,7 @@ import io.hektor.actors.fsm.OnStartFunction;
 import io.hektor.core.ActorRef;
 import io.hektor.core.Props;
 import io.snice.testing.core.Session;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 import io.snice.testing.core.scenario.DefaultScenarioContext;
 import io.snice.testing.core.scenario.Scenario;
@@ -18,25 +19,42 @@ public class DefaultScenarioSupervisorCtx implements ScenarioSupervisorCtx, FsmA
 
     private final ActorRef self;
     private final CountDownLatch latch;
+    private final ActionExecution actionExecution;
 
     public static ScenarioSupervisorCtx of(final ActorRef self, final CountDownLatch latch) {
+        return of(self, latch, ActionExecution.DEFAULT);
+    }
+
+    /**
+     * @param actionExecution how, and where, all actions of all scenarios will be executed.
+     */
+    public static ScenarioSupervisorCtx of(final ActorRef self, final CountDownLatch latch, final ActionExecution actionExecution) {
         assertNotNull(self);
         assertNotNull(latch);
-        return new DefaultScenarioSupervisorCtx(self, latch);
+        assertNotNull(actionExecution);
+        return new DefaultScenarioSupervisorCtx(self, latch, actionExecution);
     }
 
-    private DefaultScenarioSupervisorCtx(final ActorRef self, final CountDownLatch latch) {
+    private DefaultScenarioSupervisorCtx(final ActorRef self, final CountDownLatch latch, final ActionExecution actionExecution) {
         this.self = self;
         this.latch = latch;
+        this.actionExecution = actionExecution;
     }
 
     @Override
-    public void runScenario(final Session session, final Scenario scenario, final ProtocolRegistry registry) {
-        final var props = configureScenarioFsm(session, scenario, registry);
+    public void runScenario(final Session session,
+                            final Scenario scenario,
+                            final ProtocolRegistry registry,
+                            final CheckPolicy checkPolicy) {
+        final var props = configureScenarioFsm(session, scenario, registry, checkPolicy);
+        actionExecution.metrics().scenarioStarted();
         final var scnActor = ctx().actorOf(scenario.uuid().asString(), props);
     }
 
-    private Props configureScenarioFsm(final Session session, final Scenario scenario, final ProtocolRegistry registry) {
+    private Props configureScenarioFsm(final Session session,
+                                       final Scenario scenario,
+                                       final ProtocolRegistry registry,
+                                       final CheckPolicy checkPolicy) {
         final var scenarioData = new ScenarioData();
         final OnStartFunction<ScenarioFsmContext, ScenarioData> onStart = (actorCtx, ctx, data) -> {
             actorCtx.self().tell(new ScenarioMessage.Init(session, scenario));
@@ -44,8 +62,8 @@ public class DefaultScenarioSupervisorCtx implements ScenarioSupervisorCtx, FsmA
 
         return FsmActor.of(ScenarioFsm.definition)
                 .withContext(ref -> {
-                    final var scenarioContext = new DefaultScenarioContext(ref, scenario.uuid(), registry);
-                    return new DefaultScenarioFsmContext(self, ref, scenario, scenarioContext);
+                    final var scenarioContext = new DefaultScenarioContext(scenario.uuid(), registry, checkPolicy);
+                    return new DefaultScenarioFsmContext(self, ref, scenario, scenarioContext, actionExecution);
                 })
                 .withData(scenarioData)
                 .withStartFunction(onStart)
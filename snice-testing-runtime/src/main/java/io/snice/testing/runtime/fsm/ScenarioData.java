@@ -3,6 +3,7 @@ package io.snice.testing.runtime.fsm;
 import io.hektor.fsm.Data;
 import io.snice.identity.sri.ActionResourceIdentifier;
 import io.snice.testing.core.Execution;
+import io.snice.testing.core.NetworkStats;
 import io.snice.testing.core.Session;
 import io.snice.testing.core.scenario.InternalActionBuilder;
 import io.snice.testing.core.scenario.Scenario;
@@ -41,6 +42,17 @@ public class ScenarioData implements Data {
      */
     private Optional<ActionResourceIdentifier> outstandingSyncAction = Optional.empty();
 
+    /**
+     * Whether any of the actions has failed, either by producing a failed {@link Execution} or by handing back
+     * a failed {@link Session}.
+     */
+    private boolean failed;
+
+    /**
+     * The sum of the {@link NetworkStats} of all the actions that so far have finished.
+     */
+    private NetworkStats network = NetworkStats.EMPTY;
+
     public ScenarioData() {
     }
 
@@ -81,9 +93,27 @@ public class ScenarioData implements Data {
         final var newStatus = jobs.computeIfPresent(finished.sri(), (sri, old) -> old.update(finished));
         assertNotNull(newStatus, "Received an " + ActionMessage.ActionFinished.class.getName()
                 + " message for an Action that doesn't belong to this Scenario. Internal bug. SRI is " + finished.sri());
+
+        failed |= (finished.session() != null && finished.session().isFailed())
+                || finished.executions().stream().anyMatch(execution -> !execution.success());
+
+        for (final var execution : finished.executions()) {
+            network = network.plus(execution.network().orElse(NetworkStats.EMPTY));
+        }
         return newStatus;
     }
 
+    /**
+     * @return true if none of the actions, that so far have finished, has failed.
+     */
+    public boolean isSucceeded() {
+        return !failed;
+    }
+
+    public NetworkStats networkStats() {
+        return network;
+    }
+
     public boolean isAllActionsDone() {
         final var finishedCount = jobs.values().stream().filter(status -> status.actionActorTerminated && status.actionFinished).count();
         return finishedCount == jobs.size();
@@ -135,7 +165,8 @@ public class ScenarioData implements Data {
      * @param sri                   - the unique {@link ActionResourceIdentifier} that identifies this action and its execution
      * @param job                   - the representation of the action to be executed.
      * @param executions            - the result of the exuction of the action. If this is empty, it has not yet completed.
-     * @param actionActorTerminated - whether the underlying Actor has terminated or not.
+     * @param actionActorTerminated - whether the underlying Actor has terminated or not. For jobs not executing within
+     *                              an actor, this is always true.
      */
     private record ActionJobStatus(ActionResourceIdentifier sri,
                                    ActionJob job,
@@ -149,7 +180,7 @@ public class ScenarioData implements Data {
         }
 
         private ActionJobStatus(final ActionJob job) {
-            this(job.sri(), job, List.of(), false, false);
+            this(job.sri(), job, List.of(), false, job.isActorless());
         }
 
         /**
@@ -7,7 +7,6 @@ import io.hektor.fsm.FSM;
 import io.hektor.fsm.visitor.PlantUmlVisitor;
 import io.snice.functional.Either;
 import io.snice.identity.sri.ActionResourceIdentifier;
-import io.snice.networking.common.event.ConnectionInfoEvent;
 import io.snice.testing.core.action.Action;
 import io.snice.testing.core.scenario.Scenario;
 
@@ -16,7 +15,6 @@ import java.util.List;
 import static io.hektor.fsm.docs.Label.label;
 import static io.snice.testing.runtime.fsm.ScenarioState.ERROR;
 import static io.snice.testing.runtime.fsm.ScenarioState.EXEC;
-import static io.snice.testing.runtime.fsm.ScenarioState.JOIN;
 import static io.snice.testing.runtime.fsm.ScenarioState.SYNC;
 import static io.snice.testing.runtime.fsm.ScenarioState.WRAP;
 
@@ -85,12 +83,10 @@ public class ScenarioFsm {
         init.transitionTo(ScenarioState.INIT).onEvent(ScenarioMessage.Init.class).withAction(ScenarioFsm::onInit, label("Validate Scenario"));
 
         init.transitionTo(EXEC).onEvent(ScenarioMessage.OkScenario.class);
-        init.transitionTo(ScenarioState.TERMINATED).onEvent(ScenarioMessage.BadScenario.class);
+        init.transitionTo(ScenarioState.TERMINATED).onEvent(ScenarioMessage.BadScenario.class)
+                .withAction((bad, ctx, data) -> ctx.scenarioFinished(false, data.networkStats()), label("Scenario Failed"));
 
 
-        exec.transitionTo(EXEC).onEvent(ConnectionInfoEvent.class)
-                .withAction(ScenarioFsm::onConnectionInfoEvent, label("Connection Info"));
-
         exec.transitionTo(ScenarioState.ASYNC)
                 .onEvent(ScenarioMessage.Exec.class)
                 .withGuard((msg, ctx, data) -> msg.action().isAsync(), label("isAsync Action"))
@@ -109,8 +105,6 @@ public class ScenarioFsm {
 
         exec.transitionTo(WRAP).onEvent(ScenarioMessage.NoMoreActions.class);
 
-        sync.transitionTo(SYNC).onEvent(ConnectionInfoEvent.class)
-                .withAction(ScenarioFsm::onConnectionInfoEvent, label("Connection Info"));
         sync.transitionTo(ERROR).onEvent(ActionMessage.ActionFinished.class)
                 .withGuard(ScenarioFsm::isUnknownAction, label("Unknown Action"))
                 .withTransformation(actionFinished -> ScenarioState.SYNC.toString(), label("evt -> \"SYNC\""))
@@ -139,15 +133,14 @@ public class ScenarioFsm {
 
         async.transitionTo(EXEC).asDefaultTransition();
 
-        wrap.transitionTo(WRAP).onEvent(ConnectionInfoEvent.class)
-                .withAction(ScenarioFsm::onConnectionInfoEvent, label("Connection Info"));
         wrap.transitionTo(WRAP).onEvent(ActionMessage.ActionFinished.class)
                 .withAction(ScenarioFsm::onActionFinished, label(ACTION_FINISHED_LABEL));
 
         wrap.transitionTo(WRAP).onEvent(LifecycleEvent.Terminated.class)
                 .withAction(ScenarioFsm::onActorTerminated, label(ACTOR_TERMINATED_LABEL));
 
-        wrap.transitionTo(ScenarioState.TERMINATED).onEvent(ScenarioMessage.Terminate.class);
+        wrap.transitionTo(ScenarioState.TERMINATED).onEvent(ScenarioMessage.Terminate.class)
+                .withAction((terminate, ctx, data) -> ctx.scenarioFinished(data.isSucceeded(), data.networkStats()), label("Scenario Finished"));
 
         // The ERROR state is a transient state whose only purpose is to show in the state transitions
         // that an error occurred. It will always transition back to the state from where it came, which
@@ -156,8 +149,6 @@ public class ScenarioFsm {
         error.transitionTo(ScenarioState.SYNC).onEvent(String.class).withGuard(ScenarioState.SYNC.toString()::equals, label("s == \"SYNC\""));
         error.transitionTo(EXEC).asDefaultTransition();
 
-        join.transitionTo(JOIN).onEvent(ConnectionInfoEvent.class)
-                .withAction(ScenarioFsm::onConnectionInfoEvent, label("Connection Info"));
         // TODO:
         join.transitionTo(EXEC).onEvent(String.class);
 
@@ -236,14 +227,6 @@ public class ScenarioFsm {
         job.start();
     }
 
-    /**
-     * The underlying stack is emitting several events regarding the state of the connection. We will consume those
-     * since we e.g. need to know exactly how many bytes was sent/received etc.
-     */
-    private static void onConnectionInfoEvent(final ConnectionInfoEvent e, final ScenarioFsmContext ctx, final ScenarioData data) {
-        // TODO
-    }
-
     /**
      * The only difference between a synchronous job finishing and an async one is that there can only be a single
      * synchronous job running at any given point in time and there is a guard on the FSM that ensures this. As such,
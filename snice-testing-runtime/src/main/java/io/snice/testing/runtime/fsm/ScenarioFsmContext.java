@@ -1,6 +1,7 @@
 package io.snice.testing.runtime.fsm;
 
 import io.hektor.fsm.Context;
+import io.snice.testing.core.NetworkStats;
 import io.snice.testing.core.Session;
 import io.snice.testing.core.scenario.InternalActionBuilder;
 import io.snice.testing.core.scenario.Scenario;
@@ -40,4 +41,12 @@ public interface ScenarioFsmContext extends Context {
 
     void reportError(ScenarioMessage.ErrorAction error);
 
+    /**
+     * Called by the FSM as the {@link Scenario} terminates.
+     *
+     * @param success whether the {@link Scenario} was valid and all of its actions succeeded.
+     * @param network the sum of the {@link NetworkStats} of all the actions of the {@link Scenario}.
+     */
+    void scenarioFinished(boolean success, NetworkStats network);
+
 }
@@ -0,0 +1,25 @@
+package io.snice.testing.runtime.fsm;
+
+import io.snice.testing.core.scenario.Scenario;
+
+import java.util.Optional;
+
+/**
+ * When running a closed load model, a {@link Scenario} that finishes should immediately be replaced
+ * by a new one. The {@link ScenarioSupervisorFsm} sees every {@link Scenario} terminate and will, if the
+ * original {@link ScenarioSupervisorMessages.Run} was configured with a {@link ScenarioRespawner}, ask
+ * for a replacement and start it right away.
+ * <p>
+ * Note that the {@link ScenarioRespawner} is executed within the context of the supervisor actor and
+ * as such, must not block.
+ */
+@FunctionalInterface
+public interface ScenarioRespawner {
+
+    /**
+     * @param completed the {@link ScenarioSupervisorMessages.Run} that just finished.
+     * @return the {@link ScenarioSupervisorMessages.Run} to start in its place or an empty optional if the
+     * "virtual user" is done, in which case the future of the completed run will be completed.
+     */
+    Optional<ScenarioSupervisorMessages.Run> respawn(ScenarioSupervisorMessages.Run completed);
+}
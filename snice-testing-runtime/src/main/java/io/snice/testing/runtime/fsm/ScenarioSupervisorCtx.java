@@ -2,6 +2,7 @@ package io.snice.testing.runtime.fsm;
 
 import io.hektor.fsm.Context;
 import io.snice.testing.core.Session;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 import io.snice.testing.core.scenario.Scenario;
 
@@ -12,6 +13,6 @@ public interface ScenarioSupervisorCtx extends Context {
      */
     void isRunning();
 
-    void runScenario(final Session session, final Scenario scenario, final ProtocolRegistry registry);
+    void runScenario(final Session session, final Scenario scenario, final ProtocolRegistry registry, final CheckPolicy checkPolicy);
 
 }
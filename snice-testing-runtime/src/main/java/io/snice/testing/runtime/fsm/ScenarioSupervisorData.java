@@ -6,16 +6,46 @@ import io.snice.identity.sri.ScenarioResourceIdentifier;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
 
 public class ScenarioSupervisorData implements Data {
 
     private final Map<ScenarioResourceIdentifier, ScenarioSupervisorMessages.Run> currentRuns = new HashMap<>();
 
+    /**
+     * The number of live runs assigned to this supervisor. This counter is shared with the runtime, which
+     * increments it as soon as it hands a new run to the supervisor (so it includes the runs still sitting in
+     * the mailbox of the supervisor) and is used for deciding where to place new runs. Once a run is
+     * completed, the supervisor decrements it again.
+     */
+    private final AtomicInteger liveRuns;
+
+    public ScenarioSupervisorData() {
+        this(new AtomicInteger());
+    }
+
+    public ScenarioSupervisorData(final AtomicInteger liveRuns) {
+        this.liveRuns = assertNotNull(liveRuns);
+    }
+
+    public int liveRuns() {
+        return liveRuns.get();
+    }
+
+    /**
+     * Called when a run has completed, i.e., when its future has been completed.
+     */
+    public void runCompleted() {
+        liveRuns.decrementAndGet();
+    }
+
     public void storeRun(final ScenarioSupervisorMessages.Run run) {
         currentRuns.put(run.scenario().uuid(), run);
     }
 
     public Optional<ScenarioSupervisorMessages.Run> removeRun(final ScenarioResourceIdentifier sri) {
-        return Optional.ofNullable(currentRuns.get(sri));
+        return Optional.ofNullable(currentRuns.remove(sri));
     }
 }
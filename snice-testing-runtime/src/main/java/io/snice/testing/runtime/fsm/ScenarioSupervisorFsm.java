@@ -4,6 +4,8 @@ import io.hektor.core.LifecycleEvent;
 import io.hektor.fsm.Definition;
 import io.hektor.fsm.FSM;
 import io.snice.identity.sri.ScenarioResourceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static io.snice.testing.runtime.fsm.ScenarioSupervisorState.INIT;
 import static io.snice.testing.runtime.fsm.ScenarioSupervisorState.RUNNING;
@@ -11,6 +13,8 @@ import static io.snice.testing.runtime.fsm.ScenarioSupervisorState.TERMINATED;
 
 public class ScenarioSupervisorFsm {
 
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioSupervisorFsm.class);
+
     public static final Definition<ScenarioSupervisorState, ScenarioSupervisorCtx, ScenarioSupervisorData> definition;
 
     static {
@@ -28,10 +32,7 @@ public class ScenarioSupervisorFsm {
 
         running.transitionTo(RUNNING)
                 .onEvent(ScenarioSupervisorMessages.Run.class)
-                .withAction((run, ctx, data) -> {
-                    data.storeRun(run);
-                    ctx.runScenario(run.session(), run.scenario(), run.registry());
-                });
+                .withAction(ScenarioSupervisorFsm::startRun);
 
         running.transitionTo(RUNNING)
                 .onEvent(ScenarioSupervisorMessages.RunCompleted.class)
@@ -52,7 +53,7 @@ public class ScenarioSupervisorFsm {
                                             final ScenarioSupervisorCtx ctx,
                                             final ScenarioSupervisorData data) {
 
-        System.err.println("Processing the result of a run");
+        logger.debug("Processing the result of a run");
     }
 
     private static void processScenarioTerminated(final LifecycleEvent.Terminated event,
@@ -61,6 +62,20 @@ public class ScenarioSupervisorFsm {
 
         final var sri = ScenarioResourceIdentifier.from(event.getActor().name());
         final var originalRun = data.removeRun(sri).orElseThrow(() -> new IllegalArgumentException("Unknown Scenario completed: " + event.getActor().name()));
-        originalRun.future().complete(null);
+
+        final var replacement = originalRun.respawner().flatMap(respawner -> respawner.respawn(originalRun));
+        if (replacement.isPresent()) {
+            startRun(replacement.get(), ctx, data);
+        } else {
+            originalRun.future().complete(null);
+            data.runCompleted();
+        }
+    }
+
+    private static void startRun(final ScenarioSupervisorMessages.Run run,
+                                 final ScenarioSupervisorCtx ctx,
+                                 final ScenarioSupervisorData data) {
+        data.storeRun(run);
+        ctx.runScenario(run.session(), run.scenario(), run.registry(), run.checkPolicy());
     }
 }
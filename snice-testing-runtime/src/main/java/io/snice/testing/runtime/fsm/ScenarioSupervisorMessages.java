@@ -2,10 +2,12 @@ package io.snice.testing.runtime.fsm;
 
 import io.snice.testing.core.Execution;
 import io.snice.testing.core.Session;
+import io.snice.testing.core.check.CheckPolicy;
 import io.snice.testing.core.protocol.ProtocolRegistry;
 import io.snice.testing.core.scenario.Scenario;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 public interface ScenarioSupervisorMessages {
@@ -13,7 +15,37 @@ public interface ScenarioSupervisorMessages {
     record Init() {
     }
 
-    record Run(Scenario scenario, Session session, ProtocolRegistry registry, CompletableFuture<Void> future) {
+    /**
+     * Request to run the given {@link Scenario}.
+     *
+     * @param future    completed when the run is over. If the run has a {@link ScenarioRespawner} the run is
+     *                  over first when the respawner decides not to start a new {@link Scenario}.
+     * @param respawner   optional {@link ScenarioRespawner} for closed load models.
+     * @param checkPolicy how the checks of the {@link Scenario} are to be evaluated.
+     */
+    record Run(Scenario scenario,
+               Session session,
+               ProtocolRegistry registry,
+               CompletableFuture<Void> future,
+               Optional<ScenarioRespawner> respawner,
+               CheckPolicy checkPolicy) {
+
+        public Run {
+            respawner = respawner == null ? Optional.empty() : respawner;
+            checkPolicy = checkPolicy == null ? CheckPolicy.DEFAULT : checkPolicy;
+        }
+
+        public Run(final Scenario scenario,
+                   final Session session,
+                   final ProtocolRegistry registry,
+                   final CompletableFuture<Void> future,
+                   final Optional<ScenarioRespawner> respawner) {
+            this(scenario, session, registry, future, respawner, CheckPolicy.DEFAULT);
+        }
+
+        public Run(final Scenario scenario, final Session session, final ProtocolRegistry registry, final CompletableFuture<Void> future) {
+            this(scenario, session, registry, future, Optional.empty());
+        }
     }
 
     /**
@@ -0,0 +1,147 @@
+package io.snice.testing.runtime.impl;
+
+import io.snice.testing.core.scenario.InjectionProfile;
+import io.snice.testing.core.scenario.Scenario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.snice.preconditions.PreConditions.assertCollectionNotEmpty;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * The {@link InjectionScheduler} is responsible for injecting new {@link Scenario}s according to a list
+ * of {@link InjectionProfile}s. It runs on its own dedicated thread and parks until the next arrival is due,
+ * with a short busy-spin at the very end in order to hit the arrival times with microsecond precision
+ * (the regular timers of the JVM are only as good as the OS scheduler, which typically is in the
+ * millisecond range).
+ * <p>
+ * If the scheduler falls behind, e.g. due to a GC pause, the overdue {@link Scenario}s are injected
+ * immediately so that the overall arrival rate is kept.
+ * <p>
+ * For the closed model ({@link InjectionProfile.ConstantConcurrency}) the scheduler only injects the initial
+ * "virtual users". The scenario supervisors then restart them as they finish, until the profile is over, which
+ * means that no polling is needed to keep the concurrency constant.
+ * <p>
+ * The future returned by {@link #start(ThreadFactory)} completes once all {@link Scenario}s have been
+ * injected AND all of them have completed.
+ */
+final class InjectionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(InjectionScheduler.class);
+
+    /**
+     * If the next arrival is closer than this, we'll spin rather than park the thread.
+     */
+    private static final long SPIN_THRESHOLD_NANOS = 50_000;
+
+    private final String name;
+    private final List<InjectionProfile> profiles;
+    private final Injector injector;
+
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    /**
+     * The number of injected scenarios that are still running. We start at one, which represents the
+     * injection itself, so that we don't complete the future while there still are scenarios left to inject.
+     */
+    private final AtomicLong outstanding = new AtomicLong(1);
+
+    private final AtomicLong injected = new AtomicLong();
+
+    /**
+     * @param name     the name of the run, only used for logging purposes.
+     * @param profiles the {@link InjectionProfile}s to execute, in order.
+     * @param injector the {@link Injector} to call for every new arrival.
+     */
+    InjectionScheduler(final String name, final List<InjectionProfile> profiles, final Injector injector) {
+        assertCollectionNotEmpty(profiles, "You must specify at least one injection profile");
+        assertNotNull(injector);
+        this.name = name;
+        this.profiles = List.copyOf(profiles);
+        this.injector = injector;
+    }
+
+    CompletionStage<Void> start(final ThreadFactory threadFactory) {
+        threadFactory.newThread(this::run).start();
+        return done;
+    }
+
+    private void run() {
+        logger.info("Starting injection of \"{}\" using {}", name, profiles);
+        try {
+            var profileStart = System.nanoTime();
+            for (final var profile : profiles) {
+                final var respawnUntil = profile instanceof InjectionProfile.ConstantConcurrency
+                        ? OptionalLong.of(profileStart + profile.duration().toNanos())
+                        : OptionalLong.empty();
+
+                final var arrivals = profile.arrivals();
+                while (arrivals.hasNext()) {
+                    awaitDeadline(profileStart + arrivals.nextLong());
+                    inject(respawnUntil);
+                }
+
+                profileStart += profile.duration().toNanos();
+                awaitDeadline(profileStart);
+            }
+        } catch (final Throwable t) {
+            logger.warn("Injection of \"{}\" aborted due to an unexpected exception", name, t);
+        }
+
+        logger.info("Injected a total of {} scenarios for \"{}\"", injected.get(), name);
+        completeOne();
+    }
+
+    private void inject(final OptionalLong respawnUntil) {
+        outstanding.incrementAndGet();
+        injected.incrementAndGet();
+        try {
+            injector.inject(respawnUntil).whenComplete((aVoid, error) -> completeOne());
+        } catch (final Throwable t) {
+            logger.warn("Unable to inject a new scenario for \"{}\"", name, t);
+            completeOne();
+        }
+    }
+
+    private void completeOne() {
+        if (outstanding.decrementAndGet() == 0) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * Called by the {@link InjectionScheduler} for every new arrival and is expected to start a new
+     * {@link Scenario}.
+     */
+    @FunctionalInterface
+    interface Injector {
+
+        /**
+         * @param respawnUntil if present, the new {@link Scenario} is a "virtual user" of a closed model and
+         *                     should be restarted as soon as it finishes, up until the given deadline, as
+         *                     given by {@link System#nanoTime()}.
+         * @return a {@link CompletionStage} that completes when the {@link Scenario}, including any restarts
+         * of it, has finished.
+         */
+        CompletionStage<Void> inject(OptionalLong respawnUntil);
+    }
+
+    private static void awaitDeadline(final long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
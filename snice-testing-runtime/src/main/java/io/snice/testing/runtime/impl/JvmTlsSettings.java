@@ -0,0 +1,125 @@
+package io.snice.testing.runtime.impl;
+
+import io.snice.testing.runtime.config.TlsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.security.GeneralSecurityException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * The protocol stacks, such as Snice Networking, establish their TLS connections themselves, using the TLS
+ * implementation of the JVM, and they don't give us access to the {@link javax.net.ssl.SSLEngine} or the
+ * {@link SSLContext} of a connection, so we cannot apply the protocols, cipher suites etc as
+ * {@link javax.net.ssl.SSLParameters} on a per connection basis. Instead, we configure the JVM defaults (see the
+ * JSSE reference guide for the <code>jdk.tls.client.*</code> properties), which is a global side effect: it
+ * applies to every TLS connection the JVM makes from there on, not just to the ones of Snice Testing. As such, it
+ * is done once, by the runtime, as it starts.
+ * <p>
+ * Also note that the JVM only reads those properties once, the first time TLS is used, so the configuration
+ * only takes effect if it is applied before that. Anything that has used TLS before, in the same JVM, means it
+ * is too late, which is logged as an error, in which case the properties have to be given on the command line
+ * instead. Since it is all global, only the first configuration is ever applied.
+ * <p>
+ * Session resumption is handled by the JVM as well. As long as the client session cache of the {@link SSLContext}
+ * is large enough and the sessions haven't timed out, a new connection to the same host:port will resume the
+ * previous session (or use a session ticket, if enabled) and skip the full handshake. The size of the cache is
+ * picked up by every new {@link SSLContext}, including the ones created by the protocol stacks, but the timeout
+ * can only be set on the {@link SSLContext} itself, which is why it is not configurable.
+ */
+final class JvmTlsSettings {
+
+    private static final Logger logger = LoggerFactory.getLogger(JvmTlsSettings.class);
+
+    private static final AtomicReference<TlsConfig> applied = new AtomicReference<>();
+
+    private JvmTlsSettings() {
+        // only static methods
+    }
+
+    /**
+     * Apply the given TLS configuration, unless a configuration already has been applied, in which case
+     * this is a no-op (but we'll warn if they differ since the user probably expected something else).
+     */
+    static void apply(final TlsConfig config) {
+        assertNotNull(config);
+        if (applied.compareAndSet(null, config)) {
+            configure(config);
+            if (!isInEffect(config)) {
+                logger.error("The TLS protocols and cipher suites of {} could not be applied since TLS has already "
+                        + "been used by this JVM. Use the jdk.tls.client.protocols and jdk.tls.client.cipherSuites "
+                        + "system properties on the command line instead", config);
+            }
+            return;
+        }
+
+        final var current = applied.get();
+        if (!current.equals(config)) {
+            logger.warn("The TLS configuration {} has already been applied to the JVM. Ignoring {}", current, config);
+        }
+    }
+
+    /**
+     * Check whether a new TLS client connection, using a new {@link SSLContext} (which is what the protocol
+     * stacks create), would only enable the protocols and cipher suites of the given configuration, and cache
+     * as many sessions as configured.
+     */
+    static boolean isInEffect(final TlsConfig config) {
+        assertNotNull(config);
+        try {
+            final var context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+            final var engine = context.createSSLEngine();
+            engine.setUseClientMode(true);
+            return onlyEnabled(engine.getEnabledProtocols(), config.protocols().isEmpty() ? null : Set.copyOf(config.protocols()))
+                    && onlyEnabled(engine.getEnabledCipherSuites(), config.cipherSuites().isEmpty() ? null : Set.copyOf(config.cipherSuites()))
+                    && context.getClientSessionContext().getSessionCacheSize() == config.sessionCacheSize();
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to obtain a TLS context of the JVM", e);
+        }
+    }
+
+    private static boolean onlyEnabled(final String[] enabled, final Set<String> configured) {
+        if (configured == null) {
+            return true;
+        }
+
+        for (final var value : enabled) {
+            if (!configured.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void configure(final TlsConfig config) {
+        if (!config.protocols().isEmpty()) {
+            System.setProperty("jdk.tls.client.protocols", String.join(",", config.protocols()));
+        }
+
+        if (!config.cipherSuites().isEmpty()) {
+            System.setProperty("jdk.tls.client.cipherSuites", String.join(",", config.cipherSuites()));
+        }
+
+        System.setProperty("jdk.tls.client.enableSessionTicketExtension", Boolean.toString(config.sessionTickets()));
+
+        // unlike the above, this one is read every time a new SSLContext is created
+        System.setProperty("javax.net.ssl.sessionCacheSize", Integer.toString(config.sessionCacheSize()));
+
+        try {
+            warnIfUnsupported(config, Set.of(SSLContext.getDefault().getSupportedSSLParameters().getCipherSuites()));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to obtain the default TLS context of the JVM", e);
+        }
+    }
+
+    private static void warnIfUnsupported(final TlsConfig config, final Set<String> supported) {
+        config.cipherSuites().stream()
+                .filter(suite -> !supported.contains(suite))
+                .forEach(suite -> logger.warn("The cipher suite {} is not supported by this JVM and will be ignored", suite));
+    }
+}
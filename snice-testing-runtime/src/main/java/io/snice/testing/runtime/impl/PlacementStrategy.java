@@ -0,0 +1,129 @@
+package io.snice.testing.runtime.impl;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+import io.snice.testing.runtime.config.SupervisorPlacement;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertCollectionNotEmpty;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Decides which scenario supervisor a new scenario should be placed on.
+ * <p>
+ * Note that the strategies are called from whatever thread is injecting new scenarios
+ * and as such, they must be thread safe.
+ */
+interface PlacementStrategy {
+
+    /**
+     * @return the index of the supervisor to place the scenario on.
+     */
+    int select(ScenarioResourceIdentifier scenario);
+
+    /**
+     * @param placement the type of strategy to create.
+     * @param liveRuns  the current number of live runs per supervisor (the index of the list is
+     *                  the index of the supervisor).
+     */
+    static PlacementStrategy of(final SupervisorPlacement placement, final List<AtomicInteger> liveRuns) {
+        assertNotNull(placement);
+        assertCollectionNotEmpty(liveRuns, "There must be at least one supervisor");
+        return switch (placement) {
+            case ROUND_ROBIN -> new RoundRobin(liveRuns.size(), new AtomicInteger());
+            case LEAST_LOADED -> new LeastLoaded(List.copyOf(liveRuns), new AtomicInteger());
+            case HASH -> ConsistentHash.of(liveRuns.size());
+        };
+    }
+
+    record RoundRobin(int size, AtomicInteger next) implements PlacementStrategy {
+
+        @Override
+        public int select(final ScenarioResourceIdentifier scenario) {
+            return Math.floorMod(next.getAndIncrement(), size);
+        }
+    }
+
+    /**
+     * Pick the supervisor with the least number of live runs. In order to not always favour the first
+     * supervisor when many of them have the same load (which is typically the case when a lot of
+     * scenarios are injected at once) the scan starts at a different supervisor every time.
+     */
+    record LeastLoaded(List<AtomicInteger> liveRuns, AtomicInteger start) implements PlacementStrategy {
+
+        @Override
+        public int select(final ScenarioResourceIdentifier scenario) {
+            final var size = liveRuns.size();
+            final var offset = Math.floorMod(start.getAndIncrement(), size);
+
+            var best = offset;
+            var bestLoad = liveRuns.get(offset).get();
+            for (int i = 1; i < size && bestLoad > 0; ++i) {
+                final var index = (offset + i) % size;
+                final var load = liveRuns.get(index).get();
+                if (load < bestLoad) {
+                    best = index;
+                    bestLoad = load;
+                }
+            }
+
+            return best;
+        }
+    }
+
+    /**
+     * A consistent hash ring where every supervisor owns a number of virtual nodes on the ring. A scenario
+     * is placed on the supervisor owning the first virtual node at, or after, the hash of the scenario's
+     * {@link ScenarioResourceIdentifier}.
+     */
+    record ConsistentHash(long[] ring, int[] owners) implements PlacementStrategy {
+
+        private static final int VIRTUAL_NODES = 128;
+
+        static ConsistentHash of(final int size) {
+            assertArgument(size > 0, "There must be at least one supervisor");
+            final var nodes = new long[size * VIRTUAL_NODES][];
+            for (int supervisor = 0; supervisor < size; ++supervisor) {
+                for (int v = 0; v < VIRTUAL_NODES; ++v) {
+                    final var hash = mix(((long) supervisor << 32) | v);
+                    nodes[supervisor * VIRTUAL_NODES + v] = new long[]{hash, supervisor};
+                }
+            }
+
+            Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+            final var ring = new long[nodes.length];
+            final var owners = new int[nodes.length];
+            for (int i = 0; i < nodes.length; ++i) {
+                ring[i] = nodes[i][0];
+                owners[i] = (int) nodes[i][1];
+            }
+
+            return new ConsistentHash(ring, owners);
+        }
+
+        @Override
+        public int select(final ScenarioResourceIdentifier scenario) {
+            final var hash = mix(scenario.hashCode());
+            final var index = Arrays.binarySearch(ring, hash);
+            final var position = index >= 0 ? index : -(index + 1);
+            return owners[position == ring.length ? 0 : position];
+        }
+
+        /**
+         * The finalizer of MurmurHash3, which spreads the bits nicely over the entire ring.
+         */
+        private static long mix(final long value) {
+            var h = value;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
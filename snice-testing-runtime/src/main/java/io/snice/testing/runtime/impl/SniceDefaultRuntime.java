@@ -9,35 +9,58 @@ import io.snice.networking.common.docker.DockerSupport;
 import io.snice.testing.core.CoreDsl;
 import io.snice.testing.core.MessageBuilder;
 import io.snice.testing.core.Session;
+import io.snice.testing.core.common.PersistentMap;
 import io.snice.testing.core.action.ActionBuilder;
 import io.snice.testing.core.protocol.Protocol;
 import io.snice.testing.core.protocol.ProtocolProvider;
 import io.snice.testing.core.protocol.ProtocolRegistry;
+import io.snice.testing.core.scenario.ExecutionPlan;
 import io.snice.testing.core.scenario.Scenario;
 import io.snice.testing.core.scenario.Simulation;
 import io.snice.testing.runtime.SniceRuntime;
+import io.snice.testing.runtime.config.ActionExecutionMode;
+import io.snice.testing.runtime.config.RuntimeConfig;
+import io.snice.testing.runtime.config.TlsConfig;
+import io.snice.testing.runtime.config.SupervisorPlacement;
+import io.snice.testing.runtime.fsm.ActionExecution;
 import io.snice.testing.runtime.fsm.DefaultScenarioSupervisorCtx;
+import io.snice.testing.runtime.fsm.ScenarioRespawner;
 import io.snice.testing.runtime.fsm.ScenarioSupervisorCtx;
 import io.snice.testing.runtime.fsm.ScenarioSupervisorData;
 import io.snice.testing.runtime.fsm.ScenarioSupervisorFsm;
 import io.snice.testing.runtime.fsm.ScenarioSupervisorMessages;
+import io.snice.testing.runtime.results.ResultsSink;
+import io.snice.testing.runtime.results.ResultsStore;
+import io.snice.testing.runtime.results.ResultsWriter;
+import io.snice.testing.runtime.stats.LatencyStats;
+import io.snice.testing.runtime.stats.PrometheusExporter;
+import io.snice.testing.runtime.stats.RuntimeMetrics;
 import io.snice.util.concurrent.SniceThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -48,24 +71,87 @@ import static java.util.stream.Collectors.toList;
 
 public class SniceDefaultRuntime implements SniceRuntime {
 
-    private static final Logger logger = LoggerFactory.getLogger(SniceDefaultRuntime.class);
+    /**
+     * The name under which the {@link RuntimeMetrics} are registered over JMX.
+     */
+    public static final String METRICS_MBEAN_NAME = "io.snice.testing:type=RuntimeMetrics";
 
-    // TODO: make it configurable
-    private static final int noOfScnSupervisors = 5;
+    private static final Logger logger = LoggerFactory.getLogger(SniceDefaultRuntime.class);
 
     private final int waitTime;
+    private final int noOfScnSupervisors;
+    private final SupervisorPlacement supervisorPlacement;
+    private final int actionWorkerThreads;
+    private final ActionExecutionMode actionExecutionMode;
     private final Hektor hektor;
     private final DockerSupport dockerSupport;
+
     private List<ActorRef> supervisors;
 
-    private final List<CompletionStage<Void>> runningScenarios = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * The number of live runs per supervisor, which is shared with the {@link ScenarioSupervisorData}
+     * of the corresponding supervisor.
+     */
+    private List<AtomicInteger> supervisorLoad;
+    private PlacementStrategy placementStrategy;
+
+    /**
+     * The number of runs that have been scheduled but not yet completed.
+     */
+    private final AtomicLong inFlightRuns = new AtomicLong();
+
+    /**
+     * Completed when the last in-flight run completes.
+     */
+    private final CompletableFuture<Void> allRunsCompleted = new CompletableFuture<>();
 
     private final CompletableFuture<Void> doneFuture = new CompletableFuture<>();
 
     private final CountDownLatch firstScenarioScheduledLatch = new CountDownLatch(1);
 
-    public SniceDefaultRuntime(final int waitTime, final Hektor hektor, final DockerSupport dockerSupport) {
-        this.waitTime = waitTime;
+    /**
+     * The live metrics of all scenarios and actions, including the response times of all actions.
+     */
+    private final RuntimeMetrics metrics = new RuntimeMetrics();
+
+    /**
+     * If greater than zero, the port on which the {@link PrometheusExporter} is listening.
+     */
+    private final int metricsPort;
+    private Optional<PrometheusExporter> exporter = Optional.empty();
+    private Optional<ObjectName> mbean = Optional.empty();
+
+    /**
+     * If configured, where every {@link io.snice.testing.core.Execution} is streamed to.
+     */
+    private final Optional<Path> resultsLog;
+    private Optional<ResultsWriter> results = Optional.empty();
+
+    /**
+     * If configured, the directory of the memory-mapped {@link ResultsStore} every
+     * {@link io.snice.testing.core.Execution} is stored in.
+     */
+    private final Optional<Path> resultsStore;
+    private Optional<ResultsStore> store = Optional.empty();
+
+    /**
+     * If configured, the TLS configuration that is applied to the JVM as the runtime starts.
+     */
+    private final Optional<TlsConfig> tls;
+
+    private final ThreadFactory injectorThreadFactory = SniceThreadFactory.withNamePrefix("snice-injector-").withDaemon(true).build();
+
+    public SniceDefaultRuntime(final RuntimeConfig config, final Hektor hektor, final DockerSupport dockerSupport) {
+        assertNotNull(config);
+        this.waitTime = config.getWait();
+        this.noOfScnSupervisors = config.getScenarioSupervisors();
+        this.supervisorPlacement = config.getSupervisorPlacement();
+        this.actionWorkerThreads = config.getActionWorkerThreads();
+        this.actionExecutionMode = config.getActionExecution();
+        this.metricsPort = config.getMetricsPort();
+        this.resultsLog = config.getResultsLog().map(Path::of);
+        this.resultsStore = config.getResultsStore().map(Path::of);
+        this.tls = config.getTls();
         this.hektor = hektor;
         this.dockerSupport = dockerSupport;
     }
@@ -75,6 +161,14 @@ public class SniceDefaultRuntime implements SniceRuntime {
         return doneFuture;
     }
 
+    public RuntimeMetrics metrics() {
+        return metrics;
+    }
+
+    public LatencyStats latencies() {
+        return metrics.latencies();
+    }
+
     private boolean waitForFirstTaskToBeScheduled() {
         try {
             firstScenarioScheduledLatch.await(waitTime, TimeUnit.SECONDS);
@@ -84,54 +178,56 @@ public class SniceDefaultRuntime implements SniceRuntime {
         }
     }
 
+    /**
+     * Wait for the first run to be scheduled and then, once all the runs have completed, shut down
+     * the system. Note that there is no polling involved. Every run simply decrements the number of
+     * in-flight runs as it completes and the last one to complete will trigger the shutdown.
+     */
     private void monitor() {
         logger.info("Starting monitoring system");
-        boolean done = false;
 
         if (waitForFirstTaskToBeScheduled()) {
-
-            while (!done) {
-                try {
-                    if (areAllScenariosCompleted()) {
-                        done = true;
-                    } else {
-                        sleep(100);
-                    }
-                } catch (final Throwable t) {
-                    // TODO
-                    done = true;
-                    t.printStackTrace();
-                }
-            }
-
-            logger.info("All tasks completed, shutting down system");
+            allRunsCompleted.whenComplete((aVoid, error) -> {
+                logger.info("All tasks completed, shutting down system");
+                shutdown();
+            });
         } else {
             logger.info("No tasks were ever scheduled, shutting down system");
+            shutdown();
         }
+    }
+
+    private void shutdown() {
+        metrics.latencies().summarize().forEach(summary -> logger.info("Latency {}", summary));
+        exporter.ifPresent(PrometheusExporter::close);
+        mbean.ifPresent(SniceDefaultRuntime::unregisterMBean);
+        results.ifPresent(writer -> {
+            writer.close();
+            logger.info("Wrote {} execution(s) to the results log {}", writer.written(), writer.path());
+        });
+        store.ifPresent(resultsStore -> {
+            resultsStore.close();
+            logger.info("Stored {} execution(s) in the results store {}", resultsStore.size(), resultsStore.directory());
+        });
 
         // Note: should shut down the protocols as well but there is a bug in Snice Networking
         // that doesn't allow us to do so. See https://github.com/sniceio/snice-networking/issues/19
         hektor.terminate().whenComplete((aVoid, error) -> {
             doneFuture.complete(null);
         });
-
     }
 
-
-    private void sleep(final int ms) {
-        try {
-            Thread.sleep(ms);
-        } catch (final InterruptedException e) {
-            // ignore
-        }
-    }
-
-    private boolean areAllScenariosCompleted() {
-        return !runningScenarios.stream()
-                .map(CompletionStage::toCompletableFuture)
-                .filter(f -> !f.isDone())
-                .findFirst()
-                .isPresent();
+    /**
+     * Keep track of the given run. Once it completes, it is no longer referenced by the runtime so
+     * no matter how many runs we go through, the cost of tracking them is constant.
+     */
+    private void trackRun(final CompletionStage<Void> run) {
+        inFlightRuns.incrementAndGet();
+        run.whenComplete((aVoid, error) -> {
+            if (inFlightRuns.decrementAndGet() == 0) {
+                allRunsCompleted.complete(null);
+            }
+        });
     }
 
     @Override
@@ -139,6 +235,9 @@ public class SniceDefaultRuntime implements SniceRuntime {
 
         final var startFuture = new CompletableFuture<SniceRuntime>();
 
+        // JVM wide, and only has an effect if applied before any protocol stack gets to use TLS.
+        tls.ifPresent(JvmTlsSettings::apply);
+
         // TODO: after re-structuring and moving this from the Snice main class, the below comments
         // TODO: will have to be revisited. Overall they kind of apply but even so, take the below as
         // TODO: all suggestions/thinking of how to proceed.
@@ -158,10 +257,18 @@ public class SniceDefaultRuntime implements SniceRuntime {
         // protocols.forEach(Protocol::start);
 
         final var latch = new CountDownLatch(noOfScnSupervisors);
-        final var scnSupervisorProps = configureScenarioSupervisor(latch);
+        final var actionExecution = new ActionExecution(actionExecutionMode, createActionExecutor(), metrics,
+                startResults());
+        supervisorLoad = IntStream.range(0, noOfScnSupervisors)
+                .mapToObj(i -> new AtomicInteger())
+                .collect(Collectors.toUnmodifiableList());
         supervisors = IntStream.range(0, noOfScnSupervisors).boxed()
-                .map(i -> hektor.actorOf("ScenarioSupervisor-" + i, scnSupervisorProps))
+                .map(i -> hektor.actorOf("ScenarioSupervisor-" + i, configureScenarioSupervisor(latch, supervisorLoad.get(i), actionExecution)))
                 .collect(toList());
+        placementStrategy = PlacementStrategy.of(supervisorPlacement, supervisorLoad);
+        IntStream.range(0, noOfScnSupervisors).forEach(i -> metrics.supervisor("ScenarioSupervisor-" + i, supervisorLoad.get(i)::get));
+        startMetrics();
+        logger.info("Started {} scenario supervisors using {} placement", noOfScnSupervisors, supervisorPlacement);
 
         // TODO: what to do if the supervisors doesn't start?
         try {
@@ -178,6 +285,69 @@ public class SniceDefaultRuntime implements SniceRuntime {
         return startFuture;
     }
 
+    /**
+     * Expose the {@link RuntimeMetrics} over JMX and, if configured, over HTTP for Prometheus to scrape.
+     * Neither is essential for running the simulation so any failure to do so is only logged.
+     */
+    private void startMetrics() {
+        try {
+            final var name = new ObjectName(METRICS_MBEAN_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+            mbean = Optional.of(name);
+        } catch (final JMException e) {
+            logger.warn("Unable to register the runtime metrics over JMX", e);
+        }
+
+        if (metricsPort > 0) {
+            try {
+                final var prometheus = PrometheusExporter.start(metrics, new InetSocketAddress(metricsPort));
+                exporter = Optional.of(prometheus);
+                logger.info("Exposing the metrics on {}{}", prometheus.address(), PrometheusExporter.PATH);
+            } catch (final UncheckedIOException e) {
+                logger.warn("Unable to expose the metrics on port {}", metricsPort, e);
+            }
+        }
+    }
+
+    /**
+     * If configured, start streaming every {@link io.snice.testing.core.Execution} to the results log and/or the
+     * results store. Just like the metrics, failing to do so is only logged.
+     *
+     * @return where the executed actions should record their results.
+     */
+    private ResultsSink startResults() {
+        resultsLog.ifPresent(path -> {
+            try {
+                results = Optional.of(ResultsWriter.open(path));
+                logger.info("Writing the results to {}", path.toAbsolutePath());
+            } catch (final UncheckedIOException e) {
+                logger.warn("Unable to write the results to {}", path, e);
+            }
+        });
+
+        resultsStore.ifPresent(path -> {
+            try {
+                store = Optional.of(ResultsStore.create(path));
+                logger.info("Storing the results in {}", path.toAbsolutePath());
+            } catch (final UncheckedIOException e) {
+                logger.warn("Unable to store the results in {}", path, e);
+            }
+        });
+
+        final var sinks = new ArrayList<ResultsSink>(2);
+        results.ifPresent(sinks::add);
+        store.ifPresent(sinks::add);
+        return ResultsSink.of(sinks);
+    }
+
+    private static void unregisterMBean(final ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (final JMException e) {
+            logger.warn("Unable to unregister the runtime metrics from JMX", e);
+        }
+    }
+
     @Override
     public <T extends Simulation> CompletionStage<Void> run(final T simulation) {
         return internalRun(simulation);
@@ -246,16 +416,55 @@ public class SniceDefaultRuntime implements SniceRuntime {
         //      Currently, that is not the case.
         protocolsMap.values().forEach(Protocol::start);
 
-        final var envVariables = System.getenv();
-        final var session = new Session(plan.name()).environment(envVariables);
+        // one snapshot of the environment, shared as is by every Session of this run.
+        final Map<String, String> envVariables = PersistentMap.copyOf(System.getenv());
+        final var scheduler = new InjectionScheduler(plan.name(), plan.injection(),
+                respawnUntil -> injectScenario(plan, envVariables, registry, respawnUntil));
 
-        final var future = new CompletableFuture<Void>();
-        nextSupervisor().tell(new ScenarioSupervisorMessages.Run(plan.scenario(), session, registry, future));
-        runningScenarios.add(future);
+        final var future = scheduler.start(injectorThreadFactory);
+        trackRun(future);
         firstScenarioScheduledLatch.countDown();
         return future;
     }
 
+    /**
+     * Start a new instance of the {@link Scenario} on one of the scenario supervisors.
+     *
+     * @param respawnUntil if present, the {@link Scenario} will be restarted by the supervisor as soon as it
+     *                     finishes, until the deadline has passed (closed load model).
+     * @return a {@link CompletionStage} that will complete when that instance of the {@link Scenario}
+     * (including any restarts of it) has finished.
+     */
+    private CompletionStage<Void> injectScenario(final ExecutionPlan plan,
+                                                 final Map<String, String> envVariables,
+                                                 final ProtocolRegistry registry,
+                                                 final OptionalLong respawnUntil) {
+        final Optional<ScenarioRespawner> respawner = respawnUntil.isPresent()
+                ? Optional.of(completed -> respawn(plan, envVariables, completed, respawnUntil.getAsLong()))
+                : Optional.empty();
+
+        final var session = new Session(plan.name()).environment(envVariables);
+        final var future = new CompletableFuture<Void>();
+        dispatch(new ScenarioSupervisorMessages.Run(plan.scenario().newInstance(), session, registry, future, respawner, plan.checkPolicy()));
+        return future;
+    }
+
+    /**
+     * Executed by the scenario supervisor when a "virtual user" of a closed load model finishes.
+     */
+    private static Optional<ScenarioSupervisorMessages.Run> respawn(final ExecutionPlan plan,
+                                                                    final Map<String, String> envVariables,
+                                                                    final ScenarioSupervisorMessages.Run completed,
+                                                                    final long deadline) {
+        if (System.nanoTime() - deadline >= 0) {
+            return Optional.empty();
+        }
+
+        final var session = new Session(plan.name()).environment(envVariables);
+        return Optional.of(new ScenarioSupervisorMessages.Run(plan.scenario().newInstance(), session,
+                completed.registry(), completed.future(), completed.respawner(), completed.checkPolicy()));
+    }
+
     /**
      * When not in strict mode and if there are missing protocols, create default versions of them.
      *
@@ -283,8 +492,13 @@ public class SniceDefaultRuntime implements SniceRuntime {
         return ((SimpleProtocolRegistry) registry).extend(protocols);
     }
 
-    private ActorRef nextSupervisor() {
-        return supervisors.get(new Random().nextInt(noOfScnSupervisors));
+    /**
+     * Hand the run over to one of the scenario supervisors, as decided by the {@link PlacementStrategy}.
+     */
+    private void dispatch(final ScenarioSupervisorMessages.Run run) {
+        final var index = placementStrategy.select(run.scenario().uuid());
+        supervisorLoad.get(index).incrementAndGet();
+        supervisors.get(index).tell(run);
     }
 
     private <T extends Protocol> ProtocolRegistry configureProtocolRegistry(final List<T> protocols) {
@@ -309,15 +523,31 @@ public class SniceDefaultRuntime implements SniceRuntime {
         }
     }
 
-    private static Props configureScenarioSupervisor(final CountDownLatch latch) {
+    /**
+     * By default, the actions execute directly on the Hektor dispatcher threads but if configured to do so,
+     * they will execute on their own dedicated pool of threads.
+     */
+    private Executor createActionExecutor() {
+        if (actionWorkerThreads <= 0) {
+            return Runnable::run;
+        }
+
+        logger.info("Executing actions on a separate pool of {} threads", actionWorkerThreads);
+        final var threadFactory = SniceThreadFactory.withNamePrefix("snice-action-").withDaemon(true).build();
+        return Executors.newFixedThreadPool(actionWorkerThreads, threadFactory);
+    }
+
+    private static Props configureScenarioSupervisor(final CountDownLatch latch,
+                                                     final AtomicInteger liveRuns,
+                                                     final ActionExecution actionExecution) {
 
         final OnStartFunction<ScenarioSupervisorCtx, ScenarioSupervisorData> onStart = (actorCtx, ctx, data) -> {
             actorCtx.self().tell(new ScenarioSupervisorMessages.Init());
         };
 
         return FsmActor.of(ScenarioSupervisorFsm.definition)
-                .withContext(ref -> DefaultScenarioSupervisorCtx.of(ref, latch))
-                .withData(() -> new ScenarioSupervisorData())
+                .withContext(ref -> DefaultScenarioSupervisorCtx.of(ref, latch, actionExecution))
+                .withData(() -> new ScenarioSupervisorData(liveRuns))
                 .withStartFunction(onStart)
                 .build();
     }
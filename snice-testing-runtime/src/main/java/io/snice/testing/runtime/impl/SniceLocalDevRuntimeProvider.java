@@ -17,12 +17,12 @@ public class SniceLocalDevRuntimeProvider implements SniceRuntimeProvider {
     public SniceRuntime create(final RuntimeConfig config) {
         // This could return null so that's why we check later because the implicit conversion
         // from Integer to int would blow up on NPE
-        final var hektor = Hektor.withName("Snice").withConfiguration(defaultHektorConfig()).build();
+        final var hektor = Hektor.withName("Snice").withConfiguration(hektorConfig(config)).build();
         final var dockerSupport = DockerSupport.of().withReadFromSystemProperties().build();
-        return new SniceDefaultRuntime(config.getWait(), hektor, dockerSupport);
+        return new SniceDefaultRuntime(config, hektor, dockerSupport);
     }
 
-    private static HektorConfiguration defaultHektorConfig() {
+    private static HektorConfiguration hektorConfig(final RuntimeConfig config) {
         final var conf = new HektorConfiguration();
 
         /*
@@ -36,8 +36,8 @@ public class SniceLocalDevRuntimeProvider implements SniceRuntimeProvider {
          */
         final var dispatcherConf = new DispatcherConfiguration.Builder()
                 .withExecutor("worker-thread-executor")
-                .withThroughput(75)
-                .withWorkerThreadExecutor(new WorkerThreadExecutorConfig.Builder().withNoOfWorkers(4).build())
+                .withThroughput(config.getThroughput())
+                .withWorkerThreadExecutor(new WorkerThreadExecutorConfig.Builder().withNoOfWorkers(config.getWorkerThreads()).build())
                 .build();
 
         final var dispatchers = Map.of("default-dispatcher", dispatcherConf);
@@ -0,0 +1,116 @@
+package io.snice.testing.runtime.results;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * A sequence of fixed-size records spread over any number of memory-mapped files, the segments, all of the same
+ * size. A new segment is created, and mapped, the first time a record in it is accessed, so the store grows one
+ * segment at a time and is only limited by the disk (and the address space).
+ * <p>
+ * Mapping a segment is rare, and happens under a lock, but finding the segment of a record is just a read of a
+ * volatile array, so any number of threads can access records concurrently. It is up to the caller to make sure
+ * that no two threads ever write the same record.
+ */
+final class MappedSegments {
+
+    private final Path directory;
+    private final String prefix;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final boolean writable;
+
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    MappedSegments(final Path directory,
+                   final String prefix,
+                   final int recordSize,
+                   final int recordsPerSegment,
+                   final boolean writable) {
+        assertArgument(recordSize > 0 && recordsPerSegment > 0, "The size of the records and segments must be positive");
+        assertArgument((long) recordSize * recordsPerSegment <= Integer.MAX_VALUE, "A segment cannot be larger than 2GB");
+        this.directory = directory;
+        this.prefix = prefix;
+        this.recordSize = recordSize;
+        this.recordsPerSegment = recordsPerSegment;
+        this.writable = writable;
+    }
+
+    /**
+     * @return the segment holding the given record.
+     * @throws UncheckedIOException in case the segment cannot be created or mapped.
+     */
+    MappedByteBuffer segment(final long index) {
+        final var segment = (int) (index / recordsPerSegment);
+        final var current = segments;
+        if (segment < current.length && current[segment] != null) {
+            return current[segment];
+        }
+
+        return map(segment);
+    }
+
+    /**
+     * @return the offset of the given record within its {@link #segment(long)}.
+     */
+    int offset(final long index) {
+        return (int) (index % recordsPerSegment) * recordSize;
+    }
+
+    /**
+     * Make sure that everything written so far has made it to disk.
+     */
+    void force() {
+        for (final var segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    static Path path(final Path directory, final String prefix, final int segment) {
+        return directory.resolve(String.format(Locale.ROOT, "%s%06d.seg", prefix, segment));
+    }
+
+    private synchronized MappedByteBuffer map(final int segment) {
+        var current = segments;
+        if (segment < current.length && current[segment] != null) {
+            return current[segment];
+        }
+
+        final var size = (long) recordSize * recordsPerSegment;
+        final var path = path(directory, prefix, segment);
+        final MappedByteBuffer buffer;
+        if (writable) {
+            try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Unable to map the segment " + path, e);
+            }
+        } else {
+            try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, channel.size()));
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Unable to map the segment " + path, e);
+            }
+        }
+
+        if (segment >= current.length) {
+            current = Arrays.copyOf(current, Math.max(segment + 1, current.length * 2));
+        } else {
+            current = current.clone();
+        }
+        current[segment] = buffer;
+        segments = current;
+        return buffer;
+    }
+}
@@ -0,0 +1,35 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.testing.core.Execution;
+
+import java.util.List;
+
+/**
+ * A single {@link Execution} as read back from the results log.
+ *
+ * @param name              the name of the {@link Execution}.
+ * @param timestamp         when the {@link Execution} was recorded, in milliseconds since the epoch.
+ * @param offsetNanos       when the {@link Execution} was recorded, in nanoseconds since the log was created.
+ * @param success           whether the {@link Execution} was successful.
+ * @param responseTimeNanos the response time, or -1 if the {@link Execution} has no timings.
+ * @param totalTimeNanos    the total time, or -1 if the {@link Execution} has no timings.
+ * @param checksPassed      the number of checks that passed.
+ * @param failures          the reason of every check that failed.
+ */
+public record ResultRecord(String name,
+                           long timestamp,
+                           long offsetNanos,
+                           boolean success,
+                           long responseTimeNanos,
+                           long totalTimeNanos,
+                           int checksPassed,
+                           List<String> failures) {
+
+    public boolean hasTimings() {
+        return responseTimeNanos >= 0;
+    }
+
+    public int checksFailed() {
+        return failures.size();
+    }
+}
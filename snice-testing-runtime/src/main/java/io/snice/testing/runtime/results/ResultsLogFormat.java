@@ -0,0 +1,102 @@
+package io.snice.testing.runtime.results;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary format of the results log, which is shared between the {@link ResultsWriter} and the
+ * {@link ResultsReader}.
+ * <p>
+ * The log starts with a header, which is the {@link #MAGIC}, the {@link #VERSION} and the wall clock time, in
+ * milliseconds since the epoch, of when the log was created. After that follows any number of records, each one
+ * starting with a single byte identifying the type of the record:
+ *
+ * <ul>
+ *     <li>{@link #NAME} - assigns an id to the name of an action, which is then used by all executions of that
+ *     action so that we don't write the same name over and over again. The record is the id followed by the
+ *     UTF-8 encoded name.</li>
+ *     <li>{@link #EXECUTION} - a single execution, which is the id of its name, the time, in nanoseconds since the
+ *     log was created, when the execution was recorded, a flag byte ({@link #SUCCESS}, {@link #TIMINGS}), the
+ *     response and total time, in nanoseconds, if the execution has timings, the number of checks that passed and
+ *     finally, the number of checks that failed followed by the UTF-8 encoded reason of every failure.</li>
+ * </ul>
+ * <p>
+ * All numbers, except for the header, are written as unsigned variable length integers (7 bits per byte, least
+ * significant group first) and all strings are prefixed with their length. Since the log is append-only, a crashed
+ * simulation may leave a partial record at the very end of the log, which the reader will simply ignore.
+ */
+final class ResultsLogFormat {
+
+    /**
+     * "SNRL", as in Snice Results Log.
+     */
+    static final int MAGIC = 0x534E524C;
+
+    static final byte VERSION = 1;
+
+    static final int NAME = 0x01;
+    static final int EXECUTION = 0x02;
+
+    static final int SUCCESS = 0x01;
+    static final int TIMINGS = 0x02;
+
+    private ResultsLogFormat() {
+        // no instances
+    }
+
+    static void writeVarLong(final OutputStream out, final long value) throws IOException {
+        var v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    static void writeString(final OutputStream out, final String value) throws IOException {
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @throws EOFException if the stream ends in the middle of the number.
+     */
+    static long readVarLong(final InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final var b = in.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer in the results log");
+    }
+
+    static int readVarInt(final InputStream in) throws IOException {
+        final var value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Malformed results log, integer out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * @throws EOFException if the stream ends in the middle of the string.
+     */
+    static String readString(final InputStream in) throws IOException {
+        final var length = readVarInt(in);
+        final var bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,156 @@
+package io.snice.testing.runtime.results;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+import static io.snice.testing.runtime.results.ResultsLogFormat.EXECUTION;
+import static io.snice.testing.runtime.results.ResultsLogFormat.MAGIC;
+import static io.snice.testing.runtime.results.ResultsLogFormat.NAME;
+import static io.snice.testing.runtime.results.ResultsLogFormat.SUCCESS;
+import static io.snice.testing.runtime.results.ResultsLogFormat.TIMINGS;
+import static io.snice.testing.runtime.results.ResultsLogFormat.VERSION;
+import static io.snice.testing.runtime.results.ResultsLogFormat.readString;
+import static io.snice.testing.runtime.results.ResultsLogFormat.readVarInt;
+import static io.snice.testing.runtime.results.ResultsLogFormat.readVarLong;
+
+/**
+ * Reads back a results log, as written by the {@link ResultsWriter}, one {@link ResultRecord} at a time so that
+ * even the log of a multi-day soak test can be processed without loading all of it into memory.
+ */
+public final class ResultsReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final long startTime;
+    private final List<String> names = new ArrayList<>();
+
+    private ResultsReader(final InputStream in, final long startTime) {
+        this.in = in;
+        this.startTime = startTime;
+    }
+
+    /**
+     * @throws IOException in case the file cannot be read or isn't a results log.
+     */
+    public static ResultsReader open(final Path path) throws IOException {
+        assertNotNull(path);
+        final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a results log");
+            }
+
+            final var version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of the results log " + path);
+            }
+
+            return new ResultsReader(in, in.readLong());
+        } catch (final IOException e) {
+            in.close();
+            throw e instanceof EOFException ? new IOException(path + " is not a results log", e) : e;
+        }
+    }
+
+    /**
+     * @return the wall clock time, in milliseconds since the epoch, of when the log was created.
+     */
+    public long startTime() {
+        return startTime;
+    }
+
+    /**
+     * Read the next {@link ResultRecord}.
+     *
+     * @return the next {@link ResultRecord} or an empty optional once the end of the log has been reached. Note that
+     * a partially written record at the very end of the log, as left behind by e.g. a simulation that crashed, is
+     * treated as the end of the log.
+     * @throws IOException in case the log is corrupt or cannot be read.
+     */
+    public Optional<ResultRecord> next() throws IOException {
+        try {
+            while (true) {
+                final var type = in.read();
+                if (type == -1) {
+                    return Optional.empty();
+                }
+
+                switch (type) {
+                    case NAME -> readName();
+                    case EXECUTION -> {
+                        return Optional.of(readExecution());
+                    }
+                    default -> throw new IOException("Unknown record type " + type + " in the results log");
+                }
+            }
+        } catch (final EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readName() throws IOException {
+        final var id = readVarInt(in);
+        final var name = readString(in);
+        if (id != names.size()) {
+            throw new IOException("Malformed results log, expected name id " + names.size() + " but got " + id);
+        }
+        names.add(name);
+    }
+
+    private ResultRecord readExecution() throws IOException {
+        final var id = readVarInt(in);
+        if (id >= names.size()) {
+            throw new IOException("Malformed results log, unknown name id " + id);
+        }
+
+        final var offsetNanos = readVarLong(in);
+        final var flags = in.read();
+        if (flags == -1) {
+            throw new EOFException();
+        }
+
+        var responseTime = -1L;
+        var totalTime = -1L;
+        if ((flags & TIMINGS) != 0) {
+            responseTime = readVarLong(in);
+            totalTime = readVarLong(in);
+        }
+
+        final var passed = readVarInt(in);
+        final var failed = readVarInt(in);
+        final List<String> failures;
+        if (failed == 0) {
+            failures = List.of();
+        } else {
+            final var reasons = new ArrayList<String>(Math.min(failed, 16));
+            for (int i = 0; i < failed; ++i) {
+                reasons.add(readString(in));
+            }
+            failures = List.copyOf(reasons);
+        }
+
+        return new ResultRecord(names.get(id),
+                startTime + offsetNanos / 1_000_000,
+                offsetNanos,
+                (flags & SUCCESS) != 0,
+                responseTime,
+                totalTime,
+                passed,
+                failures);
+    }
+}
@@ -0,0 +1,456 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.testing.runtime.stats.LatencyStats;
+import io.snice.testing.runtime.stats.LatencySummary;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Offline tool that turns a results log, as written by the {@link ResultsWriter}, into a report with the response
+ * time percentiles of every action and a time series of the throughput, failures and response times of the entire
+ * simulation. The report is available as JSON, for further processing, and as a self-contained HTML page.
+ * <p>
+ * The log is streamed, and only the histograms and the time series are kept in memory, so the size of the log
+ * doesn't matter. Run it as:
+ *
+ * <pre>
+ *     java -cp ... io.snice.testing.runtime.results.ResultsReport [--output &lt;dir&gt;] [--interval &lt;seconds&gt;] &lt;results log&gt;
+ * </pre>
+ * <p>
+ * which writes <code>report.json</code> and <code>report.html</code> to the output directory.
+ */
+public final class ResultsReport {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+    private static final String ARG_LOG = "log";
+    private static final String ARG_OUTPUT = "output";
+    private static final String ARG_INTERVAL = "interval";
+
+    private final long startTime;
+    private final long endTime;
+    private final Duration interval;
+    private final List<ActionResult> actions;
+    private final List<Interval> timeSeries;
+
+    /**
+     * The outcome of all executions of a single action.
+     *
+     * @param responseTimes the distribution of the response times of those executions that had timings.
+     */
+    public record ActionResult(String name,
+                               long executions,
+                               long failed,
+                               long checksPassed,
+                               long checksFailed,
+                               Optional<LatencySummary> responseTimes) {
+    }
+
+    /**
+     * All executions, of all actions, that were recorded during a single interval of the time series.
+     *
+     * @param start the start of the interval, in milliseconds since the epoch.
+     */
+    public record Interval(long start,
+                           long executions,
+                           long failed,
+                           Duration meanResponseTime,
+                           Duration maxResponseTime) {
+    }
+
+    private ResultsReport(final long startTime,
+                          final long endTime,
+                          final Duration interval,
+                          final List<ActionResult> actions,
+                          final List<Interval> timeSeries) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.interval = interval;
+        this.actions = actions;
+        this.timeSeries = timeSeries;
+    }
+
+    public static ResultsReport create(final Path log) throws IOException {
+        return create(log, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Read the entire log and create the report.
+     *
+     * @param interval the length of every interval in the time series.
+     * @throws IOException in case the log cannot be read or is corrupt.
+     */
+    public static ResultsReport create(final Path log, final Duration interval) throws IOException {
+        assertNotNull(log);
+        assertNotNull(interval);
+        assertArgument(!interval.isNegative() && !interval.isZero(), "The interval must be positive");
+
+        final var intervalNanos = interval.toNanos();
+        final var latencies = new LatencyStats();
+        final var actions = new TreeMap<String, ActionAccumulator>();
+        final var buckets = new TreeMap<Long, IntervalAccumulator>();
+
+        try (final var reader = ResultsReader.open(log)) {
+            var endTime = reader.startTime();
+            var record = reader.next();
+            while (record.isPresent()) {
+                final var result = record.get();
+                endTime = Math.max(endTime, result.timestamp());
+
+                actions.computeIfAbsent(result.name(), name -> new ActionAccumulator()).add(result);
+                buckets.computeIfAbsent(result.offsetNanos() / intervalNanos, bucket -> new IntervalAccumulator()).add(result);
+                if (result.hasTimings()) {
+                    latencies.record(result.name(), result.responseTimeNanos());
+                }
+
+                record = reader.next();
+            }
+
+            final var summaries = new TreeMap<String, LatencySummary>();
+            latencies.summarize().forEach(summary -> summaries.put(summary.name(), summary));
+
+            final var actionResults = new ArrayList<ActionResult>(actions.size());
+            actions.forEach((name, acc) -> actionResults.add(new ActionResult(name, acc.executions, acc.failed,
+                    acc.checksPassed, acc.checksFailed, Optional.ofNullable(summaries.get(name)))));
+
+            // every interval between the first and the last, also those where nothing happened, or the gaps
+            // would simply vanish from the time series
+            final var timeSeries = new ArrayList<Interval>();
+            if (!buckets.isEmpty()) {
+                final var empty = new IntervalAccumulator();
+                for (long bucket = buckets.firstKey(); bucket <= buckets.lastKey(); ++bucket) {
+                    final var acc = buckets.getOrDefault(bucket, empty);
+                    timeSeries.add(acc.toInterval(reader.startTime() + bucket * intervalNanos / 1_000_000));
+                }
+            }
+
+            return new ResultsReport(reader.startTime(), endTime, interval, List.copyOf(actionResults), List.copyOf(timeSeries));
+        }
+    }
+
+    /**
+     * @return when the simulation started, in milliseconds since the epoch.
+     */
+    public long startTime() {
+        return startTime;
+    }
+
+    /**
+     * @return when the last execution was recorded, in milliseconds since the epoch.
+     */
+    public long endTime() {
+        return endTime;
+    }
+
+    public Duration interval() {
+        return interval;
+    }
+
+    /**
+     * @return the result of every action, sorted by name.
+     */
+    public List<ActionResult> actions() {
+        return actions;
+    }
+
+    /**
+     * @return every interval during which at least one execution was recorded, in order.
+     */
+    public List<Interval> timeSeries() {
+        return timeSeries;
+    }
+
+    public long executions() {
+        return actions.stream().mapToLong(ActionResult::executions).sum();
+    }
+
+    public long failed() {
+        return actions.stream().mapToLong(ActionResult::failed).sum();
+    }
+
+    public String toJson() {
+        final var json = new StringBuilder(4096);
+        json.append("{\n");
+        json.append("  \"start\": ").append(startTime).append(",\n");
+        json.append("  \"end\": ").append(endTime).append(",\n");
+        json.append("  \"interval\": ").append(interval.toMillis()).append(",\n");
+        json.append("  \"executions\": ").append(executions()).append(",\n");
+        json.append("  \"failed\": ").append(failed()).append(",\n");
+
+        json.append("  \"actions\": [");
+        for (int i = 0; i < actions.size(); ++i) {
+            final var action = actions.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"name\": ").append(jsonString(action.name()))
+                    .append(", \"executions\": ").append(action.executions())
+                    .append(", \"failed\": ").append(action.failed())
+                    .append(", \"checksPassed\": ").append(action.checksPassed())
+                    .append(", \"checksFailed\": ").append(action.checksFailed());
+            action.responseTimes().ifPresent(rt -> json.append(", \"responseTime\": {\"count\": ").append(rt.count())
+                    .append(", \"p50\": ").append(millis(rt.p50()))
+                    .append(", \"p90\": ").append(millis(rt.p90()))
+                    .append(", \"p99\": ").append(millis(rt.p99()))
+                    .append(", \"p999\": ").append(millis(rt.p999()))
+                    .append(", \"max\": ").append(millis(rt.max()))
+                    .append('}'));
+            json.append('}');
+        }
+        json.append(actions.isEmpty() ? "],\n" : "\n  ],\n");
+
+        json.append("  \"timeSeries\": [");
+        for (int i = 0; i < timeSeries.size(); ++i) {
+            final var bucket = timeSeries.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"start\": ").append(bucket.start())
+                    .append(", \"executions\": ").append(bucket.executions())
+                    .append(", \"failed\": ").append(bucket.failed())
+                    .append(", \"meanResponseTime\": ").append(millis(bucket.meanResponseTime()))
+                    .append(", \"maxResponseTime\": ").append(millis(bucket.maxResponseTime()))
+                    .append('}');
+        }
+        json.append(timeSeries.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    public String toHtml() {
+        final var html = new StringBuilder(8192);
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Snice Simulation Report</title>\n")
+                .append("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:2em}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}th:first-child,td:first-child{text-align:left}")
+                .append("polyline{fill:none;stroke-width:1.5}</style>\n</head>\n<body>\n");
+
+        html.append("<h1>Snice Simulation Report</h1>\n<table>\n");
+        row(html, "td", "Start", Instant.ofEpochMilli(startTime).toString());
+        row(html, "td", "End", Instant.ofEpochMilli(endTime).toString());
+        row(html, "td", "Executions", Long.toString(executions()));
+        row(html, "td", "Failed", Long.toString(failed()));
+        html.append("</table>\n");
+
+        html.append("<h2>Response Times (ms)</h2>\n<table>\n");
+        row(html, "th", "Action", "Executions", "Failed", "Checks Passed", "Checks Failed", "p50", "p90", "p99", "p99.9", "Max");
+        for (final var action : actions) {
+            final var rt = action.responseTimes();
+            row(html, "td", action.name(),
+                    Long.toString(action.executions()),
+                    Long.toString(action.failed()),
+                    Long.toString(action.checksPassed()),
+                    Long.toString(action.checksFailed()),
+                    rt.map(s -> millis(s.p50())).orElse("-"),
+                    rt.map(s -> millis(s.p90())).orElse("-"),
+                    rt.map(s -> millis(s.p99())).orElse("-"),
+                    rt.map(s -> millis(s.p999())).orElse("-"),
+                    rt.map(s -> millis(s.max())).orElse("-"));
+        }
+        html.append("</table>\n");
+
+        html.append("<h2>Throughput (executions per ").append(interval.toMillis()).append(" ms)</h2>\n");
+        chart(html, "#1f77b4", timeSeries.stream().mapToDouble(Interval::executions).toArray());
+        html.append("<h2>Mean Response Time (ms)</h2>\n");
+        chart(html, "#ff7f0e", timeSeries.stream()
+                .mapToDouble(i -> i.executions() == 0 ? Double.NaN : i.meanResponseTime().toNanos() / 1_000_000.0)
+                .toArray());
+
+        html.append("<h2>Time Series</h2>\n<table>\n");
+        row(html, "th", "Start", "Executions", "Failed", "Mean (ms)", "Max (ms)");
+        for (final var bucket : timeSeries) {
+            row(html, "td", Instant.ofEpochMilli(bucket.start()).toString(),
+                    Long.toString(bucket.executions()),
+                    Long.toString(bucket.failed()),
+                    millis(bucket.meanResponseTime()),
+                    millis(bucket.maxResponseTime()));
+        }
+        html.append("</table>\n</body>\n</html>\n");
+        return html.toString();
+    }
+
+    /**
+     * Write the report, as both <code>report.json</code> and <code>report.html</code>, to the given directory.
+     */
+    public void write(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("report.json"), toJson(), StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("report.html"), toHtml(), StandardCharsets.UTF_8);
+    }
+
+    public static void main(final String... args) throws IOException {
+        final var parser = createArgParser();
+        try {
+            final var namespace = parser.parseArgs(args);
+            final var log = Path.of(namespace.getString(ARG_LOG));
+            final var output = Path.of(namespace.getString(ARG_OUTPUT));
+            final int seconds = namespace.getInt(ARG_INTERVAL);
+            create(log, Duration.ofSeconds(seconds)).write(output);
+            System.out.println("Wrote report.json and report.html to " + output.toAbsolutePath());
+        } catch (final ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        }
+    }
+
+    private static ArgumentParser createArgParser() {
+        final var parser = ArgumentParsers.newFor("snice-report").build()
+                .description("Turns a Snice results log into an HTML and JSON report");
+        parser.addArgument(ARG_LOG)
+                .help("The results log, as written by the runtime when started with --results-log");
+        parser.addArgument("--" + ARG_OUTPUT)
+                .help("The directory to which the report is written")
+                .setDefault(".");
+        parser.addArgument("--" + ARG_INTERVAL)
+                .help("The length, in seconds, of every interval of the time series")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .setDefault(1);
+        return parser;
+    }
+
+    /**
+     * Draw the given values as a line, which is broken wherever there is no value (i.e., the value is NaN) as
+     * opposed to drawing a line straight across the gap as if there had been values all along.
+     */
+    static void chart(final StringBuilder html, final String color, final double[] values) {
+        final var width = 800;
+        final var height = 200;
+        var max = 0.0;
+        for (final var value : values) {
+            if (!Double.isNaN(value)) {
+                max = Math.max(max, value);
+            }
+        }
+
+        html.append("<svg width=\"").append(width).append("\" height=\"").append(height)
+                .append("\" style=\"border:1px solid #ccc\">");
+        if (values.length > 0 && max > 0) {
+            final var step = values.length == 1 ? 0 : (double) width / (values.length - 1);
+            var drawing = false;
+            for (int i = 0; i < values.length; ++i) {
+                if (Double.isNaN(values[i])) {
+                    if (drawing) {
+                        html.append("\"/>");
+                        drawing = false;
+                    }
+                    continue;
+                }
+
+                if (!drawing) {
+                    html.append("<polyline stroke=\"").append(color).append("\" points=\"");
+                    drawing = true;
+                }
+                final var x = i * step;
+                final var y = height - (values[i] / max) * (height - 10);
+                html.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, y));
+            }
+            if (drawing) {
+                html.append("\"/>");
+            }
+        }
+        html.append("</svg>\n");
+    }
+
+    private static void row(final StringBuilder html, final String cell, final String... values) {
+        html.append("<tr>");
+        for (final var value : values) {
+            html.append('<').append(cell).append('>').append(htmlEscape(value)).append("</").append(cell).append('>');
+        }
+        html.append("</tr>\n");
+    }
+
+    private static String millis(final Duration duration) {
+        return String.format(Locale.ROOT, "%.3f", duration.toNanos() / 1_000_000.0);
+    }
+
+    static String jsonString(final String value) {
+        final var json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    static String htmlEscape(final String value) {
+        final var html = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); ++i) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '&' -> html.append("&amp;");
+                case '"' -> html.append("&quot;");
+                default -> html.append(c);
+            }
+        }
+        return html.toString();
+    }
+
+    private static final class ActionAccumulator {
+        private long executions;
+        private long failed;
+        private long checksPassed;
+        private long checksFailed;
+
+        private void add(final ResultRecord result) {
+            ++executions;
+            if (!result.success()) {
+                ++failed;
+            }
+            checksPassed += result.checksPassed();
+            checksFailed += result.checksFailed();
+        }
+    }
+
+    private static final class IntervalAccumulator {
+        private long executions;
+        private long failed;
+        private long timed;
+        private long totalResponseTime;
+        private long maxResponseTime;
+
+        private void add(final ResultRecord result) {
+            ++executions;
+            if (!result.success()) {
+                ++failed;
+            }
+            if (result.hasTimings()) {
+                ++timed;
+                totalResponseTime += result.responseTimeNanos();
+                maxResponseTime = Math.max(maxResponseTime, result.responseTimeNanos());
+            }
+        }
+
+        private Interval toInterval(final long start) {
+            final var mean = timed == 0 ? 0 : totalResponseTime / timed;
+            return new Interval(start, executions, failed, Duration.ofNanos(mean), Duration.ofNanos(maxResponseTime));
+        }
+    }
+}
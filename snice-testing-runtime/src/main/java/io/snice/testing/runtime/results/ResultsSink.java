@@ -0,0 +1,82 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+import io.snice.testing.core.Execution;
+
+import java.util.List;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Where the results of a simulation go as the actions, and the scenarios, finish. The runtime hands every
+ * {@link Execution} over as soon as the action producing it has finished, on whatever thread that happens to be,
+ * so an implementation must be thread safe and must never block.
+ * <p>
+ * See {@link ResultsWriter} and {@link ResultsStore}.
+ */
+public interface ResultsSink extends AutoCloseable {
+
+    /**
+     * Nothing is recorded anywhere.
+     */
+    ResultsSink NONE = new ResultsSink() {
+        @Override
+        public void record(final ScenarioResourceIdentifier scenario, final List<Execution> executions) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Record all the {@link Execution}s produced by a single action of the given scenario.
+     */
+    void record(ScenarioResourceIdentifier scenario, List<Execution> executions);
+
+    /**
+     * Called once the given scenario has finished, i.e., once all of its {@link Execution}s have been recorded.
+     */
+    default void scenarioFinished(final ScenarioResourceIdentifier scenario, final boolean success) {
+        // most sinks don't care
+    }
+
+    @Override
+    void close();
+
+    /**
+     * Combine the given sinks into a single one.
+     */
+    static ResultsSink of(final List<? extends ResultsSink> sinks) {
+        assertNotNull(sinks);
+        if (sinks.isEmpty()) {
+            return NONE;
+        }
+
+        if (sinks.size() == 1) {
+            return sinks.get(0);
+        }
+
+        final var all = List.copyOf(sinks);
+        return new ResultsSink() {
+            @Override
+            public void record(final ScenarioResourceIdentifier scenario, final List<Execution> executions) {
+                for (int i = 0; i < all.size(); ++i) {
+                    all.get(i).record(scenario, executions);
+                }
+            }
+
+            @Override
+            public void scenarioFinished(final ScenarioResourceIdentifier scenario, final boolean success) {
+                for (int i = 0; i < all.size(); ++i) {
+                    all.get(i).scenarioFinished(scenario, success);
+                }
+            }
+
+            @Override
+            public void close() {
+                all.forEach(ResultsSink::close);
+            }
+        };
+    }
+}
@@ -0,0 +1,567 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.check.CheckResult;
+import io.snice.util.concurrent.SniceThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.BUCKET_SIZE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.COMPLETE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTIONS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_CHECKS_FAILED;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_CHECKS_PASSED;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_FLAGS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_NAME;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_PREVIOUS_IN_SCENARIO;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_PREVIOUS_OF_ACTION;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_RESPONSE_TIME;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_SIZE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_TIMESTAMP;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_TOTAL_TIME;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.MAGIC;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.META;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIOS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_EXECUTIONS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_FAILED;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_FLAGS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_INDEX;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_LAST_EXECUTION;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_NEXT_IN_BUCKET;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_SIZE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SUCCESS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.TIMINGS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.VERSION;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.bucket;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.putSri;
+
+/**
+ * A memory-mapped, segmented, on-disk store of all the {@link Execution}s of a simulation, for those runs that
+ * produce far too many executions to ever keep in memory. See {@link ResultsStoreFormat} for the layout.
+ * <p>
+ * As opposed to the {@link ResultsWriter}, which is a log that has to be read from start to end, every execution
+ * is a fixed-size record and the store is indexed by scenario SRI and by action name, so a query such as "show me
+ * all executions of the failing scenario X" seeks directly to the records of that scenario (see
+ * {@link ResultsStoreReader}).
+ * <p>
+ * Just like the {@link ResultsWriter}, recording is nothing more than offering the {@link Execution}s to a
+ * lock-free {@link RingBuffer}, since the actors must never block. A single dedicated writer thread drains the
+ * buffer and writes every {@link Execution} straight into the memory-mapped segments, which is also the thread
+ * that creates, and maps, a new segment whenever the current one is full. It is then up to the operating system
+ * to write the pages back to disk. Only the scenarios that are currently running are kept in memory (to link
+ * their executions together), as well as the names of the actions.
+ * <p>
+ * The writer thread also re-writes the meta data of the store every {@link #META_INTERVAL_NANOS}, as long as
+ * anything has changed, so should the simulation crash, the store can still be read, minus whatever was written after the meta data was
+ * last written. Note that the pages of the segments are still in the page cache of the operating system, so this
+ * is about a crash of the JVM, not of the entire machine.
+ */
+public final class ResultsStore implements ResultsSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultsStore.class);
+
+    /**
+     * 1M executions, which makes every segment 64MB.
+     */
+    public static final int DEFAULT_EXECUTIONS_PER_SEGMENT = 1 << 20;
+
+    /**
+     * 1M buckets, which makes the scenario index 8MB.
+     */
+    public static final int DEFAULT_SCENARIO_BUCKETS = 1 << 20;
+
+    /**
+     * The default number of actions whose {@link Execution}s can be waiting for the writer thread.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * How long the writer thread parks when there is nothing to write.
+     */
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    /**
+     * How often, at most, the writer thread writes the meta data of the store, should anything have changed.
+     */
+    static final long META_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Path directory;
+    private final long startTime;
+    private final int executionsPerSegment;
+    private final int scenarioBuckets;
+
+    private final MappedSegments executions;
+    private final MappedSegments scenarios;
+    private final MappedByteBuffer index;
+
+    private final RingBuffer<Pending> buffer;
+    private final Thread writer;
+
+    /**
+     * The finished scenarios that didn't fit in the buffer. See {@link #scenarioFinished(ScenarioResourceIdentifier, boolean)}.
+     */
+    private final ConcurrentLinkedQueue<Overflow> overflow = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Only ever written by the writer thread, but read by anyone through {@link #size()}.
+     */
+    private volatile long nextExecution;
+
+    /**
+     * Everything below is only ever accessed by the writer thread, and by {@link #close()} once the writer
+     * thread is gone.
+     */
+    private long nextScenario;
+    private final Map<String, Action> actions = new HashMap<>();
+    private final Map<ScenarioResourceIdentifier, Running> scenariosRunning = new HashMap<>();
+    private boolean failed;
+    private long metaWritten;
+    private long lastMetaWritten;
+
+    private ResultsStore(final Path directory,
+                         final int executionsPerSegment,
+                         final int scenarioBuckets,
+                         final MappedByteBuffer index,
+                         final int capacity) throws IOException {
+        this.directory = directory;
+        this.startTime = System.currentTimeMillis();
+        this.executionsPerSegment = executionsPerSegment;
+        this.scenarioBuckets = scenarioBuckets;
+        this.index = index;
+        executions = new MappedSegments(directory, EXECUTIONS, EXECUTION_SIZE, executionsPerSegment, true);
+        scenarios = new MappedSegments(directory, SCENARIOS, SCENARIO_SIZE, executionsPerSegment, true);
+        buffer = new RingBuffer<>(capacity);
+
+        // so that the store is readable right away, no matter what happens from here on
+        writeMeta();
+        lastMetaWritten = System.nanoTime();
+
+        final var threadFactory = SniceThreadFactory.withNamePrefix("snice-results-store-").withDaemon(true).build();
+        writer = threadFactory.newThread(this::run);
+        writer.start();
+    }
+
+    public static ResultsStore create(final Path directory) {
+        return create(directory, DEFAULT_EXECUTIONS_PER_SEGMENT, DEFAULT_SCENARIO_BUCKETS);
+    }
+
+    /**
+     * Create a new store in the given directory, which must either not exist or be empty.
+     *
+     * @param executionsPerSegment the number of executions, and scenarios, per segment.
+     * @param scenarioBuckets      the number of buckets of the scenario index, which is rounded up to the nearest
+     *                             power of two. The more scenarios, the more buckets you want.
+     * @throws UncheckedIOException in case the store cannot be created.
+     */
+    public static ResultsStore create(final Path directory, final int executionsPerSegment, final int scenarioBuckets) {
+        return create(directory, executionsPerSegment, scenarioBuckets, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new store in the given directory, which must either not exist or be empty, and start the writer
+     * thread.
+     *
+     * @param executionsPerSegment the number of executions, and scenarios, per segment.
+     * @param scenarioBuckets      the number of buckets of the scenario index, which is rounded up to the nearest
+     *                             power of two. The more scenarios, the more buckets you want.
+     * @param capacity             the number of actions whose {@link Execution}s can be waiting for the writer
+     *                             thread before new ones are dropped.
+     * @throws UncheckedIOException in case the store cannot be created.
+     */
+    public static ResultsStore create(final Path directory,
+                                      final int executionsPerSegment,
+                                      final int scenarioBuckets,
+                                      final int capacity) {
+        assertNotNull(directory);
+        assertArgument(executionsPerSegment > 0, "The number of executions per segment must be positive");
+        assertArgument(scenarioBuckets > 0 && scenarioBuckets <= 1 << 28, "The number of buckets must be between 1 and 2^28");
+
+        final var buckets = scenarioBuckets == 1 ? 1 : Integer.highestOneBit(scenarioBuckets - 1) << 1;
+        try {
+            Files.createDirectories(directory);
+            try (final var files = Files.list(directory)) {
+                if (files.findAny().isPresent()) {
+                    throw new IOException("The results store " + directory + " is not empty");
+                }
+            }
+
+            try (final var channel = FileChannel.open(directory.resolve(SCENARIO_INDEX), StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final var index = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) buckets * BUCKET_SIZE);
+                return new ResultsStore(directory, executionsPerSegment, buckets, index, capacity);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to create the results store " + directory, e);
+        }
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * @return the number of executions written to the store so far.
+     */
+    public long size() {
+        return nextExecution;
+    }
+
+    /**
+     * @return the number of executions that have been dropped, because the writer thread was falling behind or
+     * because the store had been closed or failed.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Record the {@link Execution}s of a single action of the given scenario. Never blocks and never throws.
+     * Should the writer thread fall so far behind that the buffer fills up, the {@link Execution}s are dropped
+     * (and counted, see {@link #dropped()}), as they are once the store has been closed, or has failed.
+     */
+    @Override
+    public void record(final ScenarioResourceIdentifier scenario, final List<Execution> executions) {
+        assertNotNull(scenario);
+        assertNotNull(executions);
+        if (executions.isEmpty()) {
+            return;
+        }
+
+        if (!running || !buffer.offer(new Recorded(scenario, executions), System.currentTimeMillis())) {
+            dropped.add(executions.size());
+        }
+    }
+
+    /**
+     * Add the given scenario to the scenario index, after which it is no longer kept in memory. Never blocks.
+     * <p>
+     * As opposed to the {@link Execution}s, this is never dropped just because the buffer is full, since there is
+     * only one per scenario and losing it means that the scenario would be indexed as failed. Instead, it is put
+     * on the side, along with how far the buffer had gotten, and the writer thread picks it up once it has written
+     * everything that was recorded before it, i.e., all the executions of the scenario.
+     */
+    @Override
+    public void scenarioFinished(final ScenarioResourceIdentifier scenario, final boolean success) {
+        assertNotNull(scenario);
+        if (running) {
+            final var finished = new Finished(scenario, success);
+            if (!buffer.offer(finished, 0)) {
+                overflow.add(new Overflow(finished, buffer.claimed()));
+            }
+        }
+    }
+
+    /**
+     * Stop accepting new {@link Execution}s, wait for the writer thread to write what has already been recorded,
+     * index all scenarios that are still running, flush everything to disk and write the final meta data of the
+     * store.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // the writer thread is gone so whatever is left on the side can no longer be waiting for anything
+        writeOverflow(Long.MAX_VALUE);
+
+        // scenarios that never finished are still indexed, but as failed since they never completed
+        if (!failed) {
+            new ArrayList<>(scenariosRunning.keySet()).forEach(sri -> {
+                try {
+                    index(scenariosRunning.remove(sri), sri, false);
+                } catch (final UncheckedIOException e) {
+                    logger.warn("Unable to index the scenario {}", sri, e);
+                }
+            });
+        }
+
+        executions.force();
+        scenarios.force();
+        index.force();
+
+        try {
+            writeMeta();
+        } catch (final IOException e) {
+            logger.error("Unable to write the meta data of the results store {}, it will not be readable", directory, e);
+        }
+
+        if (dropped() > 0) {
+            logger.warn("{} execution(s) were dropped and never made it to the results store {}", dropped(), directory);
+        }
+    }
+
+    private void run() {
+        final RingBuffer.Sink<Pending> sink = this::write;
+        while (running) {
+            final var drained = buffer.drain(sink);
+            writeOverflow(buffer.consumed());
+
+            // we may never be idle, and yet the meta data must be kept reasonably up to date
+            checkpoint();
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        // whatever was recorded before we were told to stop
+        buffer.drain(sink);
+    }
+
+    /**
+     * Write the finished scenarios that didn't fit in the buffer, as long as everything that was in the buffer
+     * before them has been written.
+     */
+    private void writeOverflow(final long consumed) {
+        Overflow next;
+        while ((next = overflow.peek()) != null && next.claimed() <= consumed) {
+            overflow.poll();
+            write(next.finished(), 0);
+        }
+    }
+
+    private void write(final Pending pending, final long stamp) {
+        if (failed) {
+            if (pending instanceof Recorded recorded) {
+                dropped.add(recorded.executions().size());
+            }
+            return;
+        }
+
+        try {
+            if (pending instanceof Recorded recorded) {
+                final var list = recorded.executions();
+                for (int i = 0; i < list.size(); ++i) {
+                    append(recorded.scenario(), list.get(i), stamp);
+                }
+            } else if (pending instanceof Finished finished) {
+                index(scenariosRunning.remove(finished.scenario()), finished.scenario(), finished.success());
+            }
+        } catch (final UncheckedIOException e) {
+            failed = true;
+            if (pending instanceof Recorded recorded) {
+                dropped.add(recorded.executions().size());
+            }
+            logger.error("Unable to write to the results store {}, no more results will be stored", directory, e);
+        }
+    }
+
+    /**
+     * Write the meta data, if anything has been written since it was last written, and no more often than every
+     * {@link #META_INTERVAL_NANOS}.
+     */
+    private void checkpoint() {
+        final var now = System.nanoTime();
+        if (failed || now - lastMetaWritten < META_INTERVAL_NANOS || metaWritten == nextExecution + nextScenario) {
+            return;
+        }
+
+        lastMetaWritten = now;
+        try {
+            writeMeta();
+        } catch (final IOException e) {
+            logger.warn("Unable to write the meta data of the results store {}", directory, e);
+        }
+    }
+
+    private void append(final ScenarioResourceIdentifier scenario, final Execution<?> execution, final long timestamp) {
+        final var action = action(execution.name());
+        final var state = running(scenario);
+        final var index = nextExecution;
+        final var previousOfAction = action.head;
+        action.head = index + 1;
+        final var previousInScenario = state.link(index, execution.success());
+
+        final var segment = executions.segment(index);
+        final var offset = executions.offset(index);
+        putSri(segment, offset, scenario);
+
+        final var timings = execution.timings();
+        segment.putLong(offset + EXECUTION_TIMESTAMP, timestamp);
+        segment.putLong(offset + EXECUTION_RESPONSE_TIME, timings.isPresent() ? timings.get().responseTimeNanos() : -1);
+        segment.putLong(offset + EXECUTION_TOTAL_TIME, timings.isPresent() ? timings.get().totalTimeNanos() : -1);
+        segment.putLong(offset + EXECUTION_PREVIOUS_IN_SCENARIO, previousInScenario);
+        segment.putLong(offset + EXECUTION_PREVIOUS_OF_ACTION, previousOfAction);
+        segment.putInt(offset + EXECUTION_NAME, action.id);
+
+        final var results = execution.checkResults();
+        var checksFailed = 0;
+        for (int i = 0; i < results.size(); ++i) {
+            final CheckResult<?, ?> result = results.get(i);
+            if (result.isFailure()) {
+                ++checksFailed;
+            }
+        }
+        segment.putChar(offset + EXECUTION_CHECKS_PASSED, (char) Math.min(results.size() - checksFailed, 0xFFFF));
+        segment.put(offset + EXECUTION_CHECKS_FAILED, (byte) Math.min(checksFailed, 0xFF));
+        segment.put(offset + EXECUTION_FLAGS, (byte) (COMPLETE
+                | (execution.success() ? SUCCESS : 0)
+                | (timings.isPresent() ? TIMINGS : 0)));
+        nextExecution = index + 1;
+    }
+
+    private void index(final Running state, final ScenarioResourceIdentifier scenario, final boolean success) {
+        final var last = state == null ? 0 : state.last;
+        final var count = state == null ? 0 : state.count;
+        final var failures = state == null ? 0 : state.failures;
+
+        final var bucket = bucket(scenario, scenarioBuckets) * BUCKET_SIZE;
+        final var entry = nextScenario;
+        final var segment = scenarios.segment(entry);
+        final var offset = scenarios.offset(entry);
+        putSri(segment, offset, scenario);
+        segment.putLong(offset + SCENARIO_LAST_EXECUTION, last);
+        segment.putLong(offset + SCENARIO_NEXT_IN_BUCKET, index.getLong(bucket));
+        segment.putInt(offset + SCENARIO_EXECUTIONS, count);
+        segment.putInt(offset + SCENARIO_FAILED, failures);
+        segment.put(offset + SCENARIO_FLAGS, (byte) (COMPLETE | (success && failures == 0 ? SUCCESS : 0)));
+        // the record is complete before the index links to it
+        index.putLong(bucket, entry + 1);
+        nextScenario = entry + 1;
+    }
+
+    /**
+     * The meta data is written to a temporary file which then replaces the existing one, so that a reader never
+     * sees a half-written one, not even if we crash half-way through.
+     */
+    private void writeMeta() throws IOException {
+        final var executionCount = nextExecution;
+        final var scenarioCount = nextScenario;
+        final var names = new String[actions.size()];
+        final var heads = new long[names.length];
+        actions.forEach((name, action) -> {
+            names[action.id] = name;
+            heads[action.id] = action.head;
+        });
+
+        final var meta = directory.resolve(META);
+        final var tmp = directory.resolve(META + ".tmp");
+        try (final var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(startTime);
+            out.writeInt(executionsPerSegment);
+            out.writeInt(scenarioBuckets);
+            out.writeLong(executionCount);
+            out.writeLong(scenarioCount);
+            out.writeInt(names.length);
+            for (int i = 0; i < names.length; ++i) {
+                out.writeUTF(names[i]);
+                out.writeLong(heads[i]);
+            }
+        }
+
+        Files.move(tmp, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        metaWritten = executionCount + scenarioCount;
+    }
+
+    private Action action(final String name) {
+        final var action = actions.get(name);
+        if (action != null) {
+            return action;
+        }
+
+        final var created = new Action(actions.size());
+        actions.put(name, created);
+        return created;
+    }
+
+    private Running running(final ScenarioResourceIdentifier scenario) {
+        final var state = scenariosRunning.get(scenario);
+        if (state != null) {
+            return state;
+        }
+
+        final var created = new Running();
+        scenariosRunning.put(scenario, created);
+        return created;
+    }
+
+    /**
+     * What the actors hand over to the writer thread.
+     */
+    private sealed interface Pending permits Recorded, Finished {
+    }
+
+    private record Recorded(ScenarioResourceIdentifier scenario, List<Execution> executions) implements Pending {
+    }
+
+    private record Finished(ScenarioResourceIdentifier scenario, boolean success) implements Pending {
+    }
+
+    /**
+     * @param claimed the number of elements claimed in the buffer at the time the scenario finished.
+     */
+    private record Overflow(Finished finished, long claimed) {
+    }
+
+    private static final class Action {
+        private final int id;
+
+        /**
+         * The last execution of this action (plus one), which the next execution will link to.
+         */
+        private long head;
+
+        private Action(final int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * A scenario that is still running.
+     */
+    private static final class Running {
+        private long last;
+        private int count;
+        private int failures;
+
+        /**
+         * @return the previous execution of the scenario (plus one).
+         */
+        private long link(final long index, final boolean success) {
+            final var previous = last;
+            last = index + 1;
+            ++count;
+            if (!success) {
+                ++failures;
+            }
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The on-disk layout of the {@link ResultsStore}, which is shared between the {@link ResultsStore} and the
+ * {@link ResultsStoreReader}.
+ * <p>
+ * A store is a directory with the following files:
+ *
+ * <ul>
+ *     <li><code>executions-NNNNNN.seg</code> - the segments holding the executions, as fixed-size records of
+ *     {@link #EXECUTION_SIZE} bytes, so that the n:th execution is found by simple arithmetic.</li>
+ *     <li><code>scenarios-NNNNNN.seg</code> - the segments holding one fixed-size record, of
+ *     {@link #SCENARIO_SIZE} bytes, per finished scenario.</li>
+ *     <li><code>scenarios.idx</code> - a hash table, keyed by the scenario SRI, where every bucket is the head of a
+ *     chain of scenario records.</li>
+ *     <li><code>store.meta</code> - the number of records, the names of all actions and the head of the chain of
+ *     executions of every action. Written when the store is created, replaced every now and then while the store
+ *     is being written, and then one final time when the store is closed. Any record beyond the counts of the
+ *     meta data is ignored by the reader.</li>
+ * </ul>
+ * <p>
+ * Every execution links to the previous execution of the same scenario, and to the previous execution of the same
+ * action, and every scenario record links to the last execution of the scenario. So, finding all executions of
+ * e.g. a failing scenario is a hash lookup followed by following the chain, without ever scanning the store. All
+ * links are the index of the record plus one, so that zero, which is what a new file is filled with, means "none".
+ * <p>
+ * All numbers are stored in big endian, which is the default byte order of a {@link ByteBuffer}.
+ */
+final class ResultsStoreFormat {
+
+    /**
+     * "SNRS", as in Snice Results Store.
+     */
+    static final int MAGIC = 0x534E5253;
+
+    static final byte VERSION = 1;
+
+    static final String META = "store.meta";
+    static final String EXECUTIONS = "executions-";
+    static final String SCENARIOS = "scenarios-";
+    static final String SCENARIO_INDEX = "scenarios.idx";
+
+    /**
+     * An execution record:
+     *
+     * <pre>
+     *  0  scenario SRI (16 bytes)
+     * 16  timestamp, in milliseconds since the epoch (8)
+     * 24  response time, in nanoseconds, or -1 if the execution has no timings (8)
+     * 32  total time, in nanoseconds, or -1 if the execution has no timings (8)
+     * 40  the previous execution of the same scenario (8)
+     * 48  the previous execution of the same action (8)
+     * 56  the id of the action name (4)
+     * 60  the number of checks that passed, capped at 65535 (2)
+     * 62  the number of checks that failed, capped at 255 (1)
+     * 63  flags (1)
+     * </pre>
+     * <p>
+     * The reason of every failed check is not stored since it would make the size of the records variable. Use the
+     * {@link ResultsWriter} if you need those.
+     */
+    static final int EXECUTION_SIZE = 64;
+
+    static final int EXECUTION_TIMESTAMP = 16;
+    static final int EXECUTION_RESPONSE_TIME = 24;
+    static final int EXECUTION_TOTAL_TIME = 32;
+    static final int EXECUTION_PREVIOUS_IN_SCENARIO = 40;
+    static final int EXECUTION_PREVIOUS_OF_ACTION = 48;
+    static final int EXECUTION_NAME = 56;
+    static final int EXECUTION_CHECKS_PASSED = 60;
+    static final int EXECUTION_CHECKS_FAILED = 62;
+    static final int EXECUTION_FLAGS = 63;
+
+    /**
+     * A scenario record:
+     *
+     * <pre>
+     *  0  scenario SRI (16 bytes)
+     * 16  the last execution of the scenario (8)
+     * 24  the next scenario record in the same hash bucket (8)
+     * 32  the number of executions (4)
+     * 36  the number of failed executions (4)
+     * 40  flags (1), followed by padding
+     * </pre>
+     */
+    static final int SCENARIO_SIZE = 48;
+
+    static final int SCENARIO_LAST_EXECUTION = 16;
+    static final int SCENARIO_NEXT_IN_BUCKET = 24;
+    static final int SCENARIO_EXECUTIONS = 32;
+    static final int SCENARIO_FAILED = 36;
+    static final int SCENARIO_FLAGS = 40;
+
+    static final int BUCKET_SIZE = 8;
+
+    static final int SUCCESS = 0x01;
+    static final int TIMINGS = 0x02;
+
+    /**
+     * Set once the entire record has been written so that a half-written record, as left behind by e.g. a crash,
+     * can be told apart from a complete one.
+     */
+    static final int COMPLETE = 0x80;
+
+    private ResultsStoreFormat() {
+        // no instances
+    }
+
+    /**
+     * Write the 128 bits of the SRI, which, since we are big endian, is the same as its raw 16 bytes.
+     */
+    static void putSri(final ByteBuffer buffer, final int offset, final ScenarioResourceIdentifier sri) {
+        buffer.putLong(offset, sri.mostSignificantBits());
+        buffer.putLong(offset + 8, sri.leastSignificantBits());
+    }
+
+    static ScenarioResourceIdentifier sri(final ByteBuffer buffer, final int offset) {
+        return ScenarioResourceIdentifier.from(buffer.getLong(offset), buffer.getLong(offset + 8));
+    }
+
+    static boolean sriEquals(final ByteBuffer buffer, final int offset, final ScenarioResourceIdentifier sri) {
+        return buffer.getLong(offset) == sri.mostSignificantBits()
+                && buffer.getLong(offset + 8) == sri.leastSignificantBits();
+    }
+
+    /**
+     * The bucket of the scenario index the SRI belongs to. This is part of the on-disk format, so it must stay
+     * exactly the same for a given {@link #VERSION}, which is the 31-polynomial over the raw 16 bytes of the SRI
+     * (as signed bytes, most significant first).
+     */
+    static int bucket(final ScenarioResourceIdentifier sri, final int buckets) {
+        var hash = 1L;
+        hash = polynomial(hash, sri.mostSignificantBits());
+        hash = polynomial(hash, sri.leastSignificantBits());
+        final var h = (int) (hash ^ (hash >>> 32));
+        return (h ^ (h >>> 16)) & (buckets - 1);
+    }
+
+    private static long polynomial(final long hash, final long bits) {
+        var result = hash;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            result = 31 * result + (byte) (bits >>> shift);
+        }
+        return result;
+    }
+}
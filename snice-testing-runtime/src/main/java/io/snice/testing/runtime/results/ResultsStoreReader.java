@@ -0,0 +1,329 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotEmpty;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.BUCKET_SIZE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.COMPLETE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTIONS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_CHECKS_FAILED;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_CHECKS_PASSED;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_FLAGS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_NAME;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_PREVIOUS_IN_SCENARIO;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_PREVIOUS_OF_ACTION;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_RESPONSE_TIME;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_SIZE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_TIMESTAMP;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.EXECUTION_TOTAL_TIME;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.MAGIC;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.META;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIOS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_EXECUTIONS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_FAILED;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_FLAGS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_INDEX;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_LAST_EXECUTION;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_NEXT_IN_BUCKET;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SCENARIO_SIZE;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.SUCCESS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.TIMINGS;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.VERSION;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.bucket;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.sri;
+import static io.snice.testing.runtime.results.ResultsStoreFormat.sriEquals;
+
+/**
+ * Queries a {@link ResultsStore}. All lookups go through the indexes of the store, so the cost of a lookup is
+ * proportional to the number of executions it returns, not to the size of the store.
+ * <p>
+ * The store doesn't have to have been closed. The reader sees the store as it was when the meta data was last
+ * written, which is how the results of a simulation that crashed, or is still running, can be read.
+ */
+public final class ResultsStoreReader {
+
+    private final long startTime;
+    private final long executionCount;
+    private final long scenarioCount;
+    private final int scenarioBuckets;
+    private final List<String> names;
+    private final Map<String, Long> heads;
+
+    private final MappedSegments executions;
+    private final MappedSegments scenarios;
+    private final MappedByteBuffer index;
+
+    /**
+     * A single execution as read back from the store.
+     *
+     * @param index             the index of the execution within the store.
+     * @param timestamp         when the execution was stored, in milliseconds since the epoch.
+     * @param responseTimeNanos the response time, or -1 if the execution has no timings.
+     * @param totalTimeNanos    the total time, or -1 if the execution has no timings.
+     */
+    public record StoredExecution(long index,
+                                  ScenarioResourceIdentifier scenario,
+                                  String name,
+                                  long timestamp,
+                                  boolean success,
+                                  long responseTimeNanos,
+                                  long totalTimeNanos,
+                                  int checksPassed,
+                                  int checksFailed) {
+
+        public boolean hasTimings() {
+            return responseTimeNanos >= 0;
+        }
+    }
+
+    /**
+     * The outcome of a single scenario.
+     *
+     * @param success    whether the scenario finished successfully. A scenario that was still running when the store
+     *                   was closed is considered to have failed. A scenario still running when the meta data was
+     *                   last written, and that never got to finish, e.g. because the simulation crashed, is not in
+     *                   the store at all (but its executions are).
+     * @param executions the number of executions of the scenario.
+     * @param failed     the number of those executions that failed.
+     */
+    public record StoredScenario(ScenarioResourceIdentifier sri, boolean success, int executions, int failed) {
+    }
+
+    private ResultsStoreReader(final long startTime,
+                               final long executionCount,
+                               final long scenarioCount,
+                               final int scenarioBuckets,
+                               final List<String> names,
+                               final Map<String, Long> heads,
+                               final MappedSegments executions,
+                               final MappedSegments scenarios,
+                               final MappedByteBuffer index) {
+        this.startTime = startTime;
+        this.executionCount = executionCount;
+        this.scenarioCount = scenarioCount;
+        this.scenarioBuckets = scenarioBuckets;
+        this.names = names;
+        this.heads = heads;
+        this.executions = executions;
+        this.scenarios = scenarios;
+        this.index = index;
+    }
+
+    /**
+     * @throws IOException in case the directory isn't a results store.
+     */
+    public static ResultsStoreReader open(final Path directory) throws IOException {
+        assertNotNull(directory);
+        final var meta = directory.resolve(META);
+        try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(meta)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(directory + " is not a results store");
+            }
+
+            final var version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of the results store " + directory);
+            }
+
+            final var startTime = in.readLong();
+            final var executionsPerSegment = in.readInt();
+            final var scenarioBuckets = in.readInt();
+            final var executionCount = in.readLong();
+            final var scenarioCount = in.readLong();
+            final var nameCount = in.readInt();
+            final var names = new ArrayList<String>(nameCount);
+            final var heads = new HashMap<String, Long>();
+            for (int i = 0; i < nameCount; ++i) {
+                final var name = in.readUTF();
+                names.add(name);
+                heads.put(name, in.readLong());
+            }
+
+            final MappedByteBuffer index;
+            try (final var channel = FileChannel.open(directory.resolve(SCENARIO_INDEX), StandardOpenOption.READ)) {
+                index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            return new ResultsStoreReader(startTime, executionCount, scenarioCount, scenarioBuckets,
+                    Collections.unmodifiableList(names), heads,
+                    new MappedSegments(directory, EXECUTIONS, EXECUTION_SIZE, executionsPerSegment, false),
+                    new MappedSegments(directory, SCENARIOS, SCENARIO_SIZE, executionsPerSegment, false),
+                    index);
+        } catch (final NoSuchFileException e) {
+            throw new IOException(directory + " is not a results store", e);
+        } catch (final EOFException e) {
+            throw new IOException("The meta data of the results store " + directory + " is truncated", e);
+        }
+    }
+
+    /**
+     * @return when the store was created, in milliseconds since the epoch.
+     */
+    public long startTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the number of executions in the store.
+     */
+    public long executions() {
+        return executionCount;
+    }
+
+    /**
+     * @return the number of scenarios in the store.
+     */
+    public long scenarios() {
+        return scenarioCount;
+    }
+
+    /**
+     * @return the names of all actions, in the order they were first stored.
+     */
+    public List<String> actions() {
+        return names;
+    }
+
+    /**
+     * @return the execution with the given index, or an empty optional if it was never completely written.
+     */
+    public Optional<StoredExecution> execution(final long index) {
+        assertArgument(index >= 0 && index < executionCount, "No execution with index " + index);
+        final var segment = executions.segment(index);
+        final var offset = executions.offset(index);
+        final var flags = segment.get(offset + EXECUTION_FLAGS);
+        if ((flags & COMPLETE) == 0) {
+            return Optional.empty();
+        }
+
+        final var name = segment.getInt(offset + EXECUTION_NAME);
+        return Optional.of(new StoredExecution(index,
+                sri(segment, offset),
+                name >= 0 && name < names.size() ? names.get(name) : "unknown",
+                segment.getLong(offset + EXECUTION_TIMESTAMP),
+                (flags & SUCCESS) != 0,
+                (flags & TIMINGS) != 0 ? segment.getLong(offset + EXECUTION_RESPONSE_TIME) : -1,
+                (flags & TIMINGS) != 0 ? segment.getLong(offset + EXECUTION_TOTAL_TIME) : -1,
+                segment.getChar(offset + EXECUTION_CHECKS_PASSED),
+                segment.get(offset + EXECUTION_CHECKS_FAILED) & 0xFF));
+    }
+
+    /**
+     * Look up the given scenario through the scenario index.
+     */
+    public Optional<StoredScenario> scenario(final ScenarioResourceIdentifier sri) {
+        return findScenario(sri).stream().mapToObj(this::readScenario).findFirst();
+    }
+
+    /**
+     * @return all the executions of the given scenario, in the order they finished.
+     */
+    public List<StoredExecution> executionsOf(final ScenarioResourceIdentifier sri) {
+        final var entry = findScenario(sri);
+        if (entry.isEmpty()) {
+            return List.of();
+        }
+
+        final var segment = scenarios.segment(entry.getAsLong());
+        final var last = segment.getLong(scenarios.offset(entry.getAsLong()) + SCENARIO_LAST_EXECUTION);
+        final var result = follow(last, EXECUTION_PREVIOUS_IN_SCENARIO, Integer.MAX_VALUE);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * @param limit the max number of executions to return.
+     * @return the most recent executions of the given action, most recent first.
+     */
+    public List<StoredExecution> executionsOf(final String action, final int limit) {
+        assertNotEmpty(action);
+        assertArgument(limit >= 0, "The limit cannot be negative");
+        final var head = heads.get(action);
+        return head == null ? List.of() : follow(head, EXECUTION_PREVIOUS_OF_ACTION, limit);
+    }
+
+    /**
+     * Scan all scenarios for those that failed. Note that this is a scan of the (small) scenario records, not of the
+     * executions.
+     *
+     * @param limit the max number of scenarios to return.
+     */
+    public List<StoredScenario> failedScenarios(final int limit) {
+        assertArgument(limit >= 0, "The limit cannot be negative");
+        final var failed = new ArrayList<StoredScenario>();
+        for (long entry = 0; entry < scenarioCount && failed.size() < limit; ++entry) {
+            final var flags = scenarios.segment(entry).get(scenarios.offset(entry) + SCENARIO_FLAGS);
+            if ((flags & COMPLETE) != 0 && (flags & SUCCESS) == 0) {
+                failed.add(readScenario(entry));
+            }
+        }
+        return failed;
+    }
+
+    private List<StoredExecution> follow(final long link, final int previous, final int limit) {
+        final var result = new ArrayList<StoredExecution>();
+        var next = link;
+        while (next > 0 && next <= executionCount && result.size() < limit) {
+            final var index = next - 1;
+            execution(index).ifPresent(result::add);
+            next = executions.segment(index).getLong(executions.offset(index) + previous);
+        }
+        return result;
+    }
+
+    /**
+     * If the store is still being written, or was never closed, the head of the bucket may be a scenario that was
+     * added after the meta data was written. Those are skipped, but not the ones they link to, which are older.
+     */
+    private OptionalLong findScenario(final ScenarioResourceIdentifier sri) {
+        assertNotNull(sri);
+        var next = index.getLong(bucket(sri, scenarioBuckets) * BUCKET_SIZE);
+        while (next > 0) {
+            final var entry = next - 1;
+            final var segment = scenarios.segment(entry);
+            final var offset = scenarios.offset(entry);
+            if (entry < scenarioCount
+                    && (segment.get(offset + SCENARIO_FLAGS) & COMPLETE) != 0
+                    && sriEquals(segment, offset, sri)) {
+                return OptionalLong.of(entry);
+            }
+
+            final var previous = segment.getLong(offset + SCENARIO_NEXT_IN_BUCKET);
+            if (previous >= next) {
+                // a chain always goes from newer to older records so this is a broken record
+                break;
+            }
+            next = previous;
+        }
+        return OptionalLong.empty();
+    }
+
+    private StoredScenario readScenario(final long entry) {
+        final var segment = scenarios.segment(entry);
+        final var offset = scenarios.offset(entry);
+        return new StoredScenario(sri(segment, offset),
+                (segment.get(offset + SCENARIO_FLAGS) & SUCCESS) != 0,
+                segment.getInt(offset + SCENARIO_EXECUTIONS),
+                segment.getInt(offset + SCENARIO_FAILED));
+    }
+}
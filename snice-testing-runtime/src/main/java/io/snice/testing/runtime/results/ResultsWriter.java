@@ -0,0 +1,282 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.check.CheckResult;
+import io.snice.util.concurrent.SniceThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+import static io.snice.testing.runtime.results.ResultsLogFormat.EXECUTION;
+import static io.snice.testing.runtime.results.ResultsLogFormat.MAGIC;
+import static io.snice.testing.runtime.results.ResultsLogFormat.NAME;
+import static io.snice.testing.runtime.results.ResultsLogFormat.SUCCESS;
+import static io.snice.testing.runtime.results.ResultsLogFormat.TIMINGS;
+import static io.snice.testing.runtime.results.ResultsLogFormat.VERSION;
+import static io.snice.testing.runtime.results.ResultsLogFormat.writeString;
+import static io.snice.testing.runtime.results.ResultsLogFormat.writeVarLong;
+
+/**
+ * Streams every {@link Execution} to an append-only, binary, results log (see {@link ResultsLogFormat}) so that the
+ * results of a simulation don't have to be kept on the heap, no matter how long the simulation is running. The log
+ * is turned into a report, after the fact, by the {@link ResultsReport}.
+ * <p>
+ * The {@link Execution}s are recorded by the actors, or whatever thread the actions happen to execute on, and those
+ * must never block on I/O. Recording an {@link Execution} is therefore nothing more than offering it to a lock-free
+ * {@link RingBuffer}, which is drained by a single dedicated writer thread that does all the encoding and all the
+ * I/O. Should the writer thread fall so far behind that the buffer fills up, the {@link Execution} is dropped (and
+ * counted, see {@link #dropped()}) rather than blocking the caller.
+ */
+public final class ResultsWriter implements ResultsSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultsWriter.class);
+
+    /**
+     * The default number of {@link Execution}s that can be waiting for the writer thread.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * How long the writer thread parks when there is nothing to write, which is also the max time it takes
+     * before a recorded {@link Execution} starts making its way to the log.
+     */
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final RingBuffer<Execution<?>> buffer;
+    private final long startNanos;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * The number of threads currently in {@link #record(Execution)}, so that the writer thread, once told to stop,
+     * can wait for those that saw it running to finish offering their {@link Execution}s before its last drain.
+     */
+    private final LongAdder recording = new LongAdder();
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    /**
+     * Only ever accessed by the writer thread.
+     */
+    private final OutputStream out;
+    private final Map<String, Integer> names = new HashMap<>();
+    private boolean dirty;
+
+    private volatile long written;
+
+    private ResultsWriter(final Path path, final OutputStream out, final int capacity, final long startNanos) {
+        this.path = path;
+        this.out = out;
+        this.buffer = new RingBuffer<>(capacity);
+        this.startNanos = startNanos;
+
+        final var threadFactory = SniceThreadFactory.withNamePrefix("snice-results-").withDaemon(true).build();
+        writer = threadFactory.newThread(this::run);
+        writer.start();
+    }
+
+    public static ResultsWriter open(final Path path) {
+        return open(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new results log, replacing any existing file, and start the writer thread.
+     *
+     * @param capacity the number of {@link Execution}s that can be waiting for the writer thread before new ones
+     *                 are dropped.
+     * @throws UncheckedIOException in case we are unable to create the log.
+     */
+    public static ResultsWriter open(final Path path, final int capacity) {
+        assertNotNull(path);
+        try {
+            final var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                    BUFFER_SIZE));
+            final var startNanos = System.nanoTime();
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            return new ResultsWriter(path, out, capacity, startNanos);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to create the results log " + path, e);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Record the given {@link Execution}. Never blocks.
+     *
+     * @return true if the {@link Execution} will be written to the log, false if it was dropped because the
+     * writer is falling behind, or has been closed.
+     */
+    public boolean record(final Execution<?> execution) {
+        assertNotNull(execution);
+        recording.increment();
+        try {
+            if (running && buffer.offer(execution, System.nanoTime())) {
+                return true;
+            }
+        } finally {
+            recording.decrement();
+        }
+
+        dropped.increment();
+        return false;
+    }
+
+    public void record(final List<Execution> executions) {
+        for (int i = 0; i < executions.size(); ++i) {
+            record(executions.get(i));
+        }
+    }
+
+    /**
+     * The results log doesn't keep track of the scenarios so this is the same as {@link #record(List)}.
+     */
+    @Override
+    public void record(final ScenarioResourceIdentifier scenario, final List<Execution> executions) {
+        record(executions);
+    }
+
+    /**
+     * @return the number of {@link Execution}s that have been dropped.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of {@link Execution}s that have been written to the log so far (though they may still be
+     * buffered in memory and not yet have made it to disk).
+     */
+    public long written() {
+        return written;
+    }
+
+    /**
+     * Stop accepting new {@link Execution}s, wait for the writer thread to write what has already been recorded and
+     * close the log.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // only if the writer thread failed, or we were interrupted, can there be anything left
+        buffer.drain((execution, stamp) -> dropped.increment());
+
+        if (dropped() > 0) {
+            logger.warn("{} execution(s) were dropped and never made it to the results log {}", dropped(), path);
+        }
+    }
+
+    private void run() {
+        final RingBuffer.Sink<Execution<?>> sink = this::write;
+        try (out) {
+            while (running) {
+                if (buffer.drain(sink) == 0) {
+                    flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+
+            // whatever was recorded before we were told to stop, including by those that saw us running
+            // but have yet to offer their execution. Anyone who comes after that sees us stopped.
+            while (recording.sum() != 0) {
+                Thread.onSpinWait();
+            }
+            buffer.drain(sink);
+        } catch (final IOException | UncheckedIOException e) {
+            running = false;
+            logger.error("Unable to write to the results log {}, no more results will be written", path, e);
+        }
+    }
+
+    private void flush() throws IOException {
+        if (dirty) {
+            out.flush();
+            dirty = false;
+        }
+    }
+
+    private void write(final Execution<?> execution, final long stamp) {
+        try {
+            writeExecution(execution, stamp);
+            dirty = true;
+            written = written + 1;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeExecution(final Execution<?> execution, final long stamp) throws IOException {
+        final var name = execution.name();
+        var id = names.get(name);
+        if (id == null) {
+            id = names.size();
+            names.put(name, id);
+            out.write(NAME);
+            writeVarLong(out, id);
+            writeString(out, name);
+        }
+
+        final var timings = execution.timings();
+        out.write(EXECUTION);
+        writeVarLong(out, id);
+        writeVarLong(out, Math.max(0, stamp - startNanos));
+        out.write((execution.success() ? SUCCESS : 0) | (timings.isPresent() ? TIMINGS : 0));
+        if (timings.isPresent()) {
+            writeVarLong(out, Math.max(0, timings.get().responseTimeNanos()));
+            writeVarLong(out, Math.max(0, timings.get().totalTimeNanos()));
+        }
+
+        final var results = execution.checkResults();
+        var failures = 0;
+        for (int i = 0; i < results.size(); ++i) {
+            if (results.get(i).isFailure()) {
+                ++failures;
+            }
+        }
+
+        writeVarLong(out, results.size() - failures);
+        writeVarLong(out, failures);
+        for (int i = 0; i < results.size(); ++i) {
+            final CheckResult<?, ?> result = results.get(i);
+            if (result.isFailure()) {
+                writeString(out, result.failure().get());
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.snice.testing.runtime.results;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer ring buffer where every element is accompanied by a
+ * timestamp (or any other <code>long</code>), which saves us from having to wrap every element just to be able to
+ * tell when it was offered.
+ * <p>
+ * Every slot has its own sequence number, which is what the producers and the consumer use to agree on who owns
+ * the slot (this is the classic bounded queue by Dmitry Vyukov). A producer claims a slot by moving the tail
+ * forward and then publishes the element by bumping the sequence of the slot, and the consumer hands the slot back
+ * to the producers by bumping it once more. As such, a producer never waits for the consumer: if the buffer is
+ * full, {@link #offer(Object, long)} simply returns false and it is up to the caller to decide what to do.
+ *
+ * @param <T> the type of the elements.
+ */
+final class RingBuffer<T> {
+
+    /**
+     * The consumer of the elements as they are drained from the buffer.
+     */
+    @FunctionalInterface
+    interface Sink<T> {
+        void accept(T element, long stamp);
+    }
+
+    private final int mask;
+    private final Object[] elements;
+    private final long[] stamps;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Only ever accessed by the single consumer.
+     */
+    private long head;
+
+    /**
+     * @param capacity the capacity of the buffer, which is rounded up to the nearest power of two, and is at
+     *                 least two since with a single slot, the sequence of a published element would be the same
+     *                 as the one of a free slot and the producers would overwrite elements not yet drained.
+     */
+    RingBuffer(final int capacity) {
+        assertArgument(capacity > 0 && capacity <= 1 << 30, "The capacity must be between 1 and 2^30");
+        final var size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        elements = new Object[size];
+        stamps = new long[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; ++i) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Offer a new element to the buffer. Safe to call from any number of threads.
+     *
+     * @return true if the element was added, false if the buffer is full.
+     */
+    boolean offer(final T element, final long stamp) {
+        assertNotNull(element);
+        while (true) {
+            final var position = tail.get();
+            final var index = (int) (position & mask);
+            final var difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    stamps[index] = stamp;
+                    // publishes the element (and the stamp) to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // else, another producer claimed the slot before us so try again
+        }
+    }
+
+    /**
+     * Drain everything currently available in the buffer. Must only ever be called by one thread at a time.
+     *
+     * @return the number of elements drained.
+     */
+    @SuppressWarnings("unchecked")
+    int drain(final Sink<T> sink) {
+        var count = 0;
+        while (true) {
+            final var index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                return count;
+            }
+
+            final var element = (T) elements[index];
+            final var stamp = stamps[index];
+            elements[index] = null;
+            sequences.set(index, head + elements.length);
+            ++head;
+            ++count;
+            sink.accept(element, stamp);
+        }
+    }
+
+    /**
+     * @return the number of elements ever offered to, and accepted by, this buffer, including those that are
+     * still being published. Safe to call from any thread.
+     */
+    long claimed() {
+        return tail.get();
+    }
+
+    /**
+     * @return the number of elements ever drained from this buffer. Must only be called by the consumer.
+     */
+    long consumed() {
+        return head;
+    }
+
+    /**
+     * Must only be called by the consumer.
+     */
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+}
@@ -0,0 +1,122 @@
+package io.snice.testing.runtime.stats;
+
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.Timings;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * Keeps track of the response times of all {@link Execution}s, per name of the {@link Execution} (which is the name
+ * of the action that produced it), in one HdrHistogram per name.
+ * <p>
+ * An instance is owned by the runtime and shared by all scenarios, and as such, recording happens concurrently from
+ * any number of threads. Every name has its own {@link Recorder}, which is wait-free for the threads recording
+ * values, and only the (rare) reader pays for swapping out the histogram that the writers are currently recording
+ * into.
+ */
+public final class LatencyStats {
+
+    /**
+     * Three significant digits means that any recorded value is within 0.1% of the actual value, which is what
+     * HdrHistogram suggests for latency measurements.
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Record the response time of the given {@link Execution}, if it has any {@link Timings}.
+     */
+    public void record(final Execution<?> execution) {
+        if (execution.timings().isPresent()) {
+            record(execution.name(), execution.timings().get().responseTimeNanos());
+        }
+    }
+
+    public void record(final String name, final long nanos) {
+        assertArgument(nanos >= 0, "The response time cannot be negative");
+        var entry = entries.get(name);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(name, Entry::new);
+        }
+        entry.recorder.recordValue(nanos);
+        entry.sum.add(nanos);
+    }
+
+    /**
+     * Summarize everything recorded so far, per name, sorted by name.
+     */
+    public List<LatencySummary> summarize() {
+        return entries.values().stream()
+                .map(Entry::summarize)
+                .sorted(Comparator.comparing(LatencySummary::name))
+                .toList();
+    }
+
+    /**
+     * @return a copy of everything recorded so far, per name, which is useful if you e.g. want to dump the
+     * entire distribution to a file.
+     */
+    public Map<String, Histogram> histograms() {
+        final var copies = new HashMap<String, Histogram>();
+        entries.forEach((name, entry) -> copies.put(name, entry.copy()));
+        return Map.copyOf(copies);
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+        /**
+         * Everything recorded so far, except for what currently sits in the {@link Recorder}. Only ever accessed
+         * by readers, which are synchronized on the entry.
+         */
+        private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        /**
+         * The exact sum of all recorded values, which the histogram can only approximate.
+         */
+        private final LongAdder sum = new LongAdder();
+
+        private Entry(final String name) {
+            this.name = name;
+        }
+
+        private synchronized Histogram accumulate() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return total;
+        }
+
+        private synchronized Histogram copy() {
+            return accumulate().copy();
+        }
+
+        private synchronized LatencySummary summarize() {
+            final var histogram = accumulate();
+            return new LatencySummary(name,
+                    histogram.getTotalCount(),
+                    Duration.ofNanos(sum.sum()),
+                    percentile(histogram, 50.0),
+                    percentile(histogram, 90.0),
+                    percentile(histogram, 99.0),
+                    percentile(histogram, 99.9),
+                    Duration.ofNanos(histogram.getMaxValue()));
+        }
+
+        private static Duration percentile(final Histogram histogram, final double percentile) {
+            return Duration.ofNanos(histogram.getValueAtPercentile(percentile));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.snice.testing.runtime.stats;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * A summary of the latency distribution of a single action (see {@link LatencyStats}).
+ *
+ * @param name  the name of the action.
+ * @param count the number of recorded executions.
+ * @param sum   the total response time of all recorded executions.
+ */
+public record LatencySummary(String name,
+                             long count,
+                             Duration sum,
+                             Duration p50,
+                             Duration p90,
+                             Duration p99,
+                             Duration p999,
+                             Duration max) {
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: count=%d p50=%s p90=%s p99=%s p99.9=%s max=%s",
+                name, count, millis(p50), millis(p90), millis(p99), millis(p999), millis(max));
+    }
+
+    private static String millis(final Duration duration) {
+        return String.format(Locale.ROOT, "%.3fms", duration.toNanos() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,196 @@
+package io.snice.testing.runtime.stats;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.snice.util.concurrent.SniceThreadFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Exposes the {@link RuntimeMetrics} in the Prometheus text format on <code>/metrics</code>, using the HTTP
+ * server that ships with the JDK so that we don't drag in any additional dependencies just for this.
+ * <p>
+ * The metrics are rendered on every scrape, on a single dedicated (daemon) thread, so a scrape never competes
+ * with the actors for the worker threads.
+ */
+public final class PrometheusExporter implements AutoCloseable {
+
+    public static final String PATH = "/metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PrometheusExporter(final HttpServer server, final ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Start a new exporter, listening on the given address.
+     *
+     * @throws UncheckedIOException in case we are unable to bind to the given address.
+     */
+    public static PrometheusExporter start(final RuntimeMetrics metrics, final InetSocketAddress address) {
+        assertNotNull(metrics);
+        assertNotNull(address);
+
+        final HttpServer server;
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to start the Prometheus exporter on " + address, e);
+        }
+
+        final var threadFactory = SniceThreadFactory.withNamePrefix("snice-metrics-").withDaemon(true).build();
+        final var executor = Executors.newSingleThreadExecutor(threadFactory);
+        server.setExecutor(executor);
+        server.createContext(PATH, exchange -> scrape(metrics, exchange));
+        server.start();
+        return new PrometheusExporter(server, executor);
+    }
+
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void scrape(final RuntimeMetrics metrics, final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            final var body = format(metrics).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    /**
+     * Render all the metrics in the Prometheus text format.
+     */
+    static String format(final RuntimeMetrics metrics) {
+        final var out = new StringBuilder(2048);
+
+        counter(out, "snice_scenarios_started_total", "The number of scenarios started", metrics.getScenariosStarted());
+        counter(out, "snice_scenarios_finished_total", "The number of scenarios finished", metrics.getScenariosFinished());
+        counter(out, "snice_scenarios_failed_total", "The number of scenarios that failed", metrics.getScenariosFailed());
+        gauge(out, "snice_scenarios_running", "The number of scenarios currently running", metrics.getScenariosRunning());
+
+        counter(out, "snice_checks_passed_total", "The number of checks that passed", metrics.getChecksPassed());
+        counter(out, "snice_checks_failed_total", "The number of checks that failed", metrics.getChecksFailed());
+
+        header(out, "snice_actions_in_flight", "The number of actions currently executing, per type", "gauge");
+        sorted(metrics.getActionsInFlight()).forEach((type, count) -> sample(out, "snice_actions_in_flight", "type", type, count));
+
+        final var network = metrics.network();
+        counter(out, "snice_connections_total", "The number of new connections established", network.connections());
+        counter(out, "snice_connection_errors_total", "The number of connections that could not be established", network.connectionErrors());
+        header(out, "snice_connect_seconds_total", "The total time spent establishing new connections", "counter");
+        out.append("snice_connect_seconds_total ").append(seconds(network.connectTime())).append('\n');
+        counter(out, "snice_bytes_sent_total", "The number of bytes sent", network.bytesSent());
+        counter(out, "snice_bytes_received_total", "The number of bytes received", network.bytesReceived());
+
+        final var scenarios = sorted(metrics.scenarioNetwork());
+        header(out, "snice_scenario_connections_total", "The number of new connections established by finished scenarios, per scenario", "counter");
+        scenarios.forEach((scenario, stats) -> sample(out, "snice_scenario_connections_total", "scenario", scenario, stats.connections()));
+        header(out, "snice_scenario_connection_errors_total", "The number of connections that finished scenarios could not establish, per scenario", "counter");
+        scenarios.forEach((scenario, stats) -> sample(out, "snice_scenario_connection_errors_total", "scenario", scenario, stats.connectionErrors()));
+        header(out, "snice_scenario_connect_seconds_total", "The total time finished scenarios spent establishing new connections, per scenario", "counter");
+        scenarios.forEach((scenario, stats) -> sample(out, "snice_scenario_connect_seconds_total", "scenario", scenario, seconds(stats.connectTime())));
+        header(out, "snice_scenario_bytes_sent_total", "The number of bytes sent by finished scenarios, per scenario", "counter");
+        scenarios.forEach((scenario, stats) -> sample(out, "snice_scenario_bytes_sent_total", "scenario", scenario, stats.bytesSent()));
+        header(out, "snice_scenario_bytes_received_total", "The number of bytes received by finished scenarios, per scenario", "counter");
+        scenarios.forEach((scenario, stats) -> sample(out, "snice_scenario_bytes_received_total", "scenario", scenario, stats.bytesReceived()));
+
+        header(out, "snice_supervisor_runs", "The number of runs assigned to a scenario supervisor, including those waiting in its mailbox", "gauge");
+        sorted(metrics.getSupervisorRuns()).forEach((supervisor, runs) -> sample(out, "snice_supervisor_runs", "supervisor", supervisor, runs));
+
+        header(out, "snice_action_response_time_seconds", "The response time of an action", "summary");
+        for (final var summary : metrics.latencies().summarize()) {
+            final var action = escape(summary.name());
+            final Duration[] values = {summary.p50(), summary.p90(), summary.p99(), summary.p999()};
+            for (int i = 0; i < QUANTILES.length; ++i) {
+                out.append("snice_action_response_time_seconds{action=\"").append(action)
+                        .append("\",quantile=\"").append(QUANTILES[i]).append("\"} ")
+                        .append(seconds(values[i])).append('\n');
+            }
+            out.append("snice_action_response_time_seconds_sum{action=\"").append(action).append("\"} ")
+                    .append(seconds(summary.sum())).append('\n');
+            out.append("snice_action_response_time_seconds_count{action=\"").append(action).append("\"} ")
+                    .append(summary.count()).append('\n');
+        }
+
+        return out.toString();
+    }
+
+    private static void counter(final StringBuilder out, final String name, final String help, final long value) {
+        header(out, name, help, "counter");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(final StringBuilder out, final String name, final String help, final long value) {
+        header(out, name, help, "gauge");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void header(final StringBuilder out, final String name, final String help, final String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(final StringBuilder out, final String name, final String label, final String value, final Object sample) {
+        out.append(name).append('{').append(label).append("=\"").append(escape(value)).append("\"} ").append(sample).append('\n');
+    }
+
+    private static <V> Map<String, V> sorted(final Map<String, V> map) {
+        return new TreeMap<>(map);
+    }
+
+    private static String seconds(final Duration duration) {
+        return String.format(Locale.ROOT, "%.9f", duration.toNanos() / 1_000_000_000.0);
+    }
+
+    /**
+     * Label values must have backslashes, double quotes and line feeds escaped.
+     */
+    static String escape(final String value) {
+        if (value.indexOf('\\') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+            return value;
+        }
+
+        final var escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); ++i) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '"' -> escaped.append("\\\"");
+                case '\n' -> escaped.append("\\n");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
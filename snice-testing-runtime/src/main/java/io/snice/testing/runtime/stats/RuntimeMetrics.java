@@ -0,0 +1,265 @@
+package io.snice.testing.runtime.stats;
+
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.NetworkStats;
+import io.snice.testing.core.check.CheckResult;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.ToLongFunction;
+
+import static io.snice.preconditions.PreConditions.assertNotEmpty;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * The live metrics of the runtime, which are updated as the simulation is running so that e.g. a multi-hour soak
+ * test can be watched while it is in progress, as opposed to only once it is over. The metrics are exposed over
+ * JMX, through the {@link RuntimeMetricsMXBean}, and in the Prometheus text format through the
+ * {@link PrometheusExporter}.
+ * <p>
+ * An instance is owned by the runtime and updated concurrently by all scenarios and actions, so all counters are
+ * {@link LongAdder}s, which are cheap to update from many threads at once and only slightly more expensive to read.
+ */
+public final class RuntimeMetrics implements RuntimeMetricsMXBean {
+
+    private final LatencyStats latencies;
+
+    private final LongAdder scenariosStarted = new LongAdder();
+    private final LongAdder scenariosFinished = new LongAdder();
+    private final LongAdder scenariosFailed = new LongAdder();
+
+    private final LongAdder checksPassed = new LongAdder();
+    private final LongAdder checksFailed = new LongAdder();
+
+    private final ConcurrentHashMap<String, LongAdder> actionsInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link NetworkStats} of all actions.
+     */
+    private final NetworkCounters total = new NetworkCounters();
+
+    /**
+     * The {@link NetworkStats} of all finished scenarios, per scenario (name).
+     */
+    private final ConcurrentHashMap<String, NetworkCounters> scenarioNetwork = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, IntSupplier> supervisors = new ConcurrentHashMap<>();
+
+    public RuntimeMetrics() {
+        this(new LatencyStats());
+    }
+
+    public RuntimeMetrics(final LatencyStats latencies) {
+        this.latencies = assertNotNull(latencies);
+    }
+
+    /**
+     * The response times of all actions, per action.
+     */
+    public LatencyStats latencies() {
+        return latencies;
+    }
+
+    public void scenarioStarted() {
+        scenariosStarted.increment();
+    }
+
+    public void scenarioFinished(final boolean success) {
+        if (!success) {
+            scenariosFailed.increment();
+        }
+        scenariosFinished.increment();
+    }
+
+    /**
+     * Same as {@link #scenarioFinished(boolean)} but also adds the {@link NetworkStats} of the scenario, which is
+     * the sum of those of its actions, to the statistics of all the scenarios with the same name.
+     */
+    public void scenarioFinished(final String scenario, final boolean success, final NetworkStats network) {
+        assertNotEmpty(scenario);
+        assertNotNull(network);
+        scenarioFinished(success);
+        final var counters = scenarioNetwork.get(scenario);
+        (counters != null ? counters : scenarioNetwork.computeIfAbsent(scenario, s -> new NetworkCounters())).add(network);
+    }
+
+    public void actionStarted(final String type) {
+        inFlight(type).increment();
+    }
+
+    /**
+     * Called when an action has finished, with all the {@link Execution}s the action produced, which is when
+     * the outcome of all the checks, the response times and the {@link NetworkStats} of the action are recorded.
+     */
+    public void actionFinished(final String type, final List<Execution> executions) {
+        inFlight(type).decrement();
+        for (int i = 0; i < executions.size(); ++i) {
+            final Execution<?> execution = executions.get(i);
+            latencies.record(execution);
+            execution.network().ifPresent(total::add);
+
+            final var results = execution.checkResults();
+            for (int j = 0; j < results.size(); ++j) {
+                final CheckResult<?, ?> result = results.get(j);
+                if (result.isFailure()) {
+                    checksFailed.increment();
+                } else {
+                    checksPassed.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Register a scenario supervisor, along with a way to find out how many runs it currently has, which
+     * includes the runs still waiting in its mailbox.
+     */
+    public void supervisor(final String name, final IntSupplier runs) {
+        assertNotEmpty(name);
+        assertNotNull(runs);
+        supervisors.put(name, runs);
+    }
+
+    /**
+     * The sum of the {@link NetworkStats} of all the actions that have finished so far.
+     */
+    public NetworkStats network() {
+        return total.sum();
+    }
+
+    /**
+     * The sum of the {@link NetworkStats} of all the scenarios that have finished so far, per scenario name.
+     * Unlike {@link #network()}, the traffic of a scenario is only included once the scenario has finished.
+     */
+    public Map<String, NetworkStats> scenarioNetwork() {
+        final var network = new HashMap<String, NetworkStats>();
+        scenarioNetwork.forEach((scenario, counters) -> network.put(scenario, counters.sum()));
+        return network;
+    }
+
+    @Override
+    public long getScenariosStarted() {
+        return scenariosStarted.sum();
+    }
+
+    @Override
+    public long getScenariosRunning() {
+        // read the finished ones first so we never report a negative number of running scenarios
+        final var finished = scenariosFinished.sum();
+        return Math.max(0, scenariosStarted.sum() - finished);
+    }
+
+    @Override
+    public long getScenariosFinished() {
+        return scenariosFinished.sum();
+    }
+
+    @Override
+    public long getScenariosFailed() {
+        return scenariosFailed.sum();
+    }
+
+    @Override
+    public long getChecksPassed() {
+        return checksPassed.sum();
+    }
+
+    @Override
+    public long getChecksFailed() {
+        return checksFailed.sum();
+    }
+
+    @Override
+    public Map<String, Long> getActionsInFlight() {
+        final var inFlight = new HashMap<String, Long>();
+        actionsInFlight.forEach((type, count) -> inFlight.put(type, count.sum()));
+        return inFlight;
+    }
+
+    @Override
+    public long getConnections() {
+        return total.connections.sum();
+    }
+
+    @Override
+    public long getConnectionErrors() {
+        return total.connectionErrors.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return total.bytesSent.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return total.bytesReceived.sum();
+    }
+
+    @Override
+    public Map<String, Long> getScenarioConnections() {
+        return perScenario(NetworkStats::connections);
+    }
+
+    @Override
+    public Map<String, Long> getScenarioConnectionErrors() {
+        return perScenario(NetworkStats::connectionErrors);
+    }
+
+    @Override
+    public Map<String, Long> getScenarioBytesSent() {
+        return perScenario(NetworkStats::bytesSent);
+    }
+
+    @Override
+    public Map<String, Long> getScenarioBytesReceived() {
+        return perScenario(NetworkStats::bytesReceived);
+    }
+
+    private Map<String, Long> perScenario(final ToLongFunction<NetworkStats> metric) {
+        final var values = new HashMap<String, Long>();
+        scenarioNetwork.forEach((scenario, counters) -> values.put(scenario, metric.applyAsLong(counters.sum())));
+        return values;
+    }
+
+    @Override
+    public Map<String, Integer> getSupervisorRuns() {
+        final var runs = new HashMap<String, Integer>();
+        supervisors.forEach((name, supplier) -> runs.put(name, supplier.getAsInt()));
+        return runs;
+    }
+
+    private LongAdder inFlight(final String type) {
+        final var count = actionsInFlight.get(type);
+        return count != null ? count : actionsInFlight.computeIfAbsent(type, t -> new LongAdder());
+    }
+
+    /**
+     * The {@link NetworkStats}, as they are being added up.
+     */
+    private static final class NetworkCounters {
+
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder connectNanos = new LongAdder();
+        private final LongAdder connectionErrors = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+
+        private void add(final NetworkStats network) {
+            connections.add(network.connections());
+            connectNanos.add(network.connectNanos());
+            connectionErrors.add(network.connectionErrors());
+            bytesSent.add(network.bytesSent());
+            bytesReceived.add(network.bytesReceived());
+        }
+
+        private NetworkStats sum() {
+            return new NetworkStats(connections.sum(), connectNanos.sum(), connectionErrors.sum(),
+                    bytesSent.sum(), bytesReceived.sum());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.snice.testing.runtime.stats;
+
+import java.util.Map;
+
+/**
+ * The live metrics of the runtime as exposed over JMX. See {@link RuntimeMetrics}.
+ */
+public interface RuntimeMetricsMXBean {
+
+    long getScenariosStarted();
+
+    /**
+     * The number of scenarios that have been started but not yet finished.
+     */
+    long getScenariosRunning();
+
+    long getScenariosFinished();
+
+    /**
+     * The number of finished scenarios that failed, i.e., those that were invalid or where at least
+     * one of the actions failed.
+     */
+    long getScenariosFailed();
+
+    long getChecksPassed();
+
+    long getChecksFailed();
+
+    /**
+     * The number of actions currently executing, per type of action (which is the name of the protocol the
+     * action is using).
+     */
+    Map<String, Long> getActionsInFlight();
+
+    /**
+     * The number of new connections established by all actions.
+     */
+    long getConnections();
+
+    /**
+     * The number of connections that could not be established.
+     */
+    long getConnectionErrors();
+
+    long getBytesSent();
+
+    long getBytesReceived();
+
+    /**
+     * The number of new connections established by all finished scenarios, per scenario name.
+     */
+    Map<String, Long> getScenarioConnections();
+
+    /**
+     * The number of connections that could not be established by all finished scenarios, per scenario name.
+     */
+    Map<String, Long> getScenarioConnectionErrors();
+
+    Map<String, Long> getScenarioBytesSent();
+
+    Map<String, Long> getScenarioBytesReceived();
+
+    /**
+     * The number of runs assigned to every scenario supervisor, including those still waiting in the
+     * mailbox of the supervisor.
+     */
+    Map<String, Integer> getSupervisorRuns();
+}
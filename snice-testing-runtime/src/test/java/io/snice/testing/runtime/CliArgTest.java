@@ -1,5 +1,7 @@
 package io.snice.testing.runtime;
 
+import io.snice.testing.runtime.config.SupervisorPlacement;
+import io.snice.testing.runtime.config.TlsConfig;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -36,6 +38,71 @@ public class CliArgTest {
         assertThat(CliArgs.parseArgs().toSimulationConfig(), is(Optional.empty()));
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "--supervisors 12, 12, ROUND_ROBIN",
+            "--placement least-loaded, -1, LEAST_LOADED",
+            "--supervisors 3 --placement hash, 3, HASH",
+            "--supervisors 0 --placement round-robin, -1, ROUND_ROBIN", // zero supervisors is ignored
+    })
+    public void testCreateArgsForSupervisors(final String args, final int supervisors, final SupervisorPlacement placement) {
+        final var config = CliArgs.parseArgs(splitLine(args)).toRuntimeConfig();
+        final var expectedSupervisors = supervisors == -1 ? Runtime.getRuntime().availableProcessors() : supervisors;
+        assertThat(config.getScenarioSupervisors(), is(expectedSupervisors));
+        assertThat(config.getSupervisorPlacement(), is(placement));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            ", 4, 75, 0", // defaults
+            "--workers 8 --throughput 10, 8, 10, 0",
+            "--action-workers 16, 4, 75, 16",
+            "--workers 0 --throughput -1 --action-workers -1, 4, 75, 0", // bad values are ignored
+    })
+    public void testCreateArgsForDispatcher(final String args, final int workers, final int throughput, final int actionWorkers) {
+        final var config = CliArgs.parseArgs(splitLine(args)).toRuntimeConfig();
+        assertThat(config.getWorkerThreads(), is(workers));
+        assertThat(config.getThroughput(), is(throughput));
+        assertThat(config.getActionWorkerThreads(), is(actionWorkers));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            ", 0", // default, i.e., not exposed
+            "--metrics-port 9464, 9464",
+            "--metrics-port -1, 0", // bad values are ignored
+            "--metrics-port 70000, 0",
+    })
+    public void testCreateArgsForMetrics(final String args, final int metricsPort) {
+        final var config = CliArgs.parseArgs(splitLine(args)).toRuntimeConfig();
+        assertThat(config.getMetricsPort(), is(metricsPort));
+    }
+
+    @Test
+    public void testCreateArgsForResultsLog() {
+        assertThat(CliArgs.parseArgs().toRuntimeConfig().getResultsLog(), is(Optional.empty()));
+        final var config = CliArgs.parseArgs(splitLine("--results-log /tmp/results.snl")).toRuntimeConfig();
+        assertThat(config.getResultsLog(), is(Optional.of("/tmp/results.snl")));
+    }
+
+    @Test
+    public void testCreateArgsForResultsStore() {
+        assertThat(CliArgs.parseArgs().toRuntimeConfig().getResultsStore(), is(Optional.empty()));
+        final var config = CliArgs.parseArgs(splitLine("--results-store /tmp/results")).toRuntimeConfig();
+        assertThat(config.getResultsStore(), is(Optional.of("/tmp/results")));
+    }
+
+    @Test
+    public void testCreateArgsForTls() {
+        // nothing given, nothing applied to the JVM
+        assertThat(CliArgs.parseArgs().toRuntimeConfig().getTls(), is(Optional.empty()));
+
+        final var config = CliArgs.parseArgs(splitLine("--tls-protocols TLSv1.3,TLSv1.2 "
+                + "--tls-cipher-suites TLS_AES_128_GCM_SHA256")).toRuntimeConfig();
+        final var expected = TlsConfig.DEFAULT.withProtocols("TLSv1.3", "TLSv1.2").withCipherSuites("TLS_AES_128_GCM_SHA256");
+        assertThat(config.getTls(), is(Optional.of(expected)));
+    }
+
     @ParameterizedTest
     @CsvSource({
             "--simulation com.example.MySimulation, com.example.MySimulation",
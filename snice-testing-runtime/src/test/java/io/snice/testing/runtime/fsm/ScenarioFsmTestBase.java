@@ -52,6 +52,12 @@ public class ScenarioFsmTestBase implements Logging {
 
     protected TransitionListener<ScenarioState> transitionListener;
 
+    /**
+     * Whether the jobs created through {@link #someJob(ActionResourceIdentifier, boolean, Session)}
+     * are executing within their own actor or not.
+     */
+    protected boolean actorlessJobs;
+
     @BeforeEach
     void setUp() {
         initializeFsm();
@@ -416,6 +422,7 @@ public class ScenarioFsmTestBase implements Logging {
         when(job.sri()).thenReturn(sri);
         when(job.isAsync()).thenReturn(isAsync);
         when(job.session()).thenReturn(session);
+        when(job.isActorless()).thenReturn(actorlessJobs);
         return job;
     }
 
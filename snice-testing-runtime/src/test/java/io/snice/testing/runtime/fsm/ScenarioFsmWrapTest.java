@@ -40,4 +40,23 @@ class ScenarioFsmWrapTest extends ScenarioFsmTestBase {
         ensureAndFireEvent(new ScenarioMessage.Terminate());
         ensureFsmTerminated();
     }
+
+    /**
+     * When the actions are not executed within their own actors, there will never be any
+     * actor terminating, so as soon as the last action finishes, we're done.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 5})
+    public void testWrapThingsUpActorless(final int count) {
+        actorlessJobs = true;
+        final var execs = asyncScenario(session, count);
+        fsm.onEvent(new ScenarioMessage.NoMoreActions());
+
+        for (int i = 0; i < count; ++i) {
+            driveJobCompletes(execs.get(i), session);
+        }
+
+        ensureAndFireEvent(new ScenarioMessage.Terminate());
+        ensureFsmTerminated();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package io.snice.testing.runtime.impl;
+
+import io.snice.testing.runtime.config.TlsConfig;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * The TLS settings are global to the JVM and only take effect if applied before TLS is used for the first time,
+ * which we cannot control within the JVM running the tests, so every test runs in a brand new JVM.
+ */
+class JvmTlsSettingsTest {
+
+    private static final String PROTOCOL = "TLSv1.2";
+    private static final String CIPHER_SUITE = "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256";
+    private static final int SESSION_CACHE_SIZE = 42;
+
+    /**
+     * A new TLS connection, over a brand new {@link SSLContext}, which is what the protocol stacks will create,
+     * only enables the protocols and cipher suites we asked for and caches as many sessions as we asked for.
+     */
+    @Test
+    public void testSettingsTakeEffect() throws Exception {
+        assertThat(run("apply"), is(List.of("in effect: true", "protocols: " + PROTOCOL, "cipher suites: " + CIPHER_SUITE,
+                "session cache size: " + SESSION_CACHE_SIZE)));
+    }
+
+    /**
+     * If anything has used TLS before we get to apply the settings, it's too late.
+     */
+    @Test
+    public void testTooLate() throws Exception {
+        assertThat(run("late").get(0), is("in effect: false"));
+    }
+
+    /**
+     * The settings are JVM wide, so only the first configuration is ever applied.
+     */
+    @Test
+    public void testOnlyFirstApplied() throws Exception {
+        assertThat(run("twice"), is(List.of("in effect: true", "protocols: " + PROTOCOL, "cipher suites: " + CIPHER_SUITE,
+                "session cache size: " + SESSION_CACHE_SIZE)));
+    }
+
+    private static List<String> run(final String mode) throws IOException, InterruptedException {
+        final var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        final var process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Child.class.getName(), mode)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        final var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(process.waitFor(60, TimeUnit.SECONDS), is(true));
+        assertThat(output, process.exitValue(), is(0));
+        return output.lines().toList();
+    }
+
+    public static final class Child {
+
+        public static void main(final String[] args) throws Exception {
+            final var config = TlsConfig.DEFAULT.withProtocols(PROTOCOL).withCipherSuites(CIPHER_SUITE)
+                    .withSessionCacheSize(SESSION_CACHE_SIZE);
+            switch (args[0]) {
+                case "late" -> {
+                    SSLContext.getInstance("TLS").init(null, null, null);
+                    JvmTlsSettings.apply(config);
+                }
+                case "twice" -> {
+                    JvmTlsSettings.apply(config);
+                    JvmTlsSettings.apply(TlsConfig.DEFAULT.withProtocols("TLSv1.3"));
+                }
+                default -> JvmTlsSettings.apply(config);
+            }
+
+            final var context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+            final var engine = context.createSSLEngine();
+            engine.setUseClientMode(true);
+            System.out.println("in effect: " + JvmTlsSettings.isInEffect(config));
+            System.out.println("protocols: " + String.join(",", engine.getEnabledProtocols()));
+            System.out.println("cipher suites: " + String.join(",", engine.getEnabledCipherSuites()));
+            System.out.println("session cache size: " + context.getClientSessionContext().getSessionCacheSize());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.snice.testing.runtime.impl;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+import io.snice.testing.runtime.config.SupervisorPlacement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+class PlacementStrategyTest {
+
+    @Test
+    public void testRoundRobin() {
+        final var strategy = PlacementStrategy.of(SupervisorPlacement.ROUND_ROBIN, load(0, 0, 0));
+        final var selected = IntStream.range(0, 7)
+                .map(i -> strategy.select(ScenarioResourceIdentifier.of()))
+                .boxed()
+                .collect(Collectors.toList());
+        assertThat(selected, is(List.of(0, 1, 2, 0, 1, 2, 0)));
+    }
+
+    @Test
+    public void testLeastLoaded() {
+        final var load = load(5, 2, 7, 3);
+        final var strategy = PlacementStrategy.of(SupervisorPlacement.LEAST_LOADED, load);
+        for (int i = 0; i < 10; ++i) {
+            assertThat(strategy.select(ScenarioResourceIdentifier.of()), is(1));
+        }
+
+        load.get(3).set(0);
+        assertThat(strategy.select(ScenarioResourceIdentifier.of()), is(3));
+    }
+
+    /**
+     * When all supervisors have the same load, we should still spread the scenarios across all of them.
+     */
+    @Test
+    public void testLeastLoadedEqualLoad() {
+        final var strategy = PlacementStrategy.of(SupervisorPlacement.LEAST_LOADED, load(0, 0, 0));
+        final var selected = IntStream.range(0, 3)
+                .map(i -> strategy.select(ScenarioResourceIdentifier.of()))
+                .boxed()
+                .collect(Collectors.toSet());
+        assertThat(selected.size(), is(3));
+    }
+
+    @Test
+    public void testHashIsStable() {
+        final var strategy = PlacementStrategy.of(SupervisorPlacement.HASH, load(0, 0, 0, 0, 0));
+        final var sri = ScenarioResourceIdentifier.of();
+        final var expected = strategy.select(sri);
+        for (int i = 0; i < 10; ++i) {
+            assertThat(strategy.select(ScenarioResourceIdentifier.from(sri.asString())), is(expected));
+        }
+    }
+
+    @Test
+    public void testHashSpreadsEvenly() {
+        final var supervisors = 8;
+        final var scenarios = 80_000;
+        final var strategy = PlacementStrategy.of(SupervisorPlacement.HASH, load(new int[supervisors]));
+        final var count = new int[supervisors];
+        for (int i = 0; i < scenarios; ++i) {
+            ++count[strategy.select(ScenarioResourceIdentifier.of())];
+        }
+
+        final var expected = scenarios / supervisors;
+        for (final var c : count) {
+            assertThat(c, greaterThan(expected / 2));
+            assertThat(c, lessThan(expected * 2));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(SupervisorPlacement.class)
+    public void testSingleSupervisor(final SupervisorPlacement placement) {
+        final var strategy = PlacementStrategy.of(placement, load(0));
+        for (int i = 0; i < 5; ++i) {
+            assertThat(strategy.select(ScenarioResourceIdentifier.of()), is(0));
+        }
+    }
+
+    private static List<AtomicInteger> load(final int... load) {
+        return IntStream.of(load).mapToObj(AtomicInteger::new).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,251 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.Timings;
+import io.snice.testing.core.check.CheckResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultsLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        final var log = dir.resolve("results.snl");
+        final var before = System.currentTimeMillis();
+        try (final var writer = ResultsWriter.open(log)) {
+            assertThat(writer.record(execution("get", true, 2_000_000, passed(), passed())), is(true));
+            writer.record(List.of(execution("post", false, 5_000_000, passed(), failed("expected 200 but got 503")),
+                    new Execution<>("pause", true)));
+        }
+
+        final var records = readAll(log);
+        assertThat(records.size(), is(3));
+
+        final var get = records.get(0);
+        assertThat(get.name(), is("get"));
+        assertThat(get.success(), is(true));
+        assertThat(get.hasTimings(), is(true));
+        assertThat(get.responseTimeNanos(), is(2_000_000L));
+        assertThat(get.totalTimeNanos(), is(3_000_000L));
+        assertThat(get.checksPassed(), is(2));
+        assertThat(get.checksFailed(), is(0));
+        assertThat(get.timestamp(), greaterThanOrEqualTo(before));
+
+        final var post = records.get(1);
+        assertThat(post.name(), is("post"));
+        assertThat(post.success(), is(false));
+        assertThat(post.checksPassed(), is(1));
+        assertThat(post.failures(), is(List.of("expected 200 but got 503")));
+
+        final var pause = records.get(2);
+        assertThat(pause.name(), is("pause"));
+        assertThat(pause.hasTimings(), is(false));
+        assertThat(pause.responseTimeNanos(), is(-1L));
+    }
+
+    /**
+     * Once closed, nothing more is accepted but it's not an error to record, the execution is simply dropped.
+     */
+    @Test
+    public void testRecordAfterClose() throws Exception {
+        final var writer = ResultsWriter.open(dir.resolve("closed.snl"));
+        writer.close();
+        assertThat(writer.record(execution("get", true, 1_000)), is(false));
+        assertThat(writer.dropped(), is(1L));
+        writer.close();
+    }
+
+    /**
+     * Whatever is recorded while the writer is being closed is either written or dropped, never lost.
+     */
+    @Test
+    public void testRecordWhileClosing() throws Exception {
+        final var writer = ResultsWriter.open(dir.resolve("closing.snl"), 1024);
+        final var threads = 4;
+        final var recorded = new LongAdder();
+        final var started = new CountDownLatch(threads);
+        final var executor = Executors.newFixedThreadPool(threads);
+        try {
+            final var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    while (writer.record(execution("get", true, 1_000))) {
+                        recorded.increment();
+                    }
+                    recorded.increment();
+                }));
+            }
+
+            started.await();
+            writer.close();
+            for (final var future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(writer.written() + writer.dropped(), is(recorded.sum()));
+        assertThat(readAll(dir.resolve("closing.snl")).size(), is((int) writer.written()));
+    }
+
+    /**
+     * A simulation that crashes may leave a partial record at the end of the log, which must not prevent us from
+     * reading everything before it.
+     */
+    @Test
+    public void testTruncatedLog() throws Exception {
+        final var log = dir.resolve("truncated.snl");
+        try (final var writer = ResultsWriter.open(log)) {
+            writer.record(execution("get", true, 1_000, passed()));
+            writer.record(execution("get", false, 2_000, failed("a rather long reason for failing")));
+        }
+
+        final var bytes = Files.readAllBytes(log);
+        Files.write(log, Arrays.copyOf(bytes, bytes.length - 5));
+
+        final var records = readAll(log);
+        assertThat(records.size(), is(1));
+        assertThat(records.get(0).responseTimeNanos(), is(1_000L));
+    }
+
+    @Test
+    public void testNotAResultsLog() throws Exception {
+        final var file = dir.resolve("garbage.snl");
+        Files.writeString(file, "hello world");
+        assertThrows(IOException.class, () -> ResultsReader.open(file));
+
+        Files.writeString(file, "");
+        assertThrows(IOException.class, () -> ResultsReader.open(file));
+    }
+
+    @Test
+    public void testReport() throws Exception {
+        final var log = dir.resolve("report.snl");
+        try (final var writer = ResultsWriter.open(log)) {
+            for (int i = 1; i <= 100; ++i) {
+                writer.record(execution("get \"users\"", i % 10 != 0, i * 1_000_000L, passed()));
+            }
+            writer.record(new Execution<>("pause", true));
+        }
+
+        final var report = ResultsReport.create(log, Duration.ofSeconds(1));
+        assertThat(report.executions(), is(101L));
+        assertThat(report.failed(), is(10L));
+        assertThat(report.actions().size(), is(2));
+
+        final var get = report.actions().get(0);
+        assertThat(get.name(), is("get \"users\""));
+        assertThat(get.executions(), is(100L));
+        assertThat(get.failed(), is(10L));
+        assertThat(get.checksPassed(), is(100L));
+        assertThat(get.responseTimes().get().count(), is(100L));
+        assertThat(report.actions().get(1).responseTimes(), is(Optional.empty()));
+
+        final var executions = report.timeSeries().stream().mapToLong(ResultsReport.Interval::executions).sum();
+        assertThat(executions, is(101L));
+
+        final var json = report.toJson();
+        assertThat(json, containsString("\"executions\": 101,"));
+        assertThat(json, containsString("{\"name\": \"get \\\"users\\\"\", \"executions\": 100, \"failed\": 10"));
+        assertThat(json, containsString("\"timeSeries\": [\n    {\"start\": "));
+
+        final var html = report.toHtml();
+        assertThat(html, containsString("<td>get &quot;users&quot;</td><td>100</td><td>10</td>"));
+        assertThat(html, containsString("<polyline"));
+
+        final var output = dir.resolve("out");
+        ResultsReport.main(log.toString(), "--output", output.toString());
+        assertThat(Files.readString(output.resolve("report.json")), is(json));
+        assertThat(Files.exists(output.resolve("report.html")), is(true));
+    }
+
+    /**
+     * Nothing happening for a while must show up as such in the time series, not be skipped.
+     */
+    @Test
+    public void testReportWithGaps() throws Exception {
+        final var log = dir.resolve("gaps.snl");
+        try (final var writer = ResultsWriter.open(log)) {
+            writer.record(execution("get", true, 1_000_000));
+            Thread.sleep(100);
+            writer.record(execution("get", true, 1_000_000));
+        }
+
+        final var interval = Duration.ofMillis(10);
+        final var timeSeries = ResultsReport.create(log, interval).timeSeries();
+        assertThat(timeSeries.size(), greaterThanOrEqualTo(5));
+        assertThat(timeSeries.stream().mapToLong(ResultsReport.Interval::executions).sum(), is(2L));
+        assertThat(timeSeries.stream().filter(i -> i.executions() == 0).count(), greaterThanOrEqualTo(3L));
+        for (int i = 1; i < timeSeries.size(); ++i) {
+            assertThat(timeSeries.get(i).start() - timeSeries.get(i - 1).start(), is(interval.toMillis()));
+        }
+    }
+
+    @Test
+    public void testChartBreaksOnGaps() {
+        final var html = new StringBuilder();
+        ResultsReport.chart(html, "red", new double[]{1, 2, Double.NaN, Double.NaN, 3, 4, Double.NaN});
+        assertThat(html.toString().split("<polyline", -1).length - 1, is(2));
+        assertThat(html.toString(), containsString("points=\"0.0,"));
+    }
+
+    @Test
+    public void testJsonString() {
+        assertThat(ResultsReport.jsonString("plain"), is("\"plain\""));
+        assertThat(ResultsReport.jsonString("a\"b\\c\nd\u0001"), is("\"a\\\"b\\\\c\\nd\\u0001\""));
+    }
+
+    private static List<ResultRecord> readAll(final Path log) throws IOException {
+        final var records = new ArrayList<ResultRecord>();
+        try (final var reader = ResultsReader.open(log)) {
+            var record = reader.next();
+            while (record.isPresent()) {
+                records.add(record.get());
+                record = reader.next();
+            }
+        }
+        return records;
+    }
+
+    @SafeVarargs
+    private static Execution<Object> execution(final String name,
+                                               final boolean success,
+                                               final long responseTime,
+                                               final CheckResult<Object, ?>... results) {
+        final var timings = new Timings(0, responseTime, responseTime + 1_000_000);
+        return new Execution<>(name, success, List.of(results), Optional.of(timings));
+    }
+
+    private static CheckResult<Object, Object> passed() {
+        return new CheckResult<>(null, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    private static CheckResult<Object, Object> failed(final String reason) {
+        return new CheckResult<>(null, Optional.empty(), Optional.empty(), Optional.of(reason));
+    }
+}
@@ -0,0 +1,264 @@
+package io.snice.testing.runtime.results;
+
+import io.snice.identity.sri.ScenarioResourceIdentifier;
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.Timings;
+import io.snice.testing.core.check.CheckResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultsStoreTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Only a few executions per segment, and very few buckets, so that we span many segments and get plenty
+     * of collisions in the scenario index.
+     */
+    @Test
+    public void testStoreAndQuery() throws Exception {
+        final var store = ResultsStore.create(dir, 4, 2);
+        final var scenarios = new ScenarioResourceIdentifier[10];
+        for (int i = 0; i < scenarios.length; ++i) {
+            scenarios[i] = ScenarioResourceIdentifier.of();
+        }
+
+        for (int i = 0; i < scenarios.length; ++i) {
+            store.record(scenarios[i], List.of(execution("get", true, (i + 1) * 1_000L, passed())));
+            store.record(scenarios[i], List.of(execution("post", i % 3 != 0, (i + 1) * 2_000L, passed(), failed())));
+            store.record(scenarios[i], List.of(new Execution<>("pause", true)));
+        }
+
+        for (int i = 0; i < scenarios.length - 1; ++i) {
+            store.scenarioFinished(scenarios[i], true);
+        }
+        store.close();
+        assertThat(store.size(), is(30L));
+        assertThat(store.dropped(), is(0L));
+
+        final var reader = ResultsStoreReader.open(dir);
+        assertThat(reader.executions(), is(30L));
+        assertThat(reader.scenarios(), is(10L));
+        assertThat(reader.actions(), is(List.of("get", "post", "pause")));
+        assertThat(Files.exists(MappedSegments.path(dir, ResultsStoreFormat.EXECUTIONS, 7)), is(true));
+
+        // every scenario can be found and comes back with its executions in the order they were recorded
+        for (int i = 0; i < scenarios.length; ++i) {
+            final var sri = scenarios[i];
+            final var scenario = reader.scenario(sri).get();
+            assertThat(scenario.sri(), is(sri));
+            assertThat(scenario.executions(), is(3));
+            assertThat(scenario.failed(), is(i % 3 == 0 ? 1 : 0));
+            assertThat(scenario.success(), is(i % 3 != 0 && i != scenarios.length - 1));
+
+            final var executions = reader.executionsOf(sri);
+            assertThat(executions.size(), is(3));
+            assertThat(executions.get(0).name(), is("get"));
+            assertThat(executions.get(0).responseTimeNanos(), is((i + 1) * 1_000L));
+            assertThat(executions.get(0).checksPassed(), is(1));
+            assertThat(executions.get(1).name(), is("post"));
+            assertThat(executions.get(1).checksFailed(), is(1));
+            assertThat(executions.get(2).name(), is("pause"));
+            assertThat(executions.get(2).hasTimings(), is(false));
+            executions.forEach(execution -> assertThat(execution.scenario(), is(sri)));
+        }
+
+        assertThat(reader.scenario(ScenarioResourceIdentifier.of()), is(Optional.empty()));
+        assertThat(reader.executionsOf(ScenarioResourceIdentifier.of()), is(List.of()));
+
+        // the last scenario never finished and, as such, is considered to have failed
+        final var failed = reader.failedScenarios(100);
+        assertThat(failed.size(), is(4));
+        assertThat(reader.failedScenarios(2).size(), is(2));
+
+        // most recent first
+        final var posts = reader.executionsOf("post", 3);
+        assertThat(posts.size(), is(3));
+        assertThat(posts.get(0).scenario(), is(scenarios[9]));
+        assertThat(posts.get(0).success(), is(false));
+        assertThat(posts.get(2).scenario(), is(scenarios[7]));
+        assertThat(reader.executionsOf("post", 100).size(), is(10));
+        assertThat(reader.executionsOf("delete", 100), is(List.of()));
+
+        final var first = reader.execution(0).get();
+        assertThat(first.name(), is("get"));
+        assertThat(first.timestamp(), greaterThan(0L));
+    }
+
+    /**
+     * Once closed, nothing more is accepted but it's not an error to record, the execution is simply dropped.
+     */
+    @Test
+    public void testRecordAfterClose() throws Exception {
+        final var store = ResultsStore.create(dir);
+        final var scenario = ScenarioResourceIdentifier.of();
+        store.record(scenario, List.of(execution("get", true, 1_000)));
+        store.close();
+        store.record(scenario, List.of(execution("get", true, 1_000)));
+        store.scenarioFinished(scenario, true);
+        assertThat(store.dropped(), is(1L));
+        assertThat(store.size(), is(1L));
+        store.close();
+
+        final var reader = ResultsStoreReader.open(dir);
+        assertThat(reader.executions(), is(1L));
+        assertThat(reader.scenario(scenario).get().success(), is(false));
+    }
+
+    /**
+     * The buffer is tiny and constantly full so plenty of executions are dropped, but a scenario finishing
+     * must never be, or the scenario would be indexed as failed.
+     */
+    @Test
+    public void testScenarioFinishedWhenFull() throws Exception {
+        final var store = ResultsStore.create(dir, 1024, 1024, 1);
+        final var scenarios = new ScenarioResourceIdentifier[1000];
+        for (int i = 0; i < scenarios.length; ++i) {
+            scenarios[i] = ScenarioResourceIdentifier.of();
+            store.record(scenarios[i], List.of(execution("get", true, 1_000)));
+            store.record(scenarios[i], List.of(execution("post", true, 2_000)));
+            store.scenarioFinished(scenarios[i], true);
+        }
+        store.close();
+        assertThat(store.size() + store.dropped(), is(2L * scenarios.length));
+
+        final var reader = ResultsStoreReader.open(dir);
+        assertThat(reader.scenarios(), is((long) scenarios.length));
+        assertThat(reader.failedScenarios(100), is(List.of()));
+        for (final var sri : scenarios) {
+            final var scenario = reader.scenario(sri).get();
+            assertThat(scenario.success(), is(true));
+            assertThat(reader.executionsOf(sri).size(), is(scenario.executions()));
+        }
+    }
+
+    @Test
+    public void testDirectoryMustBeEmpty() throws Exception {
+        Files.writeString(dir.resolve("hello.txt"), "hello world");
+        assertThrows(UncheckedIOException.class, () -> ResultsStore.create(dir));
+    }
+
+    @Test
+    public void testNotAResultsStore() throws Exception {
+        assertThrows(IOException.class, () -> ResultsStoreReader.open(dir));
+
+        Files.writeString(dir.resolve(ResultsStoreFormat.META), "hello world");
+        assertThrows(IOException.class, () -> ResultsStoreReader.open(dir));
+    }
+
+    /**
+     * A store that was never closed, e.g. because the simulation crashed, can still be read, as it was when the
+     * meta data was last written. Scenarios that finish after that are simply not seen by the reader, even though
+     * they may be linked from the scenario index, but the scenarios before them are.
+     */
+    @Test
+    public void testReadStoreNeverClosed() throws Exception {
+        final var store = ResultsStore.create(dir, 4, 1);
+        try {
+            assertThat(ResultsStoreReader.open(dir).executions(), is(0L));
+
+            final var first = ScenarioResourceIdentifier.of();
+            store.record(first, List.of(execution("get", true, 1_000), execution("post", false, 2_000)));
+            store.scenarioFinished(first, true);
+            final var reader = await(2, 1);
+            assertThat(reader.actions(), is(List.of("get", "post")));
+            assertThat(reader.scenario(first).get().failed(), is(1));
+            assertThat(reader.executionsOf(first).size(), is(2));
+
+            // with a single bucket, the new scenario is the head of the chain the first one is in
+            final var second = ScenarioResourceIdentifier.of();
+            store.record(second, List.of(execution("get", true, 1_000)));
+            store.scenarioFinished(second, true);
+            waitFor(() -> store.size() == 3);
+            assertThat(reader.scenario(second), is(Optional.empty()));
+            assertThat(reader.scenario(first).isPresent(), is(true));
+
+            final var later = await(3, 2);
+            assertThat(later.scenario(second).get().executions(), is(1));
+            assertThat(later.executionsOf("get", 10).size(), is(2));
+        } finally {
+            store.close();
+        }
+    }
+
+    /**
+     * Wait for the meta data of the store to catch up with the given number of executions and scenarios.
+     */
+    private ResultsStoreReader await(final long executions, final long scenarios) throws Exception {
+        final var deadline = System.nanoTime() + 10 * ResultsStore.META_INTERVAL_NANOS;
+        while (true) {
+            final var reader = ResultsStoreReader.open(dir);
+            if (reader.executions() == executions && reader.scenarios() == scenarios) {
+                return reader;
+            }
+            assertThat("Timed out waiting for the meta data of the store", System.nanoTime() < deadline, is(true));
+            Thread.sleep(10);
+        }
+    }
+
+    private static void waitFor(final BooleanSupplier condition) throws Exception {
+        final var deadline = System.nanoTime() + 10 * ResultsStore.META_INTERVAL_NANOS;
+        while (!condition.getAsBoolean()) {
+            assertThat("Timed out waiting for the writer thread", System.nanoTime() < deadline, is(true));
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * The bucket of a scenario is part of the on-disk format so it must never change for a given version,
+     * or the scenarios of an existing store can no longer be found.
+     */
+    @Test
+    public void testBucketIsStable() {
+        final var sri = ScenarioResourceIdentifier.from(0x0123456789ABCDEFL, 0xFEDCBA9876543210L);
+        assertThat(ResultsStoreFormat.bucket(sri, 1 << 16), is(bucketOfRawBytes(sri, 1 << 16)));
+        for (int i = 0; i < 1000; ++i) {
+            final var random = ScenarioResourceIdentifier.of();
+            assertThat(ResultsStoreFormat.bucket(random, 1024), is(bucketOfRawBytes(random, 1024)));
+        }
+    }
+
+    /**
+     * The bucket function as it was defined for version 1 of the format, over the raw 16 bytes of the SRI.
+     */
+    private static int bucketOfRawBytes(final ScenarioResourceIdentifier sri, final int buckets) {
+        final var raw = sri.raw();
+        var hash = 1L;
+        for (int i = 0; i < 16; ++i) {
+            hash = 31 * hash + raw.getByte(i);
+        }
+        final var h = (int) (hash ^ (hash >>> 32));
+        return (h ^ (h >>> 16)) & (buckets - 1);
+    }
+
+    @SafeVarargs
+    private static Execution<Object> execution(final String name,
+                                               final boolean success,
+                                               final long responseTime,
+                                               final CheckResult<Object, ?>... results) {
+        final var timings = new Timings(0, responseTime, responseTime + 1_000_000);
+        return new Execution<>(name, success, List.of(results), Optional.of(timings));
+    }
+
+    private static CheckResult<Object, Object> passed() {
+        return new CheckResult<>(null, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    private static CheckResult<Object, Object> failed() {
+        return new CheckResult<>(null, Optional.empty(), Optional.empty(), Optional.of("expected 200 but got 503"));
+    }
+}
@@ -0,0 +1,115 @@
+package io.snice.testing.runtime.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RingBufferTest {
+
+    @Test
+    public void testCapacity() {
+        assertThat(new RingBuffer<String>(1).capacity(), is(2));
+        assertThat(new RingBuffer<String>(2).capacity(), is(2));
+        assertThat(new RingBuffer<String>(8).capacity(), is(8));
+        assertThat(new RingBuffer<String>(9).capacity(), is(16));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(0));
+    }
+
+    /**
+     * The smallest possible buffer must still refuse elements once full, as opposed to overwriting the ones
+     * that haven't been drained yet.
+     */
+    @Test
+    public void testSmallestCapacity() {
+        final var buffer = new RingBuffer<String>(1);
+        assertThat(buffer.offer("a", 1), is(true));
+        assertThat(buffer.offer("b", 2), is(true));
+        assertThat(buffer.offer("c", 3), is(false));
+
+        final var drained = new ArrayList<String>();
+        buffer.drain((element, stamp) -> drained.add(element));
+        assertThat(drained, is(List.of("a", "b")));
+    }
+
+    /**
+     * A full buffer must never block the producer, it must simply refuse the element.
+     */
+    @Test
+    public void testOfferWhenFull() {
+        final var buffer = new RingBuffer<String>(2);
+        assertThat(buffer.offer("a", 1), is(true));
+        assertThat(buffer.offer("b", 2), is(true));
+        assertThat(buffer.offer("c", 3), is(false));
+
+        final var drained = new ArrayList<String>();
+        assertThat(buffer.drain((element, stamp) -> drained.add(element + stamp)), is(2));
+        assertThat(drained, is(List.of("a1", "b2")));
+        assertThat(buffer.isEmpty(), is(true));
+
+        // and once drained, there is room again
+        assertThat(buffer.offer("c", 3), is(true));
+        assertThat(buffer.isEmpty(), is(false));
+    }
+
+    @Test
+    public void testDrainEmpty() {
+        assertThat(new RingBuffer<String>(4).drain((element, stamp) -> {
+            throw new AssertionError("Nothing to drain");
+        }), is(0));
+    }
+
+    /**
+     * Many producers, a single consumer, and every element must make it through exactly once and, for every
+     * producer, in the order it was offered.
+     */
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final var producers = 4;
+        final var perProducer = 100_000;
+        final var buffer = new RingBuffer<Long>(128);
+        final var executor = Executors.newFixedThreadPool(producers);
+        final var latch = new CountDownLatch(producers);
+        try {
+            for (int p = 0; p < producers; ++p) {
+                final long producer = p;
+                executor.submit(() -> {
+                    for (long i = 0; i < perProducer; ++i) {
+                        while (!buffer.offer(i, producer)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    latch.countDown();
+                });
+            }
+
+            final var seen = new HashSet<Long>();
+            final var last = new long[producers];
+            Arrays.fill(last, -1);
+            final RingBuffer.Sink<Long> sink = (element, producer) -> {
+                assertThat(element, is(last[(int) producer] + 1));
+                last[(int) producer] = element;
+                seen.add(producer * perProducer + element);
+            };
+
+            while (latch.getCount() > 0 || !buffer.isEmpty()) {
+                buffer.drain(sink);
+            }
+
+            assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+            buffer.drain(sink);
+            assertThat(seen.size(), is(producers * perProducer));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.snice.testing.runtime.stats;
+
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.Timings;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LatencyStatsTest {
+
+    @Test
+    public void testSummarize() {
+        final var stats = new LatencyStats();
+        for (int i = 1; i <= 1000; ++i) {
+            stats.record("get", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        final var summaries = stats.summarize();
+        assertThat(summaries.size(), is(1));
+
+        final var summary = summaries.get(0);
+        assertThat(summary.name(), is("get"));
+        assertThat(summary.count(), is(1000L));
+        assertMillis(summary.p50(), 500);
+        assertMillis(summary.p90(), 900);
+        assertMillis(summary.p99(), 990);
+        assertMillis(summary.p999(), 999);
+        assertMillis(summary.max(), 1000);
+    }
+
+    /**
+     * Summarizing must not reset anything, i.e., whatever was recorded before is still accounted for.
+     */
+    @Test
+    public void testSummarizeAccumulates() {
+        final var stats = new LatencyStats();
+        stats.record("get", 10);
+        assertThat(stats.summarize().get(0).count(), is(1L));
+
+        stats.record("get", 20);
+        assertThat(stats.summarize().get(0).count(), is(2L));
+        assertThat(stats.histograms().get("get").getTotalCount(), is(2L));
+        assertThat(stats.summarize().get(0).sum().toNanos(), is(30L));
+    }
+
+    @Test
+    public void testSummarizeSortedByName() {
+        final var stats = new LatencyStats();
+        stats.record("post", 10);
+        stats.record("delete", 10);
+        stats.record("get", 10);
+
+        final var names = stats.summarize().stream().map(LatencySummary::name).toList();
+        assertThat(names, is(List.of("delete", "get", "post")));
+    }
+
+    @Test
+    public void testRecordExecution() {
+        final var stats = new LatencyStats();
+        stats.record(new Execution<>("get", true, List.of(), Optional.of(new Timings(100, 1_100, 5_000))));
+        stats.record(new Execution<>("no timings", true));
+
+        final var summaries = stats.summarize();
+        assertThat(summaries.size(), is(1));
+        assertThat(summaries.get(0).name(), is("get"));
+        assertThat(summaries.get(0).max().toNanos(), is(1_000L));
+    }
+
+    @Test
+    public void testRecordNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyStats().record("get", -1));
+    }
+
+    @Test
+    public void testRecordConcurrently() throws Exception {
+        final var stats = new LatencyStats();
+        final var threads = 4;
+        final var perThread = 10_000;
+        final var executor = Executors.newFixedThreadPool(threads);
+        final var latch = new CountDownLatch(threads);
+        try {
+            for (int i = 0; i < threads; ++i) {
+                executor.execute(() -> {
+                    for (int j = 0; j < perThread; ++j) {
+                        stats.record("get", j);
+                        if (j % 1000 == 0) {
+                            stats.summarize();
+                        }
+                    }
+                    latch.countDown();
+                });
+            }
+            assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(stats.summarize().get(0).count(), is((long) threads * perThread));
+        assertThat(stats.summarize().get(0).sum().toNanos(), is((long) threads * perThread * (perThread - 1) / 2));
+    }
+
+    private static void assertMillis(final Duration actual, final long expectedMillis) {
+        assertThat((double) actual.toNanos(), closeTo(TimeUnit.MILLISECONDS.toNanos(expectedMillis), expectedMillis * 2_000.0));
+    }
+}
@@ -0,0 +1,173 @@
+package io.snice.testing.runtime.stats;
+
+import io.snice.testing.core.Execution;
+import io.snice.testing.core.NetworkStats;
+import io.snice.testing.core.Timings;
+import io.snice.testing.core.check.CheckResult;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+class RuntimeMetricsTest {
+
+    @Test
+    public void testScenarios() {
+        final var metrics = new RuntimeMetrics();
+        metrics.scenarioStarted();
+        metrics.scenarioStarted();
+        metrics.scenarioStarted();
+        metrics.scenarioFinished(true);
+        metrics.scenarioFinished(false);
+
+        assertThat(metrics.getScenariosStarted(), is(3L));
+        assertThat(metrics.getScenariosRunning(), is(1L));
+        assertThat(metrics.getScenariosFinished(), is(2L));
+        assertThat(metrics.getScenariosFailed(), is(1L));
+    }
+
+    @Test
+    public void testActions() {
+        final var metrics = new RuntimeMetrics();
+        metrics.actionStarted("http");
+        metrics.actionStarted("http");
+        metrics.actionStarted("none");
+        assertThat(metrics.getActionsInFlight(), is(Map.of("http", 2L, "none", 1L)));
+
+        final var execution = new Execution<Object>("get", false, List.of(passed(), failed(), passed()),
+                Optional.of(new Timings(0, 1_000, 2_000)));
+        metrics.actionFinished("http", List.of(execution));
+        metrics.actionFinished("none", List.of());
+
+        assertThat(metrics.getActionsInFlight(), is(Map.of("http", 1L, "none", 0L)));
+        assertThat(metrics.getChecksPassed(), is(2L));
+        assertThat(metrics.getChecksFailed(), is(1L));
+        assertThat(metrics.latencies().summarize().get(0).count(), is(1L));
+    }
+
+    /**
+     * The network statistics of every execution that has them are summed up, the others are simply ignored.
+     */
+    @Test
+    public void testNetwork() {
+        final var metrics = new RuntimeMetrics();
+        metrics.actionStarted("http");
+        metrics.actionStarted("http");
+
+        final var first = new Execution<Object>("get", true, List.of(), Optional.empty(),
+                Optional.of(new NetworkStats(1, 2_000_000, 0, 100, 1000)));
+        final var second = new Execution<Object>("post", true, List.of(), Optional.empty(),
+                Optional.of(new NetworkStats(0, 0, 1, 10, 20)));
+        final var none = new Execution<Object>("none", true, List.of());
+        metrics.actionFinished("http", List.of(first, none));
+        metrics.actionFinished("http", List.of(second));
+
+        assertThat(metrics.network(), is(new NetworkStats(1, 2_000_000, 1, 110, 1020)));
+        assertThat(metrics.getConnections(), is(1L));
+        assertThat(metrics.getConnectionErrors(), is(1L));
+        assertThat(metrics.getBytesSent(), is(110L));
+        assertThat(metrics.getBytesReceived(), is(1020L));
+    }
+
+    /**
+     * The network statistics of finished scenarios are also kept per scenario name.
+     */
+    @Test
+    public void testScenarioNetwork() {
+        final var metrics = new RuntimeMetrics();
+        metrics.scenarioStarted();
+        metrics.scenarioStarted();
+        metrics.scenarioStarted();
+        metrics.scenarioFinished("login", true, new NetworkStats(1, 1_000, 0, 10, 100));
+        metrics.scenarioFinished("login", false, new NetworkStats(0, 0, 1, 0, 0));
+        metrics.scenarioFinished("logout", true, NetworkStats.EMPTY);
+
+        assertThat(metrics.getScenariosFinished(), is(3L));
+        assertThat(metrics.getScenariosFailed(), is(1L));
+        assertThat(metrics.scenarioNetwork(), is(Map.of("login", new NetworkStats(1, 1_000, 1, 10, 100),
+                "logout", NetworkStats.EMPTY)));
+        assertThat(metrics.getScenarioConnections(), is(Map.of("login", 1L, "logout", 0L)));
+        assertThat(metrics.getScenarioConnectionErrors(), is(Map.of("login", 1L, "logout", 0L)));
+        assertThat(metrics.getScenarioBytesSent(), is(Map.of("login", 10L, "logout", 0L)));
+        assertThat(metrics.getScenarioBytesReceived(), is(Map.of("login", 100L, "logout", 0L)));
+    }
+
+    @Test
+    public void testFormat() {
+        final var metrics = new RuntimeMetrics();
+        metrics.scenarioStarted();
+        metrics.actionStarted("http");
+        metrics.actionStarted("http");
+        metrics.actionFinished("http", List.of(new Execution<Object>("get", true, List.of(), Optional.empty(),
+                Optional.of(new NetworkStats(1, 1_500_000, 0, 42, 0)))));
+        metrics.supervisor("ScenarioSupervisor-0", () -> 7);
+        metrics.latencies().record("get", 1_500_000);
+
+        final var text = PrometheusExporter.format(metrics);
+        assertThat(text, containsString("# TYPE snice_scenarios_started_total counter\nsnice_scenarios_started_total 1\n"));
+        assertThat(text, containsString("snice_scenarios_running 1\n"));
+        assertThat(text, containsString("snice_actions_in_flight{type=\"http\"} 1\n"));
+        assertThat(text, containsString("snice_connections_total 1\n"));
+        assertThat(text, containsString("snice_connect_seconds_total 0.001500000\n"));
+        assertThat(text, containsString("snice_bytes_sent_total 42\n"));
+        assertThat(text, containsString("snice_supervisor_runs{supervisor=\"ScenarioSupervisor-0\"} 7\n"));
+        assertThat(text, containsString("snice_action_response_time_seconds{action=\"get\",quantile=\"0.5\"} 0.0015"));
+        assertThat(text, containsString("snice_action_response_time_seconds_sum{action=\"get\"} 0.001500000\n"));
+        assertThat(text, containsString("snice_action_response_time_seconds_count{action=\"get\"} 1\n"));
+    }
+
+    @Test
+    public void testFormatScenarioNetwork() {
+        final var metrics = new RuntimeMetrics();
+        metrics.scenarioStarted();
+        metrics.scenarioFinished("login", true, new NetworkStats(1, 1_500_000, 0, 42, 0));
+
+        final var text = PrometheusExporter.format(metrics);
+        assertThat(text, containsString("# TYPE snice_scenario_connections_total counter\n"
+                + "snice_scenario_connections_total{scenario=\"login\"} 1\n"));
+        assertThat(text, containsString("snice_scenario_connect_seconds_total{scenario=\"login\"} 0.001500000\n"));
+        assertThat(text, containsString("snice_scenario_bytes_sent_total{scenario=\"login\"} 42\n"));
+        assertThat(text, containsString("snice_scenario_bytes_received_total{scenario=\"login\"} 0\n"));
+    }
+
+    @Test
+    public void testEscape() {
+        assertThat(PrometheusExporter.escape("plain"), is("plain"));
+        assertThat(PrometheusExporter.escape("a\\b\"c\nd"), is("a\\\\b\\\"c\\nd"));
+    }
+
+    @Test
+    public void testScrape() throws Exception {
+        final var metrics = new RuntimeMetrics();
+        metrics.scenarioStarted();
+
+        try (final var exporter = PrometheusExporter.start(metrics, new InetSocketAddress("127.0.0.1", 0))) {
+            final var uri = URI.create("http://127.0.0.1:" + exporter.address().getPort() + PrometheusExporter.PATH);
+            final var client = HttpClient.newHttpClient();
+            final var response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.headers().firstValue("Content-Type").orElse(""), startsWith("text/plain; version=0.0.4"));
+            assertThat(response.body(), containsString("snice_scenarios_started_total 1\n"));
+        }
+    }
+
+    private static CheckResult<Object, Object> passed() {
+        return new CheckResult<>(null, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    private static CheckResult<Object, Object> failed() {
+        return new CheckResult<>(null, Optional.empty(), Optional.empty(), Optional.of("nope"));
+    }
+}